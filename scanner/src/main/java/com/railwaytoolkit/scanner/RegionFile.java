@@ -0,0 +1,166 @@
+package com.railwaytoolkit.scanner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Read-only view of one Anvil region file ({@code r.X.Z.mca}), memory-mapped as a whole.
+ *
+ * The header's 1024 location entries point at the sectors holding each chunk. Reads only use
+ * absolute positions and slices of the mapping, so any number of threads can decompress chunks
+ * of the same region at once.
+ */
+final class RegionFile {
+
+    /** Chunks per region, 32 by 32. */
+    static final int CHUNKS = 1024;
+
+    private static final int SECTOR = 4096;
+    private static final int COMPRESSION_GZIP = 1;
+    private static final int COMPRESSION_ZLIB = 2;
+    private static final int COMPRESSION_NONE = 3;
+    private static final int COMPRESSION_LZ4 = 4;
+    /** Set on the compression byte when the chunk is stored in its own .mcc file. */
+    private static final int EXTERNAL = 0x80;
+
+    private final Path path;
+    private final int regionX;
+    private final int regionZ;
+    private final MappedByteBuffer data;
+
+    private RegionFile(Path path, int regionX, int regionZ, MappedByteBuffer data) {
+        this.path = path;
+        this.regionX = regionX;
+        this.regionZ = regionZ;
+        this.data = data;
+    }
+
+    /**
+     * Map a region file. Returns null if the name is not {@code r.X.Z.mca} or the file is too
+     * short to hold a header.
+     */
+    static RegionFile open(Path path) throws IOException {
+        String[] parts = path.getFileName().toString().split("\\.");
+        if (parts.length != 4 || !parts[0].equals("r") || !parts[3].equals("mca")) {
+            return null;
+        }
+        int regionX;
+        int regionZ;
+        try {
+            regionX = Integer.parseInt(parts[1]);
+            regionZ = Integer.parseInt(parts[2]);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 2 * SECTOR) {
+                return null;
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Region file larger than 2 GB: " + path);
+            }
+            // The mapping stays valid after the channel is closed
+            return new RegionFile(path, regionX, regionZ, channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    Path path() {
+        return path;
+    }
+
+    int chunkX(int index) {
+        return regionX * 32 + (index & 31);
+    }
+
+    int chunkZ(int index) {
+        return regionZ * 32 + (index >> 5);
+    }
+
+    boolean hasChunk(int index) {
+        return data.getInt(index * 4) != 0;
+    }
+
+    /**
+     * Decompressed NBT of chunk {@code index} (x + z * 32), or null if it was never generated.
+     * The caller closes the stream.
+     */
+    InputStream openChunk(int index) throws IOException {
+        int location = data.getInt(index * 4);
+        if (location == 0) {
+            return null;
+        }
+        long offset = (long) (location >>> 8) * SECTOR;
+        if (offset + 5 > data.capacity()) {
+            throw new IOException("Chunk " + index + " points past the end of " + path.getFileName());
+        }
+        int length = data.getInt((int) offset);
+        int compression = data.get((int) offset + 4) & 0xFF;
+        if (length < 1 || offset + 4 + length > data.capacity()) {
+            throw new IOException("Chunk " + index + " of " + path.getFileName() + " is truncated");
+        }
+
+        InputStream raw;
+        if ((compression & EXTERNAL) != 0) {
+            compression &= ~EXTERNAL;
+            Path external = path.resolveSibling("c." + chunkX(index) + "." + chunkZ(index) + ".mcc");
+            raw = Files.newInputStream(external);
+        } else {
+            raw = new BufferInputStream(data.slice((int) offset + 5, length - 1));
+        }
+
+        return switch (compression) {
+            case COMPRESSION_GZIP -> new GZIPInputStream(raw, 8192);
+            case COMPRESSION_ZLIB -> new InflaterInputStream(raw);
+            case COMPRESSION_NONE -> raw;
+            case COMPRESSION_LZ4 -> {
+                raw.close();
+                throw new IOException("LZ4-compressed chunks are not supported");
+            }
+            default -> {
+                raw.close();
+                throw new IOException("Unknown chunk compression " + compression);
+            }
+        };
+    }
+
+    /**
+     * Stream over a slice of the mapping.
+     */
+    private static final class BufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return length == 0 ? 0 : -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
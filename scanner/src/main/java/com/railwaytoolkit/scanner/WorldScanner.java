@@ -0,0 +1,374 @@
+package com.railwaytoolkit.scanner;
+
+import com.railwaytoolkit.geometry.ConnectionGeometry;
+import com.railwaytoolkit.geometry.CubicBezier;
+import com.railwaytoolkit.geometry.CurveProfile;
+import com.railwaytoolkit.geometry.MinimumRadius;
+import com.railwaytoolkit.nbt.TrackNbt;
+import com.railwaytoolkit.rating.RatingTable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Reports the curvature of every Create track connection in a saved world, straight from its
+ * region files, without starting Minecraft.
+ *
+ * Each region file is memory-mapped and its chunks are decompressed and streamed through
+ * {@link TrackNbt} in parallel on a fork-join pool, so large worlds scale with the cores given.
+ * Connections are rated exactly as in game: each is measured by a {@link CurveProfile}, which
+ * takes Create's design radius for circular arcs and solves anything else with
+ * {@link MinimumRadius}, and grades it over the same samples as the network audit.
+ */
+public final class WorldScanner {
+
+    private static final String USAGE = """
+            Usage: railwaytoolkit-scanner <world folder> [options]
+              --tier "Name;minRadius;#RRGGBB[;maxGrade]"  rating tier, repeat for each (default: the mod's tiers)
+              --below <radius>   list connections tighter than this (default: below the widest tier)
+              --list <count>     connections to list, tightest first (default 50)
+              --csv <file>       write every connection to a CSV file
+              --threads <count>  worker threads (default: all cores)""";
+
+    private static final List<String> DEFAULT_TIERS = List.of(
+            "Mainline;60;#55FF55",
+            "Yard;20;#FFFF55",
+            "Too Tight;7;#FFAA00");
+
+    /** Chunks one task decompresses before it stops splitting. */
+    private static final int CHUNKS_PER_TASK = 64;
+
+    private WorldScanner() {
+    }
+
+    /**
+     * A rated connection, at the position of the track block that saved it.
+     */
+    record Finding(String dimension, int x, int y, int z, double radius, double grade, int tier) {
+    }
+
+    /**
+     * Every connection of a world, tightest first, with what was read to find them.
+     */
+    record Scan(List<Finding> findings, int regions, int chunks, int failed, long millis) {
+    }
+
+    private record Dimension(String name, Path folder) {
+    }
+
+    public static void main(String[] args) {
+        Path world = null;
+        List<String> tiers = new ArrayList<>();
+        double below = -1;
+        int list = 50;
+        Path csv = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        RatingTable ratings;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--tier" -> tiers.add(value(args, ++i));
+                    case "--below" -> below = Double.parseDouble(value(args, ++i));
+                    case "--list" -> list = Integer.parseInt(value(args, ++i));
+                    case "--csv" -> csv = Path.of(value(args, ++i));
+                    case "--threads" -> threads = Math.max(1, Integer.parseInt(value(args, ++i)));
+                    case "-h", "--help" -> {
+                        System.out.println(USAGE);
+                        return;
+                    }
+                    default -> {
+                        if (world != null || args[i].startsWith("--")) {
+                            throw new IllegalArgumentException("Unexpected argument " + args[i]);
+                        }
+                        world = Path.of(args[i]);
+                    }
+                }
+            }
+            if (world == null) {
+                throw new IllegalArgumentException("No world folder given");
+            }
+            ratings = ratings(tiers.isEmpty() ? DEFAULT_TIERS : tiers);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        if (below < 0) {
+            below = ratings.minRadius(ratings.size() - 1);
+        }
+
+        try {
+            Scan scan = scan(world, ratings, threads);
+            report(scan, ratings, below, list, threads);
+            if (csv != null) {
+                writeCsv(csv, scan.findings(), ratings);
+                System.out.println("Wrote " + scan.findings().size() + " connections to " + csv);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not scan " + world + ": " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static String value(String[] args, int i) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + args[i - 1]);
+        }
+        return args[i];
+    }
+
+    /**
+     * Parse the tiers given on the command line.
+     */
+    static RatingTable ratings(List<String> tiers) {
+        List<RatingTable.Tier> parsed = new ArrayList<>(tiers.size());
+        for (String text : tiers) {
+            RatingTable.Tier tier = RatingTable.parseTier(text);
+            if (tier == null) {
+                throw new IllegalArgumentException("Bad tier \"" + text + "\", expected Name;minRadius;#RRGGBB[;maxGrade]");
+            }
+            parsed.add(tier);
+        }
+        return RatingTable.of(parsed);
+    }
+
+    /**
+     * Rate every connection in every dimension of the world.
+     */
+    static Scan scan(Path world, RatingTable ratings, int threads) throws IOException {
+        List<Dimension> dimensions = dimensions(world);
+        if (dimensions.isEmpty()) {
+            throw new IOException("no region folders found");
+        }
+
+        long start = System.nanoTime();
+        Queue<Finding> found = new ConcurrentLinkedQueue<>();
+        AtomicInteger chunks = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        int regions = 0;
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            List<RegionTask> tasks = new ArrayList<>();
+            for (Dimension dimension : dimensions) {
+                for (Path path : regionFiles(dimension.folder())) {
+                    RegionFile region = RegionFile.open(path);
+                    if (region == null) {
+                        continue;
+                    }
+                    regions++;
+                    RegionTask task = new RegionTask(dimension.name(), region, 0, RegionFile.CHUNKS,
+                            ratings, found, chunks, failed);
+                    tasks.add(task);
+                    pool.execute(task);
+                }
+            }
+            for (RegionTask task : tasks) {
+                task.join();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        List<Finding> findings = new ArrayList<>(found);
+        findings.sort(Comparator.comparingDouble((Finding finding) -> finding.radius() > 0 ? finding.radius() : Double.MAX_VALUE)
+                .thenComparing(Finding::dimension)
+                .thenComparingInt(Finding::x)
+                .thenComparingInt(Finding::y)
+                .thenComparingInt(Finding::z));
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        return new Scan(findings, regions, chunks.get(), failed.get(), millis);
+    }
+
+    /**
+     * Region folders of every dimension in the world, vanilla and datapack.
+     */
+    private static List<Dimension> dimensions(Path world) throws IOException {
+        List<Dimension> dimensions = new ArrayList<>();
+        addDimension(dimensions, "minecraft:overworld", world.resolve("region"));
+        addDimension(dimensions, "minecraft:the_nether", world.resolve("DIM-1").resolve("region"));
+        addDimension(dimensions, "minecraft:the_end", world.resolve("DIM1").resolve("region"));
+
+        // dimensions/<namespace>/<path...>/region
+        Path custom = world.resolve("dimensions");
+        if (Files.isDirectory(custom)) {
+            try (Stream<Path> folders = Files.walk(custom)) {
+                for (Path folder : folders.filter(path -> path.getFileName().toString().equals("region")
+                        && Files.isDirectory(path)).sorted().toList()) {
+                    Path id = custom.relativize(folder.getParent());
+                    if (id.getNameCount() < 2) {
+                        continue;
+                    }
+                    String path = id.subpath(1, id.getNameCount()).toString().replace('\\', '/');
+                    addDimension(dimensions, id.getName(0) + ":" + path, folder);
+                }
+            }
+        }
+        return dimensions;
+    }
+
+    private static void addDimension(List<Dimension> dimensions, String name, Path folder) {
+        if (Files.isDirectory(folder)) {
+            dimensions.add(new Dimension(name, folder));
+        }
+    }
+
+    private static List<Path> regionFiles(Path folder) throws IOException {
+        try (Stream<Path> files = Files.list(folder)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".mca")).sorted().toList();
+        }
+    }
+
+    /**
+     * Rates the connections in a range of one region's chunks, splitting the range until it is
+     * small enough to run on one worker.
+     */
+    private static final class RegionTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final String dimension;
+        private final RegionFile region;
+        private final int from;
+        private final int to;
+        private final RatingTable ratings;
+        private final Queue<Finding> found;
+        private final AtomicInteger chunks;
+        private final AtomicInteger failed;
+
+        RegionTask(String dimension, RegionFile region, int from, int to, RatingTable ratings,
+                   Queue<Finding> found, AtomicInteger chunks, AtomicInteger failed) {
+            this.dimension = dimension;
+            this.region = region;
+            this.from = from;
+            this.to = to;
+            this.ratings = ratings;
+            this.found = found;
+            this.chunks = chunks;
+            this.failed = failed;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > CHUNKS_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new RegionTask(dimension, region, from, mid, ratings, found, chunks, failed),
+                        new RegionTask(dimension, region, mid, to, ratings, found, chunks, failed));
+                return;
+            }
+
+            MinimumRadius solver = new MinimumRadius();
+            double[] curve = new double[CubicBezier.STRIDE];
+            for (int index = from; index < to; index++) {
+                if (!region.hasChunk(index)) {
+                    continue;
+                }
+                try (InputStream in = region.openChunk(index)) {
+                    TrackNbt.readChunk(in, connection -> {
+                        // Both track blocks save the connection; only the primary copy is counted
+                        if (connection.primary()) {
+                            found.add(rate(connection, solver, curve));
+                        }
+                    });
+                    chunks.incrementAndGet();
+                } catch (IOException | RuntimeException e) {
+                    failed.incrementAndGet();
+                    System.err.printf("Skipped chunk %d %d in %s: %s%n",
+                            region.chunkX(index), region.chunkZ(index), region.path().getFileName(), e.getMessage());
+                }
+            }
+        }
+
+        private Finding rate(TrackNbt.Connection connection, MinimumRadius solver, double[] curve) {
+            double[] v = connection.vectors();
+            ConnectionGeometry.loadControlPoints(v, 0, connection.x(), connection.y(), connection.z(), curve, 0);
+            // Circular arcs keep Create's exact design radius, as while placing
+            CurveProfile profile = CurveProfile.of(curve, 0, CurveProfile.DEFAULT_SEGMENTS,
+                    ConnectionGeometry.designRadius(v, 0), solver, MinimumRadius.DEFAULT_TOLERANCE);
+            double radius = profile.minRadius();
+            double grade = profile.maxGrade();
+            int tier = radius > 0 ? ratings.rate(radius, grade) : ratings.size() - 1;
+            return new Finding(dimension, connection.x(), connection.y(), connection.z(), radius, grade, tier);
+        }
+    }
+
+    private static void report(Scan scan, RatingTable ratings, double below, int list, int threads) {
+        List<Finding> findings = scan.findings();
+        System.out.printf(Locale.ROOT, "%d connections in %d chunks of %d regions (%d ms, %d threads)%n",
+                findings.size(), scan.chunks(), scan.regions(), scan.millis(), threads);
+        if (scan.failed() > 0) {
+            System.out.printf(Locale.ROOT, "%d chunks could not be read%n", scan.failed());
+        }
+        if (findings.isEmpty()) {
+            return;
+        }
+
+        int[] counts = new int[ratings.size()];
+        int invalid = 0;
+        for (Finding finding : findings) {
+            if (finding.tier() == RatingTable.INVALID) {
+                invalid++;
+            } else {
+                counts[finding.tier()]++;
+            }
+        }
+        StringBuilder summary = new StringBuilder();
+        for (int tier = 0; tier < counts.length; tier++) {
+            summary.append(ratings.name(tier)).append(' ').append(counts[tier]).append("  ");
+        }
+        if (invalid > 0) {
+            summary.append(ratings.name(RatingTable.INVALID)).append(' ').append(invalid);
+        }
+        System.out.println(summary.toString().strip());
+
+        // Findings are sorted tightest first, straights last
+        int listed = 0;
+        int matching = 0;
+        for (Finding finding : findings) {
+            if (finding.radius() <= 0 || finding.radius() >= below) {
+                continue;
+            }
+            matching++;
+            if (listed < list) {
+                listed++;
+                System.out.printf(Locale.ROOT, "R %.1f [%s] %.1f%% %s %d %d %d%n", finding.radius(),
+                        ratings.name(finding.tier()), finding.grade(), finding.dimension(),
+                        finding.x(), finding.y(), finding.z());
+            }
+        }
+        if (matching > listed) {
+            System.out.println("... and " + (matching - listed) + " more");
+        }
+    }
+
+    static void writeCsv(Path file, List<Finding> findings, RatingTable ratings) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            out.println("dimension,x,y,z,radius,grade,tier");
+            for (Finding finding : findings) {
+                out.printf(Locale.ROOT, "%s,%d,%d,%d,%.3f,%.3f,%s%n", quote(finding.dimension()),
+                        finding.x(), finding.y(), finding.z(), finding.radius(), finding.grade(),
+                        quote(ratings.name(finding.tier())));
+            }
+        }
+    }
+
+    /**
+     * A text field quoted for CSV, with quotes inside it doubled.
+     */
+    static String quote(String field) {
+        return '"' + field.replace("\"", "\"\"") + '"';
+    }
+}
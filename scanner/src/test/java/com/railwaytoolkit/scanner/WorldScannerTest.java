@@ -0,0 +1,96 @@
+package com.railwaytoolkit.scanner;
+
+import com.railwaytoolkit.nbt.TrackNbt;
+import com.railwaytoolkit.rating.RatingTable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Scans {@code world}, a world folder whose overworld region {@code r.0.0.mca} holds four
+ * chunks laid out as Minecraft saves them, with Create track block entities written as
+ * {@code BezierConnection.write} does. Chunk (0, 0) holds a quarter turn of radius 14.5 from
+ * (0, 64, 0) to (15, 64, 15), and chunks (0, 1) and (1, 1) the two ends of an S-curve from
+ * (0, 64, 20) to (24, 64, 26). Chunk (5, 5) has no track. The chunks are zlib-compressed,
+ * except (0, 1) which is gzip and (5, 5) which is stored uncompressed.
+ */
+class WorldScannerTest {
+
+    private static final RatingTable RATINGS = WorldScanner.ratings(List.of(
+            "Mainline;60;#55FF55",
+            "Yard;20;#FFFF55",
+            "Too Tight;7;#FFAA00"));
+
+    private static Path world() throws URISyntaxException {
+        return Path.of(WorldScannerTest.class.getResource("/world").toURI());
+    }
+
+    @Test
+    void findsEveryPrimaryConnection() throws Exception {
+        WorldScanner.Scan scan = WorldScanner.scan(world(), RATINGS, 2);
+        assertEquals(1, scan.regions());
+        assertEquals(4, scan.chunks());
+        assertEquals(0, scan.failed());
+        assertEquals(2, scan.findings().size());
+
+        WorldScanner.Finding turn = scan.findings().stream().filter(f -> f.z() == 0).findFirst().orElseThrow();
+        assertEquals("minecraft:overworld", turn.dimension());
+        assertEquals(0, turn.x());
+        assertEquals(64, turn.y());
+        assertEquals(14.5, turn.radius(), 1.0E-9);
+        assertEquals(0, turn.grade(), 1.0E-9);
+        assertEquals(0, turn.tier());
+
+        WorldScanner.Finding s = scan.findings().stream().filter(f -> f.z() == 20).findFirst().orElseThrow();
+        assertTrue(s.radius() > 0);
+        // Tightest first
+        assertTrue(scan.findings().get(0).radius() <= scan.findings().get(1).radius());
+    }
+
+    @Test
+    void readsEachCompression() throws Exception {
+        RegionFile region = RegionFile.open(world().resolve("region").resolve("r.0.0.mca"));
+        int[] present = {0, 32, 33, 5 + 5 * 32};
+        for (int index : present) {
+            assertTrue(region.hasChunk(index));
+            List<TrackNbt.Connection> connections = new ArrayList<>();
+            try (InputStream in = region.openChunk(index)) {
+                assertEquals(index == 0 ? 3 : index == 165 ? 1 : 2, TrackNbt.readChunk(in, connections::add));
+            }
+            assertEquals(index == 0 ? 2 : index == 165 ? 0 : 1, connections.size());
+        }
+        assertFalse(region.hasChunk(1));
+        assertNull(region.openChunk(1));
+        assertEquals(5, region.chunkX(165));
+        assertEquals(5, region.chunkZ(165));
+    }
+
+    @Test
+    void rejectsMalformedTiers() {
+        assertThrows(IllegalArgumentException.class, () -> WorldScanner.ratings(List.of("Yard;twenty;#FFFF55")));
+        assertThrows(IllegalArgumentException.class, () -> WorldScanner.ratings(List.of("Yard")));
+    }
+
+    @Test
+    void quotesCsvText(@TempDir Path folder) throws IOException {
+        RatingTable ratings = WorldScanner.ratings(List.of("Say \"hi\", twice;7;#FFFFFF"));
+        Path csv = folder.resolve("out.csv");
+        WorldScanner.writeCsv(csv, List.of(new WorldScanner.Finding("custom:a,b", 1, 2, 3, 10, 1.5, 0)), ratings);
+        List<String> lines = Files.readAllLines(csv);
+        assertEquals("dimension,x,y,z,radius,grade,tier", lines.get(0));
+        assertEquals("\"custom:a,b\",1,2,3,10.000,1.500,\"Say \"\"hi\"\", twice\"", lines.get(1));
+    }
+}
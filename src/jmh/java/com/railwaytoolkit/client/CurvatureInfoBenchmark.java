@@ -0,0 +1,33 @@
+package com.railwaytoolkit.client;
+
+import net.minecraft.network.chat.MutableComponent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building the action bar message, which happens whenever the placement changes.
+ * Runs against the default config, since no config file is loaded outside the game.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CurvatureInfoBenchmark {
+
+    @Param({"false", "true"})
+    public boolean enforcing;
+
+    @Param({"12.5", "75.0"})
+    public double radius;
+
+    @Benchmark
+    public MutableComponent buildCurvatureInfo() {
+        return CurvatureDisplay.buildCurvatureInfo(radius, 6.25, enforcing, 60.0);
+    }
+}
@@ -0,0 +1,37 @@
+package com.railwaytoolkit.client;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the max-radius highlight candidate search that runs on the worker thread,
+ * from a captured request to the nearest candidates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HighlightSearchBenchmark {
+
+    @Param({"MAINLINE", "YARD", "DIAGONAL_FAR"})
+    public String placement;
+
+    private HighlightSearch.Request request;
+
+    @Setup
+    public void setup() {
+        request = PlacementFixture.named(placement).request();
+    }
+
+    @Benchmark
+    public HighlightSearch.Result search() {
+        return HighlightSearch.search(request);
+    }
+}
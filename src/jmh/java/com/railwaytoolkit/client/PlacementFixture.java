@@ -0,0 +1,39 @@
+package com.railwaytoolkit.client;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.phys.Vec3;
+
+/**
+ * Stand-in for a placement in progress: the first track point, its axis and the block under
+ * the crosshair, as {@link MaxRadiusHighlight} would read them from Create's PlacementInfo.
+ * Needs no running client or world.
+ */
+public record PlacementFixture(Vec3 end1, Vec3 axis1, BlockPos target, double targetRadius, double maxLeg) {
+
+    /** First point on a flat world, heading south, aiming at a mainline turn ahead and to the side. */
+    public static final PlacementFixture MAINLINE = new PlacementFixture(
+            new Vec3(0.5, 64, 0.5), new Vec3(0, 0, 1), new BlockPos(40, 63, 45), 60, 64);
+
+    /** Same heading, aiming at a tight yard turn close by. */
+    public static final PlacementFixture YARD = new PlacementFixture(
+            new Vec3(0.5, 64, 0.5), new Vec3(0, 0, 1), new BlockPos(14, 63, 18), 20, 64);
+
+    /** Diagonal heading with the longest search legs. */
+    public static final PlacementFixture DIAGONAL_FAR = new PlacementFixture(
+            new Vec3(0.5, 64, 0.5), new Vec3(1, 0, 1), new BlockPos(150, 63, 60), 60, 256);
+
+    /**
+     * The request {@link MaxRadiusHighlight} would submit for this placement.
+     */
+    public HighlightSearch.Request request() {
+        return HighlightSearch.capture(target, end1, axis1, targetRadius, maxLeg);
+    }
+
+    public static PlacementFixture named(String name) {
+        return switch (name) {
+            case "YARD" -> YARD;
+            case "DIAGONAL_FAR" -> DIAGONAL_FAR;
+            default -> MAINLINE;
+        };
+    }
+}
@@ -0,0 +1,37 @@
+package com.railwaytoolkit.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link RailwayToolkitConfig#getRating} against the default tiers, over radii
+ * that land in every tier.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RatingBenchmark {
+
+    private final double[] radii = new double[1024];
+    private int next;
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < radii.length; i++) {
+            radii[i] = (i * 37) % 150 + 0.5;
+        }
+    }
+
+    @Benchmark
+    public int getRating() {
+        next = (next + 1) & (radii.length - 1);
+        return RailwayToolkitConfig.getRating(radii[next]);
+    }
+}
@@ -0,0 +1,48 @@
+package com.railwaytoolkit.geometry;
+
+/**
+ * Track curves laid out the way Create builds them, for the benchmarks.
+ */
+public final class CurveFixtures {
+
+    // Handle length of a cubic that closely follows a quarter circle, per unit of radius
+    private static final double QUARTER_ARC_HANDLE = 4.0 / 3.0 * Math.tan(Math.PI / 8);
+
+    private CurveFixtures() {
+    }
+
+    public enum Shape {
+        /** 90 degree circular turn; Create reports its radius directly. */
+        ARC,
+        /** Parallel offset with the tightest point away from the middle, which needs the full solver. */
+        S_CURVE
+    }
+
+    /**
+     * Write a curve of the given shape and size into {@code curves} at {@code offset}.
+     * For an arc {@code size} is the radius; for an S-curve it is the sideways offset.
+     */
+    public static void write(Shape shape, double size, double[] curves, int offset) {
+        switch (shape) {
+            case ARC -> CubicBezier.setTrackCurve(curves, offset,
+                    0, 64, 0, 0, 0, 1,
+                    size, 64, size, -1, 0, 0,
+                    size * QUARTER_ARC_HANDLE);
+            case S_CURVE -> CubicBezier.setTrackCurve(curves, offset,
+                    0, 64, 0, 0, 0, 1,
+                    size, 66, size * 3, 0, 0, -1,
+                    size * 1.5);
+        }
+    }
+
+    /**
+     * {@code count} curves of one shape with sizes spread over typical mainline and yard values.
+     */
+    public static double[] batch(Shape shape, int count) {
+        double[] curves = new double[count * CubicBezier.STRIDE];
+        for (int i = 0; i < count; i++) {
+            write(shape, 8 + (i * 7) % 120, curves, i * CubicBezier.STRIDE);
+        }
+        return curves;
+    }
+}
@@ -0,0 +1,64 @@
+package com.railwaytoolkit.geometry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the minimum radius search, scalar and SIMD: alone for a single curve, inside the full
+ * {@link CurveProfile} that {@code CurveProfiles} builds for the curve being placed, and for a
+ * batch of curves as audits and schematic checks solve them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MinimumRadiusBenchmark {
+
+    private static final double TOLERANCE = 1.0E-4;
+    private static final int BATCH = 256;
+
+    @Param({"ARC", "S_CURVE"})
+    public CurveFixtures.Shape shape;
+
+    /** Falls back to scalar if the Vector API is not available to the forked JVM. */
+    @Param({"false", "true"})
+    public boolean vector;
+
+    private MinimumRadius solver;
+    private final double[] radii = new double[BATCH];
+    private final double[] ts = new double[BATCH];
+    private double[] single;
+    private double[] batch;
+
+    @Setup
+    public void setup() {
+        solver = new MinimumRadius(CurvatureEvaluator.select(vector));
+        single = new double[CubicBezier.STRIDE];
+        CurveFixtures.write(shape, 24, single, 0);
+        batch = CurveFixtures.batch(shape, BATCH);
+    }
+
+    @Benchmark
+    public double singleCurve() {
+        return solver.solve(single, 0, TOLERANCE);
+    }
+
+    @Benchmark
+    public CurveProfile singleProfile() {
+        return CurveProfile.of(single, 0, CurveProfile.DEFAULT_SEGMENTS, 0, solver, TOLERANCE);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public double[] batchOfCurves() {
+        solver.solveAll(batch, BATCH, TOLERANCE, radii, ts);
+        return radii;
+    }
+}
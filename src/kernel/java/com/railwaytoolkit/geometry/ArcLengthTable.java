@@ -0,0 +1,87 @@
+package com.railwaytoolkit.geometry;
+
+/**
+ * Cumulative arc length of a curve at evenly spaced parameters, for converting between the
+ * Bezier parameter t and distance along the track.
+ *
+ * Lookups interpolate linearly between the table entries; with the segment counts used here the
+ * error is well below a hundredth of a block. Immutable once filled, so it can be shared.
+ */
+public final class ArcLengthTable {
+
+    private final double[] distances;
+
+    ArcLengthTable(int segments) {
+        this.distances = new double[segments + 1];
+    }
+
+    /**
+     * Table of the curve at {@code offset} with {@code segments} equal parameter steps.
+     */
+    public static ArcLengthTable build(double[] curve, int offset, int segments) {
+        ArcLengthTable table = new ArcLengthTable(segments);
+        double[] tangent = new double[3];
+        double previous = speed(curve, offset, 0, tangent);
+        for (int i = 1; i <= segments; i++) {
+            double current = speed(curve, offset, i / (double) segments, tangent);
+            table.add(i, previous, current);
+            previous = current;
+        }
+        return table;
+    }
+
+    private static double speed(double[] curve, int offset, double t, double[] tangent) {
+        CubicBezier.derivative(curve, offset, t, tangent, 0);
+        return Math.sqrt(tangent[0] * tangent[0] + tangent[1] * tangent[1] + tangent[2] * tangent[2]);
+    }
+
+    /**
+     * Extend the table to entry {@code i} by the trapezoid between the speeds at its two ends.
+     */
+    void add(int i, double previousSpeed, double speed) {
+        distances[i] = distances[i - 1] + (previousSpeed + speed) / 2 / segments();
+    }
+
+    public int segments() {
+        return distances.length - 1;
+    }
+
+    public double length() {
+        return distances[distances.length - 1];
+    }
+
+    /**
+     * Distance along the curve from its start to parameter {@code t}.
+     */
+    public double distanceAt(double t) {
+        double scaled = Math.max(0, Math.min(1, t)) * segments();
+        int i = Math.min((int) scaled, segments() - 1);
+        return distances[i] + (distances[i + 1] - distances[i]) * (scaled - i);
+    }
+
+    /**
+     * Parameter at {@code distance} from the start of the curve, clamped to [0, 1].
+     */
+    public double parameterAt(double distance) {
+        if (distance <= 0) {
+            return 0;
+        }
+        if (distance >= length()) {
+            return 1;
+        }
+        // Last entry at or before the distance
+        int lo = 0;
+        int hi = segments();
+        while (hi - lo > 1) {
+            int mid = (lo + hi) >>> 1;
+            if (distances[mid] <= distance) {
+                lo = mid;
+            } else {
+                hi = mid;
+            }
+        }
+        double span = distances[lo + 1] - distances[lo];
+        double fraction = span > 0 ? (distance - distances[lo]) / span : 0;
+        return (lo + fraction) / segments();
+    }
+}
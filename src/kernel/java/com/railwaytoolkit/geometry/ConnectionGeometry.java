@@ -0,0 +1,122 @@
+package com.railwaytoolkit.geometry;
+
+/**
+ * Rebuilds a Create track connection from its saved vectors, for code that has no Create
+ * classes at hand (offline tools reading world or schematic files).
+ *
+ * Vectors are laid out as Create saves them: start 1, start 2, axis 1, axis 2, three doubles
+ * each. The handle length and design radius follow the construction in Create's
+ * {@code BezierConnection}: a turn gets the handles of a circular arc whose centre is where the
+ * two end normals cross; parallel ends (S-curves) get handles of a third of the distance,
+ * unless the offset is small enough for Create's tighter S-curve handles.
+ */
+public final class ConnectionGeometry {
+
+    /** Doubles per connection: two starts and two axes. */
+    public static final int VECTORS = 12;
+
+    private static final double EPSILON = 1.0E-5;
+
+    private ConnectionGeometry() {
+    }
+
+    /**
+     * Control points of the connection at {@code v[o..]}, shifted by (ox, oy, oz), written to
+     * {@code curves} at {@code offset}.
+     */
+    public static void loadControlPoints(double[] v, int o, double ox, double oy, double oz,
+                                         double[] curves, int offset) {
+        CubicBezier.setTrackCurve(curves, offset,
+                v[o] + ox, v[o + 1] + oy, v[o + 2] + oz, v[o + 6], v[o + 7], v[o + 8],
+                v[o + 3] + ox, v[o + 4] + oy, v[o + 5] + oz, v[o + 9], v[o + 10], v[o + 11],
+                handleLength(v, o));
+    }
+
+    /**
+     * Create's exact design radius if the connection is a turn, otherwise 0.
+     */
+    public static double designRadius(double[] v, int o) {
+        if (Math.abs(turnAngle(v, o)) < EPSILON) {
+            return 0;
+        }
+        double[] legs = normalLegs(v, o);
+        return legs != null ? Math.abs(legs[1]) : 0;
+    }
+
+    /**
+     * Length of both Bezier handles, along the normalised end axes.
+     */
+    public static double handleLength(double[] v, int o) {
+        double dx = v[o + 3] - v[o];
+        double dy = v[o + 4] - v[o + 1];
+        double dz = v[o + 5] - v[o + 2];
+        double third = Math.sqrt(dx * dx + dy * dy + dz * dz) / 3;
+
+        double angle = turnAngle(v, o);
+        if (Math.abs(angle) < EPSILON) {
+            // Parallel ends: how far the second start lies along and across the first axis
+            double[] axis1 = unit(v, o + 6);
+            double[] axis2 = unit(v, o + 9);
+            double[] legs = intersect(v[o], v[o + 2], v[o + 3], v[o + 5],
+                    axis1[0], axis1[2], -axis2[2], axis2[0]);
+            if (legs != null) {
+                double t = Math.abs(legs[0]);
+                double u = Math.abs(legs[1]);
+                double min = Math.min(t, u);
+                double max = Math.max(t, u);
+                if (min > 1.2 && max / min > 1 && max / min < 3) {
+                    return max - min;
+                }
+            }
+            return third;
+        }
+
+        double[] legs = normalLegs(v, o);
+        if (legs == null) {
+            return third;
+        }
+        double handle = Math.abs(legs[1]) * 4 / 3.0 * Math.tan(angle / 4);
+        return Math.abs(handle) < EPSILON ? 1 : handle;
+    }
+
+    /**
+     * Horizontal turn between the two ends, in [0, π].
+     */
+    private static double turnAngle(double[] v, int o) {
+        double a1 = Math.atan2(-v[o + 11], -v[o + 9]);
+        double a2 = Math.atan2(v[o + 8], v[o + 6]);
+        double circle = 2 * Math.PI;
+        double angle = ((a1 - a2) % circle + circle) % circle;
+        return Math.abs(circle - angle) < Math.abs(angle) ? circle - angle : angle;
+    }
+
+    /**
+     * Distances from each start to where the horizontal end normals cross, or null if they are
+     * parallel.
+     */
+    private static double[] normalLegs(double[] v, int o) {
+        double[] axis1 = unit(v, o + 6);
+        double[] axis2 = unit(v, o + 9);
+        // Normal = axis × up, horizontally (-z, x)
+        return intersect(v[o], v[o + 2], v[o + 3], v[o + 5], -axis1[2], axis1[0], -axis2[2], axis2[0]);
+    }
+
+    /**
+     * Solve p + t·r = q + u·s in the horizontal plane for {t, u}, or null if r and s are parallel.
+     */
+    private static double[] intersect(double px, double pz, double qx, double qz,
+                                      double rx, double rz, double sx, double sz) {
+        double cross = rx * sz - rz * sx;
+        if (Math.abs(cross) < EPSILON) {
+            return null;
+        }
+        double dx = qx - px;
+        double dz = qz - pz;
+        return new double[]{(dx * sz - dz * sx) / cross, (dx * rz - dz * rx) / cross};
+    }
+
+    private static double[] unit(double[] v, int o) {
+        double length = Math.sqrt(v[o] * v[o] + v[o + 1] * v[o + 1] + v[o + 2] * v[o + 2]);
+        return length > 0 ? new double[]{v[o] / length, v[o + 1] / length, v[o + 2] / length} : new double[3];
+    }
+}
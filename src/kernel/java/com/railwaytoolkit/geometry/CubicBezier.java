@@ -0,0 +1,166 @@
+package com.railwaytoolkit.geometry;
+
+/**
+ * Primitive cubic Bezier math, free of any Minecraft types.
+ *
+ * Curves are stored as 12 consecutive doubles (P0, P1, P2, P3, each x/y/z) inside a
+ * caller-owned array, so many curves can share one flat buffer and nothing is allocated
+ * while evaluating them.
+ */
+public final class CubicBezier {
+
+    /** Number of doubles used by one curve. */
+    public static final int STRIDE = 12;
+
+    /** Below this first-derivative length the curve is degenerate at t. */
+    static final double MIN_SPEED = 0.0001;
+
+    private CubicBezier() {
+    }
+
+    /**
+     * Write the control points of a track connection into {@code curves} at {@code offset}.
+     * The handles are laid out along the normalized end axes, as Create builds them.
+     */
+    public static void setTrackCurve(double[] curves, int offset,
+                                     double x0, double y0, double z0, double ax0, double ay0, double az0,
+                                     double x3, double y3, double z3, double ax3, double ay3, double az3,
+                                     double handleLength) {
+        double len0 = Math.sqrt(ax0 * ax0 + ay0 * ay0 + az0 * az0);
+        double len3 = Math.sqrt(ax3 * ax3 + ay3 * ay3 + az3 * az3);
+        double h0 = len0 > 0 ? handleLength / len0 : 0;
+        double h3 = len3 > 0 ? handleLength / len3 : 0;
+
+        curves[offset] = x0;
+        curves[offset + 1] = y0;
+        curves[offset + 2] = z0;
+        curves[offset + 3] = x0 + ax0 * h0;
+        curves[offset + 4] = y0 + ay0 * h0;
+        curves[offset + 5] = z0 + az0 * h0;
+        curves[offset + 6] = x3 + ax3 * h3;
+        curves[offset + 7] = y3 + ay3 * h3;
+        curves[offset + 8] = z3 + az3 * h3;
+        curves[offset + 9] = x3;
+        curves[offset + 10] = y3;
+        curves[offset + 11] = z3;
+    }
+
+    /**
+     * Point B(t), written to {@code out[outOffset..outOffset+2]}.
+     */
+    public static void point(double[] c, int o, double t, double[] out, int outOffset) {
+        double mt = 1 - t;
+        double b0 = mt * mt * mt;
+        double b1 = 3 * mt * mt * t;
+        double b2 = 3 * mt * t * t;
+        double b3 = t * t * t;
+        for (int i = 0; i < 3; i++) {
+            out[outOffset + i] = b0 * c[o + i] + b1 * c[o + 3 + i] + b2 * c[o + 6 + i] + b3 * c[o + 9 + i];
+        }
+    }
+
+    /**
+     * First derivative B'(t) = 3(1-t)²(P1-P0) + 6(1-t)t(P2-P1) + 3t²(P3-P2),
+     * written to {@code out[outOffset..outOffset+2]}.
+     */
+    public static void derivative(double[] c, int o, double t, double[] out, int outOffset) {
+        double mt = 1 - t;
+        double k1 = 3 * mt * mt;
+        double k2 = 6 * mt * t;
+        double k3 = 3 * t * t;
+        for (int i = 0; i < 3; i++) {
+            out[outOffset + i] = k1 * (c[o + 3 + i] - c[o + i])
+                    + k2 * (c[o + 6 + i] - c[o + 3 + i])
+                    + k3 * (c[o + 9 + i] - c[o + 6 + i]);
+        }
+    }
+
+    /**
+     * Second derivative B''(t) = 6(1-t)(P2-2P1+P0) + 6t(P3-2P2+P1),
+     * written to {@code out[outOffset..outOffset+2]}.
+     */
+    public static void secondDerivative(double[] c, int o, double t, double[] out, int outOffset) {
+        double k1 = 6 * (1 - t);
+        double k2 = 6 * t;
+        for (int i = 0; i < 3; i++) {
+            out[outOffset + i] = k1 * (c[o + 6 + i] - 2 * c[o + 3 + i] + c[o + i])
+                    + k2 * (c[o + 9 + i] - 2 * c[o + 6 + i] + c[o + 3 + i]);
+        }
+    }
+
+    /**
+     * Curvature κ(t) = |B'(t) × B''(t)| / |B'(t)|³, or 0 where the curve is degenerate.
+     */
+    public static double curvature(double[] c, int o, double t) {
+        double mt = 1 - t;
+        double k1 = 3 * mt * mt;
+        double k2 = 6 * mt * t;
+        double k3 = 3 * t * t;
+        double s1 = 6 * mt;
+        double s2 = 6 * t;
+
+        double d1x = k1 * (c[o + 3] - c[o]) + k2 * (c[o + 6] - c[o + 3]) + k3 * (c[o + 9] - c[o + 6]);
+        double d1y = k1 * (c[o + 4] - c[o + 1]) + k2 * (c[o + 7] - c[o + 4]) + k3 * (c[o + 10] - c[o + 7]);
+        double d1z = k1 * (c[o + 5] - c[o + 2]) + k2 * (c[o + 8] - c[o + 5]) + k3 * (c[o + 11] - c[o + 8]);
+
+        double d2x = s1 * (c[o + 6] - 2 * c[o + 3] + c[o]) + s2 * (c[o + 9] - 2 * c[o + 6] + c[o + 3]);
+        double d2y = s1 * (c[o + 7] - 2 * c[o + 4] + c[o + 1]) + s2 * (c[o + 10] - 2 * c[o + 7] + c[o + 4]);
+        double d2z = s1 * (c[o + 8] - 2 * c[o + 5] + c[o + 2]) + s2 * (c[o + 11] - 2 * c[o + 8] + c[o + 5]);
+
+        double speed = Math.sqrt(d1x * d1x + d1y * d1y + d1z * d1z);
+        if (speed < MIN_SPEED) {
+            return 0;
+        }
+
+        double cx = d1y * d2z - d1z * d2y;
+        double cy = d1z * d2x - d1x * d2z;
+        double cz = d1x * d2y - d1y * d2x;
+        return Math.sqrt(cx * cx + cy * cy + cz * cz) / (speed * speed * speed);
+    }
+
+    /**
+     * Signed curvature of the curve's plan view at t, in the direction of increasing t:
+     * positive while it turns from +x towards +z, negative the other way, 0 where degenerate.
+     * Reversing the direction of travel flips the sign.
+     */
+    public static double turnCurvature(double[] c, int o, double t) {
+        double mt = 1 - t;
+        double k1 = 3 * mt * mt;
+        double k2 = 6 * mt * t;
+        double k3 = 3 * t * t;
+        double s1 = 6 * mt;
+        double s2 = 6 * t;
+
+        double d1x = k1 * (c[o + 3] - c[o]) + k2 * (c[o + 6] - c[o + 3]) + k3 * (c[o + 9] - c[o + 6]);
+        double d1z = k1 * (c[o + 5] - c[o + 2]) + k2 * (c[o + 8] - c[o + 5]) + k3 * (c[o + 11] - c[o + 8]);
+        double d2x = s1 * (c[o + 6] - 2 * c[o + 3] + c[o]) + s2 * (c[o + 9] - 2 * c[o + 6] + c[o + 3]);
+        double d2z = s1 * (c[o + 8] - 2 * c[o + 5] + c[o + 2]) + s2 * (c[o + 11] - 2 * c[o + 8] + c[o + 5]);
+
+        double speed = Math.sqrt(d1x * d1x + d1z * d1z);
+        if (speed < MIN_SPEED) {
+            return 0;
+        }
+        return (d1x * d2z - d1z * d2x) / (speed * speed * speed);
+    }
+
+    /**
+     * Radius of curvature at t, or 0 where the curve is essentially straight.
+     */
+    public static double radiusAt(double[] c, int o, double t) {
+        double curvature = curvature(c, o, t);
+        return curvature < MinimumRadius.STRAIGHT_CURVATURE ? 0 : 1.0 / curvature;
+    }
+
+    /**
+     * Endpoint-to-endpoint grade between two points, as a percentage.
+     */
+    public static double grade(double x1, double y1, double z1, double x2, double y2, double z2) {
+        double dx = x2 - x1;
+        double dz = z2 - z1;
+        double horizontalDistance = Math.sqrt(dx * dx + dz * dz);
+        if (horizontalDistance < 0.001) {
+            return 0;
+        }
+        return (y2 - y1) / horizontalDistance * 100.0;
+    }
+}
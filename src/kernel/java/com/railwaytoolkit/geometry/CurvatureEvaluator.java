@@ -0,0 +1,56 @@
+package com.railwaytoolkit.geometry;
+
+/**
+ * Evaluates curvature in bulk: one curve at many parameters, or many curves at one parameter.
+ *
+ * The scalar implementation loops over {@link CubicBezier#curvature}. A SIMD implementation on
+ * the incubating Vector API lives in its own source set and is only loaded by {@link #select}
+ * when asked for and when the {@code jdk.incubator.vector} module is present, so the kernel
+ * never depends on it. Both give the same results up to floating-point rounding, and both are
+ * safe to share between threads.
+ */
+public interface CurvatureEvaluator {
+
+    /** Module the SIMD implementation needs, resolved with {@code --add-modules jdk.incubator.vector}. */
+    String VECTOR_MODULE = "jdk.incubator.vector";
+
+    /**
+     * Curvature of the curve at {@code offset} for {@code ts[0..count)}, written to {@code out}.
+     */
+    void sample(double[] curves, int offset, double[] ts, int count, double[] out);
+
+    /**
+     * Curvature at {@code t} of the {@code count} curves starting at curve index {@code first},
+     * written to {@code out[outOffset..outOffset+count)}.
+     */
+    void sampleCurves(double[] curves, int first, int count, double t, double[] out, int outOffset);
+
+    /**
+     * Short name for logs and debug output.
+     */
+    String name();
+
+    /**
+     * The plain loop implementation, always available.
+     */
+    static CurvatureEvaluator scalar() {
+        return ScalarCurvatureEvaluator.INSTANCE;
+    }
+
+    /**
+     * The SIMD implementation if {@code preferVector} is set and the Vector API can be loaded,
+     * otherwise {@link #scalar()}.
+     */
+    static CurvatureEvaluator select(boolean preferVector) {
+        if (!preferVector || ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            return scalar();
+        }
+        try {
+            return (CurvatureEvaluator) Class.forName("com.railwaytoolkit.geometry.VectorCurvatureEvaluator")
+                    .getDeclaredConstructor()
+                    .newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return scalar();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.railwaytoolkit.geometry;
+
+/**
+ * Length, grade and curvature of a track curve.
+ *
+ * The endpoint-to-endpoint grade hides a curve that humps or dips between its ends, so the
+ * profile samples the curve at evenly spaced parameters and records, from the first and second
+ * derivative at each sample:
+ * <ul>
+ *   <li>the arc length, accumulated into an {@link ArcLengthTable};</li>
+ *   <li>the steepest local grade;</li>
+ *   <li>the tightest crest and sag of the vertical profile, treating height as a function of
+ *       horizontal distance.</li>
+ * </ul>
+ * The tightest radius of curvature is left to a {@link MinimumRadius} solver, so the profile
+ * reports exactly what the batch solves of the audit and the schematic check report.
+ * Immutable, so one profile can be shared by everything that looks at the same curve.
+ */
+public final class CurveProfile {
+
+    /** Parameter steps used by {@link #of(double[], int)}. */
+    public static final int DEFAULT_SEGMENTS = 64;
+
+    private final ArcLengthTable table;
+    private double maxGrade = 0;
+    private double endGrade = 0;
+    private double crestRadius = 0;
+    private double sagRadius = 0;
+    private double minRadius = 0;
+    private double minRadiusT = 0.5;
+
+    private CurveProfile(int segments) {
+        this.table = new ArcLengthTable(segments);
+    }
+
+    public static CurveProfile of(double[] curve, int offset) {
+        return of(curve, offset, DEFAULT_SEGMENTS, 0, new MinimumRadius(), MinimumRadius.DEFAULT_TOLERANCE);
+    }
+
+    /**
+     * Profile of the curve at {@code offset}, sampled at {@code segments + 1} parameters.
+     *
+     * A positive {@code knownRadius}, such as the design radius of a circular arc, is taken as
+     * the minimum radius; otherwise {@code solver} searches for it to within {@code tolerance}.
+     * A null solver skips the search and leaves the radius at {@code knownRadius}, for callers
+     * that solve radii in batches.
+     */
+    public static CurveProfile of(double[] curve, int offset, int segments, double knownRadius,
+                                  MinimumRadius solver, double tolerance) {
+        CurveProfile profile = new CurveProfile(segments);
+        double[] d1 = new double[3];
+        double[] d2 = new double[3];
+        double maxCrest = 0;
+        double maxSag = 0;
+        double previousSpeed = 0;
+
+        for (int i = 0; i <= segments; i++) {
+            double t = i / (double) segments;
+            CubicBezier.derivative(curve, offset, t, d1, 0);
+            CubicBezier.secondDerivative(curve, offset, t, d2, 0);
+
+            double speed = Math.sqrt(d1[0] * d1[0] + d1[1] * d1[1] + d1[2] * d1[2]);
+            if (i > 0) {
+                profile.table.add(i, previousSpeed, speed);
+            }
+            previousSpeed = speed;
+
+            double horizontal = Math.sqrt(d1[0] * d1[0] + d1[2] * d1[2]);
+            if (horizontal < CubicBezier.MIN_SPEED) {
+                continue;
+            }
+
+            double slope = d1[1] / horizontal;
+            double grade = slope * 100.0;
+            if (Math.abs(grade) > Math.abs(profile.maxGrade)) {
+                profile.maxGrade = grade;
+            }
+
+            // Height as a function of horizontal distance s: y'' = d(slope)/dt / (ds/dt)
+            double horizontalRate = (d1[0] * d2[0] + d1[2] * d2[2]) / horizontal;
+            double slopeRate = (d2[1] * horizontal - d1[1] * horizontalRate) / (horizontal * horizontal);
+            double vertical = slopeRate / horizontal / Math.pow(1 + slope * slope, 1.5);
+            if (vertical < 0) {
+                maxCrest = Math.max(maxCrest, -vertical);
+            } else {
+                maxSag = Math.max(maxSag, vertical);
+            }
+        }
+
+        profile.endGrade = CubicBezier.grade(curve[offset], curve[offset + 1], curve[offset + 2],
+                curve[offset + 9], curve[offset + 10], curve[offset + 11]);
+        profile.crestRadius = maxCrest < MinimumRadius.STRAIGHT_CURVATURE ? 0 : 1 / maxCrest;
+        profile.sagRadius = maxSag < MinimumRadius.STRAIGHT_CURVATURE ? 0 : 1 / maxSag;
+        if (knownRadius > 0) {
+            profile.minRadius = knownRadius;
+        } else if (solver != null) {
+            profile.minRadius = solver.solve(curve, offset, tolerance);
+            profile.minRadiusT = solver.lastT();
+        }
+        return profile;
+    }
+
+    /** Arc length along the curve. */
+    public double length() {
+        return table.length();
+    }
+
+    public ArcLengthTable arcLength() {
+        return table;
+    }
+
+    /** Steepest local grade in percent, keeping its sign. */
+    public double maxGrade() {
+        return maxGrade;
+    }
+
+    /** Endpoint-to-endpoint grade in percent. */
+    public double endGrade() {
+        return endGrade;
+    }
+
+    /** Tightest radius of a crest in the vertical profile, or 0 if there is none. */
+    public double crestRadius() {
+        return crestRadius;
+    }
+
+    /** Tightest radius of a sag in the vertical profile, or 0 if there is none. */
+    public double sagRadius() {
+        return sagRadius;
+    }
+
+    /** Tightest radius of curvature, or 0 if the curve is straight. */
+    public double minRadius() {
+        return minRadius;
+    }
+
+    /** Parameter t of the tightest radius. */
+    public double minRadiusT() {
+        return minRadiusT;
+    }
+}
@@ -0,0 +1,192 @@
+package com.railwaytoolkit.geometry;
+
+import java.util.Arrays;
+
+/**
+ * Closed-form search for the end blocks of a turn that lands in a radius band.
+ *
+ * Working from the first track point A and its axis u, a turn through angle θ towards
+ * direction v ends at B = A + L1·u + L2·v, and per {@link TrackArc} its radius is
+ * min(L1, L2) / tan(θ/2). The blocks whose radius falls in [R, factor·R] therefore form two
+ * strips in (L1, L2) space for each of the four turns Create allows (45 and 90 degrees either
+ * way). Only those strips are walked, so the work is proportional to the number of answers
+ * rather than to the size of a search window.
+ *
+ * Results are kept in reusable primitive buffers; an instance is not thread-safe.
+ */
+public final class EndpointSolver {
+
+    private static final double STEP = 0.5;
+    private static final double[] TURNS = {Math.PI / 4, -Math.PI / 4, Math.PI / 2, -Math.PI / 2};
+
+    private int[] xs = new int[64];
+    private int[] zs = new int[64];
+    private double[] radii = new double[64];
+    private double[] axisXs = new double[64];
+    private double[] axisZs = new double[64];
+    private int count;
+    private double[] nearestDistances = new double[8];
+
+    // Open-addressed set of packed (x, z) cells already emitted by the current solve
+    private long[] seen = new long[256];
+    private boolean[] seenUsed = new boolean[256];
+    private int seenCount;
+
+    /**
+     * Find every block whose turn from (ax, az) along (ux, uz) has a radius in
+     * [radius, factor·radius], with both legs at most {@code maxLeg} blocks long.
+     * The axis must be unit length. Returns the number of candidates found.
+     */
+    public int solve(double ax, double az, double ux, double uz, double radius, double factor, double maxLeg) {
+        count = 0;
+        clearSeen();
+        if (radius <= 0 || factor < 1) {
+            return 0;
+        }
+
+        for (double turn : TURNS) {
+            double cos = Math.cos(turn);
+            double sin = Math.sin(turn);
+            double vx = ux * cos - uz * sin;
+            double vz = ux * sin + uz * cos;
+            double tan = Math.tan(Math.abs(turn) / 2);
+            double lo = radius * tan;
+            double hi = radius * factor * tan;
+            if (lo > maxLeg) {
+                continue;
+            }
+
+            // Strip where the first leg is the short one, then the strip where the second is
+            for (double shortLeg = lo; shortLeg <= hi && shortLeg <= maxLeg; shortLeg += STEP) {
+                for (double longLeg = shortLeg; longLeg <= maxLeg; longLeg += STEP) {
+                    emit(ax, az, ux, uz, vx, vz, shortLeg, longLeg, radius, factor);
+                    emit(ax, az, ux, uz, vx, vz, longLeg, shortLeg, radius, factor);
+                }
+            }
+        }
+        return count;
+    }
+
+    private void emit(double ax, double az, double ux, double uz, double vx, double vz,
+                      double leg1, double leg2, double radius, double factor) {
+        int x = (int) Math.floor(ax + leg1 * ux + leg2 * vx);
+        int z = (int) Math.floor(az + leg1 * uz + leg2 * vz);
+        if (!markSeen(x, z)) {
+            return;
+        }
+
+        // Re-check against the snapped block centre, with the end axis pointing back into the curve
+        double exact = TrackArc.radius(ax, az, ux, uz, x + 0.5, z + 0.5, -vx, -vz);
+        if (exact < radius || exact >= radius * factor) {
+            return;
+        }
+
+        if (count == xs.length) {
+            int capacity = count * 2;
+            xs = Arrays.copyOf(xs, capacity);
+            zs = Arrays.copyOf(zs, capacity);
+            radii = Arrays.copyOf(radii, capacity);
+            axisXs = Arrays.copyOf(axisXs, capacity);
+            axisZs = Arrays.copyOf(axisZs, capacity);
+        }
+        xs[count] = x;
+        zs[count] = z;
+        radii[count] = exact;
+        axisXs[count] = -vx;
+        axisZs[count] = -vz;
+        count++;
+    }
+
+    /**
+     * Write the indices of up to {@code limit} candidates nearest to (tx, tz) into {@code out},
+     * nearest first, and return how many were written.
+     */
+    public int nearest(double tx, double tz, int limit, int[] out) {
+        int n = Math.min(limit, Math.min(count, out.length));
+        if (nearestDistances.length < n) {
+            nearestDistances = new double[n];
+        }
+        double[] best = nearestDistances;
+        int filled = 0;
+        for (int i = 0; i < count; i++) {
+            double dx = xs[i] + 0.5 - tx;
+            double dz = zs[i] + 0.5 - tz;
+            double distance = dx * dx + dz * dz;
+            if (filled == n && (n == 0 || distance >= best[n - 1])) {
+                continue;
+            }
+            // Insertion into the small sorted prefix
+            int slot = filled < n ? filled++ : n - 1;
+            while (slot > 0 && best[slot - 1] > distance) {
+                best[slot] = best[slot - 1];
+                out[slot] = out[slot - 1];
+                slot--;
+            }
+            best[slot] = distance;
+            out[slot] = i;
+        }
+        return filled;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int x(int index) {
+        return xs[index];
+    }
+
+    public int z(int index) {
+        return zs[index];
+    }
+
+    public double radius(int index) {
+        return radii[index];
+    }
+
+    /** End axis at the candidate, pointing back into the curve. */
+    public double axisX(int index) {
+        return axisXs[index];
+    }
+
+    public double axisZ(int index) {
+        return axisZs[index];
+    }
+
+    private void clearSeen() {
+        Arrays.fill(seenUsed, false);
+        seenCount = 0;
+    }
+
+    private boolean markSeen(int x, int z) {
+        if (seenCount * 2 >= seen.length) {
+            growSeen();
+        }
+        long key = ((long) x << 32) | (z & 0xFFFFFFFFL);
+        int mask = seen.length - 1;
+        int slot = (int) (key ^ (key >>> 29) ^ (key >>> 41)) * 0x9E3779B9 >>> 1 & mask;
+        while (seenUsed[slot]) {
+            if (seen[slot] == key) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        seenUsed[slot] = true;
+        seen[slot] = key;
+        seenCount++;
+        return true;
+    }
+
+    private void growSeen() {
+        long[] oldKeys = seen;
+        boolean[] oldUsed = seenUsed;
+        seen = new long[oldKeys.length * 2];
+        seenUsed = new boolean[oldKeys.length * 2];
+        seenCount = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                markSeen((int) (oldKeys[i] >> 32), (int) oldKeys[i]);
+            }
+        }
+    }
+}
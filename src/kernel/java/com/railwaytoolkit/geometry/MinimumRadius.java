@@ -0,0 +1,159 @@
+package com.railwaytoolkit.geometry;
+
+/**
+ * Finds the exact minimum radius of a cubic Bezier and the parameter t where it occurs.
+ *
+ * The curvature is bracketed with a coarse pass over [0, 1], endpoints included, and every
+ * local maximum found is refined with a golden-section search until its bracket is narrower
+ * than the requested tolerance. The coarse pass goes through a {@link CurvatureEvaluator}, so it
+ * can run on SIMD lanes; batches are bracketed many curves at a time. An instance owns its
+ * scratch buffers, so it is not thread-safe; give each thread its own solver.
+ */
+public final class MinimumRadius {
+
+    /** Curvature below this is treated as straight track. */
+    public static final double STRAIGHT_CURVATURE = 0.0001;
+    /** Refinement tolerance in t when none is configured, the default of {@code radiusTolerance}. */
+    public static final double DEFAULT_TOLERANCE = 1.0E-4;
+
+    private static final int BRACKET_SAMPLES = 16;
+    private static final int MAX_REFINE_STEPS = 64;
+    private static final double INV_PHI = (Math.sqrt(5) - 1) / 2;
+    /** Curves bracketed together by {@link #solveAll}. */
+    private static final int CHUNK = 64;
+
+    private static final double[] BRACKET_TS = new double[BRACKET_SAMPLES + 1];
+
+    static {
+        for (int i = 0; i <= BRACKET_SAMPLES; i++) {
+            BRACKET_TS[i] = i / (double) BRACKET_SAMPLES;
+        }
+    }
+
+    private final CurvatureEvaluator evaluator;
+    private final double[] bracket = new double[BRACKET_SAMPLES + 1];
+    private double[] grid = null;
+    private double lastT = 0.5;
+
+    public MinimumRadius() {
+        this(CurvatureEvaluator.scalar());
+    }
+
+    public MinimumRadius(CurvatureEvaluator evaluator) {
+        this.evaluator = evaluator;
+    }
+
+    /**
+     * Minimum radius of the curve at {@code offset}, or 0 if the curve is straight.
+     * The parameter of the tightest point is available from {@link #lastT()} afterwards.
+     */
+    public double solve(double[] curves, int offset, double tolerance) {
+        evaluator.sample(curves, offset, BRACKET_TS, BRACKET_SAMPLES + 1, bracket);
+        return refineBracket(curves, offset, tolerance);
+    }
+
+    /**
+     * Refine every local maximum of the coarse samples in {@link #bracket}.
+     */
+    private double refineBracket(double[] curves, int offset, double tolerance) {
+        double bestCurvature = 0;
+        double bestT = 0.5;
+        for (int i = 0; i <= BRACKET_SAMPLES; i++) {
+            double k = bracket[i];
+            boolean leftLower = i == 0 || bracket[i - 1] <= k;
+            boolean rightLower = i == BRACKET_SAMPLES || bracket[i + 1] <= k;
+            if (!leftLower || !rightLower) {
+                continue;
+            }
+
+            double lo = Math.max(0, (i - 1) / (double) BRACKET_SAMPLES);
+            double hi = Math.min(1, (i + 1) / (double) BRACKET_SAMPLES);
+            double t = refineMaximum(curves, offset, lo, hi, tolerance);
+            double refined = CubicBezier.curvature(curves, offset, t);
+            if (refined < k) {
+                // Plateau or endpoint maximum, the sample itself is the answer
+                refined = k;
+                t = i / (double) BRACKET_SAMPLES;
+            }
+            if (refined > bestCurvature) {
+                bestCurvature = refined;
+                bestT = t;
+            }
+        }
+
+        lastT = bestT;
+        return bestCurvature < STRAIGHT_CURVATURE ? 0 : 1.0 / bestCurvature;
+    }
+
+    /**
+     * Parameter t of the tightest point found by the last {@link #solve} call.
+     */
+    public double lastT() {
+        return lastT;
+    }
+
+    /**
+     * Solve {@code count} curves stored back to back in {@code curves}, writing the radius and
+     * tightest parameter of curve i to {@code radii[i]} and {@code ts[i]}. {@code ts} may be null.
+     */
+    public void solveAll(double[] curves, int count, double tolerance, double[] radii, double[] ts) {
+        solveRange(curves, 0, count, tolerance, radii, ts);
+    }
+
+    /**
+     * Like {@link #solveAll}, for curves {@code from} (inclusive) to {@code to} (exclusive) only.
+     */
+    public void solveRange(double[] curves, int from, int to, double tolerance, double[] radii, double[] ts) {
+        if (grid == null) {
+            grid = new double[(BRACKET_SAMPLES + 1) * CHUNK];
+        }
+        for (int first = from; first < to; first += CHUNK) {
+            int chunk = Math.min(CHUNK, to - first);
+            // Coarse pass across the chunk, one sample parameter at a time
+            for (int s = 0; s <= BRACKET_SAMPLES; s++) {
+                evaluator.sampleCurves(curves, first, chunk, BRACKET_TS[s], grid, s * CHUNK);
+            }
+            for (int i = 0; i < chunk; i++) {
+                for (int s = 0; s <= BRACKET_SAMPLES; s++) {
+                    bracket[s] = grid[s * CHUNK + i];
+                }
+                radii[first + i] = refineBracket(curves, (first + i) * CubicBezier.STRIDE, tolerance);
+                if (ts != null) {
+                    ts[first + i] = lastT;
+                }
+            }
+        }
+    }
+
+    public CurvatureEvaluator evaluator() {
+        return evaluator;
+    }
+
+    /**
+     * Golden-section search for the curvature maximum inside [lo, hi].
+     */
+    private static double refineMaximum(double[] curves, int offset, double lo, double hi, double tolerance) {
+        double x1 = hi - INV_PHI * (hi - lo);
+        double x2 = lo + INV_PHI * (hi - lo);
+        double k1 = CubicBezier.curvature(curves, offset, x1);
+        double k2 = CubicBezier.curvature(curves, offset, x2);
+
+        for (int step = 0; step < MAX_REFINE_STEPS && hi - lo > tolerance; step++) {
+            if (k1 > k2) {
+                hi = x2;
+                x2 = x1;
+                k2 = k1;
+                x1 = hi - INV_PHI * (hi - lo);
+                k1 = CubicBezier.curvature(curves, offset, x1);
+            } else {
+                lo = x1;
+                x1 = x2;
+                k1 = k2;
+                x2 = lo + INV_PHI * (hi - lo);
+                k2 = CubicBezier.curvature(curves, offset, x2);
+            }
+        }
+
+        return k1 > k2 ? x1 : x2;
+    }
+}
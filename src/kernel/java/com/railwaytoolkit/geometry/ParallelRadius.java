@@ -0,0 +1,66 @@
+package com.railwaytoolkit.geometry;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Solves the minimum radius of a large flat buffer of curves on a fork-join pool.
+ *
+ * The range is split in halves until a piece is at most {@link #LEAF} curves; each leaf gets
+ * its own {@link MinimumRadius}, so no solver is shared between threads.
+ */
+public final class ParallelRadius {
+
+    /** Curves solved by one fork-join leaf. */
+    public static final int LEAF = 64;
+
+    private ParallelRadius() {
+    }
+
+    /**
+     * Solve {@code count} curves from {@code curves} into {@code radii}, blocking until done.
+     * Leaves not yet started are skipped once {@code cancelled} is set; their radii are left as is.
+     */
+    public static void solve(double[] curves, int count, double tolerance, double[] radii,
+                             CurvatureEvaluator evaluator, AtomicBoolean cancelled, ForkJoinPool pool) {
+        pool.invoke(new Task(curves, 0, count, tolerance, radii, evaluator, cancelled));
+    }
+
+    private static final class Task extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final double[] curves;
+        private final int from;
+        private final int to;
+        private final double tolerance;
+        private final double[] radii;
+        private final CurvatureEvaluator evaluator;
+        private final AtomicBoolean cancelled;
+
+        Task(double[] curves, int from, int to, double tolerance, double[] radii,
+             CurvatureEvaluator evaluator, AtomicBoolean cancelled) {
+            this.curves = curves;
+            this.from = from;
+            this.to = to;
+            this.tolerance = tolerance;
+            this.radii = radii;
+            this.evaluator = evaluator;
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        protected void compute() {
+            if (cancelled.get()) {
+                return;
+            }
+            if (to - from <= LEAF) {
+                new MinimumRadius(evaluator).solveRange(curves, from, to, tolerance, radii, null);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Task(curves, from, mid, tolerance, radii, evaluator, cancelled),
+                    new Task(curves, mid, to, tolerance, radii, evaluator, cancelled));
+        }
+    }
+}
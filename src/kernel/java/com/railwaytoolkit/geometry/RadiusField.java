@@ -0,0 +1,154 @@
+package com.railwaytoolkit.geometry;
+
+import com.railwaytoolkit.rating.RatingTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Achievable turn radius and rating tier for every block of a square area around an anchor.
+ *
+ * Each cell holds the radius of the turn from the anchor to that block as given by
+ * {@link TrackArc#maximisedTurnRadius}, and the {@link RatingTable} tier that radius earns.
+ * The field is computed once in square tiles on a fork-join pool; afterwards every query is an
+ * array lookup.
+ */
+public final class RadiusField {
+
+    /** Tier of cells that cannot be reached, or are tighter than every tier. */
+    public static final byte NONE = (byte) RatingTable.INVALID;
+
+    private static final int TILE = 32;
+
+    private final int minX;
+    private final int minZ;
+    private final int size;
+    private final float[] radii;
+    private final byte[] tiers;
+
+    private RadiusField(int minX, int minZ, int size) {
+        this.minX = minX;
+        this.minZ = minZ;
+        this.size = size;
+        this.radii = new float[size * size];
+        this.tiers = new byte[size * size];
+    }
+
+    /**
+     * Compute the field for a {@code size}×{@code size} area whose lowest corner is (minX, minZ).
+     * The table must have fewer than 128 tiers. The axis (ux, uz) must be unit length. Once
+     * {@code cancelled} is set, tiles stop at their next column and tiles not yet started are
+     * skipped, leaving the field incomplete.
+     */
+    public static RadiusField compute(double ax, double az, double ux, double uz, int minX, int minZ, int size,
+                                      RatingTable ratings, AtomicBoolean cancelled, ForkJoinPool pool) {
+        RadiusField field = new RadiusField(minX, minZ, size);
+        List<RecursiveAction> tiles = new ArrayList<>();
+        for (int tileX = 0; tileX < size; tileX += TILE) {
+            for (int tileZ = 0; tileZ < size; tileZ += TILE) {
+                int fromX = tileX;
+                int fromZ = tileZ;
+                tiles.add(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        field.computeTile(ax, az, ux, uz, fromX, fromZ, ratings, cancelled);
+                    }
+                });
+            }
+        }
+
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(tiles);
+            }
+        });
+        return field;
+    }
+
+    private void computeTile(double ax, double az, double ux, double uz, int fromX, int fromZ, RatingTable ratings,
+                             AtomicBoolean cancelled) {
+        int toX = Math.min(size, fromX + TILE);
+        int toZ = Math.min(size, fromZ + TILE);
+        for (int i = fromX; i < toX && !cancelled.get(); i++) {
+            double bx = minX + i + 0.5;
+            for (int j = fromZ; j < toZ; j++) {
+                double radius = TrackArc.maximisedTurnRadius(ax, az, ux, uz, bx, minZ + j + 0.5);
+                int index = i * size + j;
+                radii[index] = (float) radius;
+                tiers[index] = (byte) ratings.rate(radius);
+            }
+        }
+    }
+
+    public boolean contains(int x, int z) {
+        return x >= minX && z >= minZ && x < minX + size && z < minZ + size;
+    }
+
+    /**
+     * Radius reached at block (x, z), or 0 if it is unreachable or outside the field.
+     */
+    public double radiusAt(int x, int z) {
+        return contains(x, z) ? radii[(x - minX) * size + (z - minZ)] : 0;
+    }
+
+    /**
+     * Tier reached at block (x, z), or {@link #NONE}.
+     */
+    public byte tierAt(int x, int z) {
+        return contains(x, z) ? tiers[(x - minX) * size + (z - minZ)] : NONE;
+    }
+
+    /**
+     * Cells of the given tier that border a cell of another tier, packed as (x << 32 | z).
+     * These outline the band without drawing its whole interior.
+     */
+    public long[] contour(byte tier) {
+        return contour(tier, 0, size);
+    }
+
+    /**
+     * The part of {@link #contour(byte)} in rows {@code fromRow} (inclusive) to {@code toRow}
+     * (exclusive), where row i holds the cells at x = minX + i. Lets a contour be extracted a
+     * few rows at a time.
+     */
+    public long[] contour(byte tier, int fromRow, int toRow) {
+        long[] cells = new long[64];
+        int count = 0;
+        for (int i = Math.max(0, fromRow); i < Math.min(size, toRow); i++) {
+            for (int j = 0; j < size; j++) {
+                int index = i * size + j;
+                if (tiers[index] != tier || !isEdge(i, j, tier)) {
+                    continue;
+                }
+                if (count == cells.length) {
+                    cells = Arrays.copyOf(cells, count * 2);
+                }
+                cells[count++] = ((long) (minX + i) << 32) | ((minZ + j) & 0xFFFFFFFFL);
+            }
+        }
+        return Arrays.copyOf(cells, count);
+    }
+
+    private boolean isEdge(int i, int j, byte tier) {
+        return i == 0 || j == 0 || i == size - 1 || j == size - 1
+                || tiers[(i - 1) * size + j] != tier || tiers[(i + 1) * size + j] != tier
+                || tiers[i * size + j - 1] != tier || tiers[i * size + j + 1] != tier;
+    }
+
+    public int minX() {
+        return minX;
+    }
+
+    public int minZ() {
+        return minZ;
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,31 @@
+package com.railwaytoolkit.geometry;
+
+/**
+ * {@link CurvatureEvaluator} that evaluates one parameter of one curve at a time.
+ */
+final class ScalarCurvatureEvaluator implements CurvatureEvaluator {
+
+    static final ScalarCurvatureEvaluator INSTANCE = new ScalarCurvatureEvaluator();
+
+    private ScalarCurvatureEvaluator() {
+    }
+
+    @Override
+    public void sample(double[] curves, int offset, double[] ts, int count, double[] out) {
+        for (int i = 0; i < count; i++) {
+            out[i] = CubicBezier.curvature(curves, offset, ts[i]);
+        }
+    }
+
+    @Override
+    public void sampleCurves(double[] curves, int first, int count, double t, double[] out, int outOffset) {
+        for (int i = 0; i < count; i++) {
+            out[outOffset + i] = CubicBezier.curvature(curves, (first + i) * CubicBezier.STRIDE, t);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+}
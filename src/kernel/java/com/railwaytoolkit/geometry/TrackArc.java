@@ -0,0 +1,79 @@
+package com.railwaytoolkit.geometry;
+
+/**
+ * Horizontal circular-arc model of a Create track turn.
+ *
+ * A turn leaves point A along axis u and arrives at point B, whose axis w points back into
+ * the curve. The two tangent lines meet at X; the shorter leg is bent into a circular arc and
+ * the longer leg is extended with straight track, so the radius is min(|AX|, |BX|) / tan(θ/2)
+ * for a turn angle θ. Create only accepts turns of at most 90 degrees.
+ */
+public final class TrackArc {
+
+    /** Largest turn Create will bend into a single connection. */
+    public static final double MAX_TURN = Math.PI / 2 + 1.0E-6;
+
+    private static final double MIN_TURN = 1.0E-6;
+    private static final double SQRT_HALF = Math.sqrt(0.5);
+
+    /** The eight horizontal track axes, as (x, z) pairs. */
+    private static final double[] DIRECTIONS = {
+            1, 0, SQRT_HALF, SQRT_HALF, 0, 1, -SQRT_HALF, SQRT_HALF,
+            -1, 0, -SQRT_HALF, -SQRT_HALF, 0, -1, SQRT_HALF, -SQRT_HALF
+    };
+
+    private TrackArc() {
+    }
+
+    /**
+     * Radius of the turn from A (axis u) to B (axis w, pointing back into the curve),
+     * or 0 if the two axes do not form a valid turn. The axes must be unit length.
+     */
+    public static double radius(double ax, double az, double ux, double uz,
+                                double bx, double bz, double wx, double wz) {
+        // Solve A + s·u = B + r·w for the leg lengths s and r
+        double det = ux * -wz - uz * -wx;
+        if (Math.abs(det) < 1.0E-9) {
+            return 0;
+        }
+        double dx = bx - ax;
+        double dz = bz - az;
+        double s = (dx * -wz - dz * -wx) / det;
+        double r = (ux * dz - uz * dx) / det;
+        if (s <= 0 || r <= 0) {
+            return 0;
+        }
+
+        // Travel direction at B is -w, so the turn angle is the angle between u and -w
+        double cos = Math.max(-1, Math.min(1, -(ux * wx + uz * wz)));
+        double turn = Math.acos(cos);
+        if (turn < MIN_TURN || turn > MAX_TURN) {
+            return 0;
+        }
+
+        return Math.min(s, r) / Math.tan(turn / 2);
+    }
+
+    /**
+     * Radius reached at B when the end axis is picked the way Create does with maximiseTurn:
+     * out of the eight track axes, the one giving the largest valid turn. Returns 0 if none is valid.
+     */
+    public static double maximisedTurnRadius(double ax, double az, double ux, double uz, double bx, double bz) {
+        double bestTurn = -1;
+        double bestRadius = 0;
+        for (int i = 0; i < DIRECTIONS.length; i += 2) {
+            double wx = DIRECTIONS[i];
+            double wz = DIRECTIONS[i + 1];
+            double radius = radius(ax, az, ux, uz, bx, bz, wx, wz);
+            if (radius <= 0) {
+                continue;
+            }
+            double turn = Math.acos(Math.max(-1, Math.min(1, -(ux * wx + uz * wz))));
+            if (turn > bestTurn + 1.0E-9) {
+                bestTurn = turn;
+                bestRadius = radius;
+            }
+        }
+        return bestRadius;
+    }
+}
@@ -0,0 +1,153 @@
+package com.railwaytoolkit.geometry;
+
+import java.util.Arrays;
+
+/**
+ * The block columns a curve's track bed covers, each with the block layer the track runs in.
+ *
+ * The curve is walked in equal steps of arc length and, at every step, across its width along
+ * the horizontal normal, so steep and tight parts are covered as densely as straight ones. Each
+ * (x, z) column is kept once, with the layer of the sample nearest the centre line that reached
+ * it first. Immutable once built, so it can be shared between threads.
+ */
+public final class TrackFootprint {
+
+    /** Spacing of the samples along and across the curve, in blocks. */
+    private static final double STEP = 0.25;
+    private static final int TABLE_SEGMENTS = 64;
+    /** Lifts the track layer so a curve resting exactly on a block boundary stays in its block. */
+    private static final double LEVEL_EPSILON = 1.0E-3;
+
+    private int[] xs = new int[64];
+    private int[] zs = new int[64];
+    private int[] levels = new int[64];
+    private int count;
+    private int minLevel = Integer.MAX_VALUE;
+    private int maxLevel = Integer.MIN_VALUE;
+
+    // Open-addressed set of packed (x, z) columns already added
+    private long[] seen = new long[128];
+    private boolean[] seenUsed = new boolean[128];
+    private int seenCount;
+
+    private TrackFootprint() {
+    }
+
+    /**
+     * Footprint of the curve at {@code offset}, {@code halfWidth} blocks to either side of the
+     * centre line.
+     */
+    public static TrackFootprint of(double[] curve, int offset, double halfWidth) {
+        TrackFootprint footprint = new TrackFootprint();
+        ArcLengthTable table = ArcLengthTable.build(curve, offset, TABLE_SEGMENTS);
+        double length = table.length();
+        int steps = Math.max(1, (int) Math.ceil(length / STEP));
+
+        // Lateral offsets, centre first, then alternating outwards
+        int sides = (int) Math.floor(halfWidth / STEP);
+        double[] lateral = new double[sides * 2 + 1];
+        for (int i = 1; i <= sides; i++) {
+            lateral[i * 2 - 1] = i * STEP;
+            lateral[i * 2] = -i * STEP;
+        }
+
+        double[] point = new double[3];
+        double[] tangent = new double[3];
+        for (int i = 0; i <= steps; i++) {
+            double t = table.parameterAt(length * i / steps);
+            CubicBezier.point(curve, offset, t, point, 0);
+            CubicBezier.derivative(curve, offset, t, tangent, 0);
+            double horizontal = Math.sqrt(tangent[0] * tangent[0] + tangent[2] * tangent[2]);
+            double nx = horizontal > 0 ? -tangent[2] / horizontal : 0;
+            double nz = horizontal > 0 ? tangent[0] / horizontal : 0;
+            int level = levelOf(point[1]);
+            for (double side : lateral) {
+                footprint.add((int) Math.floor(point[0] + nx * side), (int) Math.floor(point[2] + nz * side), level);
+            }
+        }
+        return footprint;
+    }
+
+    /**
+     * Block layer of a point on the track at height {@code y}.
+     */
+    public static int levelOf(double y) {
+        return (int) Math.floor(y + LEVEL_EPSILON);
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public int x(int index) {
+        return xs[index];
+    }
+
+    public int z(int index) {
+        return zs[index];
+    }
+
+    /**
+     * Block layer the track runs in over column {@code index}; the bed is the layer below.
+     */
+    public int level(int index) {
+        return levels[index];
+    }
+
+    public int minLevel() {
+        return minLevel;
+    }
+
+    public int maxLevel() {
+        return maxLevel;
+    }
+
+    private void add(int x, int z, int level) {
+        if (!markSeen(x, z)) {
+            return;
+        }
+        if (count == xs.length) {
+            xs = Arrays.copyOf(xs, count * 2);
+            zs = Arrays.copyOf(zs, count * 2);
+            levels = Arrays.copyOf(levels, count * 2);
+        }
+        xs[count] = x;
+        zs[count] = z;
+        levels[count] = level;
+        count++;
+        minLevel = Math.min(minLevel, level);
+        maxLevel = Math.max(maxLevel, level);
+    }
+
+    private boolean markSeen(int x, int z) {
+        if (seenCount * 2 >= seen.length) {
+            growSeen();
+        }
+        long key = ((long) x << 32) | (z & 0xFFFFFFFFL);
+        int mask = seen.length - 1;
+        int slot = (int) (key ^ (key >>> 29) ^ (key >>> 41)) * 0x9E3779B9 >>> 1 & mask;
+        while (seenUsed[slot]) {
+            if (seen[slot] == key) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        seenUsed[slot] = true;
+        seen[slot] = key;
+        seenCount++;
+        return true;
+    }
+
+    private void growSeen() {
+        long[] oldKeys = seen;
+        boolean[] oldUsed = seenUsed;
+        seen = new long[oldKeys.length * 2];
+        seenUsed = new boolean[oldKeys.length * 2];
+        seenCount = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                markSeen((int) (oldKeys[i] >> 32), (int) oldKeys[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.railwaytoolkit.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary format of the placement journal: a 16-byte header followed by fixed-size records.
+ *
+ * Every field sits at a fixed offset and is little-endian, so a journal can be memory-mapped
+ * and read as a flat array of records by any tool; record {@code i} starts at
+ * {@code HEADER_SIZE + i * RECORD_SIZE}. A record is only ever appended whole, and a trailing
+ * partial record left by a crash is ignored by readers and cut off by the writer.
+ *
+ * <pre>
+ * header   0 int    magic "RTJ1"
+ *          4 short  version
+ *          6 short  record size
+ *          8 long   creation time, epoch millis
+ * record   0 long   placement time, epoch millis
+ *          8 double first end x, y, z
+ *         32 double second end x, y, z
+ *         56 float  first axis x, y, z
+ *         68 float  second axis x, y, z
+ *         80 float  minimum radius, 0 for straight track
+ *         84 float  grade, percent
+ *         88 byte   rating tier, -1 for invalid
+ *         89 byte   enforcement tier
+ *         90 byte   flags, bit 0 set if enforcement was active
+ *         91        reserved
+ * </pre>
+ */
+public final class PlacementJournal {
+
+    public static final int MAGIC = 0x314A5452;
+    public static final short VERSION = 1;
+    public static final int HEADER_SIZE = 16;
+    public static final int RECORD_SIZE = 96;
+    public static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    /** Flag bit set when enforcement was active for the placement. */
+    public static final int FLAG_ENFORCING = 1;
+
+    private PlacementJournal() {
+    }
+
+    /**
+     * One placement. {@code ends} holds both end positions and {@code axes} both end axes,
+     * first end then second, x/y/z each.
+     */
+    public record Entry(long timestamp, double[] ends, float[] axes, float radius, float grade,
+                        int tier, int enforcementTier, boolean enforcing) {
+    }
+
+    public static void writeHeader(ByteBuffer out, long created) {
+        out.order(ORDER);
+        out.putInt(MAGIC);
+        out.putShort(VERSION);
+        out.putShort((short) RECORD_SIZE);
+        out.putLong(created);
+    }
+
+    /**
+     * Whether {@code header} starts with a header this version can read.
+     */
+    public static boolean isValidHeader(ByteBuffer header) {
+        header.order(ORDER);
+        return header.remaining() >= HEADER_SIZE
+                && header.getInt(header.position()) == MAGIC
+                && header.getShort(header.position() + 4) == VERSION
+                && header.getShort(header.position() + 6) == RECORD_SIZE;
+    }
+
+    /**
+     * Append one record at the buffer's position.
+     */
+    public static void write(ByteBuffer out, Entry entry) {
+        out.order(ORDER);
+        int start = out.position();
+        out.putLong(entry.timestamp());
+        for (double value : entry.ends()) {
+            out.putDouble(value);
+        }
+        for (float value : entry.axes()) {
+            out.putFloat(value);
+        }
+        out.putFloat(entry.radius());
+        out.putFloat(entry.grade());
+        out.put((byte) entry.tier());
+        out.put((byte) entry.enforcementTier());
+        out.put((byte) (entry.enforcing() ? FLAG_ENFORCING : 0));
+        out.position(start + RECORD_SIZE);
+    }
+
+    /**
+     * Record {@code index} of a journal mapped or read whole into {@code journal}.
+     */
+    public static Entry read(ByteBuffer journal, int index) {
+        journal.order(ORDER);
+        int at = HEADER_SIZE + index * RECORD_SIZE;
+        double[] ends = new double[6];
+        for (int i = 0; i < 6; i++) {
+            ends[i] = journal.getDouble(at + 8 + i * 8);
+        }
+        float[] axes = new float[6];
+        for (int i = 0; i < 6; i++) {
+            axes[i] = journal.getFloat(at + 56 + i * 4);
+        }
+        return new Entry(journal.getLong(at), ends, axes, journal.getFloat(at + 80), journal.getFloat(at + 84),
+                journal.get(at + 88), journal.get(at + 89), (journal.get(at + 90) & FLAG_ENFORCING) != 0);
+    }
+
+    /**
+     * Complete records in a journal of {@code size} bytes.
+     */
+    public static int count(long size) {
+        return size <= HEADER_SIZE ? 0 : (int) Math.min(Integer.MAX_VALUE, (size - HEADER_SIZE) / RECORD_SIZE);
+    }
+
+    /**
+     * Memory-map a journal and aggregate all its records.
+     */
+    public static Summary summarize(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Journal larger than 2 GB: " + file);
+            }
+            MappedByteBuffer journal = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (!isValidHeader(journal)) {
+                throw new IOException("Not a placement journal: " + file.getFileName());
+            }
+            return Summary.of(journal, count(size));
+        }
+    }
+
+    /**
+     * Totals over a journal. Tier counts are by the tier index saved with each record, so they
+     * only match the current tier names while the tiers are unchanged.
+     */
+    public static final class Summary {
+        private int records;
+        private int curves;
+        private int enforced;
+        private long first = Long.MAX_VALUE;
+        private long last = Long.MIN_VALUE;
+        private double minRadius = Double.POSITIVE_INFINITY;
+        private double radiusSum;
+        private double maxGrade;
+        private int invalid;
+        private final int[] tiers = new int[128];
+
+        private Summary() {
+        }
+
+        static Summary of(ByteBuffer journal, int count) {
+            Summary summary = new Summary();
+            journal.order(ORDER);
+            for (int i = 0; i < count; i++) {
+                int at = HEADER_SIZE + i * RECORD_SIZE;
+                long timestamp = journal.getLong(at);
+                float radius = journal.getFloat(at + 80);
+                float grade = journal.getFloat(at + 84);
+                int tier = journal.get(at + 88);
+
+                summary.records++;
+                summary.first = Math.min(summary.first, timestamp);
+                summary.last = Math.max(summary.last, timestamp);
+                if (radius > 0) {
+                    summary.curves++;
+                    summary.radiusSum += radius;
+                    summary.minRadius = Math.min(summary.minRadius, radius);
+                }
+                summary.maxGrade = Math.max(summary.maxGrade, Math.abs(grade));
+                if (tier < 0) {
+                    summary.invalid++;
+                } else {
+                    summary.tiers[tier]++;
+                }
+                if ((journal.get(at + 90) & FLAG_ENFORCING) != 0) {
+                    summary.enforced++;
+                }
+            }
+            return summary;
+        }
+
+        public int records() {
+            return records;
+        }
+
+        public int curves() {
+            return curves;
+        }
+
+        /**
+         * Placements made while enforcement was active.
+         */
+        public int enforced() {
+            return enforced;
+        }
+
+        public long firstTimestamp() {
+            return first;
+        }
+
+        public long lastTimestamp() {
+            return last;
+        }
+
+        /**
+         * Tightest curve, or 0 if there were no curves.
+         */
+        public double minRadius() {
+            return curves > 0 ? minRadius : 0;
+        }
+
+        public double meanRadius() {
+            return curves > 0 ? radiusSum / curves : 0;
+        }
+
+        /**
+         * Steepest grade in either direction, in percent.
+         */
+        public double maxGrade() {
+            return maxGrade;
+        }
+
+        public int tierCount(int tier) {
+            return tier < 0 ? invalid : tier < tiers.length ? tiers[tier] : 0;
+        }
+    }
+}
@@ -0,0 +1,439 @@
+package com.railwaytoolkit.nbt;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streams the track connections out of NBT: structure {@code .nbt} files, as Create saves
+ * schematics, and chunks from region files.
+ *
+ * The data is read tag by tag straight from the stream. Only the list of blocks or block entities
+ * is descended into, and inside each entry only its position and the {@code Connections} list of
+ * its block entity are decoded; the palette, sections, entities and every other tag are skipped
+ * byte-wise without being built, so memory stays flat however large the input is. Tag names are
+ * compared as raw bytes, so nothing is allocated per tag either.
+ *
+ * Connection vectors are stored relative to the track block that owns them, as Create writes
+ * them. Each connection is saved by both of its track blocks; {@link Connection#primary()} marks
+ * the one copy that should be counted.
+ */
+public final class TrackNbt {
+
+    private static final int TAG_END = 0;
+    private static final int TAG_BYTE = 1;
+    private static final int TAG_SHORT = 2;
+    private static final int TAG_INT = 3;
+    private static final int TAG_LONG = 4;
+    private static final int TAG_FLOAT = 5;
+    private static final int TAG_DOUBLE = 6;
+    private static final int TAG_BYTE_ARRAY = 7;
+    private static final int TAG_STRING = 8;
+    private static final int TAG_LIST = 9;
+    private static final int TAG_COMPOUND = 10;
+    private static final int TAG_INT_ARRAY = 11;
+    private static final int TAG_LONG_ARRAY = 12;
+
+    /** Nesting allowed before a file is rejected, as vanilla does. */
+    private static final int MAX_DEPTH = 512;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private static final byte[] BLOCKS = name("blocks");
+    private static final byte[] BLOCK_ENTITIES = name("block_entities");
+    private static final byte[] LOWER_X = name("x");
+    private static final byte[] LOWER_Y = name("y");
+    private static final byte[] LOWER_Z = name("z");
+    private static final byte[] POS = name("pos");
+    private static final byte[] NBT = name("nbt");
+    private static final byte[] CONNECTIONS = name("Connections");
+    private static final byte[] PRIMARY = name("Primary");
+    private static final byte[] GIRDER = name("Girder");
+    private static final byte[] MATERIAL = name("Material");
+    private static final byte[] POSITIONS = name("Positions");
+    private static final byte[] X = name("X");
+    private static final byte[] Y = name("Y");
+    private static final byte[] Z = name("Z");
+    private static final byte[] V = name("V");
+    // Vector pairs, in the order they are stored in Connection.vectors
+    private static final byte[][] VECTORS = {name("Starts"), name("Axes"), name("Normals")};
+    /** Vectors every usable connection must have: both starts and both axes. */
+    private static final int REQUIRED_VECTORS = 0b1111;
+    /** Material Create assumes when a connection names none. */
+    public static final String DEFAULT_MATERIAL = "create:andesite";
+
+    private final DataInputStream in;
+    private byte[] nameBuffer = new byte[64];
+    private int nameLength = 0;
+    private int depth = 0;
+
+    // Block being read: its position and the connections of its block entity
+    private final int[] blockPos = new int[3];
+    private final List<Connection> blockConnections = new ArrayList<>();
+
+    private TrackNbt(InputStream in) {
+        this.in = new DataInputStream(in);
+    }
+
+    /**
+     * One track connection as saved by a track block at (x, y, z): relative to the schematic's
+     * origin, or in world coordinates when read from a chunk.
+     *
+     * {@code positions} holds the two track block offsets (first x/y/z, then second) and
+     * {@code vectors} the start, axis and normal pairs, three doubles each, in the order first
+     * start, second start, first axis, second axis, first normal, second normal. Normals missing
+     * from the file are zero. {@code material} is the track material's id.
+     */
+    public record Connection(int x, int y, int z, boolean primary, boolean girder, String material,
+                             int[] positions, double[] vectors) {
+    }
+
+    /**
+     * Read every track connection from a structure file, gzip-compressed or not, handing each to
+     * {@code sink} as soon as its block is complete. Returns the number of blocks in the file.
+     */
+    public static int readStructure(InputStream file, Consumer<Connection> sink) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(file, BUFFER_SIZE);
+        buffered.mark(2);
+        int magic = buffered.read() | buffered.read() << 8;
+        buffered.reset();
+        InputStream source = magic == GZIPInputStream.GZIP_MAGIC
+                ? new BufferedInputStream(new GZIPInputStream(buffered, BUFFER_SIZE), BUFFER_SIZE)
+                : buffered;
+        return new TrackNbt(source).readRoot(BLOCKS, sink);
+    }
+
+    /**
+     * Read every track connection from one decompressed chunk, handing each to {@code sink}.
+     * Returns the number of block entities in the chunk.
+     */
+    public static int readChunk(InputStream chunk, Consumer<Connection> sink) throws IOException {
+        return new TrackNbt(new BufferedInputStream(chunk, BUFFER_SIZE)).readRoot(BLOCK_ENTITIES, sink);
+    }
+
+    private int readRoot(byte[] listName, Consumer<Connection> sink) throws IOException {
+        if (in.readByte() != TAG_COMPOUND) {
+            throw new IOException("Not an NBT compound");
+        }
+        readName();
+
+        int entries = 0;
+        for (int type = in.readByte(); type != TAG_END; type = in.readByte()) {
+            readName();
+            if (type == TAG_LIST && nameIs(listName)) {
+                entries = readEntries(listName == BLOCK_ENTITIES, sink);
+            } else {
+                skip(type);
+            }
+        }
+        return entries;
+    }
+
+    private int readEntries(boolean blockEntities, Consumer<Connection> sink) throws IOException {
+        int elementType = in.readByte();
+        int length = in.readInt();
+        if (elementType != TAG_COMPOUND) {
+            skipElements(elementType, length);
+            return 0;
+        }
+        for (int i = 0; i < length; i++) {
+            Arrays.fill(blockPos, 0);
+            blockConnections.clear();
+            if (blockEntities) {
+                readBlockEntity(true);
+            } else {
+                readBlock();
+            }
+            emit(sink);
+        }
+        return Math.max(length, 0);
+    }
+
+    /**
+     * One entry of a structure's blocks list, with its block entity nested under {@code nbt}.
+     */
+    private void readBlock() throws IOException {
+        for (int type = in.readByte(); type != TAG_END; type = in.readByte()) {
+            readName();
+            if (type == TAG_LIST && nameIs(POS)) {
+                readPosList();
+            } else if (type == TAG_COMPOUND && nameIs(NBT)) {
+                readBlockEntity(false);
+            } else {
+                skip(type);
+            }
+        }
+    }
+
+    /**
+     * Hand on the connections of the entry just read. Its tags can come in any order, so they are
+     * only complete, position included, at the end of the entry.
+     */
+    private void emit(Consumer<Connection> sink) {
+        for (Connection connection : blockConnections) {
+            sink.accept(new Connection(blockPos[0], blockPos[1], blockPos[2], connection.primary(),
+                    connection.girder(), connection.material(), connection.positions(), connection.vectors()));
+        }
+    }
+
+    private void readPosList() throws IOException {
+        int elementType = in.readByte();
+        int length = in.readInt();
+        if (elementType != TAG_INT || length != 3) {
+            skipElements(elementType, length);
+            return;
+        }
+        for (int i = 0; i < 3; i++) {
+            blockPos[i] = in.readInt();
+        }
+    }
+
+    /**
+     * A block entity compound. Chunks store the position in it as x/y/z; structures strip those
+     * and keep the position beside it instead.
+     */
+    private void readBlockEntity(boolean positioned) throws IOException {
+        for (int type = in.readByte(); type != TAG_END; type = in.readByte()) {
+            readName();
+            int axis = !positioned || type != TAG_INT ? -1
+                    : nameIs(LOWER_X) ? 0 : nameIs(LOWER_Y) ? 1 : nameIs(LOWER_Z) ? 2 : -1;
+            if (axis >= 0) {
+                blockPos[axis] = in.readInt();
+            } else if (type == TAG_LIST && nameIs(CONNECTIONS)) {
+                int elementType = in.readByte();
+                int length = in.readInt();
+                if (elementType != TAG_COMPOUND) {
+                    skipElements(elementType, length);
+                    continue;
+                }
+                for (int i = 0; i < length; i++) {
+                    readConnection();
+                }
+            } else {
+                skip(type);
+            }
+        }
+    }
+
+    /**
+     * One compound of a block entity's {@code Connections}, as Create's {@code BezierConnection}
+     * writes it: two-element lists {@code Positions}, {@code Starts}, {@code Axes} and
+     * {@code Normals}, each vector a {@code {V: [x, y, z]}} compound, beside {@code Primary},
+     * {@code Girder} and {@code Material}.
+     */
+    private void readConnection() throws IOException {
+        int[] positions = new int[6];
+        double[] vectors = new double[VECTORS.length * 6];
+        boolean primary = false;
+        boolean girder = false;
+        String material = DEFAULT_MATERIAL;
+        int found = 0;
+        for (int type = in.readByte(); type != TAG_END; type = in.readByte()) {
+            readName();
+            int pair = type == TAG_LIST ? vectorIndex() : -1;
+            if (pair >= 0) {
+                found |= readVectorPair(vectors, pair * 6) << pair * 2;
+            } else if (type == TAG_LIST && nameIs(POSITIONS)) {
+                readPositions(positions);
+            } else if (type == TAG_BYTE && nameIs(PRIMARY)) {
+                primary = in.readByte() != 0;
+            } else if (type == TAG_BYTE && nameIs(GIRDER)) {
+                girder = in.readByte() != 0;
+            } else if (type == TAG_STRING && nameIs(MATERIAL)) {
+                material = in.readUTF();
+            } else {
+                skip(type);
+            }
+        }
+        if ((found & REQUIRED_VECTORS) == REQUIRED_VECTORS) {
+            blockConnections.add(new Connection(0, 0, 0, primary, girder, material, positions, vectors));
+        }
+    }
+
+    private int vectorIndex() {
+        for (int i = 0; i < VECTORS.length; i++) {
+            if (nameIs(VECTORS[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * A list of two vector compounds. Returns a bit per vector read, first vector lowest.
+     */
+    private int readVectorPair(double[] out, int offset) throws IOException {
+        int elementType = in.readByte();
+        int length = in.readInt();
+        if (elementType != TAG_COMPOUND) {
+            skipElements(elementType, length);
+            return 0;
+        }
+        int read = 0;
+        for (int i = 0; i < length; i++) {
+            boolean vector = false;
+            for (int type = in.readByte(); type != TAG_END; type = in.readByte()) {
+                readName();
+                if (i < 2 && type == TAG_LIST && nameIs(V)) {
+                    vector = readVector(out, offset + i * 3);
+                } else {
+                    skip(type);
+                }
+            }
+            if (vector) {
+                read |= 1 << i;
+            }
+        }
+        return read;
+    }
+
+    /**
+     * A list of three doubles. Returns false if it was anything else.
+     */
+    private boolean readVector(double[] out, int offset) throws IOException {
+        int elementType = in.readByte();
+        int length = in.readInt();
+        if (elementType != TAG_DOUBLE || length != 3) {
+            skipElements(elementType, length);
+            return false;
+        }
+        for (int i = 0; i < 3; i++) {
+            out[offset + i] = in.readDouble();
+        }
+        return true;
+    }
+
+    /**
+     * The two track block positions, each an X/Y/Z compound or an int array.
+     */
+    private void readPositions(int[] out) throws IOException {
+        int elementType = in.readByte();
+        int length = in.readInt();
+        if (elementType != TAG_COMPOUND && elementType != TAG_INT_ARRAY) {
+            skipElements(elementType, length);
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            if (i < 2) {
+                readBlockPos(elementType, out, i * 3);
+            } else {
+                skip(elementType);
+            }
+        }
+    }
+
+    /**
+     * A block position, either an int array or an X/Y/Z compound.
+     */
+    private void readBlockPos(int type, int[] out, int offset) throws IOException {
+        if (type == TAG_INT_ARRAY) {
+            int length = length();
+            for (int i = 0; i < length; i++) {
+                int value = in.readInt();
+                if (i < 3) {
+                    out[offset + i] = value;
+                }
+            }
+        } else {
+            for (int inner = in.readByte(); inner != TAG_END; inner = in.readByte()) {
+                readName();
+                int axis = inner != TAG_INT ? -1 : nameIs(X) ? 0 : nameIs(Y) ? 1 : nameIs(Z) ? 2 : -1;
+                if (axis >= 0) {
+                    out[offset + axis] = in.readInt();
+                } else {
+                    skip(inner);
+                }
+            }
+        }
+    }
+
+    /**
+     * Skip the payload of a tag of the given type.
+     */
+    private void skip(int type) throws IOException {
+        switch (type) {
+            case TAG_BYTE -> in.skipNBytes(1);
+            case TAG_SHORT -> in.skipNBytes(2);
+            case TAG_INT, TAG_FLOAT -> in.skipNBytes(4);
+            case TAG_LONG, TAG_DOUBLE -> in.skipNBytes(8);
+            case TAG_BYTE_ARRAY -> in.skipNBytes(length());
+            case TAG_STRING -> in.skipNBytes(in.readUnsignedShort());
+            case TAG_INT_ARRAY -> in.skipNBytes(length() * 4L);
+            case TAG_LONG_ARRAY -> in.skipNBytes(length() * 8L);
+            case TAG_LIST -> {
+                int elementType = in.readByte();
+                skipElements(elementType, in.readInt());
+            }
+            case TAG_COMPOUND -> {
+                enter();
+                for (int inner = in.readByte(); inner != TAG_END; inner = in.readByte()) {
+                    in.skipNBytes(in.readUnsignedShort());
+                    skip(inner);
+                }
+                depth--;
+            }
+            default -> throw new IOException("Unknown NBT tag type " + type);
+        }
+    }
+
+    private void skipElements(int elementType, int length) throws IOException {
+        if (length <= 0) {
+            return;
+        }
+        long fixed = switch (elementType) {
+            case TAG_BYTE -> 1;
+            case TAG_SHORT -> 2;
+            case TAG_INT, TAG_FLOAT -> 4;
+            case TAG_LONG, TAG_DOUBLE -> 8;
+            default -> 0;
+        };
+        if (fixed > 0) {
+            in.skipNBytes(fixed * length);
+            return;
+        }
+        enter();
+        for (int i = 0; i < length; i++) {
+            skip(elementType);
+        }
+        depth--;
+    }
+
+    private int length() throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Negative NBT array length");
+        }
+        return length;
+    }
+
+    private void enter() throws IOException {
+        if (++depth > MAX_DEPTH) {
+            throw new IOException("NBT nested deeper than " + MAX_DEPTH);
+        }
+    }
+
+    /**
+     * Read a tag name into the reusable buffer. Names are compared as their modified UTF-8 bytes.
+     */
+    private void readName() throws IOException {
+        nameLength = in.readUnsignedShort();
+        if (nameLength > nameBuffer.length) {
+            nameBuffer = new byte[Math.max(nameLength, nameBuffer.length * 2)];
+        }
+        in.readFully(nameBuffer, 0, nameLength);
+    }
+
+    private boolean nameIs(byte[] expected) {
+        return Arrays.equals(nameBuffer, 0, nameLength, expected, 0, expected.length);
+    }
+
+    private static byte[] name(String ascii) {
+        return ascii.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,167 @@
+package com.railwaytoolkit.rating;
+
+import com.railwaytoolkit.geometry.CubicBezier;
+import com.railwaytoolkit.geometry.MinimumRadius;
+
+/**
+ * Flat ribbon mesh along a curve, coloured per segment by the rating of its local radius and
+ * grade.
+ *
+ * The curve is cut into equal parameter steps. Each segment takes the tightest radius and the
+ * steepest grade of its two ends and its midpoint, so a short tight or steep spot still colours
+ * the segment it falls in, and tiers with a grade limit are applied as everywhere else. Vertices
+ * are quads (four corners per segment) stored as floats relative to the start of the curve, so
+ * they keep their precision far from the world origin; the renderer adds {@link #originX()} and
+ * friends back. Built once and immutable afterwards, so it can be shared between threads.
+ */
+public final class CurvatureHeatmap {
+
+    /** Floats per vertex: x, y, z. */
+    public static final int VERTEX_STRIDE = 3;
+    /** Vertices per segment quad. */
+    public static final int QUAD_VERTICES = 4;
+
+    private final double originX;
+    private final double originY;
+    private final double originZ;
+    private final int segments;
+    private final float[] vertices;
+    private final float[] radii;
+    private final float[] grades;
+    private final byte[] tiers;
+    private final int[] colors;
+
+    private CurvatureHeatmap(double originX, double originY, double originZ, int segments) {
+        this.originX = originX;
+        this.originY = originY;
+        this.originZ = originZ;
+        this.segments = segments;
+        this.vertices = new float[segments * QUAD_VERTICES * VERTEX_STRIDE];
+        this.radii = new float[segments];
+        this.grades = new float[segments];
+        this.tiers = new byte[segments];
+        this.colors = new int[segments];
+    }
+
+    /**
+     * Build the mesh for the curve at {@code offset}, {@code halfWidth} blocks to either side of
+     * the centre line and raised by {@code lift}. Straight segments are rated as the widest tier,
+     * subject to their grade.
+     */
+    public static CurvatureHeatmap build(double[] curve, int offset, int segments, double halfWidth, double lift,
+                                         RatingTable ratings) {
+        CurvatureHeatmap mesh = new CurvatureHeatmap(curve[offset], curve[offset + 1], curve[offset + 2], segments);
+        double[] point = new double[3];
+        double[] tangent = new double[3];
+        // Left and right edge of the previous cut, relative to the origin
+        float[] edge = new float[6];
+        cut(mesh, curve, offset, 0, halfWidth, lift, point, tangent, edge);
+
+        double previousCurvature = CubicBezier.curvature(curve, offset, 0);
+        double previousGrade = grade(curve, offset, 0, tangent);
+        for (int i = 0; i < segments; i++) {
+            double t0 = i / (double) segments;
+            double t1 = (i + 1) / (double) segments;
+            double midCurvature = CubicBezier.curvature(curve, offset, (t0 + t1) / 2);
+            double endCurvature = CubicBezier.curvature(curve, offset, t1);
+            double curvature = Math.max(previousCurvature, Math.max(midCurvature, endCurvature));
+            previousCurvature = endCurvature;
+            double endGrade = grade(curve, offset, t1, tangent);
+            double grade = Math.max(previousGrade, Math.max(grade(curve, offset, (t0 + t1) / 2, tangent), endGrade));
+            previousGrade = endGrade;
+
+            double radius = curvature > MinimumRadius.STRAIGHT_CURVATURE ? 1 / curvature : 0;
+            int tier = ratings.rate(radius > 0 ? radius : Double.POSITIVE_INFINITY, grade);
+            mesh.radii[i] = (float) radius;
+            mesh.grades[i] = (float) grade;
+            mesh.tiers[i] = (byte) tier;
+            mesh.colors[i] = ratings.color(tier);
+
+            // Quad corners in order: left and right at t0, right and left at t1
+            int v = i * QUAD_VERTICES * VERTEX_STRIDE;
+            System.arraycopy(edge, 0, mesh.vertices, v, 3);
+            System.arraycopy(edge, 3, mesh.vertices, v + 3, 3);
+            cut(mesh, curve, offset, t1, halfWidth, lift, point, tangent, edge);
+            System.arraycopy(edge, 3, mesh.vertices, v + 6, 3);
+            System.arraycopy(edge, 0, mesh.vertices, v + 9, 3);
+        }
+        return mesh;
+    }
+
+    /**
+     * Steepness of the curve at {@code t}, as a grade in percent of either sign, made positive.
+     */
+    private static double grade(double[] curve, int offset, double t, double[] tangent) {
+        CubicBezier.derivative(curve, offset, t, tangent, 0);
+        double horizontal = Math.sqrt(tangent[0] * tangent[0] + tangent[2] * tangent[2]);
+        return horizontal > 0 ? Math.abs(tangent[1]) / horizontal * 100.0 : 0;
+    }
+
+    /**
+     * Left and right edge points of the ribbon at {@code t}, offset along the horizontal normal.
+     */
+    private static void cut(CurvatureHeatmap mesh, double[] curve, int offset, double t, double halfWidth,
+                            double lift, double[] point, double[] tangent, float[] edge) {
+        CubicBezier.point(curve, offset, t, point, 0);
+        CubicBezier.derivative(curve, offset, t, tangent, 0);
+        double horizontal = Math.sqrt(tangent[0] * tangent[0] + tangent[2] * tangent[2]);
+        double nx = 0;
+        double nz = 0;
+        if (horizontal > 0) {
+            nx = -tangent[2] / horizontal * halfWidth;
+            nz = tangent[0] / horizontal * halfWidth;
+        }
+        double x = point[0] - mesh.originX;
+        double y = point[1] - mesh.originY + lift;
+        double z = point[2] - mesh.originZ;
+        edge[0] = (float) (x + nx);
+        edge[1] = (float) y;
+        edge[2] = (float) (z + nz);
+        edge[3] = (float) (x - nx);
+        edge[4] = (float) y;
+        edge[5] = (float) (z - nz);
+    }
+
+    public double originX() {
+        return originX;
+    }
+
+    public double originY() {
+        return originY;
+    }
+
+    public double originZ() {
+        return originZ;
+    }
+
+    public int segments() {
+        return segments;
+    }
+
+    /**
+     * Vertex positions, {@link #QUAD_VERTICES} per segment and {@link #VERTEX_STRIDE} floats per
+     * vertex. Not copied; do not modify.
+     */
+    public float[] vertices() {
+        return vertices;
+    }
+
+    /** Tightest radius in segment {@code i}, or 0 if it is straight. */
+    public float radius(int i) {
+        return radii[i];
+    }
+
+    /** Steepest grade in segment {@code i}, in percent. */
+    public float grade(int i) {
+        return grades[i];
+    }
+
+    public int tier(int i) {
+        return tiers[i];
+    }
+
+    /** RGB colour of segment {@code i}. */
+    public int color(int i) {
+        return colors[i];
+    }
+}
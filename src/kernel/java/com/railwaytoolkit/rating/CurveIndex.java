@@ -0,0 +1,304 @@
+package com.railwaytoolkit.rating;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongPredicate;
+
+/**
+ * Compact index of track connections, queried in order of minimum radius.
+ *
+ * Each entry is a handful of primitives in parallel arrays: a connection key, a packed block
+ * position, the radius, the steepest grade and the length. Entries are found by key through a
+ * hash map from key to slot, so putting and removing one is constant time however large the
+ * index grows; a removed slot is filled with the last one. The radius order is a separate
+ * permutation of the slots, sorted again on the first query after a change, so "how many
+ * curves are below R" is a binary search and "the worst n" is a prefix. Ratings are not stored
+ * with the entries but derived from a {@link RatingTable} by {@link #rerate}, so a threshold
+ * change never touches the geometry. Not thread-safe.
+ */
+public final class CurveIndex {
+
+    private long[] keys;
+    private long[] positions;
+    private float[] radii;
+    private float[] grades;
+    private float[] lengths;
+    private byte[] tiers;
+    private int size;
+    private RatingTable ratedWith = null;
+
+    private final Map<Long, Integer> slots = new HashMap<>();
+    // Slots in radius order; only valid while sorted is set
+    private int[] order = new int[0];
+    private boolean sorted = true;
+
+    public CurveIndex() {
+        this(16);
+    }
+
+    public CurveIndex(int capacity) {
+        int initial = Math.max(1, capacity);
+        keys = new long[initial];
+        positions = new long[initial];
+        radii = new float[initial];
+        grades = new float[initial];
+        lengths = new float[initial];
+        tiers = new byte[initial];
+    }
+
+    /**
+     * Wrap arrays as written by the accessors below. The arrays are used as they are, not
+     * copied.
+     */
+    public static CurveIndex of(long[] keys, long[] positions, float[] radii, float[] grades, float[] lengths) {
+        CurveIndex index = new CurveIndex(0);
+        index.size = keys.length;
+        index.keys = keys;
+        index.positions = positions;
+        index.radii = radii;
+        index.grades = grades;
+        index.lengths = lengths;
+        index.tiers = new byte[Math.max(1, keys.length)];
+        for (int slot = 0; slot < keys.length; slot++) {
+            index.slots.put(keys[slot], slot);
+        }
+        index.sorted = false;
+        return index;
+    }
+
+    /**
+     * Insert or replace the entry for {@code key}.
+     */
+    public void put(long key, long position, float radius, float grade, float length) {
+        Integer existing = slots.get(key);
+        int slot;
+        if (existing != null) {
+            slot = existing;
+        } else {
+            if (size == keys.length) {
+                grow();
+            }
+            slot = size++;
+            keys[slot] = key;
+            slots.put(key, slot);
+        }
+        positions[slot] = position;
+        radii[slot] = radius;
+        grades[slot] = grade;
+        lengths[slot] = length;
+        tiers[slot] = ratedWith != null ? (byte) ratedWith.rate(radius, grade) : RatingTable.INVALID;
+        sorted = false;
+    }
+
+    /**
+     * Remove the entry for {@code key}. Returns false if there was none.
+     */
+    public boolean remove(long key) {
+        Integer slot = slots.remove(key);
+        if (slot == null) {
+            return false;
+        }
+        int last = --size;
+        if (slot != last) {
+            move(last, slot);
+            slots.put(keys[slot], slot);
+        }
+        sorted = false;
+        return true;
+    }
+
+    /**
+     * Drop every entry whose key fails {@code keep}, in one compacting pass. Returns the number
+     * of entries removed.
+     */
+    public int retain(LongPredicate keep) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (!keep.test(keys[i])) {
+                slots.remove(keys[i]);
+                continue;
+            }
+            if (kept != i) {
+                move(i, kept);
+                slots.put(keys[kept], kept);
+            }
+            kept++;
+        }
+        int removed = size - kept;
+        size = kept;
+        if (removed > 0) {
+            sorted = false;
+        }
+        return removed;
+    }
+
+    /**
+     * Re-derive every entry's tier from the given table. Does nothing if the entries were
+     * already rated with this same table.
+     */
+    public void rerate(RatingTable table) {
+        if (table == ratedWith) {
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            tiers[i] = (byte) table.rate(radii[i], grades[i]);
+        }
+        ratedWith = table;
+    }
+
+    /**
+     * Number of entries with a radius strictly below {@code radius}, which are also the first
+     * entries of the index.
+     */
+    public int countBelow(double radius) {
+        return lowerBound(radius);
+    }
+
+    /**
+     * Rank of the first entry with a radius of at least {@code radius}.
+     */
+    public int lowerBound(double radius) {
+        sort();
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (radii[order[mid]] < radius) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Entries per tier under the last {@link #rerate}, indexed by tier + 1 so that
+     * {@link RatingTable#INVALID} is at 0.
+     */
+    public int[] tierCounts() {
+        int[] counts = new int[ratedWith != null ? ratedWith.size() + 1 : 1];
+        for (int i = 0; i < size; i++) {
+            counts[tiers[i] + 1]++;
+        }
+        return counts;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Whether an entry for {@code key} exists. */
+    public boolean contains(long key) {
+        return slots.containsKey(key);
+    }
+
+    // Accessors by rank, 0 being the tightest curve
+
+    public long key(int i) {
+        sort();
+        return keys[order[i]];
+    }
+
+    public long position(int i) {
+        sort();
+        return positions[order[i]];
+    }
+
+    public float radius(int i) {
+        sort();
+        return radii[order[i]];
+    }
+
+    public float grade(int i) {
+        sort();
+        return grades[order[i]];
+    }
+
+    public float length(int i) {
+        sort();
+        return lengths[order[i]];
+    }
+
+    public int tier(int i) {
+        sort();
+        return tiers[order[i]];
+    }
+
+    public long[] keys() {
+        return Arrays.copyOf(keys, size);
+    }
+
+    public long[] positions() {
+        return Arrays.copyOf(positions, size);
+    }
+
+    public float[] radii() {
+        return Arrays.copyOf(radii, size);
+    }
+
+    public float[] grades() {
+        return Arrays.copyOf(grades, size);
+    }
+
+    public float[] lengths() {
+        return Arrays.copyOf(lengths, size);
+    }
+
+    /**
+     * Order-independent key of a connection between two packed block positions.
+     */
+    public static long connectionKey(long a, long b) {
+        long lo = Math.min(a, b);
+        long hi = Math.max(a, b);
+        long hash = lo * 0x9E3779B97F4A7C15L + hi;
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        return hash ^ (hash >>> 31);
+    }
+
+    /**
+     * Rebuild the radius order if anything changed since it was last built. Each slot is
+     * packed behind its radius's bits, mapped so signed order matches float order, and the
+     * packed values are sorted as plain longs.
+     */
+    private void sort() {
+        if (sorted) {
+            return;
+        }
+        long[] packed = new long[size];
+        for (int slot = 0; slot < size; slot++) {
+            int bits = Float.floatToIntBits(radii[slot]);
+            bits ^= (bits >> 31) & 0x7FFFFFFF;
+            packed[slot] = (long) bits << 32 | slot;
+        }
+        Arrays.sort(packed);
+        if (order.length < size) {
+            order = new int[keys.length];
+        }
+        for (int rank = 0; rank < size; rank++) {
+            order[rank] = (int) packed[rank];
+        }
+        sorted = true;
+    }
+
+    private void move(int from, int to) {
+        keys[to] = keys[from];
+        positions[to] = positions[from];
+        radii[to] = radii[from];
+        grades[to] = grades[from];
+        lengths[to] = lengths[from];
+        tiers[to] = tiers[from];
+    }
+
+    private void grow() {
+        int capacity = Math.max(16, keys.length * 2);
+        keys = Arrays.copyOf(keys, capacity);
+        positions = Arrays.copyOf(positions, capacity);
+        radii = Arrays.copyOf(radii, capacity);
+        grades = Arrays.copyOf(grades, capacity);
+        lengths = Arrays.copyOf(lengths, capacity);
+        tiers = Arrays.copyOf(tiers, capacity);
+    }
+}
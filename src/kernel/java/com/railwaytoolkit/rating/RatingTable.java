@@ -0,0 +1,156 @@
+package com.railwaytoolkit.rating;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable, sorted table of curvature rating tiers.
+ *
+ * Each tier has a name, a minimum radius, a display colour and a grade limit. Tiers are kept
+ * in ascending order of minimum radius in parallel primitive arrays, so rating a radius is a
+ * binary search that does not allocate. Tier indices therefore run from the tightest tier (0)
+ * to the widest ({@link #size()} - 1).
+ */
+public final class RatingTable {
+
+    /** Rating of a radius tighter than every tier, or of a non-positive radius. */
+    public static final int INVALID = -1;
+
+    /** Colour used for {@link #INVALID}. */
+    public static final int INVALID_COLOR = 0xFF5555;
+
+    private final String[] names;
+    private final double[] minRadii;
+    private final int[] colors;
+    private final double[] maxGrades;
+
+    private RatingTable(String[] names, double[] minRadii, int[] colors, double[] maxGrades) {
+        this.names = names;
+        this.minRadii = minRadii;
+        this.colors = colors;
+        this.maxGrades = maxGrades;
+    }
+
+    /**
+     * A single tier definition, used while building a table.
+     * A {@code maxGrade} of {@link Double#POSITIVE_INFINITY} means the tier has no grade limit.
+     */
+    public record Tier(String name, double minRadius, int color, double maxGrade) {
+    }
+
+    /**
+     * Build a table from tiers in any order.
+     */
+    public static RatingTable of(List<Tier> tiers) {
+        List<Tier> sorted = new ArrayList<>(tiers);
+        sorted.sort(Comparator.comparingDouble(Tier::minRadius));
+
+        int size = sorted.size();
+        String[] names = new String[size];
+        double[] minRadii = new double[size];
+        int[] colors = new int[size];
+        double[] maxGrades = new double[size];
+        for (int i = 0; i < size; i++) {
+            Tier tier = sorted.get(i);
+            names[i] = tier.name();
+            minRadii[i] = tier.minRadius();
+            colors[i] = tier.color();
+            maxGrades[i] = tier.maxGrade();
+        }
+        return new RatingTable(names, minRadii, colors, maxGrades);
+    }
+
+    /**
+     * Parse a tier written as {@code Name;minRadius;#RRGGBB[;maxGradePercent]}.
+     * Returns null if the entry is malformed.
+     */
+    public static Tier parseTier(String entry) {
+        String[] parts = entry.split(";");
+        if (parts.length < 3 || parts.length > 4) {
+            return null;
+        }
+        try {
+            String name = parts[0].trim();
+            double minRadius = Double.parseDouble(parts[1].trim());
+            String colorText = parts[2].trim();
+            if (colorText.startsWith("#")) {
+                colorText = colorText.substring(1);
+            }
+            int color = Integer.parseInt(colorText, 16) & 0xFFFFFF;
+            double maxGrade = parts.length == 4 ? Double.parseDouble(parts[3].trim()) : Double.POSITIVE_INFINITY;
+            if (name.isEmpty() || !(minRadius > 0) || !(maxGrade >= 0)) {
+                return null;
+            }
+            return new Tier(name, minRadius, color, maxGrade);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Index of the widest tier whose minimum radius the given radius meets, or {@link #INVALID}.
+     */
+    public int rate(double radius) {
+        if (!(radius > 0)) {
+            return INVALID;
+        }
+        // Largest index with minRadii[index] <= radius
+        int index = Arrays.binarySearch(minRadii, radius);
+        if (index < 0) {
+            index = -index - 2;
+        } else {
+            // Step past equal thresholds so duplicates resolve to the widest tier
+            while (index + 1 < minRadii.length && minRadii[index + 1] == radius) {
+                index++;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Like {@link #rate(double)}, but a tier is only given if the grade (percent, either sign)
+     * is within its limit; otherwise the next tighter tier that allows the grade is used.
+     */
+    public int rate(double radius, double grade) {
+        int index = rate(radius);
+        double absGrade = Math.abs(grade);
+        while (index >= 0 && absGrade > maxGrades[index]) {
+            index--;
+        }
+        return index;
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public String name(int tier) {
+        return tier == INVALID ? "Invalid" : names[tier];
+    }
+
+    public double minRadius(int tier) {
+        return minRadii[tier];
+    }
+
+    public int color(int tier) {
+        return tier == INVALID ? INVALID_COLOR : colors[tier];
+    }
+
+    public double maxGrade(int tier) {
+        return maxGrades[tier];
+    }
+
+    /**
+     * Index of the tier with the given name, ignoring case, or {@link #INVALID}.
+     */
+    public int indexOf(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        return INVALID;
+    }
+}
@@ -0,0 +1,133 @@
+package com.railwaytoolkit.route;
+
+import java.util.Arrays;
+
+/**
+ * Speed profile of a train along a route made of segments, each with its own speed limit.
+ *
+ * The route starts and ends at rest unless an entry speed is given. Boundary speeds are found
+ * with a forward pass (how fast the train can have accelerated) and a backward pass (how fast it
+ * may be to still brake in time), then each segment is timed as accelerate, cruise and brake
+ * within its limit. Acceleration and braking use the same rate, as Create's trains do. Speeds are
+ * in blocks per second and lengths in blocks. An instance owns its buffers, so it is not
+ * thread-safe.
+ */
+public final class SpeedProfile {
+
+    /** Slowest a grade penalty can make a segment, as a fraction of the top speed. */
+    public static final double MIN_GRADE_FACTOR = 0.25;
+
+    private double[] boundary = new double[0];
+    private double[] peaks = new double[0];
+    private double[] times = new double[0];
+    private int count = 0;
+    private double totalTime = 0;
+
+    /**
+     * Speed limit through a curve of the given radius, from the lateral acceleration allowed in
+     * curves and capped at the turning top speed. Straight track (radius 0) is only capped at
+     * {@code topSpeed}.
+     */
+    public static double curveLimit(double radius, double lateralAcceleration, double turnTopSpeed, double topSpeed) {
+        if (!(radius > 0)) {
+            return topSpeed;
+        }
+        return Math.min(Math.min(turnTopSpeed, topSpeed), Math.sqrt(lateralAcceleration * radius));
+    }
+
+    /**
+     * Fraction of the speed limit kept on a grade, losing {@code penalty} percent of speed per
+     * percent of grade, up or down.
+     */
+    public static double gradeFactor(double grade, double penalty) {
+        return Math.max(MIN_GRADE_FACTOR, 1 - Math.abs(grade) * penalty / 100.0);
+    }
+
+    /**
+     * Solve the profile of {@code count} segments. Returns the total travel time in seconds.
+     */
+    public double solve(double[] lengths, double[] limits, int count, double entrySpeed, double acceleration) {
+        ensureCapacity(count);
+        this.count = count;
+        if (count == 0) {
+            totalTime = 0;
+            return 0;
+        }
+
+        // Boundary i is the start of segment i; boundary count is the end of the route
+        boundary[0] = Math.min(entrySpeed, limits[0]);
+        for (int i = 1; i < count; i++) {
+            double reachable = Math.sqrt(boundary[i - 1] * boundary[i - 1] + 2 * acceleration * lengths[i - 1]);
+            boundary[i] = Math.min(reachable, Math.min(limits[i - 1], limits[i]));
+        }
+        boundary[count] = 0;
+        for (int i = count - 1; i >= 0; i--) {
+            double stoppable = Math.sqrt(boundary[i + 1] * boundary[i + 1] + 2 * acceleration * lengths[i]);
+            boundary[i] = Math.min(boundary[i], stoppable);
+        }
+
+        double total = 0;
+        for (int i = 0; i < count; i++) {
+            times[i] = segmentTime(lengths[i], limits[i], boundary[i], boundary[i + 1], acceleration, i);
+            total += times[i];
+        }
+        totalTime = total;
+        return total;
+    }
+
+    /**
+     * Accelerate from {@code in}, cruise at up to {@code limit}, and brake to {@code out}.
+     */
+    private double segmentTime(double length, double limit, double in, double out, double acceleration, int i) {
+        if (length <= 0) {
+            peaks[i] = in;
+            return 0;
+        }
+        // Highest speed reachable while still braking to the exit speed within the segment
+        double peak = Math.sqrt((2 * acceleration * length + in * in + out * out) / 2);
+        if (peak > limit) {
+            peak = limit;
+        }
+        if (peak <= 0) {
+            peaks[i] = 0;
+            return Double.POSITIVE_INFINITY;
+        }
+        peaks[i] = peak;
+        double accelerating = (peak * peak - in * in) / (2 * acceleration);
+        double braking = (peak * peak - out * out) / (2 * acceleration);
+        double cruising = Math.max(0, length - accelerating - braking);
+        return (peak - in) / acceleration + (peak - out) / acceleration + cruising / peak;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public double totalTime() {
+        return totalTime;
+    }
+
+    /** Travel time through segment {@code i}, in seconds. */
+    public double time(int i) {
+        return times[i];
+    }
+
+    /** Speed at the start of segment {@code i}; {@code entrySpeed(count())} is the arrival speed. */
+    public double entrySpeed(int i) {
+        return boundary[i];
+    }
+
+    /** Highest speed reached in segment {@code i}. */
+    public double peakSpeed(int i) {
+        return peaks[i];
+    }
+
+    private void ensureCapacity(int count) {
+        if (times.length < count) {
+            int capacity = Math.max(16, Math.max(count, times.length * 2));
+            boundary = Arrays.copyOf(boundary, capacity + 1);
+            peaks = Arrays.copyOf(peaks, capacity);
+            times = Arrays.copyOf(times, capacity);
+        }
+    }
+}
@@ -0,0 +1,517 @@
+package com.railwaytoolkit.route;
+
+import com.railwaytoolkit.geometry.CubicBezier;
+import com.railwaytoolkit.geometry.MinimumRadius;
+
+import java.util.Arrays;
+
+/**
+ * A* search for a chain of straights and 45 degree curves between two track points, every curve
+ * meeting a minimum radius.
+ *
+ * States are block positions on the horizontal grid with one of the eight headings track can
+ * have. A move is either one step straight ahead or the smallest 45 degree curve to either side
+ * whose minimum radius, solved on the actual Bezier, meets the limit; those curves are worked
+ * out once per heading when the planner is built. Only states inside the start/goal bounding box
+ * grown by a margin are searched, and the heuristic is the straight-line distance, which no
+ * move can beat. Scores and parents live in flat arrays indexed by state and the open list is a
+ * binary heap of primitives, so expanding a state allocates nothing.
+ *
+ * The search runs in slices: {@link #step} expands states until a deadline and returns, so the
+ * caller can spread a search over frames. The state arrays, which reach millions of entries, are
+ * allocated by the first step and cleared in slices the same way. Not thread-safe.
+ */
+public final class TrackPlanner {
+
+    public enum Status {
+        RUNNING, FOUND, FAILED
+    }
+
+    public static final int HEADINGS = 8;
+    /** Grid step of each heading, counter-clockwise from +X in 45 degree steps. */
+    public static final int[] DX = {1, 1, 0, -1, -1, -1, 0, 1};
+    public static final int[] DZ = {0, 1, 1, 1, 0, -1, -1, -1};
+
+    /** Largest search area, in states, before the planner refuses to start. */
+    public static final int MAX_STATES = 1 << 21;
+    private static final int MAX_CURVE_LEG = 512;
+    private static final int LENGTH_SAMPLES = 32;
+    private static final int CHECK_INTERVAL = 64;
+    /** States cleared between deadline checks while preparing. */
+    private static final int FILL_CHUNK = 1 << 16;
+    private static final double DIAGONAL = Math.sqrt(2);
+    private static final byte MOVE_NONE = 0;
+    private static final byte MOVE_STRAIGHT = 1;
+    private static final byte MOVE_LEFT = 2;
+    private static final byte MOVE_RIGHT = 3;
+
+    // Curve move per heading and side: index heading * 2 + (left ? 0 : 1)
+    private final int[] curveDx = new int[HEADINGS * 2];
+    private final int[] curveDz = new int[HEADINGS * 2];
+    private final float[] curveCost = new float[HEADINGS * 2];
+    private final double[] curveRadius = new double[HEADINGS * 2];
+
+    private final int minX;
+    private final int minZ;
+    private final int width;
+    private final int depth;
+    private final int goalX;
+    private final int goalZ;
+    private final int goalHeading;
+    private final int startY;
+    private final int goalY;
+    private final int stateCount;
+    private final int startState;
+
+    // Allocated by the first step; states below filled have been cleared
+    private float[] scores = null;
+    private int[] parents = null;
+    private byte[] moves = null;
+    private int filled = 0;
+
+    private int[] heapStates = new int[256];
+    private float[] heapKeys = new float[256];
+    private int heapSize = 0;
+
+    private Status status = Status.RUNNING;
+    private int found = -1;
+    private int expanded = 0;
+    private Plan plan = null;
+
+    /**
+     * Plan from the track at the start, heading either way along {@code startHeading}, to the goal,
+     * arriving along {@code goalHeading} in either direction. Headings index {@link #DX}/{@link #DZ}.
+     */
+    public TrackPlanner(int startX, int startY, int startZ, int startHeading,
+                        int goalX, int goalY, int goalZ, int goalHeading,
+                        double minRadius, double tolerance) {
+        this.goalX = goalX;
+        this.goalZ = goalZ;
+        this.goalHeading = Math.floorMod(goalHeading, HEADINGS / 2);
+        this.startY = startY;
+        this.goalY = goalY;
+
+        MinimumRadius solver = new MinimumRadius();
+        double[] curve = new double[CubicBezier.STRIDE];
+        int longestLeg = 0;
+        for (int heading = 0; heading < HEADINGS; heading++) {
+            for (int side = 0; side < 2; side++) {
+                longestLeg = Math.max(longestLeg, buildCurve(heading, side, minRadius, tolerance, solver, curve));
+            }
+        }
+
+        int margin = Math.max(16, 2 * longestLeg);
+        this.minX = Math.min(startX, goalX) - margin;
+        this.minZ = Math.min(startZ, goalZ) - margin;
+        this.width = Math.abs(startX - goalX) + 2 * margin + 1;
+        this.depth = Math.abs(startZ - goalZ) + 2 * margin + 1;
+
+        long states = (long) width * depth * HEADINGS;
+        if (states > MAX_STATES) {
+            this.stateCount = 0;
+            this.startState = -1;
+            status = Status.FAILED;
+            return;
+        }
+        this.stateCount = (int) states;
+        this.startState = state(startX, startZ, Math.floorMod(startHeading, HEADINGS / 2));
+    }
+
+    /**
+     * Allocate the state arrays and mark states unvisited a chunk at a time until
+     * {@code deadlineNanos}, then open the start both ways along its heading. Returns true once
+     * the search can run.
+     */
+    private boolean prepare(long deadlineNanos) {
+        if (scores == null) {
+            scores = new float[stateCount];
+            parents = new int[stateCount];
+            moves = new byte[stateCount];
+        }
+        while (filled < stateCount) {
+            int end = Math.min(stateCount, filled + FILL_CHUNK);
+            Arrays.fill(scores, filled, end, Float.POSITIVE_INFINITY);
+            filled = end;
+            if (filled == stateCount) {
+                open(startState, 0, MOVE_NONE, -1);
+                open(startState + HEADINGS / 2, 0, MOVE_NONE, -1);
+            } else if (System.nanoTime() > deadlineNanos) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Smallest 45 degree curve from {@code heading} to one side whose minimum radius meets the
+     * limit. The legs are whole grid steps along both headings, as close to equal as the grid
+     * allows. Returns the number of steps, or -1 if none up to {@link #MAX_CURVE_LEG} qualifies.
+     */
+    private int buildCurve(int heading, int side, double minRadius, double tolerance, MinimumRadius solver,
+                           double[] curve) {
+        int index = heading * 2 + side;
+        int to = Math.floorMod(heading + (side == 0 ? 1 : -1), HEADINGS);
+        boolean diagonal = (heading & 1) == 1;
+        double theta = Math.PI / 4;
+
+        for (int n = 1; n <= MAX_CURVE_LEG; n++) {
+            int first = diagonal ? n : (int) Math.round(n * DIAGONAL);
+            int second = diagonal ? (int) Math.round(n * DIAGONAL) : n;
+            int dx = first * DX[heading] + second * DX[to];
+            int dz = first * DZ[heading] + second * DZ[to];
+
+            setCurve(curve, 0, 0, 0, 0, heading, dx, 0, dz, to, meanLeg(heading, to, dx, dz), theta);
+            double radius = solver.solve(curve, 0, tolerance);
+            if (radius >= minRadius) {
+                curveDx[index] = dx;
+                curveDz[index] = dz;
+                curveCost[index] = (float) arcLength(curve, 0);
+                curveRadius[index] = radius;
+                return n;
+            }
+        }
+        curveCost[index] = Float.POSITIVE_INFINITY;
+        return -1;
+    }
+
+    /**
+     * Bezier of a curve between two grid points with the handles of a circular arc of
+     * {@code theta} and legs of {@code leg} blocks.
+     */
+    private static void setCurve(double[] curve, int offset, double x0, double y0, double z0, int heading,
+                                 double x3, double y3, double z3, int to, double leg, double theta) {
+        double radius = leg / Math.tan(theta / 2);
+        double handle = 4.0 / 3.0 * Math.tan(theta / 4) * radius;
+        CubicBezier.setTrackCurve(curve, offset, x0, y0, z0, DX[heading], 0, DZ[heading],
+                x3, y3, z3, -DX[to], 0, -DZ[to], handle);
+    }
+
+    /**
+     * Mean leg length, in blocks, of a curve from {@code heading} to {@code to} that moves by
+     * (dx, dz), found by splitting the move into whole steps along both headings.
+     */
+    private static double meanLeg(int heading, int to, int dx, int dz) {
+        int det = DX[heading] * DZ[to] - DZ[heading] * DX[to];
+        double first = (double) (dx * DZ[to] - dz * DX[to]) / det;
+        double second = (double) (DX[heading] * dz - DZ[heading] * dx) / det;
+        return (first * stepLength(heading) + second * stepLength(to)) / 2;
+    }
+
+    private static double arcLength(double[] curve, int offset) {
+        double[] point = new double[3];
+        double length = 0;
+        double px = curve[offset];
+        double py = curve[offset + 1];
+        double pz = curve[offset + 2];
+        for (int i = 1; i <= LENGTH_SAMPLES; i++) {
+            CubicBezier.point(curve, offset, i / (double) LENGTH_SAMPLES, point, 0);
+            double dx = point[0] - px;
+            double dy = point[1] - py;
+            double dz = point[2] - pz;
+            length += Math.sqrt(dx * dx + dy * dy + dz * dz);
+            px = point[0];
+            py = point[1];
+            pz = point[2];
+        }
+        return length;
+    }
+
+    private static double stepLength(int heading) {
+        return (heading & 1) == 1 ? DIAGONAL : 1;
+    }
+
+    /**
+     * Expand states until {@code deadlineNanos} or the search ends.
+     */
+    public Status step(long deadlineNanos) {
+        if (status == Status.RUNNING && !prepare(deadlineNanos)) {
+            return status;
+        }
+        while (status == Status.RUNNING) {
+            if (heapSize == 0) {
+                status = Status.FAILED;
+                break;
+            }
+            if ((expanded & (CHECK_INTERVAL - 1)) == 0 && System.nanoTime() > deadlineNanos) {
+                break;
+            }
+
+            float key = heapKeys[0];
+            int state = pop();
+            int heading = state % HEADINGS;
+            int cell = state / HEADINGS;
+            int x = minX + cell / depth;
+            int z = minZ + cell % depth;
+            float score = scores[state];
+            if (key > score + heuristic(x, z) + 1e-3f) {
+                // Stale entry; the state was reopened with a better score
+                continue;
+            }
+            expanded++;
+
+            if (x == goalX && z == goalZ && heading % (HEADINGS / 2) == goalHeading) {
+                found = state;
+                status = Status.FOUND;
+                break;
+            }
+
+            expand(state, x + DX[heading], z + DZ[heading], heading, score + (float) stepLength(heading), MOVE_STRAIGHT);
+            for (int side = 0; side < 2; side++) {
+                int index = heading * 2 + side;
+                if (curveCost[index] < Float.POSITIVE_INFINITY) {
+                    int to = Math.floorMod(heading + (side == 0 ? 1 : -1), HEADINGS);
+                    expand(state, x + curveDx[index], z + curveDz[index], to, score + curveCost[index],
+                            side == 0 ? MOVE_LEFT : MOVE_RIGHT);
+                }
+            }
+        }
+        return status;
+    }
+
+    private void expand(int from, int x, int z, int heading, float score, byte move) {
+        if (x < minX || z < minZ || x >= minX + width || z >= minZ + depth) {
+            return;
+        }
+        int state = state(x, z, heading);
+        if (score < scores[state]) {
+            open(state, score, move, from);
+        }
+    }
+
+    private void open(int state, float score, byte move, int parent) {
+        scores[state] = score;
+        moves[state] = move;
+        parents[state] = parent;
+        int cell = state / HEADINGS;
+        push(state, score + heuristic(minX + cell / depth, minZ + cell % depth));
+    }
+
+    private float heuristic(int x, int z) {
+        double dx = goalX - x;
+        double dz = goalZ - z;
+        return (float) Math.sqrt(dx * dx + dz * dz);
+    }
+
+    private int state(int x, int z, int heading) {
+        return ((x - minX) * depth + (z - minZ)) * HEADINGS + heading;
+    }
+
+    public Status status() {
+        return status;
+    }
+
+    /** States expanded so far. */
+    public int expanded() {
+        return expanded;
+    }
+
+    /** Minimum radius of the curve move from {@code heading} to its left or right. */
+    public double curveRadius(int heading, boolean left) {
+        return curveRadius[heading * 2 + (left ? 0 : 1)];
+    }
+
+    /**
+     * The plan once the search has {@link Status#FOUND found} one, otherwise null.
+     */
+    public Plan plan() {
+        if (status != Status.FOUND) {
+            return null;
+        }
+        if (plan == null) {
+            plan = buildPlan();
+        }
+        return plan;
+    }
+
+    /**
+     * Walk back from the goal and keep the states where a segment starts or ends, merging runs of
+     * straight steps into one segment.
+     */
+    private Plan buildPlan() {
+        int[] path = new int[64];
+        int length = 0;
+        for (int state = found; state != -1; state = parents[state]) {
+            if (length == path.length) {
+                path = Arrays.copyOf(path, length * 2);
+            }
+            path[length++] = state;
+        }
+
+        // path[length - 1] is the start; a state is a waypoint unless it sits inside a straight run
+        int[] waypoints = new int[length];
+        int count = 0;
+        for (int j = length - 1; j >= 0; j--) {
+            int state = path[j];
+            boolean inRun = j > 0 && j < length - 1 && moves[state] == MOVE_STRAIGHT
+                    && moves[path[j - 1]] == MOVE_STRAIGHT;
+            if (!inRun) {
+                waypoints[count++] = state;
+            }
+        }
+
+        int[] xs = new int[count];
+        int[] zs = new int[count];
+        int[] headings = new int[count];
+        boolean[] curved = new boolean[Math.max(0, count - 1)];
+        for (int i = 0; i < count; i++) {
+            int state = waypoints[i];
+            int cell = state / HEADINGS;
+            xs[i] = minX + cell / depth;
+            zs[i] = minZ + cell % depth;
+            headings[i] = state % HEADINGS;
+            if (i > 0) {
+                curved[i - 1] = moves[state] == MOVE_LEFT || moves[state] == MOVE_RIGHT;
+            }
+        }
+        return new Plan(xs, zs, headings, curved, startY, goalY, scores[found]);
+    }
+
+    private void push(int state, float key) {
+        if (heapSize == heapStates.length) {
+            heapStates = Arrays.copyOf(heapStates, heapSize * 2);
+            heapKeys = Arrays.copyOf(heapKeys, heapSize * 2);
+        }
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heapKeys[parent] <= key) {
+                break;
+            }
+            heapStates[i] = heapStates[parent];
+            heapKeys[i] = heapKeys[parent];
+            i = parent;
+        }
+        heapStates[i] = state;
+        heapKeys[i] = key;
+    }
+
+    private int pop() {
+        int top = heapStates[0];
+        int lastState = heapStates[--heapSize];
+        float lastKey = heapKeys[heapSize];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && heapKeys[child + 1] < heapKeys[child]) {
+                child++;
+            }
+            if (heapKeys[child] >= lastKey) {
+                break;
+            }
+            heapStates[i] = heapStates[child];
+            heapKeys[i] = heapKeys[child];
+            i = child;
+        }
+        if (heapSize > 0) {
+            heapStates[i] = lastState;
+            heapKeys[i] = lastKey;
+        }
+        return top;
+    }
+
+    /**
+     * A planned route as waypoints on the block grid, with the heading at each one and whether
+     * the segment after it is a curve. The first and last waypoints are the start and goal.
+     */
+    public static final class Plan {
+
+        private final int[] xs;
+        private final int[] zs;
+        private final int[] headings;
+        private final boolean[] curved;
+        private final int startY;
+        private final int goalY;
+        private final double length;
+
+        private Plan(int[] xs, int[] zs, int[] headings, boolean[] curved, int startY, int goalY, double length) {
+            this.xs = xs;
+            this.zs = zs;
+            this.headings = headings;
+            this.curved = curved;
+            this.startY = startY;
+            this.goalY = goalY;
+            this.length = length;
+        }
+
+        public int waypoints() {
+            return xs.length;
+        }
+
+        public int x(int i) {
+            return xs[i];
+        }
+
+        public int z(int i) {
+            return zs[i];
+        }
+
+        public int heading(int i) {
+            return headings[i];
+        }
+
+        /** Whether the segment from waypoint {@code i} to {@code i + 1} is a curve. */
+        public boolean curved(int i) {
+            return curved[i];
+        }
+
+        public int curves() {
+            int count = 0;
+            for (boolean curve : curved) {
+                count += curve ? 1 : 0;
+            }
+            return count;
+        }
+
+        /** Horizontal length of the route along the track, in blocks. */
+        public double length() {
+            return length;
+        }
+
+        /** Grade in percent if the height difference is spread evenly over the route. */
+        public double grade() {
+            return length > 0 ? (goalY - startY) / length * 100.0 : 0;
+        }
+
+        /**
+         * Write segment {@code i} as a Bezier into {@code curve} at {@code offset}, at heights spread
+         * evenly between the start and goal by {@code along}, the distance before the segment.
+         * Returns the horizontal length of the segment.
+         */
+        public double segment(int i, double along, double[] curve, int offset) {
+            int x0 = xs[i];
+            int z0 = zs[i];
+            int x1 = xs[i + 1];
+            int z1 = zs[i + 1];
+            double dx = x1 - x0;
+            double dz = z1 - z0;
+            double chord = Math.sqrt(dx * dx + dz * dz);
+            if (!curved[i]) {
+                double y0 = heightAt(along);
+                double y1 = heightAt(along + chord);
+                CubicBezier.setTrackCurve(curve, offset, x0, y0, z0, dx, y1 - y0, dz,
+                        x1, y1, z1, -dx, y0 - y1, -dz, chord / 3);
+                return chord;
+            }
+            setCurve(curve, offset, x0, 0, z0, headings[i], x1, 0, z1, headings[i + 1],
+                    meanLeg(headings[i], headings[i + 1], x1 - x0, z1 - z0), Math.PI / 4);
+            double segmentLength = arcLength(curve, offset);
+            double y0 = heightAt(along);
+            double y1 = heightAt(along + segmentLength);
+            curve[offset + 1] = y0;
+            curve[offset + 4] = y0;
+            curve[offset + 7] = y1;
+            curve[offset + 10] = y1;
+            return segmentLength;
+        }
+
+        /**
+         * Height of the route {@code along} blocks from the start, spread evenly from start to goal.
+         */
+        public double heightAt(double along) {
+            return length > 0 ? startY + (goalY - startY) * Math.min(1, along / length) : startY;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.railwaytoolkit.terrain;
+
+import com.railwaytoolkit.geometry.ArcLengthTable;
+import com.railwaytoolkit.geometry.CubicBezier;
+import com.railwaytoolkit.geometry.TrackFootprint;
+
+/**
+ * Sweeps a train's clearance envelope along a curve and finds the first occupied block in it.
+ *
+ * The envelope is a rectangle {@code 2·halfWidth} wide and {@code height} blocks tall standing
+ * on the track layer, kept square to the curve. It is moved in equal steps of arc length, so
+ * tight and steep parts are tested as densely as the rest, and the sweep stops at the first hit.
+ */
+public final class ClearanceEnvelope {
+
+    /** Spacing of the samples along and across the curve, in blocks. */
+    private static final double STEP = 0.25;
+    private static final int TABLE_SEGMENTS = 64;
+
+    private ClearanceEnvelope() {
+    }
+
+    /**
+     * The first occupied block inside the envelope, with its distance along the curve.
+     */
+    public record Obstruction(int x, int y, int z, double distance) {
+    }
+
+    /**
+     * First obstruction of the curve at {@code offset}, or null if the envelope is clear. Blocks
+     * in sections missing from {@code occupancy} count as clear.
+     */
+    public static Obstruction firstObstruction(double[] curve, int offset, SectionOccupancy occupancy,
+                                               double halfWidth, int height) {
+        ArcLengthTable table = ArcLengthTable.build(curve, offset, TABLE_SEGMENTS);
+        double length = table.length();
+        int steps = Math.max(1, (int) Math.ceil(length / STEP));
+
+        // Lateral offsets, centre first, then alternating outwards
+        int sides = (int) Math.floor(halfWidth / STEP);
+        double[] lateral = new double[sides * 2 + 1];
+        for (int i = 1; i <= sides; i++) {
+            lateral[i * 2 - 1] = i * STEP;
+            lateral[i * 2] = -i * STEP;
+        }
+
+        double[] point = new double[3];
+        double[] tangent = new double[3];
+        for (int i = 0; i <= steps; i++) {
+            double distance = length * i / steps;
+            double t = table.parameterAt(distance);
+            CubicBezier.point(curve, offset, t, point, 0);
+            CubicBezier.derivative(curve, offset, t, tangent, 0);
+            double horizontal = Math.sqrt(tangent[0] * tangent[0] + tangent[2] * tangent[2]);
+            double nx = horizontal > 0 ? -tangent[2] / horizontal : 0;
+            double nz = horizontal > 0 ? tangent[0] / horizontal : 0;
+            int level = TrackFootprint.levelOf(point[1]);
+
+            for (double side : lateral) {
+                int x = (int) Math.floor(point[0] + nx * side);
+                int z = (int) Math.floor(point[2] + nz * side);
+                for (int y = level; y < level + height; y++) {
+                    if (occupancy.isOccupied(x, y, z)) {
+                        return new Obstruction(x, y, z, distance);
+                    }
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,97 @@
+package com.railwaytoolkit.terrain;
+
+import com.railwaytoolkit.geometry.TrackFootprint;
+
+/**
+ * Blocks to fill and cut to lay a curve's track bed.
+ *
+ * For each column of the footprint, fill is the empty blocks below the track layer down to the
+ * first occupied one. A column with no ground within {@code maxDepth} is counted as
+ * {@link #unsupported()} instead, since it wants a bridge rather than an embankment, and adds
+ * nothing to the fill. Cut is the occupied blocks from the track layer up to the clearance height.
+ * Columns that reach into unknown sections are left out and counted as {@link #skipped()}.
+ */
+public final class Earthworks {
+
+    private final int fill;
+    private final int cut;
+    private final int unsupported;
+    private final int columns;
+    private final int skipped;
+
+    private Earthworks(int fill, int cut, int unsupported, int columns, int skipped) {
+        this.fill = fill;
+        this.cut = cut;
+        this.unsupported = unsupported;
+        this.columns = columns;
+        this.skipped = skipped;
+    }
+
+    public static Earthworks estimate(TrackFootprint footprint, SectionOccupancy occupancy, int clearance, int maxDepth) {
+        int fill = 0;
+        int cut = 0;
+        int unsupported = 0;
+        int skipped = 0;
+        for (int i = 0; i < footprint.count(); i++) {
+            int x = footprint.x(i);
+            int z = footprint.z(i);
+            int level = footprint.level(i);
+            if (!occupancy.isKnown(x, level - maxDepth, z) || !occupancy.isKnown(x, level + clearance - 1, z)) {
+                skipped++;
+                continue;
+            }
+
+            int depth = 0;
+            while (depth < maxDepth && !occupancy.isOccupied(x, level - 1 - depth, z)) {
+                depth++;
+            }
+            if (depth == maxDepth) {
+                unsupported++;
+            } else {
+                fill += depth;
+            }
+
+            for (int y = level; y < level + clearance; y++) {
+                if (occupancy.isOccupied(x, y, z)) {
+                    cut++;
+                }
+            }
+        }
+        return new Earthworks(fill, cut, unsupported, footprint.count() - skipped, skipped);
+    }
+
+    /**
+     * Empty blocks below the track bed, over the supported columns.
+     */
+    public int fill() {
+        return fill;
+    }
+
+    /**
+     * Occupied blocks inside the clearance above the track.
+     */
+    public int cut() {
+        return cut;
+    }
+
+    /**
+     * Columns with no ground within the maximum fill depth.
+     */
+    public int unsupported() {
+        return unsupported;
+    }
+
+    /**
+     * Columns that were estimated.
+     */
+    public int columns() {
+        return columns;
+    }
+
+    /**
+     * Columns left out because part of them is not loaded.
+     */
+    public int skipped() {
+        return skipped;
+    }
+}
@@ -0,0 +1,108 @@
+package com.railwaytoolkit.terrain;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Which blocks of a set of 16³ chunk sections are occupied, one bit per block.
+ *
+ * Sections are keyed like Minecraft's {@code SectionPos.asLong} and their bits are in the same
+ * order as a section's block states (y, then z, then x), so a section can be copied over in one
+ * pass. Uniform sections share a single all-set or all-clear bitmap. Blocks in sections that
+ * were never added are unknown, which callers can tell apart from empty with
+ * {@link #isKnown}. Not thread-safe while it is being filled; read-only use afterwards is.
+ */
+public final class SectionOccupancy {
+
+    /** Blocks per section. */
+    public static final int BLOCKS = 4096;
+    /** Longs per section bitmap. */
+    public static final int WORDS = BLOCKS / 64;
+
+    private static final long[] FULL = filled(-1L);
+    private static final long[] EMPTY = filled(0L);
+
+    private final Map<Long, long[]> sections = new HashMap<>();
+
+    /**
+     * Key of the section containing block (x, y, z).
+     */
+    public static long sectionKey(int x, int y, int z) {
+        return ((long) (x >> 4) & 0x3FFFFF) << 42 | ((long) (z >> 4) & 0x3FFFFF) << 20 | ((long) (y >> 4) & 0xFFFFF);
+    }
+
+    /**
+     * Bit index of block (x, y, z) within its section.
+     */
+    public static int index(int x, int y, int z) {
+        return (y & 15) << 8 | (z & 15) << 4 | (x & 15);
+    }
+
+    /**
+     * A clear bitmap to fill and pass to {@link #put}.
+     */
+    public static long[] newBitmap() {
+        return new long[WORDS];
+    }
+
+    public static void set(long[] bitmap, int index) {
+        bitmap[index >>> 6] |= 1L << index;
+    }
+
+    public void put(long sectionKey, long[] bitmap) {
+        sections.put(sectionKey, bitmap);
+    }
+
+    public void putUniform(long sectionKey, boolean occupied) {
+        sections.put(sectionKey, occupied ? FULL : EMPTY);
+    }
+
+    /**
+     * Mark block (x, y, z) as free, if its section is known.
+     */
+    public void clear(int x, int y, int z) {
+        long key = sectionKey(x, y, z);
+        long[] bitmap = sections.get(key);
+        if (bitmap == null || bitmap == EMPTY) {
+            return;
+        }
+        if (bitmap == FULL) {
+            // Uniform bitmaps are shared
+            bitmap = FULL.clone();
+            sections.put(key, bitmap);
+        }
+        int index = index(x, y, z);
+        bitmap[index >>> 6] &= ~(1L << index);
+    }
+
+    public boolean hasSection(long sectionKey) {
+        return sections.containsKey(sectionKey);
+    }
+
+    public int sectionCount() {
+        return sections.size();
+    }
+
+    public boolean isKnown(int x, int y, int z) {
+        return sections.containsKey(sectionKey(x, y, z));
+    }
+
+    /**
+     * Whether block (x, y, z) is occupied; false if its section is unknown.
+     */
+    public boolean isOccupied(int x, int y, int z) {
+        long[] bitmap = sections.get(sectionKey(x, y, z));
+        if (bitmap == null) {
+            return false;
+        }
+        int index = index(x, y, z);
+        return (bitmap[index >>> 6] & 1L << index) != 0;
+    }
+
+    private static long[] filled(long word) {
+        long[] bitmap = new long[WORDS];
+        Arrays.fill(bitmap, word);
+        return bitmap;
+    }
+}
@@ -1,10 +1,12 @@
 package com.railwaytoolkit;
 
 import com.railwaytoolkit.config.RailwayToolkitConfig;
+import com.railwaytoolkit.server.CurvatureIndexData;
 import net.neoforged.bus.api.IEventBus;
 import net.neoforged.fml.ModContainer;
 import net.neoforged.fml.common.Mod;
 import net.neoforged.fml.config.ModConfig;
+import net.neoforged.fml.event.config.ModConfigEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -18,6 +20,11 @@ public class RailwayToolkit {
 
         // Register config
         modContainer.registerConfig(ModConfig.Type.CLIENT, RailwayToolkitConfig.CLIENT_SPEC);
+        modContainer.registerConfig(ModConfig.Type.SERVER, RailwayToolkitConfig.SERVER_SPEC);
+        modEventBus.addListener(ModConfigEvent.Loading.class, RailwayToolkitConfig::onConfigChanged);
+        modEventBus.addListener(ModConfigEvent.Reloading.class, RailwayToolkitConfig::onConfigChanged);
+        // After the snapshot listener, so the index is re-rated against the new snapshot
+        modEventBus.addListener(ModConfigEvent.Reloading.class, CurvatureIndexData::onConfigReloaded);
 
         LOGGER.info("Create Railway Toolkit initialized!");
     }
@@ -0,0 +1,72 @@
+package com.railwaytoolkit.client;
+
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import com.railwaytoolkit.RailwayToolkit;
+import net.minecraft.ChatFormatting;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.commands.SharedSuggestionProvider;
+import net.minecraft.network.chat.Component;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.client.event.RegisterClientCommandsEvent;
+
+/**
+ * Client-side {@code /railwaytoolkit} commands.
+ */
+@EventBusSubscriber(modid = RailwayToolkit.MOD_ID, value = Dist.CLIENT)
+public final class ClientCommands {
+
+    private ClientCommands() {
+    }
+
+    @SubscribeEvent
+    public static void onRegisterCommands(RegisterClientCommandsEvent event) {
+        event.getDispatcher().register(Commands.literal(RailwayToolkit.MOD_ID)
+                .then(Commands.literal("latency")
+                        .executes(ClientCommands::showLatency)
+                        .then(Commands.literal("reset")
+                                .executes(ClientCommands::resetLatency)))
+                .then(Commands.literal("plan")
+                        .then(Commands.literal("start")
+                                .executes(context -> reply(context, TrackPlanGuide.pickStart())))
+                        .then(Commands.literal("end")
+                                .executes(context -> reply(context, TrackPlanGuide.pickEnd())))
+                        .then(Commands.literal("clear")
+                                .executes(context -> {
+                                    TrackPlanGuide.clear();
+                                    return reply(context, Component.literal("Plan cleared"));
+                                })))
+                .then(Commands.literal("journal")
+                        .executes(context -> reply(context, PlacementLog.summarize())))
+                .then(Commands.literal("schematic")
+                        .then(Commands.argument("file", StringArgumentType.greedyString())
+                                .suggests((context, builder) -> SharedSuggestionProvider.suggest(SchematicCheck.list(), builder))
+                                .executes(context -> reply(context,
+                                        SchematicCheck.start(StringArgumentType.getString(context, "file")))))));
+    }
+
+    private static int showLatency(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        source.sendSuccess(() -> Component.literal("Railway Toolkit latency (last 5-10 s)")
+                .withStyle(ChatFormatting.GOLD), false);
+        for (String line : HotPaths.describe()) {
+            source.sendSuccess(() -> Component.literal(line).withStyle(ChatFormatting.GRAY), false);
+        }
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private static int reply(CommandContext<CommandSourceStack> context, Component message) {
+        context.getSource().sendSuccess(() -> message, false);
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private static int resetLatency(CommandContext<CommandSourceStack> context) {
+        HotPaths.reset();
+        context.getSource().sendSuccess(() -> Component.literal("Latency histograms reset"), false);
+        return Command.SINGLE_SUCCESS;
+    }
+}
@@ -1,11 +1,12 @@
 package com.railwaytoolkit.client;
 
 import com.railwaytoolkit.config.RailwayToolkitConfig;
-import com.railwaytoolkit.config.RailwayToolkitConfig.CurvatureRating;
+import com.railwaytoolkit.config.CompiledConfig;
+import com.railwaytoolkit.geometry.CubicBezier;
 import com.railwaytoolkit.mixin.accessor.PlacementInfoAccessor;
+import com.railwaytoolkit.rating.RatingTable;
 import com.simibubi.create.content.trains.track.BezierConnection;
 import com.simibubi.create.content.trains.track.TrackPlacement;
-import net.createmod.catnip.data.Couple;
 import net.minecraft.ChatFormatting;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.player.LocalPlayer;
@@ -20,43 +21,66 @@ import org.lwjgl.glfw.GLFW;
  */
 public class CurvatureDisplay {
 
+    // Last message we built, re-sent unchanged while the placement snapshot stays the same
+    private static long lastFingerprint = 0;
+    private static MutableComponent lastMessage = null;
+
     /**
      * Called from the mixin at the end of clientTick to display our curvature info.
-     * This overwrites Create's message but includes all relevant information.
+     * By default this refreshes the {@link PlacementHud} panel. With the panel disabled it
+     * overwrites Create's action bar message with a combined one instead, which is only
+     * rebuilt when the placement snapshot fingerprint changes.
      */
-    public static void displayCurvatureInfo() {
+    public static void displayCurvatureInfo(PlacementSnapshot snapshot) {
+        HotPaths.begin(HotPaths.Path.DISPLAY);
+        try {
+            display(snapshot);
+        } finally {
+            HotPaths.end();
+        }
+    }
+
+    private static void display(PlacementSnapshot snapshot) {
         Minecraft mc = Minecraft.getInstance();
         LocalPlayer player = mc.player;
 
-        if (player == null) {
+        if (player == null || snapshot.isEmpty()) {
+            lastMessage = null;
+            PlacementHud.hide();
             return;
         }
 
-        TrackPlacement.PlacementInfo info = TrackPlacement.cached;
-        if (info == null) {
+        if (RailwayToolkitConfig.compiled().showPanel) {
+            lastMessage = null;
+            boolean kept = PlacementHud.update(snapshot);
+            HotPaths.cacheOutcome(kept ? HotPaths.CacheOutcome.HIT : HotPaths.CacheOutcome.MISS);
             return;
         }
+        PlacementHud.hide();
 
-        PlacementInfoAccessor accessor = (PlacementInfoAccessor) (Object) info;
-        BezierConnection curve = accessor.getCurve();
-
-        double radius = curve != null ? calculateMinimumRadius(curve) : 0;
-        double slope = calculateSlope(accessor);
+        // Create rewrites the action bar every tick, so the cached message still has to be re-sent
+        if (lastMessage != null && lastFingerprint == snapshot.getFingerprint()) {
+            HotPaths.cacheOutcome(HotPaths.CacheOutcome.HIT);
+            player.displayClientMessage(lastMessage, true);
+            return;
+        }
+        HotPaths.cacheOutcome(HotPaths.CacheOutcome.MISS);
 
-        boolean enforcing = isEnforcementKeyHeld();
-        double enforcementRadius = EnforcementHandler.getCurrentMinRadius();
+        lastFingerprint = snapshot.getFingerprint();
+        lastMessage = null;
 
-        MutableComponent curvatureInfo = buildCurvatureInfo(radius, slope, enforcing, enforcementRadius);
+        MutableComponent curvatureInfo = buildCurvatureInfo(snapshot.getRadius(), snapshot.getSlope(),
+                snapshot.isEnforcing(), snapshot.getEnforcementRadius());
 
         if (curvatureInfo != null) {
             // Build combined message with Create's status
             MutableComponent combined = Component.empty();
 
             // Add Create's status first
-            if (accessor.isValid()) {
+            if (snapshot.isValid()) {
                 combined.append(Component.literal("Can Connect").withStyle(ChatFormatting.GREEN));
             } else {
-                String msg = accessor.getMessage();
+                String msg = snapshot.getMessage();
                 if (msg != null && !msg.equals("track.second_point")) {
                     combined.append(Component.literal("Invalid").withStyle(ChatFormatting.RED));
                 } else {
@@ -67,6 +91,7 @@ public class CurvatureDisplay {
             combined.append(Component.literal(" | ").withStyle(ChatFormatting.DARK_GRAY));
             combined.append(curvatureInfo);
 
+            lastMessage = combined;
             player.displayClientMessage(combined, true);
         }
     }
@@ -91,7 +116,7 @@ public class CurvatureDisplay {
 
         // Get curve properties - use our calculation for minimum radius
         double radius = curve != null ? calculateMinimumRadius(curve) : 0;
-        double slope = calculateSlope(accessor);
+        double slope = curve != null ? CurveProfiles.of(curve).maxGrade() : calculateSlope(accessor);
 
         // Check for enforcement mode (Alt held)
         boolean enforcing = isEnforcementKeyHeld();
@@ -120,96 +145,19 @@ public class CurvatureDisplay {
      * For a cubic Bezier curve B(t), the curvature at t is:
      * κ(t) = |B'(t) × B''(t)| / |B'(t)|³
      *
-     * The radius at t is R(t) = 1 / κ(t)
+     * The radius at t is R(t) = 1 / κ(t). The maximum of κ is located by the curve's cached
+     * {@link CurveProfiles profile}.
      */
     private static double calculateMinimumRadius(BezierConnection curve) {
-        // First try Create's built-in radius (works for simple curves)
-        double createRadius = curve.getRadius();
-        if (createRadius > 0) {
-            return createRadius;
-        }
-
-        // For S-curves and other cases, calculate from the Bezier curve
-        Couple<Vec3> starts = curve.starts;
-        Couple<Vec3> axes = curve.axes;
-
-        Vec3 p0 = starts.getFirst();
-        Vec3 p3 = starts.getSecond();
-
-        double handleLength = curve.getHandleLength();
-        Vec3 p1 = p0.add(axes.getFirst().normalize().scale(handleLength));
-        Vec3 p2 = p3.add(axes.getSecond().normalize().scale(handleLength));
-
-        // Sample the curve to find minimum radius
-        double minRadius = Double.MAX_VALUE;
-        int samples = 20;
-
-        for (int i = 1; i < samples; i++) {
-            double t = i / (double) samples;
-            double radius = calculateRadiusAt(p0, p1, p2, p3, t);
-            if (radius > 0 && radius < minRadius) {
-                minRadius = radius;
-            }
-        }
-
-        return minRadius == Double.MAX_VALUE ? 0 : minRadius;
+        return CurveProfiles.of(curve).minRadius();
     }
 
     /**
-     * Calculate the curvature radius at a specific point on a cubic Bezier curve.
+     * Calculate the endpoint-to-endpoint slope/grade of the track placement.
+     * Returns the grade as a percentage. Curves use the steepest local grade from
+     * {@link CurveProfiles} instead, since they can hump or dip between their ends.
      */
-    private static double calculateRadiusAt(Vec3 p0, Vec3 p1, Vec3 p2, Vec3 p3, double t) {
-        // First derivative B'(t)
-        Vec3 d1 = bezierDerivative(p0, p1, p2, p3, t);
-
-        // Second derivative B''(t)
-        Vec3 d2 = bezierSecondDerivative(p0, p1, p2, p3, t);
-
-        // Curvature κ = |d1 × d2| / |d1|³
-        Vec3 cross = d1.cross(d2);
-        double crossMag = cross.length();
-        double d1Mag = d1.length();
-
-        if (d1Mag < 0.0001) {
-            return 0;
-        }
-
-        double curvature = crossMag / (d1Mag * d1Mag * d1Mag);
-
-        if (curvature < 0.0001) {
-            return 0; // Essentially straight
-        }
-
-        return 1.0 / curvature;
-    }
-
-    /**
-     * First derivative of a cubic Bezier curve at parameter t.
-     */
-    private static Vec3 bezierDerivative(Vec3 p0, Vec3 p1, Vec3 p2, Vec3 p3, double t) {
-        double mt = 1 - t;
-        // B'(t) = 3(1-t)²(P1-P0) + 6(1-t)t(P2-P1) + 3t²(P3-P2)
-        return p1.subtract(p0).scale(3 * mt * mt)
-                .add(p2.subtract(p1).scale(6 * mt * t))
-                .add(p3.subtract(p2).scale(3 * t * t));
-    }
-
-    /**
-     * Second derivative of a cubic Bezier curve at parameter t.
-     */
-    private static Vec3 bezierSecondDerivative(Vec3 p0, Vec3 p1, Vec3 p2, Vec3 p3, double t) {
-        double mt = 1 - t;
-        // B''(t) = 6(1-t)(P2-2P1+P0) + 6t(P3-2P2+P1)
-        Vec3 term1 = p2.subtract(p1.scale(2)).add(p0);
-        Vec3 term2 = p3.subtract(p2.scale(2)).add(p1);
-        return term1.scale(6 * mt).add(term2.scale(6 * t));
-    }
-
-    /**
-     * Calculate the slope/grade of the track placement.
-     * Returns the grade as a percentage.
-     */
-    private static double calculateSlope(PlacementInfoAccessor accessor) {
+    static double calculateSlope(PlacementInfoAccessor accessor) {
         Vec3 end1 = accessor.getEnd1();
         Vec3 end2 = accessor.getEnd2();
 
@@ -217,24 +165,14 @@ public class CurvatureDisplay {
             return 0;
         }
 
-        double horizontalDistance = Math.sqrt(
-                Math.pow(end2.x - end1.x, 2) +
-                Math.pow(end2.z - end1.z, 2)
-        );
-
-        if (horizontalDistance < 0.001) {
-            return 0;
-        }
-
-        double verticalChange = end2.y - end1.y;
-        return (verticalChange / horizontalDistance) * 100.0;
+        return CubicBezier.grade(end1.x, end1.y, end1.z, end2.x, end2.y, end2.z);
     }
 
     /**
      * Check if the enforcement modifier key is being held (Alt only).
      */
     public static boolean isEnforcementKeyHeld() {
-        if (!RailwayToolkitConfig.CLIENT.enableEnforcement.get()) {
+        if (!RailwayToolkitConfig.compiled().enableEnforcement) {
             return false;
         }
 
@@ -247,18 +185,19 @@ public class CurvatureDisplay {
 
     /**
      * Build the curvature info portion of the display message.
+     * Package-private so the benchmarks can measure it without a running client.
      */
-    private static MutableComponent buildCurvatureInfo(double radius, double slope,
-                                                        boolean enforcing, double enforcementRadius) {
-        RailwayToolkitConfig.ClientConfig config = RailwayToolkitConfig.CLIENT;
+    static MutableComponent buildCurvatureInfo(double radius, double slope,
+                                               boolean enforcing, double enforcementRadius) {
+        CompiledConfig config = RailwayToolkitConfig.compiled();
 
         MutableComponent message = Component.empty();
         boolean hasContent = false;
 
         // Show curvature radius
-        if (config.showCurvatureRadius.get() && radius > 0) {
+        if (config.showCurvatureRadius && radius > 0) {
             String radiusText;
-            if (config.showDecimalPlaces.get()) {
+            if (config.showDecimalPlaces) {
                 radiusText = String.format("R: %.1f", radius);
             } else {
                 radiusText = String.format("R: %d", Math.round(radius));
@@ -268,26 +207,20 @@ public class CurvatureDisplay {
         }
 
         // Show curvature rating
-        if (config.showCurvatureRating.get() && radius > 0) {
-            CurvatureRating rating = RailwayToolkitConfig.getRating(radius);
+        if (config.showCurvatureRating && radius > 0) {
+            RatingTable ratings = config.ratings;
+            int tier = ratings.rate(radius, slope);
 
             if (hasContent) {
                 message.append(Component.literal(" ").withStyle(ChatFormatting.GRAY));
             }
 
-            ChatFormatting ratingColor = switch (rating) {
-                case MAINLINE -> ChatFormatting.GREEN;
-                case YARD -> ChatFormatting.YELLOW;
-                case TOO_TIGHT -> ChatFormatting.GOLD;
-                case INVALID -> ChatFormatting.RED;
-            };
-
-            message.append(Component.literal("[" + rating.getDisplayName() + "]").withStyle(ratingColor));
+            message.append(Component.literal("[" + ratings.name(tier) + "]").withColor(ratings.color(tier)));
             hasContent = true;
         }
 
         // Show slope
-        if (config.showSlope.get() && Math.abs(slope) > 0.1) {
+        if (config.showSlope && Math.abs(slope) > 0.1) {
             if (hasContent) {
                 message.append(Component.literal(" | ").withStyle(ChatFormatting.GRAY));
             }
@@ -327,14 +260,24 @@ public class CurvatureDisplay {
     /**
      * Check if current track placement should be blocked due to enforcement.
      * This is called separately to potentially modify placement behavior.
+     * Reads the modifier and enforcement level live rather than from the placement snapshot, which
+     * is a tick old when a placement lands in the tick the modifier is pressed.
      */
     public static boolean shouldBlockPlacement(double radius) {
         if (!isEnforcementKeyHeld()) {
             return false;
         }
 
-        double enforcementRadius = EnforcementHandler.getCurrentMinRadius();
-        return radius > 0 && radius < enforcementRadius;
+        return radius > 0 && radius < EnforcementHandler.getCurrentMinRadius();
+    }
+
+    /**
+     * Check if a curve should be blocked because its clearance envelope is obstructed. Only
+     * curves whose terrain has already been sampled can be blocked.
+     */
+    public static boolean shouldBlockForClearance(long curveKey) {
+        return isEnforcementKeyHeld() && RailwayToolkitConfig.compiled().enforceClearance
+                && CurveTerrain.isObstructed(curveKey);
     }
 
     /**
@@ -0,0 +1,95 @@
+package com.railwaytoolkit.client;
+
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.VertexConsumer;
+import com.railwaytoolkit.RailwayToolkit;
+import com.railwaytoolkit.config.CompiledConfig;
+import com.railwaytoolkit.config.RailwayToolkitConfig;
+import com.railwaytoolkit.geometry.CubicBezier;
+import com.railwaytoolkit.rating.CurvatureHeatmap;
+import com.railwaytoolkit.track.TrackCurves;
+import com.simibubi.create.content.trains.track.BezierConnection;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.world.phys.Vec3;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.client.event.RenderLevelStageEvent;
+import org.joml.Matrix4f;
+
+/**
+ * Draws the previewed curve as a ribbon coloured by the rating of its local radius.
+ *
+ * The mesh comes from {@link CurvatureHeatmap} and is built once per distinct curve, keyed by
+ * the curve's endpoints and axes and the config generation; every other frame only replays the
+ * cached vertices. Client thread only.
+ */
+@EventBusSubscriber(modid = RailwayToolkit.MOD_ID, value = Dist.CLIENT)
+public final class CurvatureHeatmapRenderer {
+
+    private static final int SEGMENTS = 32;
+    private static final double HALF_WIDTH = 0.45;
+    /** Raised slightly above the curve so the ribbon does not z-fight with the track preview. */
+    private static final double LIFT = 0.12;
+    private static final int ALPHA = 0x90;
+
+    private static final double[] points = new double[CubicBezier.STRIDE];
+    private static long meshCurveKey = 0;
+    private static int meshGeneration = -1;
+    private static CurvatureHeatmap mesh = null;
+
+    private CurvatureHeatmapRenderer() {
+    }
+
+    @SubscribeEvent
+    public static void onRenderLevelStage(RenderLevelStageEvent event) {
+        if (event.getStage() != RenderLevelStageEvent.Stage.AFTER_TRANSLUCENT_BLOCKS) {
+            return;
+        }
+        CompiledConfig config = RailwayToolkitConfig.compiled();
+        PlacementSnapshot snapshot = PlacementSnapshot.current();
+        BezierConnection curve = snapshot.getCurve();
+        if (!config.showHeatmap || curve == null) {
+            return;
+        }
+
+        CurvatureHeatmap heatmap = meshFor(snapshot, curve, config);
+        Vec3 camera = event.getCamera().getPosition();
+        PoseStack poseStack = event.getPoseStack();
+        poseStack.pushPose();
+        poseStack.translate(heatmap.originX() - camera.x, heatmap.originY() - camera.y, heatmap.originZ() - camera.z);
+        Matrix4f pose = poseStack.last().pose();
+
+        MultiBufferSource.BufferSource buffers = Minecraft.getInstance().renderBuffers().bufferSource();
+        VertexConsumer consumer = buffers.getBuffer(RenderType.debugQuads());
+        float[] vertices = heatmap.vertices();
+        int stride = CurvatureHeatmap.VERTEX_STRIDE;
+        for (int i = 0; i < heatmap.segments(); i++) {
+            int color = heatmap.color(i);
+            int r = (color >> 16) & 0xFF;
+            int g = (color >> 8) & 0xFF;
+            int b = color & 0xFF;
+            int v = i * CurvatureHeatmap.QUAD_VERTICES * stride;
+            for (int corner = 0; corner < CurvatureHeatmap.QUAD_VERTICES; corner++) {
+                int at = v + corner * stride;
+                consumer.addVertex(pose, vertices[at], vertices[at + 1], vertices[at + 2]).setColor(r, g, b, ALPHA);
+            }
+        }
+        buffers.endBatch(RenderType.debugQuads());
+        poseStack.popPose();
+    }
+
+    private static CurvatureHeatmap meshFor(PlacementSnapshot snapshot, BezierConnection curve, CompiledConfig config) {
+        if (mesh != null && meshCurveKey == snapshot.getCurveKey()
+                && meshGeneration == snapshot.getConfigGeneration()) {
+            return mesh;
+        }
+        TrackCurves.loadControlPoints(curve, points, 0);
+        mesh = CurvatureHeatmap.build(points, 0, SEGMENTS, HALF_WIDTH, LIFT, config.ratings);
+        meshCurveKey = snapshot.getCurveKey();
+        meshGeneration = snapshot.getConfigGeneration();
+        return mesh;
+    }
+}
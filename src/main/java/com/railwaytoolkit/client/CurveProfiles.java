@@ -0,0 +1,56 @@
+package com.railwaytoolkit.client;
+
+import com.railwaytoolkit.config.CompiledConfig;
+import com.railwaytoolkit.config.RailwayToolkitConfig;
+import com.railwaytoolkit.geometry.CubicBezier;
+import com.railwaytoolkit.geometry.CurveProfile;
+import com.railwaytoolkit.geometry.MinimumRadius;
+import com.railwaytoolkit.track.TrackCurves;
+import com.simibubi.create.content.trains.track.BezierConnection;
+
+import java.util.Arrays;
+
+/**
+ * Memoizing adapter from Create's {@link BezierConnection} to {@link CurveProfile}.
+ *
+ * Profiles are cached per connection geometry, so the placement snapshot, the panel, the
+ * enforcement check and the highlight verification share one pass over each curve. Circular
+ * arcs take Create's exact design radius as their minimum radius; other curves are solved with
+ * the configured evaluator and radius tolerance, as the schematic check solves them, so the
+ * cache is cleared when the config changes. Client thread only.
+ */
+public final class CurveProfiles {
+
+    private static final int CACHE_SIZE = 64;
+    private static final long[] keys = new long[CACHE_SIZE];
+    private static final CurveProfile[] profiles = new CurveProfile[CACHE_SIZE];
+
+    private static final double[] points = new double[CubicBezier.STRIDE];
+    private static MinimumRadius solver;
+    private static int generation = -1;
+
+    private CurveProfiles() {
+    }
+
+    public static CurveProfile of(BezierConnection curve) {
+        int currentGeneration = RailwayToolkitConfig.getGeneration();
+        CompiledConfig config = RailwayToolkitConfig.compiled();
+        if (currentGeneration != generation) {
+            Arrays.fill(profiles, null);
+            solver = new MinimumRadius(config.evaluator);
+            generation = currentGeneration;
+        }
+
+        long key = PlacementSnapshot.curveKey(curve);
+        int slot = (int) (key ^ (key >>> 32)) & (CACHE_SIZE - 1);
+        CurveProfile cached = profiles[slot];
+        if (cached != null && keys[slot] == key) {
+            return cached;
+        }
+
+        CurveProfile profile = TrackCurves.profile(curve, points, solver, config.radiusTolerance);
+        keys[slot] = key;
+        profiles[slot] = profile;
+        return profile;
+    }
+}
@@ -0,0 +1,308 @@
+package com.railwaytoolkit.client;
+
+import com.railwaytoolkit.config.CompiledConfig;
+import com.railwaytoolkit.config.RailwayToolkitConfig;
+import com.railwaytoolkit.geometry.CubicBezier;
+import com.railwaytoolkit.geometry.TrackFootprint;
+import com.railwaytoolkit.terrain.ClearanceEnvelope;
+import com.railwaytoolkit.terrain.Earthworks;
+import com.railwaytoolkit.terrain.SectionOccupancy;
+import com.railwaytoolkit.track.TrackCurves;
+import com.simibubi.create.AllSpecialTextures;
+import com.simibubi.create.content.trains.track.BezierConnection;
+import com.simibubi.create.content.trains.track.ITrackBlock;
+import net.createmod.catnip.outliner.Outliner;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+import net.minecraft.world.level.chunk.status.ChunkStatus;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * The blocks around the curve being placed, and the earthworks estimate and clearance check
+ * derived from them.
+ *
+ * For each new curve the {@link TrackFootprint} is computed straight away, and the chunk
+ * sections under, above and beside it are copied into a {@link SectionOccupancy} by a
+ * {@link FrameScheduler} job, a section at a time; solid blocks and track count as occupied.
+ * Sections are read from their block-state palettes: a section whose palette holds only
+ * occupied or only free states is recorded whole without looking at its blocks, and the rest
+ * are read from the section's container directly, never through {@code Level.getBlockState}.
+ * Once the sections are in, the clearance envelope is swept along the curve up to its first
+ * obstruction, which is outlined in the world. Results are cached per curve key until the level
+ * or the config changes, or until a block changes in one of the sections they were read from.
+ * Nothing is sampled while both the earthworks display and the clearance check are off. Client
+ * thread only.
+ */
+public final class CurveTerrain {
+
+    private static final String JOB_KEY = "terrain";
+    private static final String OUTLINE_KEY = "railwaytoolkit_obstruction";
+    private static final int CACHE_SIZE = 16;
+    /** Blocks of track bed to either side of the centre line. */
+    private static final double BED_HALF_WIDTH = 1.0;
+    /** Deepest fill counted per column; deeper gaps want a bridge. */
+    private static final int MAX_FILL_DEPTH = 16;
+    private static final Predicate<BlockState> OCCUPIED =
+            state -> state.blocksMotion() || state.getBlock() instanceof ITrackBlock;
+    private static final Predicate<BlockState> FREE = OCCUPIED.negate();
+
+    /**
+     * A curve's footprint, the sections around it, its earthworks estimate and the first
+     * obstruction of its clearance envelope. The estimate is null while the earthworks display
+     * is off, and the obstruction is null if the envelope is clear or was not checked.
+     */
+    public record Terrain(TrackFootprint footprint, SectionOccupancy occupancy, Earthworks earthworks,
+                          ClearanceEnvelope.Obstruction obstruction) {
+    }
+
+    private static final long[] keys = new long[CACHE_SIZE];
+    private static final Terrain[] entries = new Terrain[CACHE_SIZE];
+    private static ClientLevel cachedLevel = null;
+    private static int cachedGeneration = -1;
+    private static BlockPos outlined = null;
+    private static Sampling pending = null;
+
+    private CurveTerrain() {
+    }
+
+    /**
+     * Start sampling the terrain for the snapshot's curve if it is not cached or queued yet,
+     * and keep its obstruction outlined. Called every client tick.
+     */
+    public static void update(PlacementSnapshot snapshot) {
+        ClientLevel level = Minecraft.getInstance().level;
+        int generation = RailwayToolkitConfig.getGeneration();
+        if (level != cachedLevel || generation != cachedGeneration) {
+            clear();
+            cachedLevel = level;
+            cachedGeneration = generation;
+        }
+        BezierConnection curve = snapshot.getCurve();
+        CompiledConfig config = RailwayToolkitConfig.compiled();
+        if (level == null || curve == null || !(config.showEarthworks || config.checkClearance)) {
+            cancel();
+            outline(null);
+            return;
+        }
+
+        long key = snapshot.getCurveKey();
+        Terrain terrain = cached(key);
+        outline(terrain != null ? terrain.obstruction() : null);
+        if (terrain != null || (pending != null && pending.curveKey == key && FrameScheduler.isQueued(JOB_KEY))) {
+            return;
+        }
+
+        double[] curvePoints = new double[CubicBezier.STRIDE];
+        TrackCurves.loadControlPoints(curve, curvePoints, 0);
+        Sampling sampling = new Sampling(key, level, curvePoints, config);
+        pending = sampling;
+        FrameScheduler.submit(JOB_KEY, FrameScheduler.Priority.NORMAL, sampling::step);
+    }
+
+    /**
+     * Terrain of the snapshot's curve, or null until it has been sampled.
+     */
+    public static Terrain get(PlacementSnapshot snapshot) {
+        return snapshot.getCurve() != null ? cached(snapshot.getCurveKey()) : null;
+    }
+
+    /**
+     * Whether the curve with this key is known to have an obstructed clearance envelope.
+     */
+    public static boolean isObstructed(long curveKey) {
+        Terrain terrain = cached(curveKey);
+        return terrain != null && terrain.obstruction() != null;
+    }
+
+    /**
+     * Drop the terrain of every curve sampled from the changed block's section, and restart
+     * sampling that has already read it.
+     */
+    public static void onBlockChanged(BlockPos changed) {
+        long section = SectionOccupancy.sectionKey(changed.getX(), changed.getY(), changed.getZ());
+        for (int slot = 0; slot < CACHE_SIZE; slot++) {
+            if (entries[slot] != null && entries[slot].occupancy().hasSection(section)) {
+                keys[slot] = 0;
+                entries[slot] = null;
+            }
+        }
+        if (pending != null && pending.occupancy.hasSection(section)) {
+            cancel();
+        }
+    }
+
+    public static void clear() {
+        cancel();
+        outline(null);
+        Arrays.fill(keys, 0);
+        Arrays.fill(entries, null);
+    }
+
+    private static void outline(ClearanceEnvelope.Obstruction obstruction) {
+        if (obstruction == null) {
+            if (outlined != null) {
+                Outliner.getInstance().remove(OUTLINE_KEY);
+                outlined = null;
+            }
+            return;
+        }
+        BlockPos pos = new BlockPos(obstruction.x(), obstruction.y(), obstruction.z());
+        if (pos.equals(outlined)) {
+            Outliner.getInstance().keep(OUTLINE_KEY);
+            return;
+        }
+        outlined = pos;
+        Outliner.getInstance().showCluster(OUTLINE_KEY, List.of(pos))
+                .withFaceTexture(AllSpecialTextures.THIN_CHECKERED)
+                .colored(0xFF5555)
+                .lineWidth(1 / 16f);
+    }
+
+    private static void cancel() {
+        if (pending != null) {
+            FrameScheduler.cancel(JOB_KEY);
+            pending = null;
+        }
+    }
+
+    private static Terrain cached(long key) {
+        int slot = slot(key);
+        return entries[slot] != null && keys[slot] == key ? entries[slot] : null;
+    }
+
+    private static int slot(long key) {
+        return (int) (key ^ (key >>> 32)) & (CACHE_SIZE - 1);
+    }
+
+    /**
+     * Copies the sections around one curve into an occupancy map, then estimates the
+     * earthworks and sweeps the clearance envelope.
+     */
+    private static final class Sampling {
+        private final long curveKey;
+        private final ClientLevel level;
+        private final double[] curve;
+        private final double clearanceHalfWidth;
+        private final int clearanceHeight;
+        private final boolean estimateEarthworks;
+        private final boolean checkClearance;
+        private final TrackFootprint footprint;
+        private final long[] sections;
+        private final SectionOccupancy occupancy = new SectionOccupancy();
+        private int next = 0;
+
+        Sampling(long curveKey, ClientLevel level, double[] curve, CompiledConfig config) {
+            this.curveKey = curveKey;
+            this.level = level;
+            this.curve = curve;
+            this.clearanceHalfWidth = config.clearanceHalfWidth;
+            this.clearanceHeight = config.clearanceHeight;
+            this.estimateEarthworks = config.showEarthworks;
+            this.checkClearance = config.checkClearance;
+            this.footprint = TrackFootprint.of(curve, 0, BED_HALF_WIDTH);
+
+            // Sections under the bed and inside the envelope, whichever is wider
+            TrackFootprint covered = checkClearance && clearanceHalfWidth > BED_HALF_WIDTH
+                    ? TrackFootprint.of(curve, 0, clearanceHalfWidth) : footprint;
+            Set<Long> keys = new LinkedHashSet<>();
+            for (int i = 0; i < covered.count(); i++) {
+                int x = covered.x(i);
+                int z = covered.z(i);
+                int top = covered.level(i) + clearanceHeight - 1;
+                for (int y = covered.level(i) - MAX_FILL_DEPTH; y <= top + 15; y += 16) {
+                    keys.add(SectionOccupancy.sectionKey(x, Math.min(y, top), z));
+                }
+            }
+            this.sections = keys.stream().mapToLong(Long::longValue).toArray();
+        }
+
+        boolean step(long deadlineNanos) {
+            if (Minecraft.getInstance().level != level) {
+                return true;
+            }
+            while (next < sections.length) {
+                sample(sections[next++]);
+                if (System.nanoTime() >= deadlineNanos) {
+                    return next == sections.length && finish();
+                }
+            }
+            return finish();
+        }
+
+        private boolean finish() {
+            // The track blocks at the ends are the track being joined, not obstructions
+            occupancy.clear((int) Math.floor(curve[0]), TrackFootprint.levelOf(curve[1]), (int) Math.floor(curve[2]));
+            occupancy.clear((int) Math.floor(curve[9]), TrackFootprint.levelOf(curve[10]), (int) Math.floor(curve[11]));
+            Earthworks earthworks = estimateEarthworks
+                    ? Earthworks.estimate(footprint, occupancy, clearanceHeight, MAX_FILL_DEPTH) : null;
+            ClearanceEnvelope.Obstruction obstruction = checkClearance
+                    ? ClearanceEnvelope.firstObstruction(curve, 0, occupancy, clearanceHalfWidth, clearanceHeight) : null;
+            Terrain terrain = new Terrain(footprint, occupancy, earthworks, obstruction);
+            int slot = slot(curveKey);
+            keys[slot] = curveKey;
+            entries[slot] = terrain;
+            if (pending == this) {
+                pending = null;
+            }
+            return true;
+        }
+
+        private void sample(long key) {
+            int sectionX = SectionPos.x(key);
+            int sectionY = SectionPos.y(key);
+            int sectionZ = SectionPos.z(key);
+            // Below the world counts as solid ground, above it as open air
+            if (sectionY < level.getMinSection()) {
+                occupancy.putUniform(key, true);
+                return;
+            }
+            if (sectionY >= level.getMaxSection()) {
+                occupancy.putUniform(key, false);
+                return;
+            }
+            LevelChunk chunk = level.getChunkSource().getChunk(sectionX, sectionZ, ChunkStatus.FULL, false);
+            if (chunk == null) {
+                // Left unknown; the estimate skips the columns that need it
+                return;
+            }
+
+            LevelChunkSection section = chunk.getSection(level.getSectionIndexFromSectionY(sectionY));
+            if (section.hasOnlyAir()) {
+                occupancy.putUniform(key, false);
+                return;
+            }
+            PalettedContainer<BlockState> states = section.getStates();
+            if (!states.maybeHas(OCCUPIED)) {
+                occupancy.putUniform(key, false);
+                return;
+            }
+            if (!states.maybeHas(FREE)) {
+                occupancy.putUniform(key, true);
+                return;
+            }
+
+            long[] bitmap = SectionOccupancy.newBitmap();
+            for (int y = 0; y < 16; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        if (OCCUPIED.test(states.get(x, y, z))) {
+                            SectionOccupancy.set(bitmap, SectionOccupancy.index(x, y, z));
+                        }
+                    }
+                }
+            }
+            occupancy.put(key, bitmap);
+        }
+    }
+}
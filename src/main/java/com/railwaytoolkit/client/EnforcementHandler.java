@@ -15,50 +15,28 @@ import org.lwjgl.glfw.GLFW;
 @EventBusSubscriber(modid = RailwayToolkit.MOD_ID, value = Dist.CLIENT)
 public class EnforcementHandler {
 
-    public enum EnforcementLevel {
-        MAINLINE("Mainline", () -> RailwayToolkitConfig.CLIENT.mainlineMinRadius.get()),
-        YARD("Yard", () -> RailwayToolkitConfig.CLIENT.yardMinRadius.get()),
-        ABSOLUTE("Tight", () -> RailwayToolkitConfig.CLIENT.absoluteMinRadius.get());
+    // Index into the compiled rating table; starts from the configured level and is reset on config reload
+    private static int currentTier = -1;
+    private static int generation = -1;
 
-        private final String displayName;
-        private final java.util.function.Supplier<Double> radiusSupplier;
-
-        EnforcementLevel(String displayName, java.util.function.Supplier<Double> radiusSupplier) {
-            this.displayName = displayName;
-            this.radiusSupplier = radiusSupplier;
-        }
-
-        public String getDisplayName() {
-            return displayName;
-        }
-
-        public double getMinRadius() {
-            return radiusSupplier.get();
-        }
-
-        public EnforcementLevel next() {
-            EnforcementLevel[] values = values();
-            return values[(ordinal() + 1) % values.length];
-        }
-
-        public EnforcementLevel previous() {
-            EnforcementLevel[] values = values();
-            return values[(ordinal() - 1 + values.length) % values.length];
+    /**
+     * Rating tier currently enforced, always a valid index into the compiled rating table.
+     */
+    public static int getCurrentLevel() {
+        int currentGeneration = RailwayToolkitConfig.getGeneration();
+        if (currentGeneration != generation || currentTier < 0) {
+            currentTier = RailwayToolkitConfig.compiled().defaultEnforcementTier;
+            generation = currentGeneration;
         }
-    }
-
-    private static EnforcementLevel currentLevel = EnforcementLevel.MAINLINE;
-
-    public static EnforcementLevel getCurrentLevel() {
-        return currentLevel;
+        return currentTier;
     }
 
     public static double getCurrentMinRadius() {
-        return currentLevel.getMinRadius();
+        return RailwayToolkitConfig.compiled().ratings.minRadius(getCurrentLevel());
     }
 
     public static String getCurrentLevelName() {
-        return currentLevel.getDisplayName();
+        return RailwayToolkitConfig.compiled().ratings.name(getCurrentLevel());
     }
 
     /**
@@ -66,7 +44,7 @@ public class EnforcementHandler {
      */
     @SubscribeEvent
     public static void onMouseScroll(InputEvent.MouseScrollingEvent event) {
-        if (!RailwayToolkitConfig.CLIENT.enableEnforcement.get()) {
+        if (!RailwayToolkitConfig.compiled().enableEnforcement) {
             return;
         }
 
@@ -84,13 +62,15 @@ public class EnforcementHandler {
             return;
         }
 
-        // Cycle through enforcement levels
+        // Cycle through rating tiers: up towards wider tiers, down towards tighter ones
+        int tiers = RailwayToolkitConfig.compiled().ratings.size();
+        int tier = getCurrentLevel();
         double scrollDelta = event.getScrollDeltaY();
         if (scrollDelta > 0) {
-            currentLevel = currentLevel.previous();
+            currentTier = (tier + 1) % tiers;
             event.setCanceled(true);
         } else if (scrollDelta < 0) {
-            currentLevel = currentLevel.next();
+            currentTier = (tier - 1 + tiers) % tiers;
             event.setCanceled(true);
         }
     }
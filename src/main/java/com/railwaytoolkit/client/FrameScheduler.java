@@ -0,0 +1,197 @@
+package com.railwaytoolkit.client;
+
+import com.railwaytoolkit.RailwayToolkit;
+import com.railwaytoolkit.config.RailwayToolkitConfig;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.client.event.RenderFrameEvent;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Runs the mod's expensive client-thread work as resumable jobs inside a per-frame budget.
+ *
+ * A {@link Job} does a bounded amount of work per call and reports whether it has finished;
+ * the scheduler calls it again on later frames until it has. Each frame the queues are served
+ * highest priority first, round robin within a priority, until the configured budget is spent.
+ * The first job of a frame always gets its slice, so work progresses even with a tiny budget.
+ * Jobs are keyed: submitting a key that is already queued replaces the old job, so a job for a
+ * stale input never runs after its replacement has been submitted. Client thread only.
+ */
+@EventBusSubscriber(modid = RailwayToolkit.MOD_ID, value = Dist.CLIENT)
+public final class FrameScheduler {
+
+    public enum Priority {
+        /** Feedback for what the player is looking at right now. */
+        HIGH,
+        /** Visualisations that can fill in over a few frames. */
+        NORMAL,
+        /** Long searches the player is waiting on anyway. */
+        LOW
+    }
+
+    /**
+     * A resumable piece of work.
+     */
+    @FunctionalInterface
+    public interface Job {
+        /**
+         * Work until done or until {@code deadlineNanos} ({@link System#nanoTime()}) has passed.
+         * Returns true once the job has finished; it is then dropped from the queue.
+         */
+        boolean step(long deadlineNanos);
+    }
+
+    private static final class Entry {
+        final String key;
+        final Job job;
+        boolean cancelled = false;
+
+        Entry(String key, Job job) {
+            this.key = key;
+            this.job = job;
+        }
+    }
+
+    private static final Priority[] PRIORITIES = Priority.values();
+    @SuppressWarnings("unchecked")
+    private static final ArrayDeque<Entry>[] queues = new ArrayDeque[PRIORITIES.length];
+    private static final Map<String, Entry> byKey = new HashMap<>();
+
+    // Budget report for the last frame that had work
+    private static long lastUsedNanos = 0;
+    private static long lastBudgetNanos = 0;
+    private static int lastSlices = 0;
+
+    static {
+        for (int i = 0; i < queues.length; i++) {
+            queues[i] = new ArrayDeque<>();
+        }
+    }
+
+    private FrameScheduler() {
+    }
+
+    /**
+     * Queue a job, replacing any queued job with the same key.
+     */
+    public static void submit(String key, Priority priority, Job job) {
+        cancel(key);
+        Entry entry = new Entry(key, job);
+        byKey.put(key, entry);
+        queues[priority.ordinal()].addLast(entry);
+    }
+
+    /**
+     * Drop the job with this key, if one is queued. It is not called again.
+     */
+    public static void cancel(String key) {
+        Entry entry = byKey.remove(key);
+        if (entry != null) {
+            // Removed from its queue lazily, when the frame loop reaches it
+            entry.cancelled = true;
+        }
+    }
+
+    public static boolean isQueued(String key) {
+        return byKey.containsKey(key);
+    }
+
+    public static int queued() {
+        return byKey.size();
+    }
+
+    @SubscribeEvent
+    public static void onRenderFrame(RenderFrameEvent.Pre event) {
+        if (byKey.isEmpty()) {
+            purgeCancelled();
+            return;
+        }
+
+        HotPaths.begin(HotPaths.Path.SCHEDULER);
+        try {
+            runFrame(RailwayToolkitConfig.compiled().frameBudgetMicros * 1_000L);
+        } finally {
+            HotPaths.end();
+        }
+    }
+
+    private static void runFrame(long budget) {
+        long start = System.nanoTime();
+        long deadline = start + budget;
+        int slices = 0;
+        for (ArrayDeque<Entry> queue : queues) {
+            // Each job runs at most once per frame; the ones left unserved keep their place
+            for (int remaining = queue.size(); remaining > 0; remaining--) {
+                if (slices > 0 && System.nanoTime() >= deadline) {
+                    record(start, budget, slices);
+                    return;
+                }
+                Entry entry = queue.pollFirst();
+                if (entry.cancelled) {
+                    continue;
+                }
+                slices++;
+                if (!run(entry, deadline)) {
+                    queue.addLast(entry);
+                }
+            }
+        }
+        record(start, budget, slices);
+    }
+
+    /**
+     * Give a job one slice. Returns true if it is finished, or failed and was dropped.
+     */
+    private static boolean run(Entry entry, long deadline) {
+        boolean done;
+        try {
+            done = entry.job.step(deadline);
+        } catch (RuntimeException e) {
+            RailwayToolkit.LOGGER.error("Scheduled job '{}' failed", entry.key, e);
+            done = true;
+        }
+        // The job may have cancelled itself or been replaced while it ran
+        if (entry.cancelled) {
+            return true;
+        }
+        if (done) {
+            byKey.remove(entry.key);
+        }
+        return done;
+    }
+
+    private static void record(long start, long budget, int slices) {
+        lastUsedNanos = System.nanoTime() - start;
+        lastBudgetNanos = budget;
+        lastSlices = slices;
+    }
+
+    private static void purgeCancelled() {
+        for (ArrayDeque<Entry> queue : queues) {
+            if (!queue.isEmpty()) {
+                queue.clear();
+            }
+        }
+    }
+
+    /**
+     * Queued jobs and the budget used by the last frame that had work.
+     */
+    public static String describe() {
+        int[] counts = new int[PRIORITIES.length];
+        for (int i = 0; i < queues.length; i++) {
+            for (Iterator<Entry> it = queues[i].iterator(); it.hasNext(); ) {
+                if (!it.next().cancelled) {
+                    counts[i]++;
+                }
+            }
+        }
+        return String.format("jobs: %d/%d/%d queued, last frame %.0f of %.0f µs in %d slices",
+                counts[0], counts[1], counts[2], lastUsedNanos / 1000.0, lastBudgetNanos / 1000.0, lastSlices);
+    }
+}
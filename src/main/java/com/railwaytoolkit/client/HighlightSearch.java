@@ -0,0 +1,136 @@
+package com.railwaytoolkit.client;
+
+import com.railwaytoolkit.RailwayToolkit;
+import com.railwaytoolkit.geometry.EndpointSolver;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.phys.Vec3;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs the max-radius candidate search off the client thread.
+ *
+ * The client thread captures everything the search needs into an immutable {@link Request}:
+ * the anchor of the first track point, the target radius and the crosshair target. The worker
+ * solves for the end blocks in closed form with {@link EndpointSolver}, never touching the live
+ * world, and publishes a {@link Result} atomically. Submitting a new request cancels the one in
+ * flight. World checks are left to the few candidates the client thread verifies afterwards.
+ */
+public final class HighlightSearch {
+
+    /** Radius band accepted by the highlight, as a multiple of the target radius. */
+    public static final double BAND = 1.2;
+    /** Most candidates handed back to the client thread, nearest to the crosshair first. */
+    private static final int MAX_RESULTS = 32;
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "RailwayToolkit Highlight");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Only ever used from the single worker thread
+    private static final EndpointSolver solver = new EndpointSolver();
+    private static final int[] nearest = new int[MAX_RESULTS];
+
+    private static final AtomicReference<Result> published = new AtomicReference<>();
+    private static Future<?> pending = null;
+    private static long nextId = 0;
+
+    private HighlightSearch() {
+    }
+
+    /**
+     * Everything the worker needs, captured on the client thread.
+     * The track would sit on top of {@code target}, the block the crosshair is on.
+     */
+    public record Request(long id, BlockPos target, double anchorX, double anchorZ,
+                          double axisX, double axisZ, double targetRadius, double maxLeg) {
+    }
+
+    /**
+     * A block where the track could end, with the end axis that gives the turn.
+     */
+    public record Candidate(BlockPos pos, double radius, double axisX, double axisZ) {
+    }
+
+    /**
+     * Outcome of a search: the candidates nearest the crosshair, and how many exist in total.
+     */
+    public record Result(long id, BlockPos target, List<Candidate> candidates, int total) {
+    }
+
+    /**
+     * Capture a request for the current anchor and crosshair target.
+     * Returns null when the anchor has no usable horizontal axis.
+     */
+    public static Request capture(BlockPos target, Vec3 anchor, Vec3 axis, double targetRadius, double maxLeg) {
+        double horizontal = Math.sqrt(axis.x * axis.x + axis.z * axis.z);
+        if (horizontal < 1.0E-6) {
+            return null;
+        }
+
+        return new Request(++nextId, target.immutable(), anchor.x, anchor.z,
+                axis.x / horizontal, axis.z / horizontal, targetRadius, maxLeg);
+    }
+
+    /**
+     * Cancel the search in flight, if any, and start a new one.
+     */
+    public static void submit(Request request) {
+        cancel();
+        try {
+            pending = executor.submit(() -> {
+                Result result = search(request);
+                if (result != null && !Thread.currentThread().isInterrupted()) {
+                    published.set(result);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            RailwayToolkit.LOGGER.debug("Highlight search rejected", e);
+        }
+    }
+
+    public static void cancel() {
+        if (pending != null) {
+            pending.cancel(true);
+            pending = null;
+        }
+        published.set(null);
+    }
+
+    /**
+     * Take the latest published result, if there is one.
+     */
+    public static Result poll() {
+        return published.getAndSet(null);
+    }
+
+    /**
+     * The worker side of the search. Returns null if the request was cancelled mid-way.
+     */
+    static Result search(Request request) {
+        int total = solver.solve(request.anchorX(), request.anchorZ(), request.axisX(), request.axisZ(),
+                request.targetRadius(), BAND, request.maxLeg());
+        if (Thread.currentThread().isInterrupted()) {
+            return null;
+        }
+
+        BlockPos target = request.target();
+        int found = solver.nearest(target.getX() + 0.5, target.getZ() + 0.5, MAX_RESULTS, nearest);
+        List<Candidate> candidates = new ArrayList<>(found);
+        for (int i = 0; i < found; i++) {
+            int index = nearest[i];
+            BlockPos pos = new BlockPos(solver.x(index), target.getY() + 1, solver.z(index));
+            candidates.add(new Candidate(pos, solver.radius(index), solver.axisX(index), solver.axisZ(index)));
+        }
+
+        return new Result(request.id(), target, candidates, total);
+    }
+}
@@ -0,0 +1,216 @@
+package com.railwaytoolkit.client;
+
+import com.railwaytoolkit.RailwayToolkit;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.client.event.CustomizeGuiOverlayEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Timing of the per-tick hot paths.
+ *
+ * Each path is bracketed with {@link #begin} and {@link #end}, which record the duration in a
+ * rolling {@link LatencyHistogram} and, while a Flight Recorder recording is running, emit a
+ * {@link ToolkitEvents} event with the tryConnect calls, cache outcome and candidate count.
+ * Paths nest (the client tick contains the display and highlight), so the open paths are kept
+ * on a small primitive stack. Client thread only.
+ */
+@EventBusSubscriber(modid = RailwayToolkit.MOD_ID, value = Dist.CLIENT)
+public final class HotPaths {
+
+    public enum Path {
+        CLIENT_TICK("tick", ToolkitEvents.ClientTick::new),
+        TRY_CONNECT("tryConnect", ToolkitEvents.TryConnect::new),
+        DISPLAY("display", ToolkitEvents.Display::new),
+        HIGHLIGHT("highlight", ToolkitEvents.Highlight::new),
+        SCHEDULER("scheduler", ToolkitEvents.Scheduler::new);
+
+        private final String label;
+        private final Supplier<ToolkitEvents.HotPathEvent> eventFactory;
+        private final LatencyHistogram histogram = new LatencyHistogram();
+
+        Path(String label, Supplier<ToolkitEvents.HotPathEvent> eventFactory) {
+            this.label = label;
+            this.eventFactory = eventFactory;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public LatencyHistogram getHistogram() {
+            return histogram;
+        }
+    }
+
+    public enum CacheOutcome {
+        NONE, HIT, MISS
+    }
+
+    private static final int MAX_DEPTH = 8;
+
+    private static final long[] starts = new long[MAX_DEPTH];
+    private static final long[] tryConnectStarts = new long[MAX_DEPTH];
+    private static final CacheOutcome[] outcomes = new CacheOutcome[MAX_DEPTH];
+    private static final int[] candidates = new int[MAX_DEPTH];
+    private static final Path[] paths = new Path[MAX_DEPTH];
+    private static final ToolkitEvents.HotPathEvent[] events = new ToolkitEvents.HotPathEvent[MAX_DEPTH];
+    private static int depth = 0;
+    // Paths opened past MAX_DEPTH, which are not timed; their ends are matched off first
+    private static int ignored = 0;
+    private static boolean overflowLogged = false;
+    private static long tryConnectCalls = 0;
+
+    // Events are only allocated while some recording is running
+    private static volatile boolean recording = false;
+
+    static {
+        if (FlightRecorder.isAvailable()) {
+            FlightRecorder.addListener(new FlightRecorderListener() {
+                @Override
+                public void recorderInitialized(FlightRecorder recorder) {
+                    updateRecording(recorder);
+                }
+
+                @Override
+                public void recordingStateChanged(Recording changed) {
+                    updateRecording(FlightRecorder.getFlightRecorder());
+                }
+            });
+        }
+    }
+
+    private HotPaths() {
+    }
+
+    /**
+     * Open a path nested in the current one. Paths nested deeper than the stack allows are not
+     * timed, and the outer paths are left as they are.
+     */
+    public static void begin(Path path) {
+        if (depth == MAX_DEPTH) {
+            ignored++;
+            if (!overflowLogged) {
+                overflowLogged = true;
+                RailwayToolkit.LOGGER.warn("Hot paths nested deeper than {}; not timing {} or anything inside it",
+                        MAX_DEPTH, path);
+            }
+            return;
+        }
+
+        int slot = depth++;
+        paths[slot] = path;
+        tryConnectStarts[slot] = tryConnectCalls;
+        outcomes[slot] = CacheOutcome.NONE;
+        candidates[slot] = 0;
+        if (recording) {
+            ToolkitEvents.HotPathEvent event = path.eventFactory.get();
+            event.begin();
+            events[slot] = event;
+        }
+        starts[slot] = System.nanoTime();
+    }
+
+    /**
+     * Close the innermost open path. Callers pair this with {@link #begin} in a finally block.
+     */
+    public static void end() {
+        long now = System.nanoTime();
+        if (ignored > 0) {
+            ignored--;
+            return;
+        }
+        if (depth == 0) {
+            return;
+        }
+
+        int slot = --depth;
+        paths[slot].histogram.record(now - starts[slot]);
+
+        ToolkitEvents.HotPathEvent event = events[slot];
+        if (event != null) {
+            events[slot] = null;
+            event.end();
+            if (event.shouldCommit()) {
+                event.tryConnectCalls = (int) (tryConnectCalls - tryConnectStarts[slot]);
+                event.cacheOutcome = outcomes[slot].name();
+                event.candidates = candidates[slot];
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Note whether the innermost open path reused its cached result.
+     */
+    public static void cacheOutcome(CacheOutcome outcome) {
+        if (depth > 0) {
+            outcomes[depth - 1] = outcome;
+        }
+    }
+
+    /**
+     * Note how many highlight candidates the innermost open path showed.
+     */
+    public static void candidates(int count) {
+        if (depth > 0) {
+            candidates[depth - 1] = count;
+        }
+    }
+
+    /**
+     * Count a client-side call into Create's tryConnect.
+     */
+    public static void countTryConnect() {
+        tryConnectCalls++;
+    }
+
+    /**
+     * One line per path with the rolling p50, p99 and max, in microseconds, then the
+     * {@link PlacementCache} hit rate and the {@link FrameScheduler} budget report.
+     */
+    public static List<String> describe() {
+        List<String> lines = new ArrayList<>();
+        for (Path path : Path.values()) {
+            LatencyHistogram.Snapshot snapshot = path.histogram.snapshot();
+            lines.add(String.format("%s: p50 %.1f p99 %.1f max %.1f µs (n=%d)", path.label,
+                    snapshot.p50() / 1000.0, snapshot.p99() / 1000.0, snapshot.max() / 1000.0, snapshot.count()));
+        }
+        lines.add(PlacementCache.describe());
+        lines.add(FrameScheduler.describe());
+        return lines;
+    }
+
+    public static void reset() {
+        for (Path path : Path.values()) {
+            path.histogram.reset();
+        }
+    }
+
+    @SubscribeEvent
+    public static void onDebugText(CustomizeGuiOverlayEvent.DebugText event) {
+        List<String> right = event.getRight();
+        right.add("");
+        right.add("[Railway Toolkit]");
+        right.addAll(describe());
+    }
+
+    private static void updateRecording(FlightRecorder recorder) {
+        boolean running = false;
+        for (Recording recording : recorder.getRecordings()) {
+            if (recording.getState() == RecordingState.RUNNING) {
+                running = true;
+                break;
+            }
+        }
+        recording = running;
+    }
+}
@@ -0,0 +1,268 @@
+package com.railwaytoolkit.client;
+
+import com.railwaytoolkit.config.CompiledConfig;
+import com.railwaytoolkit.config.RailwayToolkitConfig;
+import com.railwaytoolkit.geometry.CubicBezier;
+import com.railwaytoolkit.geometry.MinimumRadius;
+import com.railwaytoolkit.rating.RatingTable;
+import com.railwaytoolkit.track.TrackCurves;
+import com.simibubi.create.content.trains.track.BezierConnection;
+import com.simibubi.create.content.trains.track.ITrackBlock;
+import com.simibubi.create.content.trains.track.TrackBlockEntity;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.phys.Vec3;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Curvature continuity where the previewed curve joins existing track.
+ *
+ * At each end of the curve, the track a train runs onto is read from that end's track block:
+ * the curved connections in its block entity that leave it away from the new curve, and the
+ * block's own straight if more track continues beyond it. The jump at a joint is the change in
+ * signed plan curvature a train feels crossing it, so a curve off a straight jumps by its own
+ * curvature and a reverse curve by the sum of both. A joint needs a transition when its jump is
+ * sharper than running from straight track into a curve of the widest tier's radius.
+ *
+ * What leaves a track block is cached per block until a block next to it changes, and the
+ * joints are only worked out again when the curve changes or a cached block is dropped. Client
+ * thread only.
+ */
+public final class JointCheck {
+
+    /** Cached track blocks kept at most before the cache is emptied. */
+    private static final int MAX_BLOCKS = 256;
+    /** Cosine above which track leaving the joint counts as continuing the curve. */
+    private static final double CONTINUING = 0.9;
+
+    /**
+     * What a train meets crossing one end of the curve: the largest curvature jump to any
+     * track continuing from it, in 1/blocks.
+     */
+    public record Joint(double jump, boolean needsTransition) {
+
+        /**
+         * Radius of the curve that, entered from a straight, would give the same jump; 0 for a
+         * smooth joint.
+         */
+        public double equivalentRadius() {
+            return jump < MinimumRadius.STRAIGHT_CURVATURE ? 0 : 1.0 / jump;
+        }
+    }
+
+    /**
+     * Track leaving a block: its unit plan direction and signed curvature on the way out.
+     */
+    private record Branch(double dx, double dz, double curvature) {
+    }
+
+    /**
+     * The branches of one track block, with the state and connections they were read from.
+     */
+    private record Block(BlockState state, BezierConnection[] connections, Branch[] branches) {
+    }
+
+    private static final BezierConnection[] NO_CONNECTIONS = new BezierConnection[0];
+    private static final Branch[] NO_BRANCHES = new Branch[0];
+
+    private static final Map<Long, Block> blocks = new HashMap<>();
+    private static final double[] curvePoints = new double[CubicBezier.STRIDE];
+    private static final double[] tangent = new double[3];
+    private static ClientLevel cachedLevel = null;
+    private static int cachedGeneration = -1;
+    private static long cachedCurveKey = 0;
+    private static int changes = 0;
+    private static int cachedChanges = -1;
+    private static Joint start = null;
+    private static Joint end = null;
+
+    private JointCheck() {
+    }
+
+    /**
+     * Work out the joints of the snapshot's curve if it or the track around it changed.
+     * Called every client tick.
+     */
+    public static void update(PlacementSnapshot snapshot) {
+        ClientLevel level = Minecraft.getInstance().level;
+        int generation = RailwayToolkitConfig.getGeneration();
+        if (level != cachedLevel || generation != cachedGeneration) {
+            clear();
+            cachedLevel = level;
+            cachedGeneration = generation;
+        }
+        BezierConnection curve = snapshot.getCurve();
+        CompiledConfig config = RailwayToolkitConfig.compiled();
+        if (level == null || curve == null || !config.showJoints) {
+            start = null;
+            end = null;
+            cachedCurveKey = 0;
+            return;
+        }
+
+        long key = snapshot.getCurveKey();
+        if (key == cachedCurveKey && changes == cachedChanges) {
+            return;
+        }
+        cachedCurveKey = key;
+        cachedChanges = changes;
+        if (blocks.size() > MAX_BLOCKS) {
+            blocks.clear();
+        }
+
+        RatingTable ratings = config.ratings;
+        double limit = ratings.size() > 0 ? 1.0 / ratings.minRadius(ratings.size() - 1) : 0;
+        TrackCurves.loadControlPoints(curve, curvePoints, 0);
+
+        // Leaving the curve backwards through its first end, and forwards through its second
+        CubicBezier.derivative(curvePoints, 0, 0, tangent, 0);
+        start = joint(level, curve.bePositions.getFirst(), -tangent[0], -tangent[2],
+                -CubicBezier.turnCurvature(curvePoints, 0, 0), limit);
+        CubicBezier.derivative(curvePoints, 0, 1, tangent, 0);
+        end = joint(level, curve.bePositions.getSecond(), tangent[0], tangent[2],
+                CubicBezier.turnCurvature(curvePoints, 0, 1), limit);
+    }
+
+    /**
+     * The joint at the curve's first end, or null if no track continues from it.
+     */
+    public static Joint getStart() {
+        return start;
+    }
+
+    /**
+     * The joint at the curve's second end, or null if no track continues from it.
+     */
+    public static Joint getEnd() {
+        return end;
+    }
+
+    /**
+     * Drop the cached blocks next to a changed block.
+     */
+    public static void onBlockChanged(BlockPos changed) {
+        if (blocks.isEmpty()) {
+            return;
+        }
+        boolean removed = false;
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dz = -1; dz <= 1; dz++) {
+                    long key = BlockPos.asLong(changed.getX() + dx, changed.getY() + dy, changed.getZ() + dz);
+                    removed |= blocks.remove(key) != null;
+                }
+            }
+        }
+        if (removed) {
+            changes++;
+        }
+    }
+
+    public static void clear() {
+        blocks.clear();
+        start = null;
+        end = null;
+        cachedCurveKey = 0;
+        changes++;
+    }
+
+    /**
+     * Largest jump from leaving the curve at {@code pos} in direction (dx, dz) with the given
+     * curvature onto any track continuing that way.
+     */
+    private static Joint joint(ClientLevel level, BlockPos pos, double dx, double dz, double curvature,
+                               double limit) {
+        double horizontal = Math.sqrt(dx * dx + dz * dz);
+        if (horizontal < 1.0E-9) {
+            return null;
+        }
+        dx /= horizontal;
+        dz /= horizontal;
+
+        double jump = -1;
+        for (Branch branch : block(level, pos).branches()) {
+            if (branch.dx() * dx + branch.dz() * dz > CONTINUING) {
+                jump = Math.max(jump, Math.abs(branch.curvature() - curvature));
+            }
+        }
+        return jump < 0 ? null : new Joint(jump, jump > limit + MinimumRadius.STRAIGHT_CURVATURE);
+    }
+
+    /**
+     * Cached branches of the block at {@code pos}, read again if its state or connections are
+     * no longer the ones they were read from.
+     */
+    private static Block block(ClientLevel level, BlockPos pos) {
+        BlockState state = level.getBlockState(pos);
+        Map<BlockPos, BezierConnection> connections = level.getBlockEntity(pos) instanceof TrackBlockEntity be
+                ? be.getConnections() : Map.of();
+        Block cached = blocks.get(pos.asLong());
+        if (cached != null && cached.state() == state && sameConnections(cached.connections(), connections)) {
+            return cached;
+        }
+        Block block = load(level, pos, state, connections);
+        blocks.put(pos.asLong(), block);
+        return block;
+    }
+
+    private static boolean sameConnections(BezierConnection[] cached, Map<BlockPos, BezierConnection> current) {
+        if (cached.length != current.size()) {
+            return false;
+        }
+        int i = 0;
+        for (BezierConnection connection : current.values()) {
+            if (connection != cached[i++]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Block load(ClientLevel level, BlockPos pos, BlockState state,
+                              Map<BlockPos, BezierConnection> connections) {
+        if (!(state.getBlock() instanceof ITrackBlock track)) {
+            return new Block(state, NO_CONNECTIONS, NO_BRANCHES);
+        }
+        List<Branch> branches = new ArrayList<>();
+
+        // The block's own straight, each way there is more track to run onto
+        for (Vec3 axis : track.getTrackAxes(level, pos, state)) {
+            for (int sign = -1; sign <= 1; sign += 2) {
+                BlockPos next = pos.offset((int) Math.signum(axis.x) * sign, (int) Math.signum(axis.y) * sign,
+                        (int) Math.signum(axis.z) * sign);
+                if (level.getBlockState(next).getBlock() instanceof ITrackBlock) {
+                    addBranch(branches, axis.x * sign, axis.z * sign, 0);
+                }
+            }
+        }
+
+        // Curves, oriented to leave this block
+        BezierConnection[] cached = connections.values().toArray(NO_CONNECTIONS);
+        double[] points = new double[CubicBezier.STRIDE];
+        double[] direction = new double[3];
+        for (BezierConnection connection : cached) {
+            TrackCurves.loadControlPoints(connection, points, 0);
+            if (connection.bePositions.getFirst().equals(pos)) {
+                CubicBezier.derivative(points, 0, 0, direction, 0);
+                addBranch(branches, direction[0], direction[2], CubicBezier.turnCurvature(points, 0, 0));
+            } else {
+                CubicBezier.derivative(points, 0, 1, direction, 0);
+                addBranch(branches, -direction[0], -direction[2], -CubicBezier.turnCurvature(points, 0, 1));
+            }
+        }
+        return new Block(state, cached, branches.toArray(NO_BRANCHES));
+    }
+
+    private static void addBranch(List<Branch> branches, double dx, double dz, double curvature) {
+        double horizontal = Math.sqrt(dx * dx + dz * dz);
+        if (horizontal > 1.0E-9) {
+            branches.add(new Branch(dx / horizontal, dz / horizontal, curvature));
+        }
+    }
+}
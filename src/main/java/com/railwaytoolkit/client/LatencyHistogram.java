@@ -0,0 +1,118 @@
+package com.railwaytoolkit.client;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free rolling histogram of latencies in nanoseconds.
+ *
+ * Samples go into log-linear buckets (8 per power of two, so within 12.5%) of the current
+ * window. Windows rotate every {@link #WINDOW_NANOS}; percentiles are read over the current and
+ * the previous window, so they always cover between one and two windows of recent samples.
+ * Recording is a couple of atomic adds and never blocks or allocates, except when rotating.
+ */
+public final class LatencyHistogram {
+
+    public static final long WINDOW_NANOS = 5_000_000_000L;
+
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = 64 * SUB_BUCKETS;
+
+    private final AtomicReference<Window> current;
+    private volatile Window previous;
+
+    public LatencyHistogram() {
+        current = new AtomicReference<>(new Window(System.nanoTime()));
+        previous = new Window(0);
+    }
+
+    /**
+     * Percentiles over the recent windows. All values are 0 when nothing was recorded.
+     */
+    public record Snapshot(long count, long p50, long p99, long max) {
+    }
+
+    private static final class Window {
+        final long start;
+        final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        final AtomicLong count = new AtomicLong();
+        final AtomicLong max = new AtomicLong();
+
+        Window(long start) {
+            this.start = start;
+        }
+    }
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        Window window = windowAt(System.nanoTime());
+        window.buckets.incrementAndGet(bucketOf(value));
+        window.count.incrementAndGet();
+        window.max.accumulateAndGet(value, Math::max);
+    }
+
+    public Snapshot snapshot() {
+        Window window = windowAt(System.nanoTime());
+        Window older = previous;
+        long count = window.count.get() + older.count.get();
+        if (count == 0) {
+            return new Snapshot(0, 0, 0, 0);
+        }
+        long max = Math.max(window.max.get(), older.max.get());
+        return new Snapshot(count, valueAt(window, older, count, 0.50, max), valueAt(window, older, count, 0.99, max), max);
+    }
+
+    public void reset() {
+        previous = new Window(0);
+        current.set(new Window(System.nanoTime()));
+    }
+
+    private Window windowAt(long now) {
+        Window window = current.get();
+        if (now - window.start < WINDOW_NANOS) {
+            return window;
+        }
+        Window next = new Window(now);
+        if (current.compareAndSet(window, next)) {
+            // A window older than two periods has nothing recent left to show
+            previous = now - window.start < 2 * WINDOW_NANOS ? window : new Window(0);
+            return next;
+        }
+        return current.get();
+    }
+
+    /**
+     * Upper bound of the bucket holding the requested fraction of samples, capped at the maximum.
+     */
+    private static long valueAt(Window a, Window b, long count, double fraction, long max) {
+        long rank = (long) Math.ceil(count * fraction);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += a.buckets.get(bucket) + b.buckets.get(bucket);
+            if (seen >= rank) {
+                return Math.min(upperBound(bucket), max);
+            }
+        }
+        return max;
+    }
+
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        int sub = bucket % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + sub + 1) << (exponent - SUB_BITS)) - 1;
+    }
+}
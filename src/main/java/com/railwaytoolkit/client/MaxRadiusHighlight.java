@@ -1,42 +1,68 @@
 package com.railwaytoolkit.client;
 
 import com.railwaytoolkit.config.RailwayToolkitConfig;
-import com.railwaytoolkit.mixin.accessor.PlacementInfoAccessor;
+import com.railwaytoolkit.rating.RatingTable;
 import com.simibubi.create.AllSpecialTextures;
 import com.simibubi.create.content.trains.track.BezierConnection;
-import com.simibubi.create.content.trains.track.TrackPlacement;
+import com.simibubi.create.content.trains.track.TrackBlock;
+import com.simibubi.create.content.trains.track.TrackShape;
 import net.createmod.catnip.outliner.Outliner;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.player.LocalPlayer;
 import net.minecraft.core.BlockPos;
+import net.minecraft.world.item.BlockItem;
 import net.minecraft.world.item.ItemStack;
-import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.phys.BlockHitResult;
 import net.minecraft.world.phys.HitResult;
+import net.minecraft.world.phys.Vec3;
 
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Handles the yellow highlight showing where maximum curvature radius can be achieved.
+ *
+ * Each search is a high priority {@link FrameScheduler} job keyed on the highlight, so a new
+ * crosshair target replaces a search that has not finished yet. The job hands the closed-form
+ * part to {@link HighlightSearch} on a background thread, waits for its result, verifies the
+ * few nearest candidates with Create's own tryConnect one at a time within the frame budget,
+ * then applies the result to the outliner.
  */
 public class MaxRadiusHighlight {
 
     private static BlockPos lastHighlightPos = null;
-    private static long lastUpdateTime = 0;
-    private static final long UPDATE_INTERVAL_MS = 100;
+    private static final int MAX_VERIFIED = 6;
+    private static final String JOB_KEY = "highlight";
+
+    // Inputs of the last submitted search, used to skip identical searches
+    private static long lastFingerprint = 0;
+    private static BlockPos lastTargetPos = null;
+    private static long activeRequestId = -1;
+
+    private static final TrackShape[] STRAIGHT_SHAPES = {TrackShape.XO, TrackShape.ZO, TrackShape.PD, TrackShape.ND};
 
     /**
      * Called from mixin to update the max radius highlight.
+     * The search is skipped entirely while the placement snapshot and crosshair target are unchanged,
+     * and a search still running for an old target is cancelled as soon as the target moves.
      */
-    public static void updateHighlight() {
-        // Throttle updates
-        long now = System.currentTimeMillis();
-        if (now - lastUpdateTime < UPDATE_INTERVAL_MS) {
+    public static void updateHighlight(PlacementSnapshot snapshot) {
+        HotPaths.begin(HotPaths.Path.HIGHLIGHT);
+        try {
+            update(snapshot);
+        } finally {
+            HotPaths.end();
+        }
+    }
+
+    private static void update(PlacementSnapshot snapshot) {
+        if (SurveyMode.isEnabled()) {
+            SurveyMode.update(snapshot);
+            updateSurveyTarget(snapshot);
             return;
         }
-        lastUpdateTime = now;
+        SurveyMode.clear();
 
         Minecraft mc = Minecraft.getInstance();
         LocalPlayer player = mc.player;
@@ -53,30 +79,19 @@ public class MaxRadiusHighlight {
         }
 
         // Check if we're in track placement mode
-        TrackPlacement.PlacementInfo info = TrackPlacement.cached;
-        if (info == null) {
+        if (snapshot.isEmpty()) {
             clearHighlight();
             return;
         }
 
-        PlacementInfoAccessor accessor = (PlacementInfoAccessor) (Object) info;
-        BezierConnection curve = accessor.getCurve();
+        BezierConnection curve = snapshot.getCurve();
 
         // Only show for curves, not straight tracks or S-curves
-        if (curve == null || curve.getRadius() <= 0) {
+        if (curve == null || curve.getRadius() <= 0 || snapshot.getEnd1() == null || snapshot.getAxis1() == null) {
             clearHighlight();
             return;
         }
 
-        // Get the current enforcement target radius
-        double targetRadius = EnforcementHandler.getCurrentMinRadius();
-
-        // Find the position that would give maximum radius
-        BlockHitResult bhr = (BlockHitResult) hitResult;
-        BlockPos basePos = bhr.getBlockPos();
-        Level level = player.level();
-        BlockState hitState = level.getBlockState(basePos);
-
         // Get the track item
         ItemStack stack = player.getMainHandItem();
         if (!stack.hasFoil()) {
@@ -84,68 +99,214 @@ public class MaxRadiusHighlight {
             return;
         }
 
-        // Search for positions with best radius
-        List<BlockPos> targetPositions = new ArrayList<>();
-        double bestRadius = 0;
-        BlockPos bestPos = null;
+        BlockPos basePos = ((BlockHitResult) hitResult).getBlockPos();
+        if (snapshot.getFingerprint() == lastFingerprint && basePos.equals(lastTargetPos)) {
+            HotPaths.cacheOutcome(HotPaths.CacheOutcome.HIT);
+            return;
+        }
+        HotPaths.cacheOutcome(HotPaths.CacheOutcome.MISS);
+        lastFingerprint = snapshot.getFingerprint();
+        lastTargetPos = basePos;
 
-        for (int xOffset = -3; xOffset <= 3; xOffset++) {
-            for (int zOffset = -3; zOffset <= 3; zOffset++) {
-                if (xOffset == 0 && zOffset == 0) continue;
+        HighlightSearch.Request request = HighlightSearch.capture(basePos, snapshot.getEnd1(), snapshot.getAxis1(),
+                snapshot.getEnforcementRadius(), RailwayToolkitConfig.compiled().highlightRange);
+        if (request == null) {
+            clearHighlight();
+            return;
+        }
+        activeRequestId = request.id();
+        FrameScheduler.submit(JOB_KEY, FrameScheduler.Priority.HIGH, new Search(request)::step);
+    }
 
-                BlockPos testPos = basePos.offset(xOffset, 0, zOffset);
-                try {
-                    TrackPlacement.PlacementInfo testInfo =
-                            TrackPlacement.tryConnect(level, player, testPos, hitState, stack, false, true);
+    /**
+     * In survey mode the crosshair block is simply looked up in the surveyed field
+     * and outlined in the colour of its band.
+     */
+    private static void updateSurveyTarget(PlacementSnapshot snapshot) {
+        Minecraft mc = Minecraft.getInstance();
+        HitResult hitResult = mc.hitResult;
+        if (snapshot.isEmpty() || hitResult == null || hitResult.getType() != HitResult.Type.BLOCK) {
+            clearHighlight();
+            return;
+        }
+
+        BlockPos basePos = ((BlockHitResult) hitResult).getBlockPos();
+        if (basePos.equals(lastTargetPos) && lastHighlightPos != null) {
+            return;
+        }
+
+        int tier = SurveyMode.ratingAt(basePos);
+        if (tier == RatingTable.INVALID) {
+            removeOutline();
+            return;
+        }
+        lastTargetPos = basePos;
+        Outliner.getInstance().showCluster("railwaytoolkit_target", List.of(basePos))
+                .withFaceTexture(AllSpecialTextures.THIN_CHECKERED)
+                .colored(SurveyMode.getRatings().color(tier))
+                .lineWidth(0);
+        lastHighlightPos = basePos;
+    }
+
+    /**
+     * One search, from handing it to the worker to showing the verified candidates. Results of
+     * earlier requests that arrive late are ignored.
+     */
+    private static final class Search {
+        private final HighlightSearch.Request request;
+        private boolean submitted = false;
+        private Verification verification = null;
 
-                    if (testInfo == null) continue;
+        Search(HighlightSearch.Request request) {
+            this.request = request;
+        }
 
-                    PlacementInfoAccessor testAccessor = (PlacementInfoAccessor) (Object) testInfo;
-                    if (!testAccessor.isValid()) continue;
+        boolean step(long deadline) {
+            if (!submitted) {
+                HighlightSearch.submit(request);
+                submitted = true;
+                return false;
+            }
+            if (verification == null) {
+                HighlightSearch.Result result = HighlightSearch.poll();
+                if (result == null || result.id() != request.id()) {
+                    return false;
+                }
+                verification = verification(result);
+                if (verification == null) {
+                    removeOutline();
+                    return true;
+                }
+            }
+            return verification.step(deadline);
+        }
+    }
 
-                    BezierConnection testCurve = testAccessor.getCurve();
-                    if (testCurve == null) continue;
+    /**
+     * Verification of a finished search's candidates, or null if there is nothing to verify.
+     */
+    private static Verification verification(HighlightSearch.Result result) {
+        LocalPlayer player = Minecraft.getInstance().player;
+        PlacementSnapshot snapshot = PlacementSnapshot.current();
+        if (player == null || result.candidates().isEmpty() || snapshot.getEnd1() == null) {
+            return null;
+        }
+        return new Verification(player, player.getMainHandItem(), BlockPos.containing(snapshot.getEnd1()),
+                snapshot.getEnforcementRadius(), result.candidates());
+    }
 
-                    double testRadius = testCurve.getRadius();
-                    if (testRadius <= 0) continue;
+    /**
+     * Checks the nearest candidates one per step. Candidates that Create confirms are shown in
+     * yellow; if none of them can actually be placed, they are shown in orange as geometric
+     * guidance only.
+     */
+    private static final class Verification {
+        private final LocalPlayer player;
+        private final ItemStack stack;
+        private final BlockPos anchor;
+        private final double targetRadius;
+        private final List<HighlightSearch.Candidate> candidates;
+        private final List<BlockPos> verified = new ArrayList<>();
+        private final List<BlockPos> unverified = new ArrayList<>();
+        private int next = 0;
 
-                    // Track the best (maximum) radius position
-                    if (testRadius > bestRadius) {
-                        bestRadius = testRadius;
-                        bestPos = testPos;
-                    }
+        Verification(LocalPlayer player, ItemStack stack, BlockPos anchor, double targetRadius,
+                     List<HighlightSearch.Candidate> candidates) {
+            this.player = player;
+            this.stack = stack;
+            this.anchor = anchor;
+            this.targetRadius = targetRadius;
+            this.candidates = candidates;
+        }
 
-                    // Also collect positions that meet the target radius
-                    if (testRadius >= targetRadius && testRadius < targetRadius * 1.2) {
-                        targetPositions.add(testPos.below());
-                    }
-                } catch (Exception e) {
-                    // Ignore errors in test placements
+        boolean step(long deadline) {
+            int limit = Math.min(MAX_VERIFIED, candidates.size());
+            while (next < limit) {
+                HighlightSearch.Candidate candidate = candidates.get(next++);
+                if (verify(player, stack, anchor, candidate, targetRadius)) {
+                    verified.add(candidate.pos().below());
+                } else {
+                    unverified.add(candidate.pos().below());
+                }
+                if (next < limit && System.nanoTime() >= deadline) {
+                    return false;
                 }
             }
+            show();
+            return true;
         }
 
-        // Show highlight for positions meeting target radius, or the best position
-        if (!targetPositions.isEmpty()) {
-            Outliner.getInstance().showCluster("railwaytoolkit_target", targetPositions)
-                    .withFaceTexture(AllSpecialTextures.THIN_CHECKERED)
-                    .colored(0xFFFF00)  // Yellow
-                    .lineWidth(0);
-            lastHighlightPos = targetPositions.get(0);
-        } else if (bestPos != null) {
-            List<BlockPos> bestList = new ArrayList<>();
-            bestList.add(bestPos.below());
-            Outliner.getInstance().showCluster("railwaytoolkit_target", bestList)
-                    .withFaceTexture(AllSpecialTextures.THIN_CHECKERED)
-                    .colored(0xFFAA00)  // Orange for "best available"
-                    .lineWidth(0);
-            lastHighlightPos = bestPos;
-        } else {
-            clearHighlight();
+        private void show() {
+            if (!verified.isEmpty()) {
+                Outliner.getInstance().showCluster("railwaytoolkit_target", verified)
+                        .withFaceTexture(AllSpecialTextures.THIN_CHECKERED)
+                        .colored(0xFFFF00)  // Yellow
+                        .lineWidth(0);
+                lastHighlightPos = verified.get(0);
+                HotPaths.candidates(verified.size());
+            } else {
+                Outliner.getInstance().showCluster("railwaytoolkit_target", unverified)
+                        .withFaceTexture(AllSpecialTextures.THIN_CHECKERED)
+                        .colored(0xFFAA00)  // Orange for "geometrically reachable"
+                        .lineWidth(0);
+                lastHighlightPos = unverified.get(0);
+                HotPaths.candidates(unverified.size());
+            }
         }
     }
 
+    /**
+     * Check a candidate with Create's own placement logic, using a track state aligned to its end axis.
+     * Results are served from {@link PlacementCache} while the blocks around both ends are unchanged.
+     */
+    private static boolean verify(LocalPlayer player, ItemStack stack, BlockPos anchor,
+                                  HighlightSearch.Candidate candidate, double targetRadius) {
+        BlockState state = trackStateFor(stack, candidate.axisX(), candidate.axisZ());
+        if (state == null) {
+            return false;
+        }
+
+        PlacementCache.Result result = PlacementCache.tryConnect(player.level(), player, anchor, candidate.pos(),
+                state, stack, false, false);
+        double radius = result.radius();
+        return result.valid() && radius >= targetRadius && radius < targetRadius * HighlightSearch.BAND;
+    }
+
+    /**
+     * Track block state whose shape runs along the given horizontal axis.
+     */
+    private static BlockState trackStateFor(ItemStack stack, double axisX, double axisZ) {
+        if (!(stack.getItem() instanceof BlockItem blockItem)) {
+            return null;
+        }
+        BlockState state = blockItem.getBlock().defaultBlockState();
+        if (!state.hasProperty(TrackBlock.SHAPE)) {
+            return null;
+        }
+
+        for (TrackShape shape : STRAIGHT_SHAPES) {
+            for (Vec3 axis : shape.getAxes()) {
+                double cross = axis.x * axisZ - axis.z * axisX;
+                if (Math.abs(cross) < 1.0E-3 * axis.length()) {
+                    return state.setValue(TrackBlock.SHAPE, shape);
+                }
+            }
+        }
+        return null;
+    }
+
     private static void clearHighlight() {
+        lastFingerprint = 0;
+        lastTargetPos = null;
+        if (activeRequestId != -1) {
+            HighlightSearch.cancel();
+            FrameScheduler.cancel(JOB_KEY);
+            activeRequestId = -1;
+        }
+        removeOutline();
+    }
+
+    private static void removeOutline() {
         if (lastHighlightPos != null) {
             Outliner.getInstance().remove("railwaytoolkit_target");
             lastHighlightPos = null;
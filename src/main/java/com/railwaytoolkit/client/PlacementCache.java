@@ -0,0 +1,220 @@
+package com.railwaytoolkit.client;
+
+import com.railwaytoolkit.RailwayToolkit;
+import com.railwaytoolkit.config.RailwayToolkitConfig;
+import com.railwaytoolkit.mixin.accessor.PlacementInfoAccessor;
+import com.simibubi.create.content.trains.track.BezierConnection;
+import com.simibubi.create.content.trains.track.TrackPlacement;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.phys.Vec3;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.level.ChunkEvent;
+import net.neoforged.neoforge.event.level.LevelEvent;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bounded LRU cache of derived {@link TrackPlacement#tryConnect} results.
+ *
+ * Entries are keyed by the inputs that decide the outcome: the first track point, the tested
+ * position, the track state, the held item and its count, the player's inventory version and
+ * game mode (survival placement needs enough tracks and girders in the inventory), the girder
+ * and maximiseTurn flags, and the radius enforcement was applying. Only what callers need is
+ * kept (validity, radius and end vectors), never the PlacementInfo itself.
+ *
+ * Entries are also indexed by the chunk sections their ends are in. A block change drops the
+ * entries of every section within one block of it, which covers every entry with an end next
+ * to the block without scanning the rest; entries are also dropped when the chunk holding
+ * either end unloads, and everything is dropped on config reload or level unload.
+ */
+@EventBusSubscriber(modid = RailwayToolkit.MOD_ID, value = Dist.CLIENT)
+public final class PlacementCache {
+
+    private static final int MAX_ENTRIES = 512;
+
+    private static final Map<Key, Result> entries = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Result> eldest) {
+            if (size() <= MAX_ENTRIES) {
+                return false;
+            }
+            unindex(eldest.getKey());
+            return true;
+        }
+    };
+    // Keys by the section of each of their ends
+    private static final Long2ObjectOpenHashMap<Set<Key>> bySection = new Long2ObjectOpenHashMap<>();
+
+    private static long hits = 0;
+    private static long misses = 0;
+    private static int generation = -1;
+
+    private PlacementCache() {
+    }
+
+    private record Key(long anchor, long pos, BlockState state, Item item, int count, int inventoryVersion,
+                       boolean creative, boolean girder, boolean maximiseTurn, double enforcedRadius) {
+    }
+
+    /**
+     * What a tryConnect call produced. {@code radius} is 0 for straight or missing curves.
+     */
+    public record Result(boolean valid, double radius, Vec3 end1, Vec3 end2) {
+    }
+
+    /**
+     * Cached equivalent of {@code TrackPlacement.tryConnect}. Must be called on the client thread.
+     */
+    public static Result tryConnect(Level level, Player player, BlockPos anchor, BlockPos pos, BlockState state,
+                                    ItemStack stack, boolean girder, boolean maximiseTurn) {
+        int currentGeneration = RailwayToolkitConfig.getGeneration();
+        if (currentGeneration != generation) {
+            clear();
+            generation = currentGeneration;
+        }
+
+        PlacementSnapshot snapshot = PlacementSnapshot.current();
+        double enforcedRadius = snapshot.isEnforcing() ? snapshot.getEnforcementRadius() : 0;
+        Key key = new Key(anchor.asLong(), pos.asLong(), state, stack.getItem(), stack.getCount(),
+                player.getInventory().getTimesChanged(), player.isCreative(), girder, maximiseTurn, enforcedRadius);
+
+        Result result = entries.get(key);
+        if (result != null) {
+            hits++;
+            return result;
+        }
+        misses++;
+
+        TrackPlacement.PlacementInfo info = TrackPlacement.tryConnect(level, player, pos, state, stack,
+                girder, maximiseTurn);
+        if (info == null) {
+            result = new Result(false, 0, null, null);
+        } else {
+            PlacementInfoAccessor accessor = (PlacementInfoAccessor) (Object) info;
+            BezierConnection curve = accessor.getCurve();
+            double radius = curve != null ? CurveProfiles.of(curve).minRadius() : 0;
+            result = new Result(accessor.isValid(), radius, accessor.getEnd1(), accessor.getEnd2());
+        }
+
+        entries.put(key, result);
+        index(key);
+        return result;
+    }
+
+    /**
+     * Drop every entry with an end in a section within one block of the changed block.
+     */
+    public static void onBlockChanged(BlockPos changed) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        // Only sections across a face, edge or corner the block touches; usually just its own
+        int x = changed.getX();
+        int y = changed.getY();
+        int z = changed.getZ();
+        int fromX = SectionPos.blockToSectionCoord(x - 1);
+        int toX = SectionPos.blockToSectionCoord(x + 1);
+        int fromY = SectionPos.blockToSectionCoord(y - 1);
+        int toY = SectionPos.blockToSectionCoord(y + 1);
+        int fromZ = SectionPos.blockToSectionCoord(z - 1);
+        int toZ = SectionPos.blockToSectionCoord(z + 1);
+        for (int sx = fromX; sx <= toX; sx++) {
+            for (int sy = fromY; sy <= toY; sy++) {
+                for (int sz = fromZ; sz <= toZ; sz++) {
+                    Set<Key> keys = bySection.remove(SectionPos.asLong(sx, sy, sz));
+                    if (keys == null) {
+                        continue;
+                    }
+                    for (Key key : keys) {
+                        entries.remove(key);
+                        unindex(key);
+                    }
+                }
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onChunkUnload(ChunkEvent.Unload event) {
+        if (!event.getLevel().isClientSide() || entries.isEmpty()) {
+            return;
+        }
+        ChunkPos chunk = event.getChunk().getPos();
+        entries.keySet().removeIf(key -> {
+            if (inChunk(key.anchor(), chunk) || inChunk(key.pos(), chunk)) {
+                unindex(key);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel().isClientSide()) {
+            clear();
+        }
+    }
+
+    /**
+     * Entries held and the hit rate since the game started.
+     */
+    public static String describe() {
+        long lookups = hits + misses;
+        return String.format("placement cache: %d entries, %d hits of %d lookups (%.0f%%)",
+                size(), hits, lookups, lookups > 0 ? 100.0 * hits / lookups : 0);
+    }
+
+    public static int size() {
+        return entries.size();
+    }
+
+    private static void clear() {
+        entries.clear();
+        bySection.clear();
+    }
+
+    private static void index(Key key) {
+        index(SectionPos.asLong(BlockPos.of(key.anchor())), key);
+        index(SectionPos.asLong(BlockPos.of(key.pos())), key);
+    }
+
+    private static void index(long section, Key key) {
+        Set<Key> keys = bySection.get(section);
+        if (keys == null) {
+            keys = new HashSet<>();
+            bySection.put(section, keys);
+        }
+        keys.add(key);
+    }
+
+    private static void unindex(Key key) {
+        unindex(SectionPos.asLong(BlockPos.of(key.anchor())), key);
+        unindex(SectionPos.asLong(BlockPos.of(key.pos())), key);
+    }
+
+    private static void unindex(long section, Key key) {
+        Set<Key> keys = bySection.get(section);
+        if (keys != null && keys.remove(key) && keys.isEmpty()) {
+            bySection.remove(section);
+        }
+    }
+
+    private static boolean inChunk(long pos, ChunkPos chunk) {
+        return SectionPos.blockToSectionCoord(BlockPos.getX(pos)) == chunk.x
+                && SectionPos.blockToSectionCoord(BlockPos.getZ(pos)) == chunk.z;
+    }
+}
@@ -0,0 +1,294 @@
+package com.railwaytoolkit.client;
+
+import com.railwaytoolkit.RailwayToolkit;
+import com.railwaytoolkit.config.CompiledConfig;
+import com.railwaytoolkit.config.RailwayToolkitConfig;
+import com.railwaytoolkit.geometry.CurveProfile;
+import com.railwaytoolkit.rating.RatingTable;
+import com.railwaytoolkit.terrain.ClearanceEnvelope;
+import com.railwaytoolkit.terrain.Earthworks;
+import net.minecraft.ChatFormatting;
+import net.minecraft.client.DeltaTracker;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.Font;
+import net.minecraft.client.gui.GuiGraphics;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.MutableComponent;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.FormattedCharSequence;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.client.event.RegisterGuiLayersEvent;
+import net.neoforged.neoforge.client.gui.VanillaGuiLayers;
+
+import java.util.Arrays;
+
+/**
+ * Placement info panel drawn beside the crosshair as its own GUI layer.
+ *
+ * Each tick the displayed values are rounded to the precision they are shown at, and the panel
+ * is only laid out again when one of those rounded values changes. Layout bakes every line into
+ * a {@link FormattedCharSequence} with its width, so rendering is a fill and a few draw calls
+ * with no text formatting. Client thread only.
+ */
+@EventBusSubscriber(modid = RailwayToolkit.MOD_ID, bus = EventBusSubscriber.Bus.MOD, value = Dist.CLIENT)
+public final class PlacementHud {
+
+    private static final ResourceLocation LAYER = ResourceLocation.fromNamespaceAndPath(RailwayToolkit.MOD_ID, "placement");
+    private static final int MAX_LINES = 8;
+    private static final int OFFSET_X = 12;
+    private static final int OFFSET_Y = 8;
+    private static final int PADDING = 3;
+    private static final int BACKGROUND = 0x90000000;
+
+    // Rounded values the current layout was built from
+    private static final int KEY_STATUS = 0;
+    private static final int KEY_RADIUS = 1;
+    private static final int KEY_TIER = 2;
+    private static final int KEY_SLOPE = 3;
+    private static final int KEY_LENGTH = 4;
+    private static final int KEY_ENFORCEMENT = 5;
+    private static final int KEY_LEVEL = 6;
+    private static final int KEY_GENERATION = 7;
+    private static final int KEY_END_GRADE = 8;
+    private static final int KEY_CREST = 9;
+    private static final int KEY_SAG = 10;
+    private static final int KEY_FILL = 11;
+    private static final int KEY_CUT = 12;
+    private static final int KEY_UNSUPPORTED = 13;
+    private static final int KEY_SKIPPED = 14;
+    private static final int KEY_OBSTRUCTION = 15;
+    private static final int KEY_JOINT_START = 16;
+    private static final int KEY_JOINT_END = 17;
+    private static final int KEY_JOINT_FLAGS = 18;
+    private static final int KEY_SIZE = 19;
+
+    private static final int[] layoutKey = new int[KEY_SIZE];
+    private static final int[] nextKey = new int[KEY_SIZE];
+
+    private static final FormattedCharSequence[] lines = new FormattedCharSequence[MAX_LINES];
+    private static int lineCount = 0;
+    private static int panelWidth = 0;
+    private static boolean visible = false;
+
+    private PlacementHud() {
+    }
+
+    @SubscribeEvent
+    public static void onRegisterGuiLayers(RegisterGuiLayersEvent event) {
+        event.registerAbove(VanillaGuiLayers.CROSSHAIR, LAYER, PlacementHud::render);
+    }
+
+    /**
+     * Refresh the panel from this tick's snapshot. Returns true if the existing layout was kept.
+     */
+    static boolean update(PlacementSnapshot snapshot) {
+        if (snapshot.isEmpty()) {
+            hide();
+            return true;
+        }
+
+        CompiledConfig config = RailwayToolkitConfig.compiled();
+        double radius = snapshot.getRadius();
+        int tier = radius > 0 ? config.ratings.rate(radius, snapshot.getSlope()) : RatingTable.INVALID;
+        boolean meets = radius <= 0 || radius >= snapshot.getEnforcementRadius();
+
+        nextKey[KEY_STATUS] = status(snapshot);
+        nextKey[KEY_RADIUS] = (int) Math.round(config.showDecimalPlaces ? radius * 10 : radius);
+        nextKey[KEY_TIER] = tier;
+        nextKey[KEY_SLOPE] = (int) Math.round(snapshot.getSlope() * 10);
+        nextKey[KEY_LENGTH] = (int) Math.round(snapshot.getLength() * 10);
+        nextKey[KEY_ENFORCEMENT] = !snapshot.isEnforcing() ? 0 : radius <= 0 ? 1 : meets ? 2 : 3;
+        nextKey[KEY_LEVEL] = snapshot.getEnforcementLevel();
+        nextKey[KEY_GENERATION] = snapshot.getConfigGeneration();
+        CurveProfile profile = snapshot.getProfile();
+        nextKey[KEY_END_GRADE] = profile != null ? (int) Math.round(profile.endGrade() * 10) : 0;
+        nextKey[KEY_CREST] = profile != null ? (int) Math.round(profile.crestRadius()) : 0;
+        nextKey[KEY_SAG] = profile != null ? (int) Math.round(profile.sagRadius()) : 0;
+        // Filled in a few frames after the curve appears, once its terrain has been sampled
+        CurveTerrain.Terrain terrain = CurveTerrain.get(snapshot);
+        Earthworks earthworks = terrain != null && config.showEarthworks ? terrain.earthworks() : null;
+        nextKey[KEY_FILL] = earthworks != null ? earthworks.fill() : -1;
+        nextKey[KEY_CUT] = earthworks != null ? earthworks.cut() : -1;
+        nextKey[KEY_UNSUPPORTED] = earthworks != null ? earthworks.unsupported() : 0;
+        nextKey[KEY_SKIPPED] = earthworks != null ? earthworks.skipped() : 0;
+        ClearanceEnvelope.Obstruction obstruction = terrain != null ? terrain.obstruction() : null;
+        nextKey[KEY_OBSTRUCTION] = obstruction != null ? (int) Math.round(obstruction.distance() * 10) : -1;
+        JointCheck.Joint start = JointCheck.getStart();
+        JointCheck.Joint end = JointCheck.getEnd();
+        nextKey[KEY_JOINT_START] = start != null ? (int) Math.round(start.equivalentRadius()) : -1;
+        nextKey[KEY_JOINT_END] = end != null ? (int) Math.round(end.equivalentRadius()) : -1;
+        nextKey[KEY_JOINT_FLAGS] = (start != null && start.needsTransition() ? 1 : 0)
+                | (end != null && end.needsTransition() ? 2 : 0);
+
+        if (visible && Arrays.equals(layoutKey, nextKey)) {
+            return true;
+        }
+        System.arraycopy(nextKey, 0, layoutKey, 0, KEY_SIZE);
+        layout(snapshot, config, tier, meets);
+        visible = true;
+        return false;
+    }
+
+    static void hide() {
+        visible = false;
+        lineCount = 0;
+    }
+
+    private static void render(GuiGraphics graphics, DeltaTracker deltaTracker) {
+        Minecraft mc = Minecraft.getInstance();
+        if (!visible || lineCount == 0 || mc.options.hideGui) {
+            return;
+        }
+
+        Font font = mc.font;
+        int x = graphics.guiWidth() / 2 + OFFSET_X;
+        int y = graphics.guiHeight() / 2 + OFFSET_Y;
+        int height = lineCount * font.lineHeight;
+        graphics.fill(x - PADDING, y - PADDING, x + panelWidth + PADDING, y + height + PADDING - 1, BACKGROUND);
+        for (int i = 0; i < lineCount; i++) {
+            graphics.drawString(font, lines[i], x, y + i * font.lineHeight, 0xFFFFFF, true);
+        }
+    }
+
+    private static int status(PlacementSnapshot snapshot) {
+        if (snapshot.isValid()) {
+            return 0;
+        }
+        String message = snapshot.getMessage();
+        return message != null && !message.equals("track.second_point") ? 1 : 2;
+    }
+
+    private static void layout(PlacementSnapshot snapshot, CompiledConfig config, int tier, boolean meets) {
+        Font font = Minecraft.getInstance().font;
+        lineCount = 0;
+        panelWidth = 0;
+
+        MutableComponent status = switch (layoutKey[KEY_STATUS]) {
+            case 0 -> Component.literal("Can Connect").withStyle(ChatFormatting.GREEN);
+            case 1 -> Component.literal("Invalid").withStyle(ChatFormatting.RED);
+            default -> Component.literal("Select End").withStyle(ChatFormatting.WHITE);
+        };
+        addLine(font, status);
+
+        double radius = snapshot.getRadius();
+        if (radius > 0 && (config.showCurvatureRadius || config.showCurvatureRating)) {
+            MutableComponent line = Component.literal("Radius ").withStyle(ChatFormatting.GRAY);
+            if (config.showCurvatureRadius) {
+                String value = config.showDecimalPlaces ? String.format("%.1f", radius)
+                        : Long.toString(Math.round(radius));
+                line.append(Component.literal(value + " ").withStyle(ChatFormatting.WHITE));
+            }
+            if (config.showCurvatureRating) {
+                line.append(Component.literal("[" + config.ratings.name(tier) + "]").withColor(config.ratings.color(tier)));
+            }
+            appendObstruction(line);
+            addLine(font, line);
+        } else if (layoutKey[KEY_OBSTRUCTION] >= 0) {
+            addLine(font, appendObstruction(Component.empty()));
+        }
+
+        double slope = snapshot.getSlope();
+        CurveProfile profile = snapshot.getProfile();
+        if (config.showSlope && Math.abs(slope) > 0.1) {
+            ChatFormatting color = Math.abs(slope) > 10 ? ChatFormatting.RED
+                    : Math.abs(slope) > 5 ? ChatFormatting.YELLOW
+                    : ChatFormatting.GREEN;
+            MutableComponent line = Component.literal("Grade ").withStyle(ChatFormatting.GRAY)
+                    .append(Component.literal(String.format("%.1f%%", slope)).withStyle(color));
+            // A curve's steepest grade can differ from the grade between its ends
+            if (profile != null && layoutKey[KEY_END_GRADE] != layoutKey[KEY_SLOPE]) {
+                line.append(Component.literal(String.format(" (ends %.1f%%)", profile.endGrade()))
+                        .withStyle(ChatFormatting.GRAY));
+            }
+            addLine(font, line);
+        }
+
+        if (config.showSlope && profile != null && (layoutKey[KEY_CREST] > 0 || layoutKey[KEY_SAG] > 0)) {
+            MutableComponent line = Component.literal("Vertical").withStyle(ChatFormatting.GRAY);
+            if (layoutKey[KEY_CREST] > 0) {
+                line.append(Component.literal(" crest R" + layoutKey[KEY_CREST]).withStyle(ChatFormatting.WHITE));
+            }
+            if (layoutKey[KEY_SAG] > 0) {
+                line.append(Component.literal(" sag R" + layoutKey[KEY_SAG]).withStyle(ChatFormatting.WHITE));
+            }
+            addLine(font, line);
+        }
+
+        if (snapshot.getLength() > 0) {
+            addLine(font, Component.literal("Length ").withStyle(ChatFormatting.GRAY)
+                    .append(Component.literal(String.format("%.1f", snapshot.getLength())).withStyle(ChatFormatting.WHITE)));
+        }
+
+        if (layoutKey[KEY_FILL] >= 0) {
+            MutableComponent line = Component.literal("Fill ").withStyle(ChatFormatting.GRAY)
+                    .append(Component.literal(Integer.toString(layoutKey[KEY_FILL])).withStyle(ChatFormatting.WHITE))
+                    .append(Component.literal(" Cut ").withStyle(ChatFormatting.GRAY))
+                    .append(Component.literal(Integer.toString(layoutKey[KEY_CUT])).withStyle(ChatFormatting.WHITE));
+            if (layoutKey[KEY_UNSUPPORTED] > 0) {
+                line.append(Component.literal(" (" + layoutKey[KEY_UNSUPPORTED] + " need a bridge)")
+                        .withStyle(ChatFormatting.YELLOW));
+            }
+            if (layoutKey[KEY_SKIPPED] > 0) {
+                line.append(Component.literal(" partial").withStyle(ChatFormatting.GRAY));
+            }
+            addLine(font, line);
+        }
+
+        if (layoutKey[KEY_JOINT_START] >= 0 || layoutKey[KEY_JOINT_END] >= 0) {
+            MutableComponent line = Component.literal("Joints").withStyle(ChatFormatting.GRAY);
+            appendJoint(line, " start ", layoutKey[KEY_JOINT_START], (layoutKey[KEY_JOINT_FLAGS] & 1) != 0);
+            appendJoint(line, " end ", layoutKey[KEY_JOINT_END], (layoutKey[KEY_JOINT_FLAGS] & 2) != 0);
+            addLine(font, line);
+        }
+
+        if (snapshot.isEnforcing()) {
+            String level = EnforcementHandler.getCurrentLevelName();
+            MutableComponent enforcement;
+            if (radius <= 0) {
+                enforcement = Component.literal("[" + level + " - Scroll]").withStyle(ChatFormatting.AQUA);
+            } else if (meets) {
+                enforcement = Component.literal("[" + level + " OK]").withStyle(ChatFormatting.GREEN);
+            } else {
+                enforcement = Component.literal(String.format("[%s R>=%.0f]", level, snapshot.getEnforcementRadius()))
+                        .withStyle(ChatFormatting.RED);
+            }
+            addLine(font, enforcement);
+        }
+    }
+
+    /**
+     * Distance to the first block in the clearance envelope, if there is one.
+     */
+    private static MutableComponent appendObstruction(MutableComponent line) {
+        if (layoutKey[KEY_OBSTRUCTION] >= 0) {
+            line.append(Component.literal(String.format(" Blocked at %.1f", layoutKey[KEY_OBSTRUCTION] / 10.0))
+                    .withStyle(ChatFormatting.RED));
+        }
+        return line;
+    }
+
+    /**
+     * One joint's curvature jump, as the radius entered from a straight that would match it.
+     */
+    private static void appendJoint(MutableComponent line, String label, int radius, boolean needsTransition) {
+        if (radius < 0) {
+            return;
+        }
+        line.append(Component.literal(label).withStyle(ChatFormatting.GRAY));
+        if (radius == 0) {
+            line.append(Component.literal("smooth").withStyle(ChatFormatting.GREEN));
+        } else if (needsTransition) {
+            line.append(Component.literal("R" + radius + " needs transition").withStyle(ChatFormatting.RED));
+        } else {
+            line.append(Component.literal("R" + radius).withStyle(ChatFormatting.WHITE));
+        }
+    }
+
+    private static void addLine(Font font, Component text) {
+        FormattedCharSequence line = text.getVisualOrderText();
+        lines[lineCount++] = line;
+        panelWidth = Math.max(panelWidth, font.width(line));
+    }
+}
@@ -0,0 +1,376 @@
+package com.railwaytoolkit.client;
+
+import com.railwaytoolkit.RailwayToolkit;
+import com.railwaytoolkit.config.CompiledConfig;
+import com.railwaytoolkit.config.RailwayToolkitConfig;
+import com.railwaytoolkit.journal.PlacementJournal;
+import com.railwaytoolkit.rating.RatingTable;
+import com.simibubi.create.content.trains.track.TrackBlockItem;
+import net.minecraft.ChatFormatting;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ServerData;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.MutableComponent;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.level.storage.LevelResource;
+import net.minecraft.world.phys.Vec3;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.GameShuttingDownEvent;
+import net.neoforged.neoforge.event.entity.player.PlayerInteractEvent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Appends every confirmed track placement to a per-world {@link PlacementJournal}, and reads it
+ * back for {@code /railwaytoolkit journal}.
+ *
+ * A placement counts as confirmed when the player uses a track item while the placement
+ * snapshot shows a valid connection, which is exactly the preview Create is about to place.
+ * The client thread only offers the record to a bounded queue; a background thread drains
+ * whatever has queued up and appends it to the file with one buffered channel write per batch.
+ * If the queue ever fills, records are dropped and counted rather than blocking the game. A
+ * journal that fails to open or write is given up on for the session, and its records are
+ * dropped the same way. When the game shuts down the writer is stopped after the queue has
+ * been written out.
+ */
+@EventBusSubscriber(modid = RailwayToolkit.MOD_ID, value = Dist.CLIENT)
+public final class PlacementLog {
+
+    private static final String FOLDER = "journal";
+    private static final String EXTENSION = ".rtj";
+    private static final int QUEUE_SIZE = 4096;
+    /** Records written per channel write at most. */
+    private static final int BATCH_SIZE = 256;
+
+    /** Longest the game waits at shutdown for queued records to be written. */
+    private static final long SHUTDOWN_WAIT_MS = 2000;
+
+    private record Pending(Path file, PlacementJournal.Entry entry) {
+    }
+
+    /** Queued behind the last record at shutdown; the writer stops when it reaches it. */
+    private static final Pending STOP = new Pending(null, null);
+
+    private static final BlockingQueue<Pending> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+    private static final AtomicInteger dropped = new AtomicInteger();
+    /** Journals that could not be opened or written; writer thread only. */
+    private static final Set<Path> unusable = new HashSet<>();
+    private static Thread writer = null;
+    private static boolean stopped = false;
+
+    private PlacementLog() {
+    }
+
+    @SubscribeEvent
+    public static void onRightClickBlock(PlayerInteractEvent.RightClickBlock event) {
+        if (!event.getLevel().isClientSide() || !(event.getItemStack().getItem() instanceof TrackBlockItem)) {
+            return;
+        }
+        CompiledConfig config = RailwayToolkitConfig.compiled();
+        PlacementSnapshot snapshot = PlacementSnapshot.current();
+        if (!config.recordPlacements || snapshot.isEmpty() || !snapshot.isValid()
+                || snapshot.getEnd1() == null || snapshot.getEnd2() == null) {
+            return;
+        }
+        Path file = file();
+        if (file == null) {
+            return;
+        }
+
+        double radius = snapshot.getRadius();
+        double grade = snapshot.getSlope();
+        RatingTable ratings = config.ratings;
+        int tier = radius > 0 ? ratings.rate(radius, grade) : ratings.size() - 1;
+        PlacementJournal.Entry entry = new PlacementJournal.Entry(System.currentTimeMillis(),
+                new double[]{snapshot.getEnd1().x, snapshot.getEnd1().y, snapshot.getEnd1().z,
+                        snapshot.getEnd2().x, snapshot.getEnd2().y, snapshot.getEnd2().z},
+                axes(snapshot.getAxis1(), snapshot.getAxis2()),
+                (float) radius, (float) grade, tier, snapshot.getEnforcementLevel(), snapshot.isEnforcing());
+
+        if (!queue.offer(new Pending(file, entry))) {
+            dropped.incrementAndGet();
+            return;
+        }
+        startWriter();
+    }
+
+    private static float[] axes(Vec3 axis1, Vec3 axis2) {
+        float[] axes = new float[6];
+        if (axis1 != null) {
+            axes[0] = (float) axis1.x;
+            axes[1] = (float) axis1.y;
+            axes[2] = (float) axis1.z;
+        }
+        if (axis2 != null) {
+            axes[3] = (float) axis2.x;
+            axes[4] = (float) axis2.y;
+            axes[5] = (float) axis2.z;
+        }
+        return axes;
+    }
+
+    /**
+     * Journal of the current world: named after the save's folder in single player, which unlike
+     * the world name is unique, and after the server address otherwise. Null if neither is known.
+     */
+    public static Path file() {
+        Minecraft mc = Minecraft.getInstance();
+        MinecraftServer server = mc.getSingleplayerServer();
+        ServerData remote = mc.getCurrentServer();
+        String name = null;
+        if (server != null) {
+            // The root resource is "<save>/.", so the folder is only the last element once normalised
+            Path save = server.getWorldPath(LevelResource.ROOT).toAbsolutePath().normalize();
+            name = save.getFileName() != null ? save.getFileName().toString() : null;
+        } else if (remote != null) {
+            name = remote.ip;
+        }
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        String safe = name.replaceAll("[^A-Za-z0-9._-]", "_");
+        return mc.gameDirectory.toPath().resolve(RailwayToolkit.MOD_ID).resolve(FOLDER).resolve(safe + EXTENSION);
+    }
+
+    @SubscribeEvent
+    public static void onGameShuttingDown(GameShuttingDownEvent event) {
+        Thread running;
+        synchronized (PlacementLog.class) {
+            stopped = true;
+            running = writer;
+        }
+        if (running == null || !running.isAlive()) {
+            return;
+        }
+        try {
+            if (queue.offer(STOP, SHUTDOWN_WAIT_MS, TimeUnit.MILLISECONDS)) {
+                running.join(SHUTDOWN_WAIT_MS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (running.isAlive()) {
+            RailwayToolkit.LOGGER.warn("Placement journal still writing at shutdown; {} records may be lost",
+                    queue.size());
+        }
+    }
+
+    private static synchronized void startWriter() {
+        if (stopped || (writer != null && writer.isAlive())) {
+            return;
+        }
+        writer = new Thread(PlacementLog::drain, "Railway Toolkit journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Writer thread: appends batches until the game shuts down. A journal that fails is closed
+     * and marked unusable, and draining carries on with the records for other journals.
+     */
+    private static void drain() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BATCH_SIZE * PlacementJournal.RECORD_SIZE);
+        List<Pending> batch = new ArrayList<>(BATCH_SIZE);
+        Path openFile = null;
+        FileChannel channel = null;
+        boolean stopping = false;
+        try {
+            while (!stopping) {
+                batch.add(queue.take());
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                for (Pending pending : batch) {
+                    if (pending == STOP) {
+                        stopping = true;
+                        break;
+                    }
+                    if (!pending.file().equals(openFile)) {
+                        close(flush(channel, openFile, buffer));
+                        openFile = pending.file();
+                        channel = tryOpen(openFile);
+                    }
+                    if (channel != null) {
+                        PlacementJournal.write(buffer, pending.entry());
+                    } else {
+                        dropped.incrementAndGet();
+                    }
+                }
+                channel = flush(channel, openFile, buffer);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            close(channel);
+        }
+    }
+
+    /**
+     * Write out the buffered records. If that fails the journal is given up on, its buffered
+     * records are counted as dropped, and null is returned in place of the closed channel.
+     */
+    private static FileChannel flush(FileChannel channel, Path file, ByteBuffer buffer) {
+        int records = buffer.position() / PlacementJournal.RECORD_SIZE;
+        buffer.flip();
+        try {
+            while (channel != null && buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            return channel;
+        } catch (IOException e) {
+            fail(file, e);
+            dropped.addAndGet(records);
+            close(channel);
+            return null;
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Open a journal for the writer, or return null if it has already failed or fails now.
+     */
+    private static FileChannel tryOpen(Path file) {
+        if (unusable.contains(file)) {
+            return null;
+        }
+        try {
+            return open(file);
+        } catch (IOException e) {
+            fail(file, e);
+            return null;
+        }
+    }
+
+    private static void fail(Path file, IOException e) {
+        if (unusable.add(file)) {
+            RailwayToolkit.LOGGER.warn("Could not write the placement journal {}; recording stops for it", file, e);
+        }
+    }
+
+    private static void close(FileChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * Open a journal for appending, writing the header if it is new and cutting off any partial
+     * record a crash left at the end.
+     */
+    private static FileChannel open(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        long size = channel.size();
+        if (size < PlacementJournal.HEADER_SIZE) {
+            ByteBuffer header = ByteBuffer.allocate(PlacementJournal.HEADER_SIZE);
+            PlacementJournal.writeHeader(header, System.currentTimeMillis());
+            header.flip();
+            channel.truncate(0);
+            channel.write(header, 0);
+            size = PlacementJournal.HEADER_SIZE;
+        } else {
+            ByteBuffer header = ByteBuffer.allocate(PlacementJournal.HEADER_SIZE);
+            channel.read(header, 0);
+            header.flip();
+            if (!PlacementJournal.isValidHeader(header)) {
+                channel.close();
+                throw new IOException("Not a placement journal: " + file);
+            }
+            size -= (size - PlacementJournal.HEADER_SIZE) % PlacementJournal.RECORD_SIZE;
+            channel.truncate(size);
+        }
+        channel.position(size);
+        return channel;
+    }
+
+    /**
+     * Summarise the current world's journal. Returns the message to show straight away.
+     */
+    public static Component summarize() {
+        Path file = file();
+        if (file == null || !Files.isRegularFile(file)) {
+            return Component.literal("No placements recorded for this world").withStyle(ChatFormatting.GRAY);
+        }
+        RatingTable ratings = RailwayToolkitConfig.compiled().ratings;
+        CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return PlacementJournal.summarize(file);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, ForkJoinPool.commonPool())
+                .whenComplete((summary, error) -> Minecraft.getInstance().execute(() -> {
+                    if (error != null) {
+                        Throwable cause = error.getCause() != null ? error.getCause() : error;
+                        RailwayToolkit.LOGGER.warn("Could not read placement journal {}", file, cause);
+                        message(Component.literal("Could not read the journal: " + cause.getMessage())
+                                .withStyle(ChatFormatting.RED));
+                    } else {
+                        print(summary, ratings);
+                    }
+                }));
+        return Component.literal("Reading " + file.getFileName() + "...");
+    }
+
+    private static void print(PlacementJournal.Summary summary, RatingTable ratings) {
+        if (summary.records() == 0) {
+            message(Component.literal("No placements recorded for this world").withStyle(ChatFormatting.GRAY));
+            return;
+        }
+        Duration span = Duration.ofMillis(summary.lastTimestamp() - summary.firstTimestamp());
+        message(Component.literal(String.format("%d placements, %d curves, over %dh %02dm",
+                summary.records(), summary.curves(), span.toHours(), span.toMinutesPart())).withStyle(ChatFormatting.GOLD));
+
+        MutableComponent tiers = Component.empty();
+        for (int tier = 0; tier < ratings.size(); tier++) {
+            tiers.append(Component.literal(ratings.name(tier) + " " + summary.tierCount(tier) + "  ")
+                    .withColor(ratings.color(tier)));
+        }
+        if (summary.tierCount(RatingTable.INVALID) > 0) {
+            tiers.append(Component.literal(ratings.name(RatingTable.INVALID) + " " + summary.tierCount(RatingTable.INVALID))
+                    .withColor(ratings.color(RatingTable.INVALID)));
+        }
+        message(tiers);
+
+        if (summary.curves() > 0) {
+            message(Component.literal(String.format("Tightest R %.1f, mean R %.1f, steepest %.1f%%",
+                    summary.minRadius(), summary.meanRadius(), summary.maxGrade())).withStyle(ChatFormatting.GRAY));
+        }
+        message(Component.literal(String.format("%d placed with enforcement on", summary.enforced()))
+                .withStyle(ChatFormatting.GRAY));
+        if (dropped.get() > 0) {
+            message(Component.literal(dropped.get() + " placements were dropped because the writer fell behind")
+                    .withStyle(ChatFormatting.YELLOW));
+        }
+    }
+
+    private static void message(Component text) {
+        Minecraft mc = Minecraft.getInstance();
+        if (mc.player != null) {
+            mc.player.displayClientMessage(text, false);
+        }
+    }
+}
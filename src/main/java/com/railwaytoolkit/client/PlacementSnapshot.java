@@ -0,0 +1,248 @@
+package com.railwaytoolkit.client;
+
+import com.railwaytoolkit.config.RailwayToolkitConfig;
+import com.railwaytoolkit.geometry.CurveProfile;
+import com.railwaytoolkit.mixin.accessor.PlacementInfoAccessor;
+import com.simibubi.create.content.trains.track.BezierConnection;
+import com.simibubi.create.content.trains.track.TrackPlacement;
+import net.createmod.catnip.data.Couple;
+import net.minecraft.world.phys.Vec3;
+
+/**
+ * Immutable view of the current track placement, captured once per client tick.
+ *
+ * Everything the display, highlight and enforcement code needs is computed here a single time.
+ * The snapshot is fingerprinted by the placement endpoints and axes plus the modifier, enforcement
+ * and config state, and when the fingerprint matches the previous tick the previous snapshot is
+ * reused as-is so consumers can skip their work with a single comparison.
+ */
+public final class PlacementSnapshot {
+
+    /** Snapshot used when there is no placement in progress. */
+    public static final PlacementSnapshot EMPTY = new PlacementSnapshot(0, 0, 0, null, null, false, null,
+            null, null, null, null, 0, 0, 0, false, 0, 0, 0);
+
+    private static PlacementSnapshot current = EMPTY;
+
+    private final long fingerprint;
+    private final long geometryKey;
+    private final long curveKey;
+    private final BezierConnection curve;
+    private final CurveProfile profile;
+    private final boolean valid;
+    private final String message;
+    private final Vec3 end1;
+    private final Vec3 end2;
+    private final Vec3 axis1;
+    private final Vec3 axis2;
+    private final double radius;
+    private final double slope;
+    private final double length;
+    private final boolean enforcing;
+    private final int enforcementLevel;
+    private final double enforcementRadius;
+    private final int configGeneration;
+
+    private PlacementSnapshot(long fingerprint, long geometryKey, long curveKey, BezierConnection curve,
+                              CurveProfile profile, boolean valid, String message, Vec3 end1, Vec3 end2, Vec3 axis1, Vec3 axis2,
+                              double radius, double slope, double length, boolean enforcing,
+                              int enforcementLevel, double enforcementRadius,
+                              int configGeneration) {
+        this.fingerprint = fingerprint;
+        this.geometryKey = geometryKey;
+        this.curveKey = curveKey;
+        this.curve = curve;
+        this.profile = profile;
+        this.valid = valid;
+        this.message = message;
+        this.end1 = end1;
+        this.end2 = end2;
+        this.axis1 = axis1;
+        this.axis2 = axis2;
+        this.radius = radius;
+        this.slope = slope;
+        this.length = length;
+        this.enforcing = enforcing;
+        this.enforcementLevel = enforcementLevel;
+        this.enforcementRadius = enforcementRadius;
+        this.configGeneration = configGeneration;
+    }
+
+    /**
+     * Capture the placement state for this tick. Returns the previous snapshot instance
+     * when nothing relevant has changed, so callers can compare by identity or fingerprint.
+     */
+    public static PlacementSnapshot capture() {
+        TrackPlacement.PlacementInfo info = TrackPlacement.cached;
+        if (info == null) {
+            current = EMPTY;
+            return current;
+        }
+
+        PlacementInfoAccessor accessor = (PlacementInfoAccessor) (Object) info;
+        boolean enforcing = CurvatureDisplay.isEnforcementKeyHeld();
+        int level = EnforcementHandler.getCurrentLevel();
+        int generation = RailwayToolkitConfig.getGeneration();
+
+        long geometryKey = placementKey(accessor.getEnd1(), accessor.getEnd2(),
+                accessor.getAxis1(), accessor.getAxis2());
+        BezierConnection curve = accessor.getCurve();
+        long curveKey = curve != null ? curveKey(curve) : 0;
+        String message = accessor.getMessage();
+
+        long fingerprint = geometryKey;
+        fingerprint = mix(fingerprint, curveKey);
+        fingerprint = mix(fingerprint, accessor.isValid() ? 1 : 2);
+        fingerprint = mix(fingerprint, message != null ? message.hashCode() : 0);
+        fingerprint = mix(fingerprint, enforcing ? 1 : 2);
+        fingerprint = mix(fingerprint, level);
+        fingerprint = mix(fingerprint, generation);
+
+        if (current != EMPTY && current.fingerprint == fingerprint) {
+            return current;
+        }
+
+        // Curves report their steepest local grade; straight track has the same grade throughout
+        CurveProfile profile = curve != null ? CurveProfiles.of(curve) : null;
+        double radius = curve != null ? CurvatureDisplay.getMinimumRadius(curve) : 0;
+        double slope = profile != null ? profile.maxGrade() : CurvatureDisplay.calculateSlope(accessor);
+        double length = profile != null ? profile.length() : straightLength(accessor.getEnd1(), accessor.getEnd2());
+
+        current = new PlacementSnapshot(fingerprint, geometryKey, curveKey, curve, profile, accessor.isValid(), message,
+                accessor.getEnd1(), accessor.getEnd2(), accessor.getAxis1(), accessor.getAxis2(),
+                radius, slope, length, enforcing, level, EnforcementHandler.getCurrentMinRadius(), generation);
+        return current;
+    }
+
+    /**
+     * The snapshot captured on the most recent client tick.
+     */
+    public static PlacementSnapshot current() {
+        return current;
+    }
+
+    private static double straightLength(Vec3 end1, Vec3 end2) {
+        return end1 != null && end2 != null ? end1.distanceTo(end2) : 0;
+    }
+
+    /**
+     * Geometry key of a Bezier connection, derived from its endpoints and axes.
+     */
+    public static long curveKey(BezierConnection curve) {
+        Couple<Vec3> starts = curve.starts;
+        Couple<Vec3> axes = curve.axes;
+        return placementKey(starts.getFirst(), starts.getSecond(), axes.getFirst(), axes.getSecond());
+    }
+
+    private static long placementKey(Vec3 end1, Vec3 end2, Vec3 axis1, Vec3 axis2) {
+        long hash = 0x9E3779B97F4A7C15L;
+        hash = mix(hash, end1);
+        hash = mix(hash, end2);
+        hash = mix(hash, axis1);
+        hash = mix(hash, axis2);
+        return hash;
+    }
+
+    private static long mix(long hash, Vec3 vec) {
+        if (vec == null) {
+            return mix(hash, 0);
+        }
+        hash = mix(hash, Double.doubleToLongBits(vec.x));
+        hash = mix(hash, Double.doubleToLongBits(vec.y));
+        return mix(hash, Double.doubleToLongBits(vec.z));
+    }
+
+    private static long mix(long hash, long value) {
+        // Combine the value into the running hash as boost::hash_combine does, then scramble the
+        // result with SplitMix64's finaliser so nearby coordinates land far apart
+        long h = hash ^ (value + 0x9E3779B97F4A7C15L + (hash << 6) + (hash >>> 2));
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+
+    public boolean isEmpty() {
+        return this == EMPTY;
+    }
+
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    public long getGeometryKey() {
+        return geometryKey;
+    }
+
+    public long getCurveKey() {
+        return curveKey;
+    }
+
+    public BezierConnection getCurve() {
+        return curve;
+    }
+
+    /**
+     * Length, grade and vertical curvature of the curve being placed, or null for straight track.
+     */
+    public CurveProfile getProfile() {
+        return profile;
+    }
+
+    public boolean isValid() {
+        return valid;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public Vec3 getEnd1() {
+        return end1;
+    }
+
+    public Vec3 getEnd2() {
+        return end2;
+    }
+
+    public Vec3 getAxis1() {
+        return axis1;
+    }
+
+    public Vec3 getAxis2() {
+        return axis2;
+    }
+
+    public double getRadius() {
+        return radius;
+    }
+
+    /**
+     * Grade in percent: the steepest local grade of a curve, or the grade of straight track.
+     */
+    public double getSlope() {
+        return slope;
+    }
+
+    /**
+     * Length of the track being placed, along the curve if there is one.
+     */
+    public double getLength() {
+        return length;
+    }
+
+    public boolean isEnforcing() {
+        return enforcing;
+    }
+
+    public int getEnforcementLevel() {
+        return enforcementLevel;
+    }
+
+    public double getEnforcementRadius() {
+        return enforcementRadius;
+    }
+
+    public int getConfigGeneration() {
+        return configGeneration;
+    }
+}
@@ -0,0 +1,233 @@
+package com.railwaytoolkit.client;
+
+import com.railwaytoolkit.RailwayToolkit;
+import com.railwaytoolkit.config.CompiledConfig;
+import com.railwaytoolkit.config.RailwayToolkitConfig;
+import com.railwaytoolkit.geometry.CubicBezier;
+import com.railwaytoolkit.geometry.CurveProfile;
+import com.railwaytoolkit.geometry.CurvatureEvaluator;
+import com.railwaytoolkit.geometry.ParallelRadius;
+import com.railwaytoolkit.rating.RatingTable;
+import com.railwaytoolkit.nbt.TrackNbt;
+import com.railwaytoolkit.track.TrackCurves;
+import com.simibubi.create.content.trains.track.BezierConnection;
+import com.simibubi.create.content.trains.track.TrackMaterial;
+import net.createmod.catnip.data.Couple;
+import net.minecraft.ChatFormatting;
+import net.minecraft.client.Minecraft;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.MutableComponent;
+import net.minecraft.world.phys.Vec3;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Rates every track connection in a schematic before it is pasted, from
+ * {@code /railwaytoolkit schematic <file>}.
+ *
+ * Files are looked up in the game's {@code schematics} folder, where Create keeps them. The file
+ * is streamed with {@link TrackNbt} on a worker, so only the connections are ever held in
+ * memory. Each connection is rebuilt as a {@link BezierConnection} and rated the same way as a
+ * curve being placed: circular arcs by Create's design radius, anything else by
+ * {@link ParallelRadius} on the common fork-join pool, which runs the same {@code MinimumRadius}
+ * solver, evaluator and tolerance as {@link CurveProfiles}. The report is printed back on the
+ * client thread.
+ */
+public final class SchematicCheck {
+
+    private static final String EXTENSION = ".nbt";
+    /** Connections listed in chat, tightest first; the rest are only counted. */
+    private static final int MAX_LISTED = 50;
+
+    private static final AtomicBoolean running = new AtomicBoolean();
+
+    private SchematicCheck() {
+    }
+
+    /**
+     * A rated connection, at the position of the track block that saved it.
+     */
+    private record Finding(BlockPos pos, double radius, double grade, int tier) {
+    }
+
+    private record Report(String name, int blocks, List<Finding> findings, long millis) {
+    }
+
+    public static Path folder() {
+        return Minecraft.getInstance().gameDirectory.toPath().resolve("schematics");
+    }
+
+    /**
+     * Schematic files below the folder, as names to pass to {@link #start}.
+     */
+    public static List<String> list() {
+        Path folder = folder();
+        if (!Files.isDirectory(folder)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.walk(folder, 4)) {
+            return files.filter(path -> path.toString().endsWith(EXTENSION) && Files.isRegularFile(path))
+                    .map(path -> folder.relativize(path).toString().replace('\\', '/'))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            return List.of();
+        }
+    }
+
+    /**
+     * Start checking a schematic. Returns the message to show straight away.
+     */
+    public static Component start(String name) {
+        Path folder = folder().toAbsolutePath().normalize();
+        Path file = folder.resolve(name.endsWith(EXTENSION) ? name : name + EXTENSION).normalize();
+        if (!file.startsWith(folder) || !Files.isRegularFile(file)) {
+            return Component.literal("No schematic named " + name).withStyle(ChatFormatting.RED);
+        }
+        if (!running.compareAndSet(false, true)) {
+            return Component.literal("A schematic check is already running").withStyle(ChatFormatting.RED);
+        }
+
+        CompiledConfig config = RailwayToolkitConfig.compiled();
+        RatingTable ratings = config.ratings;
+        double tolerance = config.radiusTolerance;
+        CurvatureEvaluator evaluator = config.evaluator;
+        String label = folder.relativize(file).toString();
+        CompletableFuture.supplyAsync(() -> check(label, file, ratings, tolerance, evaluator), ForkJoinPool.commonPool())
+                .whenComplete((report, error) -> Minecraft.getInstance().execute(() -> {
+                    running.set(false);
+                    if (error != null) {
+                        Throwable cause = error.getCause() != null ? error.getCause() : error;
+                        RailwayToolkit.LOGGER.warn("Could not check schematic {}", label, cause);
+                        message(Component.literal("Could not read " + label + ": " + cause.getMessage())
+                                .withStyle(ChatFormatting.RED));
+                    } else {
+                        print(report, ratings);
+                    }
+                }));
+        return Component.literal("Checking " + label + "...");
+    }
+
+    private static Report check(String label, Path file, RatingTable ratings, double tolerance,
+                                CurvatureEvaluator evaluator) {
+        long start = System.nanoTime();
+        List<BezierConnection> connections = new ArrayList<>();
+        List<BlockPos> positions = new ArrayList<>();
+        int blocks;
+        try (InputStream in = Files.newInputStream(file)) {
+            blocks = TrackNbt.readStructure(in, connection -> {
+                // Both track blocks save the connection; only the primary copy is counted
+                if (connection.primary()) {
+                    connections.add(toBezier(connection));
+                    positions.add(new BlockPos(connection.x(), connection.y(), connection.z()));
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        int count = connections.size();
+        double[] curves = new double[count * CubicBezier.STRIDE];
+        double[] grades = new double[count];
+        double[] radii = new double[count];
+        for (int i = 0; i < count; i++) {
+            BezierConnection curve = connections.get(i);
+            int offset = i * CubicBezier.STRIDE;
+            TrackCurves.loadControlPoints(curve, curves, offset);
+            grades[i] = CurveProfile.of(curves, offset, CurveProfile.DEFAULT_SEGMENTS,
+                    TrackCurves.designRadius(curve), null, 0).maxGrade();
+        }
+        ParallelRadius.solve(curves, count, tolerance, radii, evaluator, new AtomicBoolean(), ForkJoinPool.commonPool());
+
+        List<Finding> findings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // Circular arcs keep Create's exact design radius, as while placing
+            double designRadius = TrackCurves.designRadius(connections.get(i));
+            double radius = designRadius > 0 ? designRadius : radii[i];
+            int tier = radius > 0 ? ratings.rate(radius, grades[i]) : ratings.size() - 1;
+            findings.add(new Finding(positions.get(i), radius, grades[i], tier));
+        }
+        findings.sort(Comparator.comparingDouble(finding -> finding.radius() > 0 ? finding.radius() : Double.MAX_VALUE));
+        return new Report(label, blocks, findings, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static BezierConnection toBezier(TrackNbt.Connection connection) {
+        int[] p = connection.positions();
+        double[] v = connection.vectors();
+        return new BezierConnection(
+                Couple.create(new BlockPos(p[0], p[1], p[2]), new BlockPos(p[3], p[4], p[5])),
+                Couple.create(new Vec3(v[0], v[1], v[2]), new Vec3(v[3], v[4], v[5])),
+                Couple.create(new Vec3(v[6], v[7], v[8]), new Vec3(v[9], v[10], v[11])),
+                Couple.create(new Vec3(v[12], v[13], v[14]), new Vec3(v[15], v[16], v[17])),
+                true, connection.girder(), TrackMaterial.deserialize(connection.material()));
+    }
+
+    private static void print(Report report, RatingTable ratings) {
+        List<Finding> findings = report.findings();
+        message(Component.literal(String.format("Schematic %s: %d connections in %d blocks (%d ms)",
+                report.name(), findings.size(), report.blocks(), report.millis())).withStyle(ChatFormatting.GOLD));
+        if (findings.isEmpty()) {
+            return;
+        }
+
+        int[] counts = new int[ratings.size()];
+        for (Finding finding : findings) {
+            if (finding.tier() != RatingTable.INVALID) {
+                counts[finding.tier()]++;
+            }
+        }
+        MutableComponent summary = Component.empty();
+        int invalid = findings.size();
+        for (int tier = 0; tier < counts.length; tier++) {
+            invalid -= counts[tier];
+            summary.append(Component.literal(ratings.name(tier) + " " + counts[tier] + "  ").withColor(ratings.color(tier)));
+        }
+        if (invalid > 0) {
+            summary.append(Component.literal(ratings.name(RatingTable.INVALID) + " " + invalid)
+                    .withColor(ratings.color(RatingTable.INVALID)));
+        }
+        message(summary);
+
+        // Everything rated below the widest tier, tightest first
+        int widest = ratings.size() - 1;
+        int listed = 0;
+        int below = 0;
+        for (Finding finding : findings) {
+            if (finding.tier() == widest) {
+                continue;
+            }
+            below++;
+            if (listed < MAX_LISTED) {
+                listed++;
+                BlockPos pos = finding.pos();
+                message(Component.literal(String.format("R %.1f ", finding.radius())).withStyle(ChatFormatting.WHITE)
+                        .append(Component.literal("[" + ratings.name(finding.tier()) + "]")
+                                .withColor(ratings.color(finding.tier())))
+                        .append(Component.literal(String.format(" %.1f%% at %d %d %d", finding.grade(),
+                                pos.getX(), pos.getY(), pos.getZ())).withStyle(ChatFormatting.GRAY)));
+            }
+        }
+        if (below > listed) {
+            message(Component.literal("... and " + (below - listed) + " more").withStyle(ChatFormatting.GRAY));
+        }
+    }
+
+    private static void message(Component text) {
+        Minecraft mc = Minecraft.getInstance();
+        if (mc.player != null) {
+            mc.player.displayClientMessage(text, false);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.railwaytoolkit.client;
+
+import com.railwaytoolkit.RailwayToolkit;
+import com.railwaytoolkit.config.CompiledConfig;
+import com.railwaytoolkit.config.RailwayToolkitConfig;
+import com.railwaytoolkit.geometry.RadiusField;
+import com.railwaytoolkit.rating.RatingTable;
+import com.simibubi.create.AllSpecialTextures;
+import net.createmod.catnip.outliner.Outliner;
+import net.minecraft.core.BlockPos;
+import net.minecraft.util.Mth;
+import net.minecraft.world.phys.Vec3;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Survey mode: once the first track point is chosen, shows the whole field of achievable
+ * radius around it as one band per rating tier.
+ *
+ * The {@link RadiusField} is computed in tiles on a dedicated fork-join pool and cached per
+ * anchor block, axis and config generation. While it is cached, moving the crosshair is only
+ * an array lookup. A computation that is no longer wanted is told to stop through a flag its
+ * tiles check, so it frees the pool rather than running to the end. The band contours are
+ * extracted and handed to the outliner by a {@link FrameScheduler} job, a few rows of the field
+ * at a time within the frame budget, so a large survey does not build every outline in one
+ * frame.
+ */
+public final class SurveyMode {
+
+    private static final String BAND_KEY = "railwaytoolkit_survey_";
+    private static final String JOB_KEY = "survey";
+    /** Field rows scanned per contour slice. */
+    private static final int CONTOUR_ROWS = 16;
+
+    private static final ForkJoinPool pool =
+            new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+
+    private static long fieldKey = 0;
+    private static RadiusField field = null;
+    private static RatingTable ratings = null;
+    // Number of band outlines currently registered with the outliner
+    private static int bandsShown = 0;
+    private static CompletableFuture<Prepared> pending = null;
+    private static AtomicBoolean pendingCancelled = null;
+    private static long pendingKey = 0;
+    // Key of the last computation that failed, so it is not retried every tick
+    private static long failedKey = 0;
+
+    private SurveyMode() {
+    }
+
+    /**
+     * A computed field, and the height its band outlines are drawn at.
+     */
+    private record Prepared(long key, RadiusField field, RatingTable ratings, int y) {
+    }
+
+    public static boolean isEnabled() {
+        return RailwayToolkitConfig.compiled().surveyMode;
+    }
+
+    /**
+     * Keep the field for the snapshot's anchor up to date and its bands on screen.
+     * Called every client tick while survey mode is enabled.
+     */
+    public static void update(PlacementSnapshot snapshot) {
+        Vec3 anchor = snapshot.getEnd1();
+        Vec3 axis = snapshot.getAxis1();
+        double horizontal = axis != null ? Math.sqrt(axis.x * axis.x + axis.z * axis.z) : 0;
+        if (snapshot.isEmpty() || anchor == null || horizontal < 1.0E-6) {
+            clear();
+            return;
+        }
+
+        double ux = axis.x / horizontal;
+        double uz = axis.z / horizontal;
+        CompiledConfig config = RailwayToolkitConfig.compiled();
+        int radius = config.surveyRadius;
+        int anchorX = Mth.floor(anchor.x);
+        int anchorY = Mth.floor(anchor.y);
+        int anchorZ = Mth.floor(anchor.z);
+        long key = fieldKey(anchorX, anchorY, anchorZ, ux, uz, radius, RailwayToolkitConfig.getGeneration());
+
+        if (key != fieldKey && key != pendingKey && key != failedKey) {
+            cancelPending();
+            RatingTable table = config.ratings;
+            AtomicBoolean cancelled = new AtomicBoolean();
+            pendingKey = key;
+            pendingCancelled = cancelled;
+            pending = CompletableFuture.supplyAsync(() -> prepare(key, anchor.x, anchor.z, ux, uz,
+                    anchorX - radius, anchorZ - radius, radius * 2, anchorY - 1, table, cancelled), pool);
+        }
+
+        if (pending != null && pending.isDone()) {
+            CompletableFuture<Prepared> done = pending;
+            long doneKey = pendingKey;
+            pending = null;
+            pendingCancelled = null;
+            pendingKey = 0;
+            if (done.isCompletedExceptionally()) {
+                failedKey = doneKey;
+                RailwayToolkit.LOGGER.error("Survey field computation failed", done.exceptionNow());
+            } else if (done.join() != null) {
+                show(done.join());
+            }
+        }
+
+        for (int i = 0; i < bandsShown; i++) {
+            Outliner.getInstance().keep(BAND_KEY + i);
+        }
+    }
+
+    /**
+     * Radius the field gives for a block, or 0 if no field is ready or the block is outside it.
+     */
+    public static double radiusAt(BlockPos pos) {
+        return field != null ? field.radiusAt(pos.getX(), pos.getZ()) : 0;
+    }
+
+    /**
+     * Rating tier the field gives for a block, or {@link RatingTable#INVALID} if there is none.
+     */
+    public static int ratingAt(BlockPos pos) {
+        return field != null ? field.tierAt(pos.getX(), pos.getZ()) : RatingTable.INVALID;
+    }
+
+    /**
+     * The rating table the current field was computed with, which may lag a config reload
+     * until the next field is ready.
+     */
+    public static RatingTable getRatings() {
+        return ratings;
+    }
+
+    public static void clear() {
+        cancelPending();
+        failedKey = 0;
+        FrameScheduler.cancel(JOB_KEY);
+        field = null;
+        ratings = null;
+        fieldKey = 0;
+        removeBands(0);
+    }
+
+    private static void cancelPending() {
+        if (pending != null) {
+            pendingCancelled.set(true);
+            pending.cancel(false);
+            pending = null;
+            pendingCancelled = null;
+            pendingKey = 0;
+        }
+    }
+
+    /**
+     * Compute the field, or return null once cancelled.
+     */
+    private static Prepared prepare(long key, double ax, double az, double ux, double uz,
+                                    int minX, int minZ, int size, int y, RatingTable table, AtomicBoolean cancelled) {
+        RadiusField computed = RadiusField.compute(ax, az, ux, uz, minX, minZ, size, table, cancelled, pool);
+        return cancelled.get() ? null : new Prepared(key, computed, table, y);
+    }
+
+    /**
+     * Switch lookups to the new field at once and queue the extraction of its band outlines.
+     */
+    private static void show(Prepared prepared) {
+        field = prepared.field();
+        ratings = prepared.ratings();
+        fieldKey = prepared.key();
+        FrameScheduler.submit(JOB_KEY, FrameScheduler.Priority.NORMAL, new Contours(prepared)::step);
+    }
+
+    /**
+     * Extracts the contour of each tier a few rows at a time and shows it as a band once it is
+     * complete.
+     */
+    private static final class Contours {
+        private final Prepared prepared;
+        private List<BlockPos> band = new ArrayList<>();
+        private int tier = 0;
+        private int row = 0;
+
+        Contours(Prepared prepared) {
+            this.prepared = prepared;
+        }
+
+        boolean step(long deadline) {
+            RadiusField computed = prepared.field();
+            int count = prepared.ratings().size();
+            while (tier < count) {
+                int to = Math.min(computed.size(), row + CONTOUR_ROWS);
+                for (long cell : computed.contour((byte) tier, row, to)) {
+                    band.add(new BlockPos((int) (cell >> 32), prepared.y(), (int) cell));
+                }
+                row = to;
+                if (row == computed.size()) {
+                    showBand(tier, band, prepared.ratings());
+                    band = new ArrayList<>();
+                    tier++;
+                    row = 0;
+                    bandsShown = Math.max(bandsShown, tier);
+                }
+                if (System.nanoTime() >= deadline) {
+                    break;
+                }
+            }
+            if (tier < count) {
+                return false;
+            }
+            // The tier count can shrink on config reload
+            removeBands(count);
+            bandsShown = count;
+            return true;
+        }
+    }
+
+    private static void showBand(int tier, List<BlockPos> band, RatingTable table) {
+        if (band.isEmpty()) {
+            Outliner.getInstance().remove(BAND_KEY + tier);
+            return;
+        }
+        Outliner.getInstance().showCluster(BAND_KEY + tier, band)
+                .withFaceTexture(AllSpecialTextures.THIN_CHECKERED)
+                .colored(table.color(tier))
+                .lineWidth(0);
+    }
+
+    private static void removeBands(int from) {
+        for (int i = from; i < bandsShown; i++) {
+            Outliner.getInstance().remove(BAND_KEY + i);
+        }
+        bandsShown = Math.min(bandsShown, from);
+    }
+
+    private static long fieldKey(int x, int y, int z, double ux, double uz, int radius, int generation) {
+        // FNV-1a over the inputs; 0 is reserved for "no field"
+        long key = 1469598103934665603L;
+        key = (key ^ x) * 1099511628211L;
+        key = (key ^ y) * 1099511628211L;
+        key = (key ^ z) * 1099511628211L;
+        key = (key ^ Math.round(ux * 1000)) * 1099511628211L;
+        key = (key ^ Math.round(uz * 1000)) * 1099511628211L;
+        key = (key ^ radius) * 1099511628211L;
+        key = (key ^ generation) * 1099511628211L;
+        return key == 0 ? 1 : key;
+    }
+}
@@ -0,0 +1,62 @@
+package com.railwaytoolkit.client;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder events for the mod's per-tick hot paths, emitted through {@link HotPaths}.
+ * They show up under "Railway Toolkit" in JDK Mission Control.
+ */
+public final class ToolkitEvents {
+
+    private ToolkitEvents() {
+    }
+
+    @Category("Railway Toolkit")
+    @StackTrace(false)
+    public abstract static class HotPathEvent extends Event {
+
+        @Label("tryConnect Calls")
+        @Description("Calls into Create's TrackPlacement.tryConnect made while the event ran")
+        int tryConnectCalls;
+
+        @Label("Cache Outcome")
+        @Description("Whether the path's cached result was reused (HIT), recomputed (MISS) or not consulted (NONE)")
+        String cacheOutcome;
+
+        @Label("Candidates")
+        @Description("Max radius highlight candidates shown")
+        int candidates;
+    }
+
+    @Name("railwaytoolkit.ClientTick")
+    @Label("Track Placement Tick")
+    public static final class ClientTick extends HotPathEvent {
+    }
+
+    @Name("railwaytoolkit.TryConnect")
+    @Label("Enforcement Check")
+    @Description("Curvature enforcement run after each client-side tryConnect")
+    public static final class TryConnect extends HotPathEvent {
+    }
+
+    @Name("railwaytoolkit.Display")
+    @Label("Curvature Display")
+    public static final class Display extends HotPathEvent {
+    }
+
+    @Name("railwaytoolkit.Highlight")
+    @Label("Max Radius Highlight")
+    public static final class Highlight extends HotPathEvent {
+    }
+
+    @Name("railwaytoolkit.Scheduler")
+    @Label("Scheduled Jobs")
+    @Description("Resumable jobs run by the frame scheduler within one frame's budget")
+    public static final class Scheduler extends HotPathEvent {
+    }
+}
@@ -0,0 +1,263 @@
+package com.railwaytoolkit.client;
+
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.VertexConsumer;
+import com.railwaytoolkit.RailwayToolkit;
+import com.railwaytoolkit.config.CompiledConfig;
+import com.railwaytoolkit.config.RailwayToolkitConfig;
+import com.railwaytoolkit.geometry.CubicBezier;
+import com.railwaytoolkit.route.TrackPlanner;
+import com.simibubi.create.AllSpecialTextures;
+import com.simibubi.create.content.trains.track.TrackBlock;
+import net.createmod.catnip.outliner.Outliner;
+import net.minecraft.ChatFormatting;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.Component;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.phys.BlockHitResult;
+import net.minecraft.world.phys.HitResult;
+import net.minecraft.world.phys.Vec3;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.client.event.ClientTickEvent;
+import net.neoforged.neoforge.client.event.RenderLevelStageEvent;
+import org.joml.Matrix4f;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plans a chain of track connections between two track blocks that all meet the enforced
+ * radius, and shows the result as a placement guide.
+ *
+ * {@code /railwaytoolkit plan start} and {@code plan end} pick the track blocks under the
+ * crosshair. The {@link TrackPlanner} search then runs as a low priority {@link FrameScheduler}
+ * job, a slice per frame, so a long search never stalls a frame. The finished plan is
+ * drawn as a line along the route, with the blocks where each connection starts and ends
+ * outlined. Client thread only.
+ */
+@EventBusSubscriber(modid = RailwayToolkit.MOD_ID, value = Dist.CLIENT)
+public final class TrackPlanGuide {
+
+    private static final String WAYPOINT_KEY = "railwaytoolkit_plan";
+    private static final String JOB_KEY = "plan";
+    private static final int SAMPLES_PER_SEGMENT = 16;
+    private static final int LINE_COLOR = 0x55FFFF;
+    /** Drawn just above the track surface. */
+    private static final double LINE_LIFT = 0.2;
+
+    private static BlockPos startPos = null;
+    private static int startHeading = 0;
+    private static TrackPlanner planner = null;
+    private static int plannedTier = -1;
+    private static long planStarted = 0;
+    private static int slices = 0;
+
+    // Finished guide: line points relative to the start block, and the outlined waypoints
+    private static float[] line = null;
+    private static boolean waypointsShown = false;
+
+    private TrackPlanGuide() {
+    }
+
+    /**
+     * Use the track block under the crosshair as the start of the next plan.
+     */
+    public static Component pickStart() {
+        BlockPos pos = targetedTrack();
+        if (pos == null) {
+            return Component.literal("Look at a track block to start the plan from").withStyle(ChatFormatting.RED);
+        }
+        clear();
+        startPos = pos;
+        startHeading = headingAt(pos);
+        return Component.literal("Plan starts at " + pos.toShortString() + "; now look at the end and use plan end");
+    }
+
+    /**
+     * Plan from the picked start to the track block under the crosshair at the enforced radius.
+     */
+    public static Component pickEnd() {
+        BlockPos goal = targetedTrack();
+        if (startPos == null) {
+            return Component.literal("Pick a start with plan start first").withStyle(ChatFormatting.RED);
+        }
+        if (goal == null) {
+            return Component.literal("Look at a track block to plan to").withStyle(ChatFormatting.RED);
+        }
+
+        clearGuide();
+        CompiledConfig config = RailwayToolkitConfig.compiled();
+        plannedTier = EnforcementHandler.getCurrentLevel();
+        double minRadius = config.ratings.minRadius(plannedTier);
+        planner = new TrackPlanner(startPos.getX(), startPos.getY(), startPos.getZ(), startHeading,
+                goal.getX(), goal.getY(), goal.getZ(), headingAt(goal), minRadius, config.radiusTolerance);
+        planStarted = System.nanoTime();
+        slices = 0;
+        if (planner.status() == TrackPlanner.Status.FAILED) {
+            planner = null;
+            return Component.literal("The end is too far from the start to plan").withStyle(ChatFormatting.RED);
+        }
+        FrameScheduler.submit(JOB_KEY, FrameScheduler.Priority.LOW, TrackPlanGuide::step);
+        return Component.literal(String.format("Planning at %s (R >= %.0f)...",
+                config.ratings.name(plannedTier), minRadius));
+    }
+
+    public static void clear() {
+        startPos = null;
+        planner = null;
+        FrameScheduler.cancel(JOB_KEY);
+        clearGuide();
+    }
+
+    private static void clearGuide() {
+        line = null;
+        if (waypointsShown) {
+            Outliner.getInstance().remove(WAYPOINT_KEY);
+            waypointsShown = false;
+        }
+    }
+
+    private static boolean step(long deadline) {
+        if (planner == null) {
+            return true;
+        }
+        slices++;
+        TrackPlanner.Status status = planner.step(deadline);
+        if (status == TrackPlanner.Status.RUNNING) {
+            return false;
+        }
+        finish(status);
+        return true;
+    }
+
+    @SubscribeEvent
+    public static void onClientTick(ClientTickEvent.Post event) {
+        if (waypointsShown) {
+            Outliner.getInstance().keep(WAYPOINT_KEY);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onRenderLevelStage(RenderLevelStageEvent event) {
+        if (line == null || startPos == null || event.getStage() != RenderLevelStageEvent.Stage.AFTER_TRANSLUCENT_BLOCKS) {
+            return;
+        }
+        Vec3 camera = event.getCamera().getPosition();
+        PoseStack poseStack = event.getPoseStack();
+        poseStack.pushPose();
+        poseStack.translate(startPos.getX() + 0.5 - camera.x, startPos.getY() - camera.y, startPos.getZ() + 0.5 - camera.z);
+        PoseStack.Pose pose = poseStack.last();
+        Matrix4f matrix = pose.pose();
+
+        MultiBufferSource.BufferSource buffers = Minecraft.getInstance().renderBuffers().bufferSource();
+        VertexConsumer consumer = buffers.getBuffer(RenderType.lines());
+        int r = (LINE_COLOR >> 16) & 0xFF;
+        int g = (LINE_COLOR >> 8) & 0xFF;
+        int b = LINE_COLOR & 0xFF;
+        for (int i = 0; i + 5 < line.length; i += 3) {
+            float nx = line[i + 3] - line[i];
+            float ny = line[i + 4] - line[i + 1];
+            float nz = line[i + 5] - line[i + 2];
+            float length = (float) Math.sqrt(nx * nx + ny * ny + nz * nz);
+            if (length == 0) {
+                continue;
+            }
+            nx /= length;
+            ny /= length;
+            nz /= length;
+            consumer.addVertex(matrix, line[i], line[i + 1], line[i + 2]).setColor(r, g, b, 255).setNormal(pose, nx, ny, nz);
+            consumer.addVertex(matrix, line[i + 3], line[i + 4], line[i + 5]).setColor(r, g, b, 255).setNormal(pose, nx, ny, nz);
+        }
+        buffers.endBatch(RenderType.lines());
+        poseStack.popPose();
+    }
+
+    private static void finish(TrackPlanner.Status status) {
+        TrackPlanner finished = planner;
+        planner = null;
+        Minecraft mc = Minecraft.getInstance();
+        if (mc.player == null) {
+            return;
+        }
+        long millis = (System.nanoTime() - planStarted) / 1_000_000;
+        TrackPlanner.Plan plan = finished.plan();
+        if (status != TrackPlanner.Status.FOUND || plan == null) {
+            mc.player.displayClientMessage(Component.literal(String.format(
+                    "No route meets the radius (%d states searched in %d ms)", finished.expanded(), millis))
+                    .withStyle(ChatFormatting.RED), false);
+            return;
+        }
+
+        buildGuide(plan);
+        CompiledConfig config = RailwayToolkitConfig.compiled();
+        double maxGrade = config.ratings.maxGrade(plannedTier);
+        double grade = plan.grade();
+        Component summary = Component.literal(String.format("Plan: %d connections, %d curves, %.0f blocks, %.1f%% grade",
+                        plan.waypoints() - 1, plan.curves(), plan.length(), grade))
+                .withStyle(ChatFormatting.AQUA)
+                .append(Component.literal(String.format("  (%d states, %d frames, %d ms)",
+                        finished.expanded(), slices, millis)).withStyle(ChatFormatting.GRAY));
+        mc.player.displayClientMessage(summary, false);
+        if (Math.abs(grade) > maxGrade) {
+            mc.player.displayClientMessage(Component.literal(String.format(
+                    "The height difference needs a %.1f%% grade, steeper than %s allows (%.1f%%)",
+                    Math.abs(grade), config.ratings.name(plannedTier), maxGrade)).withStyle(ChatFormatting.YELLOW), false);
+        }
+    }
+
+    /**
+     * Sample every segment into the guide line and outline the waypoints.
+     */
+    private static void buildGuide(TrackPlanner.Plan plan) {
+        int segments = plan.waypoints() - 1;
+        double[] curve = new double[CubicBezier.STRIDE];
+        double[] point = new double[3];
+        float[] points = new float[(segments * SAMPLES_PER_SEGMENT + 1) * 3];
+        List<BlockPos> waypoints = new ArrayList<>();
+        int at = 0;
+        double along = 0;
+        for (int i = 0; i < segments; i++) {
+            waypoints.add(BlockPos.containing(plan.x(i), plan.heightAt(along), plan.z(i)));
+            along += plan.segment(i, along, curve, 0);
+            for (int sample = i == 0 ? 0 : 1; sample <= SAMPLES_PER_SEGMENT; sample++) {
+                CubicBezier.point(curve, 0, sample / (double) SAMPLES_PER_SEGMENT, point, 0);
+                points[at++] = (float) (point[0] - startPos.getX());
+                points[at++] = (float) (point[1] - startPos.getY() + LINE_LIFT);
+                points[at++] = (float) (point[2] - startPos.getZ());
+            }
+        }
+        waypoints.add(BlockPos.containing(plan.x(segments), plan.heightAt(along), plan.z(segments)));
+        line = points;
+
+        Outliner.getInstance().showCluster(WAYPOINT_KEY, waypoints)
+                .withFaceTexture(AllSpecialTextures.THIN_CHECKERED)
+                .colored(LINE_COLOR)
+                .lineWidth(1 / 16f);
+        waypointsShown = true;
+    }
+
+    private static BlockPos targetedTrack() {
+        Minecraft mc = Minecraft.getInstance();
+        HitResult hit = mc.hitResult;
+        if (mc.level == null || hit == null || hit.getType() != HitResult.Type.BLOCK) {
+            return null;
+        }
+        BlockPos pos = ((BlockHitResult) hit).getBlockPos();
+        return mc.level.getBlockState(pos).getBlock() instanceof TrackBlock ? pos : null;
+    }
+
+    /**
+     * Planner heading of the first axis of the track at {@code pos}.
+     */
+    private static int headingAt(BlockPos pos) {
+        BlockState state = Minecraft.getInstance().level.getBlockState(pos);
+        Vec3 axis = state.getValue(TrackBlock.SHAPE).getAxes().get(0);
+        int heading = (int) Math.round(Math.atan2(axis.z, axis.x) / (Math.PI / 4));
+        return Math.floorMod(heading, TrackPlanner.HEADINGS);
+    }
+}
@@ -0,0 +1,161 @@
+package com.railwaytoolkit.config;
+
+import com.railwaytoolkit.RailwayToolkit;
+import com.railwaytoolkit.geometry.CurvatureEvaluator;
+import com.railwaytoolkit.rating.RatingTable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable primitive snapshot of the client config.
+ *
+ * Built once whenever the config loads or reloads, so hot paths read plain fields instead of
+ * going through {@code ModConfigSpec} values, and the rating tiers and enforcement level are
+ * parsed only once.
+ */
+public final class CompiledConfig {
+
+    // Survey mode stores tiers per block as bytes
+    private static final int MAX_TIERS = 127;
+
+    /** Used until the config file has been loaded, matching the spec defaults. */
+    public static final CompiledConfig DEFAULTS = new CompiledConfig(true, true, true, true, true, true, true, true,
+            legacyTable(60.0, 20.0, 7.0), "MAINLINE", 1.0E-4, true, false, true, 1.5, 3, 64, false, 64, true, false,
+            2000);
+
+    public final boolean showCurvatureRadius;
+    public final boolean showSlope;
+    public final boolean showCurvatureRating;
+    public final boolean showDecimalPlaces;
+    public final boolean showPanel;
+    public final boolean showHeatmap;
+    public final boolean showEarthworks;
+    public final boolean showJoints;
+    public final RatingTable ratings;
+    /** Tier enforced by default when the modifier is held. */
+    public final int defaultEnforcementTier;
+    public final double radiusTolerance;
+    public final boolean enableEnforcement;
+    public final boolean enforceClearance;
+    public final boolean checkClearance;
+    public final double clearanceHalfWidth;
+    public final int clearanceHeight;
+    public final int highlightRange;
+    public final boolean surveyMode;
+    public final int surveyRadius;
+    public final boolean recordPlacements;
+    public final boolean useVectorApi;
+    /** Evaluator selected by {@link #useVectorApi}, resolved once per snapshot. */
+    public final CurvatureEvaluator evaluator;
+    public final int frameBudgetMicros;
+
+    private CompiledConfig(boolean showCurvatureRadius, boolean showSlope, boolean showCurvatureRating,
+                           boolean showDecimalPlaces, boolean showPanel, boolean showHeatmap, boolean showEarthworks,
+                           boolean showJoints, RatingTable ratings, String enforcementLevel, double radiusTolerance,
+                           boolean enableEnforcement, boolean enforceClearance, boolean checkClearance,
+                           double clearanceHalfWidth, int clearanceHeight, int highlightRange, boolean surveyMode,
+                           int surveyRadius, boolean recordPlacements, boolean useVectorApi,
+                           int frameBudgetMicros) {
+        this.showCurvatureRadius = showCurvatureRadius;
+        this.showSlope = showSlope;
+        this.showCurvatureRating = showCurvatureRating;
+        this.showDecimalPlaces = showDecimalPlaces;
+        this.showPanel = showPanel;
+        this.showHeatmap = showHeatmap;
+        this.showEarthworks = showEarthworks;
+        this.showJoints = showJoints;
+        this.ratings = ratings;
+        this.defaultEnforcementTier = resolveEnforcementTier(ratings, enforcementLevel);
+        this.radiusTolerance = radiusTolerance;
+        this.enableEnforcement = enableEnforcement;
+        this.enforceClearance = enforceClearance;
+        this.checkClearance = checkClearance;
+        this.clearanceHalfWidth = clearanceHalfWidth;
+        this.clearanceHeight = clearanceHeight;
+        this.highlightRange = highlightRange;
+        this.surveyMode = surveyMode;
+        this.surveyRadius = surveyRadius;
+        this.recordPlacements = recordPlacements;
+        this.useVectorApi = useVectorApi;
+        this.evaluator = CurvatureEvaluator.select(useVectorApi);
+        this.frameBudgetMicros = frameBudgetMicros;
+    }
+
+    /**
+     * Compile the current values of the client config spec.
+     */
+    static CompiledConfig compile(RailwayToolkitConfig.ClientConfig config) {
+        RatingTable ratings = compileRatings(config.ratingTiers.get(), config.mainlineMinRadius.get(),
+                config.yardMinRadius.get(), config.absoluteMinRadius.get());
+        return new CompiledConfig(
+                config.showCurvatureRadius.get(),
+                config.showSlope.get(),
+                config.showCurvatureRating.get(),
+                config.showDecimalPlaces.get(),
+                config.showPanel.get(),
+                config.showHeatmap.get(),
+                config.showEarthworks.get(),
+                config.showJoints.get(),
+                ratings,
+                config.enforcementLevel.get(),
+                config.radiusTolerance.get(),
+                config.enableEnforcement.get(),
+                config.enforceClearance.get(),
+                config.checkClearance.get(),
+                config.clearanceHalfWidth.get(),
+                config.clearanceHeight.get(),
+                config.highlightRange.get(),
+                config.surveyMode.get(),
+                config.surveyRadius.get(),
+                config.recordPlacements.get(),
+                config.useVectorApi.get(),
+                config.frameBudgetMicros.get());
+    }
+
+    /**
+     * User-defined tiers if any are configured, otherwise the three classic thresholds.
+     */
+    static RatingTable compileRatings(List<? extends String> entries, double mainline, double yard,
+                                      double absolute) {
+        List<RatingTable.Tier> tiers = new ArrayList<>();
+        for (String entry : entries) {
+            RatingTable.Tier tier = RatingTable.parseTier(entry);
+            if (tier != null && tiers.size() < MAX_TIERS) {
+                tiers.add(tier);
+            } else {
+                RailwayToolkit.LOGGER.warn("Ignoring rating tier '{}'", entry);
+            }
+        }
+
+        if (tiers.isEmpty()) {
+            return legacyTable(mainline, yard, absolute);
+        }
+        return RatingTable.of(tiers);
+    }
+
+    static RatingTable legacyTable(double mainline, double yard, double absolute) {
+        return RatingTable.of(List.of(
+                new RatingTable.Tier("Mainline", mainline, 0x55FF55, Double.POSITIVE_INFINITY),
+                new RatingTable.Tier("Yard", yard, 0xFFFF55, Double.POSITIVE_INFINITY),
+                new RatingTable.Tier("Too Tight", absolute, 0xFFAA00, Double.POSITIVE_INFINITY)));
+    }
+
+    /**
+     * Match the enforcementLevel setting against tier names. The classic MAINLINE, YARD and
+     * ABSOLUTE values map to the widest, middle and tightest tier; anything else falls back
+     * to the widest tier.
+     */
+    private static int resolveEnforcementTier(RatingTable ratings, String level) {
+        int widest = ratings.size() - 1;
+        int named = ratings.indexOf(level.trim());
+        if (named != RatingTable.INVALID) {
+            return named;
+        }
+        return switch (level.trim().toUpperCase()) {
+            case "YARD" -> Math.max(0, widest - 1);
+            case "ABSOLUTE" -> 0;
+            default -> widest;
+        };
+    }
+}
@@ -0,0 +1,41 @@
+package com.railwaytoolkit.config;
+
+import com.railwaytoolkit.geometry.CurvatureEvaluator;
+import com.railwaytoolkit.geometry.MinimumRadius;
+import com.railwaytoolkit.rating.RatingTable;
+
+/**
+ * Immutable snapshot of the server config, the server's counterpart of {@link CompiledConfig}.
+ *
+ * Audits, the curvature index and route analysis rate and solve curves with these values, so a
+ * dedicated server never falls back to the defaults of a client config it does not load.
+ */
+public final class CompiledServerConfig {
+
+    /** Used until the server config has been loaded, matching the spec defaults. */
+    public static final CompiledServerConfig DEFAULTS = new CompiledServerConfig(
+            CompiledConfig.legacyTable(60.0, 20.0, 7.0), MinimumRadius.DEFAULT_TOLERANCE, false);
+
+    public final RatingTable ratings;
+    public final double radiusTolerance;
+    public final boolean useVectorApi;
+    /** Evaluator selected by {@link #useVectorApi}, resolved once per snapshot. */
+    public final CurvatureEvaluator evaluator;
+
+    private CompiledServerConfig(RatingTable ratings, double radiusTolerance, boolean useVectorApi) {
+        this.ratings = ratings;
+        this.radiusTolerance = radiusTolerance;
+        this.useVectorApi = useVectorApi;
+        this.evaluator = CurvatureEvaluator.select(useVectorApi);
+    }
+
+    /**
+     * Compile the current values of the server config spec.
+     */
+    static CompiledServerConfig compile(RailwayToolkitConfig.ServerConfig config) {
+        return new CompiledServerConfig(
+                CompiledConfig.compileRatings(config.ratingTiers.get(), 60.0, 20.0, 7.0),
+                config.radiusTolerance.get(),
+                config.useVectorApi.get());
+    }
+}
@@ -1,16 +1,62 @@
 package com.railwaytoolkit.config;
 
+import com.railwaytoolkit.rating.RatingTable;
+import net.neoforged.fml.event.config.ModConfigEvent;
 import net.neoforged.neoforge.common.ModConfigSpec;
 import org.apache.commons.lang3.tuple.Pair;
 
+import java.util.List;
+
 public class RailwayToolkitConfig {
     public static final ClientConfig CLIENT;
     public static final ModConfigSpec CLIENT_SPEC;
+    public static final ServerConfig SERVER;
+    public static final ModConfigSpec SERVER_SPEC;
 
     static {
         final Pair<ClientConfig, ModConfigSpec> specPair = new ModConfigSpec.Builder().configure(ClientConfig::new);
         CLIENT = specPair.getLeft();
         CLIENT_SPEC = specPair.getRight();
+        final Pair<ServerConfig, ModConfigSpec> serverPair = new ModConfigSpec.Builder().configure(ServerConfig::new);
+        SERVER = serverPair.getLeft();
+        SERVER_SPEC = serverPair.getRight();
+    }
+
+    // Bumped whenever the client config is loaded or reloaded, so cached display state can detect edits
+    private static volatile int generation = 0;
+    private static volatile CompiledConfig compiled = CompiledConfig.DEFAULTS;
+    private static volatile CompiledServerConfig compiledServer = CompiledServerConfig.DEFAULTS;
+
+    public static int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * The current client config as a plain snapshot. Prefer this over {@link #CLIENT} on hot paths.
+     */
+    public static CompiledConfig compiled() {
+        return compiled;
+    }
+
+    /**
+     * The current server config as a plain snapshot. Anything the server rates or solves reads
+     * this, never {@link #compiled()}, which a dedicated server does not load.
+     */
+    public static CompiledServerConfig compiledServer() {
+        return compiledServer;
+    }
+
+    /**
+     * Called on config load and reload to recompile the snapshot and invalidate anything
+     * derived from config values.
+     */
+    public static void onConfigChanged(ModConfigEvent event) {
+        if (event.getConfig().getSpec() == CLIENT_SPEC) {
+            compiled = CompiledConfig.compile(CLIENT);
+            generation++;
+        } else if (event.getConfig().getSpec() == SERVER_SPEC) {
+            compiledServer = CompiledServerConfig.compile(SERVER);
+        }
     }
 
     public static class ClientConfig {
@@ -18,19 +64,43 @@ public class RailwayToolkitConfig {
         public final ModConfigSpec.BooleanValue showCurvatureRadius;
         public final ModConfigSpec.BooleanValue showSlope;
         public final ModConfigSpec.BooleanValue showCurvatureRating;
+        public final ModConfigSpec.BooleanValue showPanel;
+        public final ModConfigSpec.BooleanValue showHeatmap;
+        public final ModConfigSpec.BooleanValue showEarthworks;
+        public final ModConfigSpec.BooleanValue showJoints;
 
         // Curvature thresholds (in blocks)
         public final ModConfigSpec.DoubleValue mainlineMinRadius;
         public final ModConfigSpec.DoubleValue yardMinRadius;
         public final ModConfigSpec.DoubleValue absoluteMinRadius;
+        public final ModConfigSpec.DoubleValue radiusTolerance;
+        public final ModConfigSpec.ConfigValue<List<? extends String>> ratingTiers;
 
         // Enforcement settings
         public final ModConfigSpec.BooleanValue enableEnforcement;
         public final ModConfigSpec.ConfigValue<String> enforcementLevel;
+        public final ModConfigSpec.BooleanValue enforceClearance;
+
+        // Clearance envelope
+        public final ModConfigSpec.BooleanValue checkClearance;
+        public final ModConfigSpec.DoubleValue clearanceHalfWidth;
+        public final ModConfigSpec.IntValue clearanceHeight;
 
         // Display format
         public final ModConfigSpec.BooleanValue showDecimalPlaces;
 
+        // Max radius highlight
+        public final ModConfigSpec.IntValue highlightRange;
+        public final ModConfigSpec.BooleanValue surveyMode;
+        public final ModConfigSpec.IntValue surveyRadius;
+
+        // Placement journal
+        public final ModConfigSpec.BooleanValue recordPlacements;
+
+        // Performance
+        public final ModConfigSpec.BooleanValue useVectorApi;
+        public final ModConfigSpec.IntValue frameBudgetMicros;
+
         ClientConfig(ModConfigSpec.Builder builder) {
             builder.comment("Create Railway Toolkit Client Configuration")
                    .push("display");
@@ -51,6 +121,24 @@ public class RailwayToolkitConfig {
                     .comment("Show decimal places in radius display")
                     .define("showDecimalPlaces", true);
 
+            showPanel = builder
+                    .comment("Show placement info in a panel beside the crosshair, leaving Create's action bar message alone",
+                            "When disabled, the info is appended to the action bar message instead")
+                    .define("showPanel", true);
+
+            showHeatmap = builder
+                    .comment("Colour the previewed curve by the rating of its local radius and grade, showing where an S-curve is tight")
+                    .define("showHeatmap", true);
+
+            showEarthworks = builder
+                    .comment("Show how many blocks must be filled under the track bed and cut above it along the previewed curve")
+                    .define("showEarthworks", true);
+
+            showJoints = builder
+                    .comment("Show the jump in curvature where the previewed curve joins existing track",
+                            "A jump sharper than entering the widest tier's radius from a straight is flagged as needing a transition")
+                    .define("showJoints", true);
+
             builder.pop();
 
             builder.comment("Curvature Rating Thresholds",
@@ -75,6 +163,19 @@ public class RailwayToolkitConfig {
                             "Create's built-in minimum is approximately 7 blocks for 90-degree turns")
                     .defineInRange("absoluteMinRadius", 7.0, 1.0, 100.0);
 
+            radiusTolerance = builder
+                    .comment("Error bound (in curve parameter t) when locating the minimum radius of S-curves",
+                            "Smaller values are more exact but take more refinement steps")
+                    .defineInRange("radiusTolerance", 1.0E-4, 1.0E-9, 0.1);
+
+            ratingTiers = builder
+                    .comment("Custom rating tiers, each written as \"Name;minRadius;#RRGGBB\" or \"Name;minRadius;#RRGGBB;maxGrade\"",
+                            "maxGrade is a slope in percent; steeper curves drop to the next tighter tier",
+                            "When empty, the three thresholds above are used as Mainline, Yard and Too Tight",
+                            "Example: [\"High Speed;120;#55FFFF;2\", \"Mainline;60;#55FF55\", \"Yard;20;#FFFF55\"]")
+                    .defineListAllowEmpty("ratingTiers", List.of(), () -> "Mainline;60;#55FF55",
+                            entry -> entry instanceof String text && RatingTable.parseTier(text) != null);
+
             builder.pop();
 
             builder.comment("Enforcement Settings",
@@ -87,59 +188,162 @@ public class RailwayToolkitConfig {
 
             enforcementLevel = builder
                     .comment("Which limit to enforce when Alt is held",
-                            "Valid values: MAINLINE, YARD, ABSOLUTE")
+                            "Valid values: MAINLINE, YARD, ABSOLUTE, or the name of a custom rating tier")
                     .define("enforcementLevel", "MAINLINE");
 
+            enforceClearance = builder
+                    .comment("While enforcing, also block curves whose clearance envelope is obstructed")
+                    .define("enforceClearance", false);
+
+            builder.pop();
+
+            builder.comment("Max Radius Highlight Settings",
+                           "Highlights where the second track point reaches the enforced radius")
+                   .push("highlight");
+
+            highlightRange = builder
+                    .comment("Longest leg of a turn (in blocks) the highlight will search along")
+                    .defineInRange("highlightRange", 64, 8, 256);
+
+            surveyMode = builder
+                    .comment("Show the full field of achievable radius around the first track point",
+                            "as Mainline, Yard and Too Tight bands instead of the single target highlight")
+                    .define("surveyMode", false);
+
+            surveyRadius = builder
+                    .comment("Half the width of the surveyed area (in blocks); 128 surveys 256x256 blocks")
+                    .defineInRange("surveyRadius", 64, 8, 128);
+
+            builder.pop();
+
+            builder.comment("Clearance Settings",
+                           "Space along the previewed curve that must be free of blocks and other track for a train")
+                   .push("clearance");
+
+            checkClearance = builder
+                    .comment("Sweep the clearance envelope along the previewed curve and outline the first obstruction",
+                            "With this and showEarthworks both off, the blocks around the curve are not sampled at all")
+                    .define("checkClearance", true);
+
+            clearanceHalfWidth = builder
+                    .comment("Blocks to either side of the track centre")
+                    .defineInRange("clearanceHalfWidth", 1.5, 0.5, 8.0);
+
+            clearanceHeight = builder
+                    .comment("Blocks above the track layer, which are also cut by the earthworks estimate")
+                    .defineInRange("clearanceHeight", 3, 1, 16);
+
+            builder.pop();
+
+            builder.comment("Placement Journal Settings")
+                   .push("journal");
+
+            recordPlacements = builder
+                    .comment("Append every track placement to a binary journal per world, summarised by /railwaytoolkit journal")
+                    .define("recordPlacements", true);
+
+            builder.pop();
+
+            builder.comment("Performance Settings")
+                   .push("performance");
+
+            useVectorApi = builder
+                    .comment("Evaluate curvature with SIMD instructions through Java's incubating Vector API",
+                            "when solving the minimum radius of placed curves and of /railwaytoolkit schematic checks.",
+                            "The highlight, survey and route planner always use the regular code;",
+                            "audits on a server follow the server config's own useVectorApi instead.",
+                            "Only takes effect when the game is started with --add-modules jdk.incubator.vector;",
+                            "otherwise the regular code is used")
+                    .define("useVectorApi", false);
+
+            frameBudgetMicros = builder
+                    .comment("Microseconds per frame spent on background work such as highlight searches,",
+                            "survey contours and route planning. Higher values finish that work sooner",
+                            "at the cost of frame time while it runs")
+                    .defineInRange("frameBudgetMicros", 2000, 100, 16000);
+
             builder.pop();
         }
     }
 
-    public enum CurvatureRating {
-        MAINLINE("Mainline", 0x00FF00),    // Green
-        YARD("Yard", 0xFFFF00),            // Yellow
-        TOO_TIGHT("Too Tight", 0xFF6600),  // Orange
-        INVALID("Invalid", 0xFF0000);      // Red
+    /**
+     * Settings only the server reads, kept per world.
+     */
+    public static class ServerConfig {
+        // Network ratings
+        public final ModConfigSpec.ConfigValue<List<? extends String>> ratingTiers;
+        public final ModConfigSpec.DoubleValue radiusTolerance;
 
-        private final String displayName;
-        private final int color;
+        // Route analysis
+        public final ModConfigSpec.DoubleValue lateralAcceleration;
+        public final ModConfigSpec.DoubleValue gradeSpeedPenalty;
 
-        CurvatureRating(String displayName, int color) {
-            this.displayName = displayName;
-            this.color = color;
-        }
+        // Performance
+        public final ModConfigSpec.BooleanValue useVectorApi;
+        public final ModConfigSpec.IntValue tickBudgetMicros;
 
-        public String getDisplayName() {
-            return displayName;
-        }
+        ServerConfig(ModConfigSpec.Builder builder) {
+            builder.comment("Create Railway Toolkit Server Configuration",
+                           "Network Rating Settings",
+                           "How /trackcheck audits, rates and lists the curves of the world's railways")
+                   .push("rating");
+
+            ratingTiers = builder
+                    .comment("Rating tiers, each written as \"Name;minRadius;#RRGGBB\" or \"Name;minRadius;#RRGGBB;maxGrade\"",
+                            "When empty, Mainline (60), Yard (20) and Too Tight (7) are used",
+                            "Example: [\"High Speed;120;#55FFFF;2\", \"Mainline;60;#55FF55\", \"Yard;20;#FFFF55\"]")
+                    .defineListAllowEmpty("ratingTiers", List.of(), () -> "Mainline;60;#55FF55",
+                            entry -> entry instanceof String text && RatingTable.parseTier(text) != null);
+
+            radiusTolerance = builder
+                    .comment("Error bound (in curve parameter t) when locating the minimum radius of S-curves")
+                    .defineInRange("radiusTolerance", 1.0E-4, 1.0E-9, 0.1);
 
-        public int getColor() {
-            return color;
+            builder.pop();
+
+            builder.comment("Route Analysis Settings",
+                           "How curves and grades limit train speed in route travel time estimates")
+                   .push("route");
+
+            lateralAcceleration = builder
+                    .comment("Sideways acceleration allowed in curves (in blocks/s^2)",
+                            "A curve of radius R is limited to sqrt(lateralAcceleration * R), and never faster",
+                            "than Create's turning top speed")
+                    .defineInRange("lateralAcceleration", 3.0, 0.1, 100.0);
+
+            gradeSpeedPenalty = builder
+                    .comment("Percent of speed lost per percent of grade, up or down",
+                            "0 ignores grades, as Create's own trains do")
+                    .defineInRange("gradeSpeedPenalty", 2.0, 0.0, 20.0);
+
+            builder.pop();
+
+            builder.comment("Performance Settings")
+                   .push("performance");
+
+            useVectorApi = builder
+                    .comment("Solve audited curves with SIMD instructions through Java's incubating Vector API",
+                            "Only takes effect when the server is started with --add-modules jdk.incubator.vector")
+                    .define("useVectorApi", false);
+
+            tickBudgetMicros = builder
+                    .comment("Microseconds per server tick spent on network audits and route analysis.",
+                            "Higher values finish them sooner at the cost of tick time while they run")
+                    .defineInRange("tickBudgetMicros", 2000, 100, 20000);
+
+            builder.pop();
         }
     }
 
-    public static CurvatureRating getRating(double radius) {
-        if (radius <= 0) {
-            return CurvatureRating.INVALID;
-        }
-        if (radius >= CLIENT.mainlineMinRadius.get()) {
-            return CurvatureRating.MAINLINE;
-        }
-        if (radius >= CLIENT.yardMinRadius.get()) {
-            return CurvatureRating.YARD;
-        }
-        if (radius >= CLIENT.absoluteMinRadius.get()) {
-            return CurvatureRating.TOO_TIGHT;
-        }
-        return CurvatureRating.INVALID;
+    /**
+     * Rating tier index for a radius, or {@link RatingTable#INVALID}.
+     */
+    public static int getRating(double radius) {
+        return compiled.ratings.rate(radius);
     }
 
     public static double getEnforcementMinRadius() {
-        String level = CLIENT.enforcementLevel.get().toUpperCase();
-        return switch (level) {
-            case "MAINLINE" -> CLIENT.mainlineMinRadius.get();
-            case "YARD" -> CLIENT.yardMinRadius.get();
-            case "ABSOLUTE" -> CLIENT.absoluteMinRadius.get();
-            default -> CLIENT.mainlineMinRadius.get();
-        };
+        CompiledConfig config = compiled;
+        return config.ratings.minRadius(config.defaultEnforcementTier);
     }
 }
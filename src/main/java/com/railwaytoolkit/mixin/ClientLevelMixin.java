@@ -0,0 +1,34 @@
+package com.railwaytoolkit.mixin;
+
+import com.railwaytoolkit.client.CurveTerrain;
+import com.railwaytoolkit.client.JointCheck;
+import com.railwaytoolkit.client.PlacementCache;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.state.BlockState;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Mixin to hear about client-side block changes, so cached placement results,
+ * track joints and sampled terrain near the changed block can be invalidated.
+ */
+@Mixin(ClientLevel.class)
+public class ClientLevelMixin {
+
+    /**
+     * Every block change the client renders goes through sendBlockUpdated,
+     * whether it came from the server or was predicted locally.
+     */
+    @Inject(method = "sendBlockUpdated", at = @At("HEAD"))
+    private void onSendBlockUpdated(BlockPos pos, BlockState oldState, BlockState newState, int flags,
+                                    CallbackInfo ci) {
+        if (oldState != newState) {
+            PlacementCache.onBlockChanged(pos);
+            JointCheck.onBlockChanged(pos);
+            CurveTerrain.onBlockChanged(pos);
+        }
+    }
+}
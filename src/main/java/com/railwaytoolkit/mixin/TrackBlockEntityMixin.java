@@ -0,0 +1,35 @@
+package com.railwaytoolkit.mixin;
+
+import com.railwaytoolkit.server.CurvatureIndexData;
+import com.simibubi.create.content.trains.track.BezierConnection;
+import com.simibubi.create.content.trains.track.TrackBlockEntity;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Mixin to keep the server's curvature index in step with curved track being
+ * connected and disconnected.
+ */
+@Mixin(value = TrackBlockEntity.class, remap = false)
+public abstract class TrackBlockEntityMixin {
+
+    @Inject(method = "addConnection", at = @At("TAIL"))
+    private void railwaytoolkit$onAddConnection(BezierConnection connection, CallbackInfo ci) {
+        TrackBlockEntity self = (TrackBlockEntity) (Object) this;
+        if (self.getLevel() instanceof ServerLevel level) {
+            CurvatureIndexData.get(level).put(connection);
+        }
+    }
+
+    @Inject(method = "removeConnection", at = @At("HEAD"))
+    private void railwaytoolkit$onRemoveConnection(BlockPos target, CallbackInfo ci) {
+        TrackBlockEntity self = (TrackBlockEntity) (Object) this;
+        if (self.getLevel() instanceof ServerLevel level) {
+            CurvatureIndexData.get(level).remove(self.getBlockPos(), target);
+        }
+    }
+}
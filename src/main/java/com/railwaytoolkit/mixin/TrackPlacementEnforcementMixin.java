@@ -1,6 +1,8 @@
 package com.railwaytoolkit.mixin;
 
 import com.railwaytoolkit.client.CurvatureDisplay;
+import com.railwaytoolkit.client.HotPaths;
+import com.railwaytoolkit.client.PlacementSnapshot;
 import com.railwaytoolkit.mixin.accessor.PlacementInfoAccessor;
 import com.simibubi.create.content.trains.track.BezierConnection;
 import com.simibubi.create.content.trains.track.TrackPlacement;
@@ -20,6 +22,10 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 @Mixin(value = TrackPlacement.class, remap = false)
 public class TrackPlacementEnforcementMixin {
 
+    // Radius of the last curve we checked, keyed by its endpoints and axes
+    private static long railwaytoolkit$lastCurveKey = 0;
+    private static double railwaytoolkit$lastRadius = 0;
+
     /**
      * Inject at the end of tryConnect to potentially invalidate the placement
      * if enforcement is active and the curve doesn't meet requirements.
@@ -32,7 +38,16 @@ public class TrackPlacementEnforcementMixin {
             return;
         }
 
-        TrackPlacement.PlacementInfo info = cir.getReturnValue();
+        HotPaths.countTryConnect();
+        HotPaths.begin(HotPaths.Path.TRY_CONNECT);
+        try {
+            railwaytoolkit$enforce(cir.getReturnValue());
+        } finally {
+            HotPaths.end();
+        }
+    }
+
+    private static void railwaytoolkit$enforce(TrackPlacement.PlacementInfo info) {
         if (info == null) {
             return;
         }
@@ -45,9 +60,31 @@ public class TrackPlacementEnforcementMixin {
             return;
         }
 
-        // Check if enforcement would block this placement (use our radius calculation for S-curves)
-        double radius = CurvatureDisplay.getMinimumRadius(curve);
-        if (CurvatureDisplay.shouldBlockPlacement(radius)) {
+        // Nothing can be blocked unless the modifier is held right now; the snapshot is a tick old
+        // and would let a placement through in the tick the modifier is pressed
+        if (!CurvatureDisplay.isEnforcementKeyHeld()) {
+            return;
+        }
+
+        // Check if enforcement would block this placement (use our radius calculation for S-curves),
+        // reusing the snapshot or last result when the curve geometry has not changed
+        PlacementSnapshot snapshot = PlacementSnapshot.current();
+        long curveKey = PlacementSnapshot.curveKey(curve);
+        double radius;
+        if (snapshot.getCurve() != null && curveKey == snapshot.getCurveKey()) {
+            radius = snapshot.getRadius();
+            HotPaths.cacheOutcome(HotPaths.CacheOutcome.HIT);
+        } else if (curveKey == railwaytoolkit$lastCurveKey) {
+            radius = railwaytoolkit$lastRadius;
+            HotPaths.cacheOutcome(HotPaths.CacheOutcome.HIT);
+        } else {
+            radius = CurvatureDisplay.getMinimumRadius(curve);
+            HotPaths.cacheOutcome(HotPaths.CacheOutcome.MISS);
+            railwaytoolkit$lastCurveKey = curveKey;
+            railwaytoolkit$lastRadius = radius;
+        }
+
+        if (CurvatureDisplay.shouldBlockPlacement(radius) || CurvatureDisplay.shouldBlockForClearance(curveKey)) {
             // Mark the placement as invalid
             accessor.setValid(false);
             accessor.setCurve(null);
@@ -1,7 +1,11 @@
 package com.railwaytoolkit.mixin;
 
 import com.railwaytoolkit.client.CurvatureDisplay;
+import com.railwaytoolkit.client.CurveTerrain;
+import com.railwaytoolkit.client.HotPaths;
+import com.railwaytoolkit.client.JointCheck;
 import com.railwaytoolkit.client.MaxRadiusHighlight;
+import com.railwaytoolkit.client.PlacementSnapshot;
 import com.simibubi.create.content.trains.track.TrackPlacement;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
@@ -22,10 +26,22 @@ public class TrackPlacementMixin {
      */
     @Inject(method = "clientTick", at = @At("TAIL"))
     private static void onClientTickEnd(CallbackInfo ci) {
-        // Update curvature display (this will overwrite Create's message with combined info)
-        CurvatureDisplay.displayCurvatureInfo();
+        HotPaths.begin(HotPaths.Path.CLIENT_TICK);
+        try {
+            // Capture the placement state once; consumers skip their work if it is unchanged
+            PlacementSnapshot snapshot = PlacementSnapshot.capture();
 
-        // Update max radius highlight
-        MaxRadiusHighlight.updateHighlight();
+            // Queue terrain sampling and check the joints of a new curve before the panel reads them
+            CurveTerrain.update(snapshot);
+            JointCheck.update(snapshot);
+
+            // Update curvature display (this will overwrite Create's message with combined info)
+            CurvatureDisplay.displayCurvatureInfo(snapshot);
+
+            // Update max radius highlight
+            MaxRadiusHighlight.updateHighlight(snapshot);
+        } finally {
+            HotPaths.end();
+        }
     }
 }
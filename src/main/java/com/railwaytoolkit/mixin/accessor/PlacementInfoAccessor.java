@@ -30,6 +30,12 @@ public interface PlacementInfoAccessor {
     @Accessor("end2")
     Vec3 getEnd2();
 
+    @Accessor("axis1")
+    Vec3 getAxis1();
+
+    @Accessor("axis2")
+    Vec3 getAxis2();
+
     @Accessor("message")
     String getMessage();
 }
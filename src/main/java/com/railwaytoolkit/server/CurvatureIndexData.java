@@ -0,0 +1,183 @@
+package com.railwaytoolkit.server;
+
+import com.railwaytoolkit.RailwayToolkit;
+import com.railwaytoolkit.config.CompiledServerConfig;
+import com.railwaytoolkit.config.RailwayToolkitConfig;
+import com.railwaytoolkit.geometry.CubicBezier;
+import com.railwaytoolkit.geometry.CurveProfile;
+import com.railwaytoolkit.geometry.MinimumRadius;
+import com.railwaytoolkit.rating.CurveIndex;
+import com.railwaytoolkit.rating.RatingTable;
+import com.railwaytoolkit.track.TrackCurves;
+import com.simibubi.create.content.trains.track.BezierConnection;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.saveddata.SavedData;
+import net.neoforged.fml.event.config.ModConfigEvent;
+import net.neoforged.neoforge.server.ServerLifecycleHooks;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Per-dimension persistent {@link CurveIndex} of every curved track connection.
+ *
+ * Kept up to date as track is placed and removed, and refreshed wholesale by
+ * {@code /trackcheck audit}. On disk each field is one packed long or int array, so saving and
+ * loading are a few array copies. The data is only read when first needed, not on world load.
+ * Server thread only.
+ */
+public class CurvatureIndexData extends SavedData {
+
+    private static final String NAME = RailwayToolkit.MOD_ID + "_curvature_index";
+    // Scratch for profiling single connections on the server thread
+    private static final double[] points = new double[CubicBezier.STRIDE];
+    private static MinimumRadius solver = new MinimumRadius();
+    // Every index read so far; weak so those of unloaded worlds are dropped
+    private static final Set<CurvatureIndexData> loaded = Collections.newSetFromMap(new WeakHashMap<>());
+
+    private final CurveIndex index;
+
+    private CurvatureIndexData(CurveIndex index) {
+        this.index = index;
+        loaded.add(this);
+    }
+
+    public static SavedData.Factory<CurvatureIndexData> factory() {
+        return new SavedData.Factory<>(() -> new CurvatureIndexData(new CurveIndex()), CurvatureIndexData::load, null);
+    }
+
+    public static CurvatureIndexData get(ServerLevel level) {
+        return level.getDataStorage().computeIfAbsent(factory(), NAME);
+    }
+
+    /**
+     * The index, rated against the current server config. Re-rating only happens after a config
+     * change.
+     */
+    public CurveIndex index() {
+        index.rerate(RailwayToolkitConfig.compiledServer().ratings);
+        return index;
+    }
+
+    /**
+     * Re-rate every loaded index once the server config is reloaded, on the server thread, so the
+     * tiers are current before the next command reads them.
+     */
+    public static void onConfigReloaded(ModConfigEvent.Reloading event) {
+        MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+        if (event.getConfig().getSpec() != RailwayToolkitConfig.SERVER_SPEC || server == null) {
+            return;
+        }
+        server.execute(() -> {
+            RatingTable ratings = RailwayToolkitConfig.compiledServer().ratings;
+            for (CurvatureIndexData data : loaded) {
+                data.index.rerate(ratings);
+            }
+        });
+    }
+
+    /**
+     * Add or replace a connection, profiling it here. Both track blocks of a connection
+     * add it, each with itself first, so only the copy whose first position is the lower of the
+     * pair is indexed and the curve is solved once.
+     */
+    public void put(BezierConnection curve) {
+        if (curve.bePositions.getFirst().asLong() > curve.bePositions.getSecond().asLong()) {
+            return;
+        }
+        CompiledServerConfig config = RailwayToolkitConfig.compiledServer();
+        CurveProfile profile = TrackCurves.profile(curve, points, solver(config), config.radiusTolerance);
+        if (profile.minRadius() <= 0) {
+            // Straight connections have nothing to rate
+            remove(curve.bePositions.getFirst(), curve.bePositions.getSecond());
+            return;
+        }
+        put(curve, profile.minRadius(), profile.maxGrade());
+    }
+
+    /**
+     * Add or replace a connection whose radius and grade are already known.
+     */
+    public void put(BezierConnection curve, double radius, double maxGrade) {
+        index.put(key(curve), curve.bePositions.getFirst().asLong(),
+                (float) radius, (float) maxGrade, (float) curve.getLength());
+        setDirty();
+    }
+
+    public void remove(BlockPos first, BlockPos second) {
+        if (index.remove(CurveIndex.connectionKey(first.asLong(), second.asLong()))) {
+            setDirty();
+        }
+    }
+
+    /**
+     * Drop connections that a completed audit no longer found in the railway graphs; an empty
+     * set empties the index.
+     */
+    public void retain(LongSet keys) {
+        if (index.retain(keys::contains) > 0) {
+            setDirty();
+        }
+    }
+
+    /**
+     * The shared solver, rebuilt when a config reload selects a different evaluator, so single
+     * connections are solved exactly as the audit's batches are.
+     */
+    private static MinimumRadius solver(CompiledServerConfig config) {
+        if (solver.evaluator() != config.evaluator) {
+            solver = new MinimumRadius(config.evaluator);
+        }
+        return solver;
+    }
+
+    public static long key(BezierConnection curve) {
+        return CurveIndex.connectionKey(curve.bePositions.getFirst().asLong(), curve.bePositions.getSecond().asLong());
+    }
+
+    @Override
+    public CompoundTag save(CompoundTag tag, HolderLookup.Provider registries) {
+        tag.putLongArray("Keys", index.keys());
+        tag.putLongArray("Positions", index.positions());
+        tag.putIntArray("Radii", toBits(index.radii()));
+        tag.putIntArray("Grades", toBits(index.grades()));
+        tag.putIntArray("Lengths", toBits(index.lengths()));
+        return tag;
+    }
+
+    private static CurvatureIndexData load(CompoundTag tag, HolderLookup.Provider registries) {
+        long[] keys = tag.getLongArray("Keys");
+        long[] positions = tag.getLongArray("Positions");
+        float[] radii = fromBits(tag.getIntArray("Radii"));
+        float[] grades = fromBits(tag.getIntArray("Grades"));
+        float[] lengths = fromBits(tag.getIntArray("Lengths"));
+        if (positions.length != keys.length || radii.length != keys.length
+                || grades.length != keys.length || lengths.length != keys.length) {
+            RailwayToolkit.LOGGER.warn("Discarding inconsistent curvature index; run /trackcheck audit to rebuild it");
+            return new CurvatureIndexData(new CurveIndex());
+        }
+        return new CurvatureIndexData(CurveIndex.of(keys, positions, radii, grades, lengths));
+    }
+
+    private static int[] toBits(float[] values) {
+        int[] bits = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bits[i] = Float.floatToRawIntBits(values[i]);
+        }
+        return bits;
+    }
+
+    private static float[] fromBits(int[] bits) {
+        float[] values = new float[bits.length];
+        for (int i = 0; i < bits.length; i++) {
+            values[i] = Float.intBitsToFloat(bits[i]);
+        }
+        return values;
+    }
+}
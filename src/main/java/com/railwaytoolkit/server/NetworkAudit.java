@@ -0,0 +1,340 @@
+package com.railwaytoolkit.server;
+
+import com.railwaytoolkit.RailwayToolkit;
+import com.railwaytoolkit.config.CompiledServerConfig;
+import com.railwaytoolkit.config.RailwayToolkitConfig;
+import com.railwaytoolkit.geometry.CubicBezier;
+import com.railwaytoolkit.geometry.CurvatureEvaluator;
+import com.railwaytoolkit.geometry.CurveProfile;
+import com.railwaytoolkit.geometry.ParallelRadius;
+import com.railwaytoolkit.rating.RatingTable;
+import com.railwaytoolkit.track.TrackCurves;
+import com.simibubi.create.Create;
+import com.simibubi.create.content.trains.graph.TrackEdge;
+import com.simibubi.create.content.trains.graph.TrackGraph;
+import com.simibubi.create.content.trains.graph.TrackNode;
+import com.simibubi.create.content.trains.graph.TrackNodeLocation;
+import com.simibubi.create.content.trains.track.BezierConnection;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.longs.LongSets;
+import net.minecraft.ChatFormatting;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.MutableComponent;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Audit of every curve in Create's railway graphs, run from {@code /trackcheck audit}.
+ *
+ * The server thread walks the graphs a slice per tick, within the configured tick budget, and
+ * copies each curved connection into a flat buffer. Circular arcs are rated straight away from
+ * Create's design radius; full buffers of other curves are solved on the common fork-join pool
+ * with {@link ParallelRadius}. Findings are queued by the workers and streamed to the command
+ * source a few lines per tick, followed by a summary once everything is solved. Every solved
+ * curve also refreshes its dimension's {@link CurvatureIndexData} on the server thread, and a
+ * completed audit drops index entries for connections that no longer exist.
+ */
+public final class NetworkAudit {
+
+    /** Curves handed to the pool at once. */
+    private static final int CHUNK = 1024;
+    private static final int LINES_PER_TICK = 8;
+    /** Findings listed in chat; the rest are only counted. */
+    private static final int MAX_LISTED = 200;
+
+    private static NetworkAudit active = null;
+
+    private final CommandSourceStack source;
+    private final RatingTable ratings;
+    private final double tolerance;
+    private final CurvatureEvaluator evaluator;
+    private final double belowRadius;
+    private final long startTime = System.nanoTime();
+
+    private final Iterator<TrackGraph> graphs;
+    private Iterator<TrackEdge> edges = null;
+
+    // Curves waiting to be handed to the pool, with what is needed to report them
+    private double[] curves = new double[CHUNK * CubicBezier.STRIDE];
+    private List<Pending> pending = new ArrayList<>(CHUNK);
+
+    private final ConcurrentLinkedQueue<Solved> solved = new ConcurrentLinkedQueue<>();
+    // Connections seen per dimension, for pruning the index once the walk is complete
+    private final Map<ResourceKey<Level>, LongSet> seen = new HashMap<>();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+
+    private int graphCount = 0;
+    private int curveCount = 0;
+    private int listed = 0;
+    // Findings per tier, shifted by one so RatingTable.INVALID lands at 0
+    private final int[] tierCounts;
+
+    private NetworkAudit(CommandSourceStack source, double belowRadius) {
+        CompiledServerConfig config = RailwayToolkitConfig.compiledServer();
+        this.source = source;
+        this.ratings = config.ratings;
+        this.tolerance = config.radiusTolerance;
+        this.evaluator = config.evaluator;
+        this.belowRadius = belowRadius;
+        this.tierCounts = new int[ratings.size() + 1];
+        this.graphs = new ArrayList<>(Create.RAILWAYS.trackNetworks.values()).iterator();
+    }
+
+    private record Pending(BezierConnection turn, ResourceKey<Level> dimension, double grade) {
+    }
+
+    /**
+     * A solved curve, flagged if it falls below the reported threshold.
+     */
+    private record Solved(BezierConnection turn, ResourceKey<Level> dimension, double radius, double grade,
+                          int tier, boolean below) {
+
+        BlockPos pos() {
+            return turn.bePositions.getFirst();
+        }
+    }
+
+    /**
+     * Start an audit reporting curves below {@code belowRadius}, or below the widest rating
+     * tier if it is 0. Returns false if an audit is already running.
+     */
+    public static boolean start(CommandSourceStack source, double belowRadius) {
+        if (active != null) {
+            return false;
+        }
+        active = new NetworkAudit(source, belowRadius);
+        return true;
+    }
+
+    /**
+     * Stop the running audit, also when the server stops, so no audit outlives its server.
+     * Returns false if none was running.
+     */
+    public static boolean cancel() {
+        if (active == null) {
+            return false;
+        }
+        active.cancelled.set(true);
+        active = null;
+        return true;
+    }
+
+    /**
+     * Advance the running audit by one server tick's budget.
+     */
+    public static void tick() {
+        NetworkAudit audit = active;
+        if (audit != null && audit.advance()) {
+            active = null;
+        }
+    }
+
+    /**
+     * Returns true once the audit has finished.
+     */
+    private boolean advance() {
+        long deadline = System.nanoTime() + RailwayToolkitConfig.SERVER.tickBudgetMicros.get() * 1_000L;
+        boolean walked = walk(deadline);
+        stream(deadline);
+        if (walked && running.get() == 0 && solved.isEmpty()) {
+            prune();
+            summarize();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Collect curves until the deadline. Returns true once every graph has been walked.
+     */
+    private boolean walk(long deadline) {
+        while (System.nanoTime() < deadline) {
+            if (edges == null || !edges.hasNext()) {
+                if (!graphs.hasNext()) {
+                    flush();
+                    return true;
+                }
+                edges = edgesOf(graphs.next());
+                graphCount++;
+                continue;
+            }
+            collect(edges.next());
+        }
+        return false;
+    }
+
+    private void collect(TrackEdge edge) {
+        // Every connection is stored once per direction; keep one of the two
+        if (!edge.isTurn() || edge.node1.getNetId() > edge.node2.getNetId()) {
+            return;
+        }
+        BezierConnection turn = edge.getTurn();
+        ResourceKey<Level> dimension = edge.node1.getLocation().getDimension();
+        seen.computeIfAbsent(dimension, key -> new LongOpenHashSet()).add(CurvatureIndexData.key(turn));
+        curveCount++;
+
+        // Loaded into the next free slot either way, for the grade; only kept there if it needs solving
+        int offset = pending.size() * CubicBezier.STRIDE;
+        TrackCurves.loadControlPoints(turn, curves, offset);
+        double designRadius = TrackCurves.designRadius(turn);
+        double grade = CurveProfile.of(curves, offset, CurveProfile.DEFAULT_SEGMENTS, designRadius, null, 0)
+                .maxGrade();
+
+        if (designRadius > 0) {
+            report(turn, dimension, designRadius, grade);
+            return;
+        }
+
+        pending.add(new Pending(turn, dimension, grade));
+        if (pending.size() == CHUNK) {
+            flush();
+        }
+    }
+
+    /**
+     * Hand the buffered curves to the pool.
+     */
+    private void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        double[] batch = curves;
+        List<Pending> batchPending = pending;
+        curves = new double[CHUNK * CubicBezier.STRIDE];
+        pending = new ArrayList<>(CHUNK);
+
+        running.incrementAndGet();
+        CompletableFuture.runAsync(() -> {
+            double[] radii = new double[batchPending.size()];
+            ParallelRadius.solve(batch, batchPending.size(), tolerance, radii, evaluator, cancelled,
+                    ForkJoinPool.commonPool());
+            for (int i = 0; i < radii.length && !cancelled.get(); i++) {
+                Pending curve = batchPending.get(i);
+                report(curve.turn(), curve.dimension(), radii[i], curve.grade());
+            }
+        }, ForkJoinPool.commonPool()).whenComplete((ignored, error) -> {
+            if (error != null) {
+                RailwayToolkit.LOGGER.error("Curvature audit batch failed", error);
+            }
+            running.decrementAndGet();
+        });
+    }
+
+    /**
+     * Queue a solved curve. Called from both the server thread and workers.
+     */
+    private void report(BezierConnection turn, ResourceKey<Level> dimension, double radius, double grade) {
+        if (radius <= 0) {
+            return;
+        }
+        int tier = ratings.rate(radius, grade);
+        boolean below = belowRadius > 0 ? radius < belowRadius : tier < ratings.size() - 1;
+        solved.add(new Solved(turn, dimension, radius, grade, tier, below));
+    }
+
+    /**
+     * Index solved curves and list those below the threshold, until the deadline or the
+     * per-tick line limit.
+     */
+    private void stream(long deadline) {
+        int lines = 0;
+        while (lines < LINES_PER_TICK || listed >= MAX_LISTED) {
+            if (System.nanoTime() > deadline) {
+                return;
+            }
+            Solved finding = solved.poll();
+            if (finding == null) {
+                return;
+            }
+            ServerLevel level = source.getServer().getLevel(finding.dimension());
+            if (level != null) {
+                CurvatureIndexData.get(level).put(finding.turn(), finding.radius(), finding.grade());
+            }
+            if (!finding.below()) {
+                continue;
+            }
+            tierCounts[finding.tier() + 1]++;
+            if (listed < MAX_LISTED) {
+                source.sendSuccess(() -> describe(finding), false);
+                listed++;
+                lines++;
+            }
+        }
+    }
+
+    private MutableComponent describe(Solved finding) {
+        BlockPos pos = finding.pos();
+        String location = pos.getX() + " " + pos.getY() + " " + pos.getZ();
+        return Component.literal("[" + ratings.name(finding.tier()) + "]")
+                .withColor(ratings.color(finding.tier()))
+                .append(ServerCommands.teleportLink(String.format(" R: %.1f  %.1f%%  at %s (%s)", finding.radius(),
+                        finding.grade(), location, finding.dimension().location()), finding.dimension(), pos));
+    }
+
+    /**
+     * Drop index entries the walk did not find, in every dimension, including those where no
+     * curve was found at all.
+     */
+    private void prune() {
+        for (ServerLevel level : source.getServer().getAllLevels()) {
+            CurvatureIndexData.get(level).retain(seen.getOrDefault(level.dimension(), LongSets.EMPTY_SET));
+        }
+    }
+
+    private void summarize() {
+        int total = 0;
+        for (int count : tierCounts) {
+            total += count;
+        }
+        long millis = (System.nanoTime() - startTime) / 1_000_000;
+        String threshold = belowRadius > 0
+                ? String.format("R < %.1f", belowRadius)
+                : "below " + ratings.name(ratings.size() - 1);
+
+        MutableComponent summary = Component.literal(String.format(
+                "Audited %d curves in %d graphs in %d ms: %d %s", curveCount, graphCount, millis, total, threshold))
+                .withStyle(ChatFormatting.GOLD);
+        for (int tier = ratings.size() - 1; tier >= RatingTable.INVALID; tier--) {
+            int count = tierCounts[tier + 1];
+            if (count > 0) {
+                summary.append(Component.literal("  " + ratings.name(tier) + ": " + count).withColor(ratings.color(tier)));
+            }
+        }
+        if (total > listed) {
+            summary.append(Component.literal(String.format("  (%d not listed)", total - listed))
+                    .withStyle(ChatFormatting.GRAY));
+        }
+        source.sendSuccess(() -> summary, true);
+    }
+
+    private static Iterator<TrackEdge> edgesOf(TrackGraph graph) {
+        List<TrackEdge> edges = new ArrayList<>();
+        for (TrackNodeLocation location : graph.getNodes()) {
+            TrackNode node = graph.locateNode(location);
+            if (node == null) {
+                continue;
+            }
+            Map<TrackNode, TrackEdge> connections = graph.getConnectionsFrom(node);
+            if (connections != null) {
+                edges.addAll(connections.values());
+            }
+        }
+        return edges.iterator();
+    }
+}
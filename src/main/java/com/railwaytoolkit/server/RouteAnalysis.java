@@ -0,0 +1,526 @@
+package com.railwaytoolkit.server;
+
+import com.mojang.brigadier.Command;
+import com.railwaytoolkit.config.CompiledServerConfig;
+import com.railwaytoolkit.config.RailwayToolkitConfig;
+import com.railwaytoolkit.geometry.CubicBezier;
+import com.railwaytoolkit.geometry.CurveProfile;
+import com.railwaytoolkit.geometry.MinimumRadius;
+import com.railwaytoolkit.route.SpeedProfile;
+import com.railwaytoolkit.track.TrackCurves;
+import com.simibubi.create.Create;
+import com.simibubi.create.content.trains.entity.Train;
+import com.simibubi.create.content.trains.entity.TravellingPoint;
+import com.simibubi.create.content.trains.graph.EdgePointType;
+import com.simibubi.create.content.trains.graph.TrackEdge;
+import com.simibubi.create.content.trains.graph.TrackGraph;
+import com.simibubi.create.content.trains.graph.TrackNode;
+import com.simibubi.create.content.trains.graph.TrackNodeLocation;
+import com.simibubi.create.content.trains.station.GlobalStation;
+import com.simibubi.create.infrastructure.config.AllConfigs;
+import net.createmod.catnip.data.Couple;
+import net.minecraft.ChatFormatting;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.MutableComponent;
+import net.minecraft.world.phys.Vec3;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.WeakHashMap;
+
+/**
+ * Travel time and speed profile of a route, run from {@code /trackcheck route}.
+ *
+ * The route is either the shortest path between two stations, found over Create's directed track
+ * edges, or the path a train is currently following. Each edge gets a speed limit from its
+ * minimum radius and steepest grade, and {@link SpeedProfile} turns the limits into a travel time
+ * using Create's train speeds and acceleration. The geometry of every edge is memoized on the edge
+ * itself; Create replaces the edges of track that is edited, so only those are solved again.
+ *
+ * One analysis runs at a time, advanced a slice per server tick within the configured tick budget:
+ * first the route search, then the geometry of its edges, and the report once both are done.
+ * An analysis whose network is removed or replaced in the meantime is abandoned. Server thread
+ * only.
+ */
+public final class RouteAnalysis {
+
+    /** Speed bands listed in the profile; the rest are only counted. */
+    private static final int PROFILE_LINES = 12;
+    private static final int BOTTLENECKS = 5;
+    /** Bottlenecks costing less than this many seconds are not worth listing. */
+    private static final double MIN_LOST_SECONDS = 0.5;
+    /** Adjacent segments whose limits differ by less than this share a profile band. */
+    private static final double BAND_TOLERANCE = 0.05;
+
+    // Geometry per directed edge; weak so edges Create has replaced are dropped
+    private static final Map<TrackEdge, EdgeGeometry> memo = new WeakHashMap<>();
+    private static final double[] points = new double[CubicBezier.STRIDE];
+    private static MinimumRadius solver = new MinimumRadius();
+    private static final SpeedProfile profile = new SpeedProfile();
+    private static final SpeedProfile unrestricted = new SpeedProfile();
+    private static int solvedEdges = 0;
+
+    private static RouteAnalysis active = null;
+
+    private final CommandSourceStack source;
+    private final String title;
+    private final TrackGraph graph;
+    private final double entrySpeed;
+    private final int solvedBefore = solvedEdges;
+    // Null once the route is known, or from the start for a train's own path
+    private final Search search;
+    private List<Segment> route;
+    private EdgeGeometry[] geometries;
+    private int measured = 0;
+
+    private RouteAnalysis(CommandSourceStack source, String title, TrackGraph graph, Search search,
+                          List<Segment> route, double entrySpeed) {
+        this.source = source;
+        this.title = title;
+        this.graph = graph;
+        this.search = search;
+        this.route = route;
+        this.entrySpeed = entrySpeed;
+    }
+
+    /**
+     * Minimum radius (0 for straight track) and steepest grade of an edge, with the length they
+     * were computed for so a changed edge is never served stale values.
+     */
+    private record EdgeGeometry(double length, double radius, double grade) {
+    }
+
+    /**
+     * Part of an edge the route runs along.
+     */
+    private record Segment(TrackEdge edge, double length) {
+    }
+
+    private record Queued(TrackEdge edge, double distance) {
+    }
+
+    /**
+     * Start analyzing the shortest route between two stations, matched by name ignoring case.
+     * Returns 0 if the stations are not found or another analysis is running.
+     */
+    public static int betweenStations(CommandSourceStack source, String fromName, String toName) {
+        if (isBusy(source)) {
+            return 0;
+        }
+        for (TrackGraph graph : Create.RAILWAYS.trackNetworks.values()) {
+            GlobalStation from = findStation(graph, fromName);
+            GlobalStation to = findStation(graph, toName);
+            if (from == null || to == null) {
+                continue;
+            }
+            active = new RouteAnalysis(source, from.name + " to " + to.name, graph, new Search(graph, from, to),
+                    null, 0);
+            return Command.SINGLE_SUCCESS;
+        }
+        source.sendFailure(Component.literal("No network has stations named both '" + fromName
+                + "' and '" + toName + "'"));
+        return 0;
+    }
+
+    /**
+     * Start analyzing the rest of the path a train is navigating, from its current position and
+     * speed. Returns 0 if the train is not found or another analysis is running.
+     */
+    public static int forTrain(CommandSourceStack source, String trainName) {
+        if (isBusy(source)) {
+            return 0;
+        }
+        for (Train train : Create.RAILWAYS.trains.values()) {
+            if (!train.name.getString().equalsIgnoreCase(trainName)) {
+                continue;
+            }
+            GlobalStation destination = train.navigation.destination;
+            if (destination == null || train.graph == null || train.carriages.isEmpty()) {
+                source.sendFailure(Component.literal(train.name.getString() + " is not travelling to a station"));
+                return 0;
+            }
+            List<Segment> route = trainRoute(train, destination);
+            if (route == null) {
+                source.sendFailure(Component.literal("The path of " + train.name.getString()
+                        + " is no longer in its network"));
+                return 0;
+            }
+            double speed = Math.abs(train.speed) * 20;
+            active = new RouteAnalysis(source, train.name.getString() + " to " + destination.name, train.graph,
+                    null, route, speed);
+            return Command.SINGLE_SUCCESS;
+        }
+        source.sendFailure(Component.literal("No train named '" + trainName + "'"));
+        return 0;
+    }
+
+    /**
+     * Advance the running analysis by one server tick's budget.
+     */
+    public static void tick() {
+        RouteAnalysis analysis = active;
+        if (analysis != null && analysis.advance()) {
+            active = null;
+        }
+    }
+
+    /**
+     * Drop the running analysis without reporting it.
+     */
+    public static void cancel() {
+        active = null;
+    }
+
+    private static boolean isBusy(CommandSourceStack source) {
+        if (active == null) {
+            return false;
+        }
+        source.sendFailure(Component.literal("A route analysis is already running"));
+        return true;
+    }
+
+    /**
+     * Returns true once the analysis has reported or been abandoned.
+     */
+    private boolean advance() {
+        long deadline = System.nanoTime() + RailwayToolkitConfig.SERVER.tickBudgetMicros.get() * 1_000L;
+        if (Create.RAILWAYS.trackNetworks.get(graph.id) != graph) {
+            source.sendFailure(Component.literal("The network of " + title + " changed during the analysis"));
+            return true;
+        }
+        if (route == null) {
+            if (!search.advance(deadline)) {
+                return false;
+            }
+            route = search.route();
+            if (route == null) {
+                source.sendFailure(Component.literal("No route from " + title));
+                return true;
+            }
+        }
+        if (geometries == null) {
+            geometries = new EdgeGeometry[route.size()];
+        }
+        while (measured < route.size()) {
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            geometries[measured] = geometry(route.get(measured).edge());
+            measured++;
+        }
+        report();
+        return true;
+    }
+
+    private static GlobalStation findStation(TrackGraph graph, String name) {
+        for (GlobalStation station : graph.getPoints(EdgePointType.STATION)) {
+            if (station.name.equalsIgnoreCase(name)) {
+                return station;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Dijkstra over directed edges, so a route never reverses through a junction, advanced until
+     * a deadline at a time. The distance of an edge is how far the train has travelled on
+     * reaching the end of it.
+     */
+    private static final class Search {
+        private final TrackGraph graph;
+        private final GlobalStation from;
+        private final GlobalStation to;
+        private final Map<TrackEdge, Double> best = new HashMap<>();
+        private final Map<TrackEdge, TrackEdge> previous = new HashMap<>();
+        private final PriorityQueue<Queued> queue =
+                new PriorityQueue<>((a, b) -> Double.compare(a.distance(), b.distance()));
+
+        private TrackEdge arrival = null;
+        private TrackEdge arrivalFrom = null;
+        private double arrivalDistance = Double.POSITIVE_INFINITY;
+
+        Search(TrackGraph graph, GlobalStation from, GlobalStation to) {
+            this.graph = graph;
+            this.from = from;
+            this.to = to;
+            for (TrackEdge start : stationEdges(graph, from)) {
+                double startAt = from.getLocationOn(start);
+                // Destination further along the edge the train starts on
+                if (isOn(to, start)) {
+                    double ahead = to.getLocationOn(start) - startAt;
+                    if (ahead > 0 && ahead < arrivalDistance) {
+                        arrival = start;
+                        arrivalFrom = null;
+                        arrivalDistance = ahead;
+                    }
+                }
+                double distance = start.getLength() - startAt;
+                best.put(start, distance);
+                queue.add(new Queued(start, distance));
+            }
+        }
+
+        /**
+         * Expand edges until the deadline. Returns true once the search is complete.
+         */
+        boolean advance(long deadline) {
+            while (!queue.isEmpty()) {
+                if (System.nanoTime() >= deadline) {
+                    return false;
+                }
+                Queued current = queue.poll();
+                if (current.distance() >= arrivalDistance) {
+                    queue.clear();
+                    break;
+                }
+                if (current.distance() > best.getOrDefault(current.edge(), Double.POSITIVE_INFINITY)) {
+                    continue;
+                }
+                Map<TrackNode, TrackEdge> connections = graph.getConnectionsFrom(current.edge().node2);
+                if (connections == null) {
+                    continue;
+                }
+                for (TrackEdge next : connections.values()) {
+                    if (!current.edge().canTravelTo(next)) {
+                        continue;
+                    }
+                    if (isOn(to, next)) {
+                        double candidate = current.distance() + to.getLocationOn(next);
+                        if (candidate < arrivalDistance) {
+                            arrival = next;
+                            arrivalFrom = current.edge();
+                            arrivalDistance = candidate;
+                        }
+                    }
+                    double distance = current.distance() + next.getLength();
+                    if (distance < best.getOrDefault(next, Double.POSITIVE_INFINITY)) {
+                        best.put(next, distance);
+                        previous.put(next, current.edge());
+                        queue.add(new Queued(next, distance));
+                    }
+                }
+            }
+            return true;
+        }
+
+        /**
+         * The shortest route once the search is complete, or null if there is none.
+         */
+        List<Segment> route() {
+            if (arrival == null) {
+                return null;
+            }
+            List<Segment> route = new ArrayList<>();
+            if (arrivalFrom == null) {
+                route.add(new Segment(arrival, arrivalDistance));
+                return route;
+            }
+            route.add(new Segment(arrival, to.getLocationOn(arrival)));
+            TrackEdge edge = arrivalFrom;
+            while (previous.containsKey(edge)) {
+                route.add(new Segment(edge, edge.getLength()));
+                edge = previous.get(edge);
+            }
+            route.add(new Segment(edge, edge.getLength() - from.getLocationOn(edge)));
+            Collections.reverse(route);
+            return route;
+        }
+    }
+
+    /**
+     * The rest of the leading carriage's edge, the edges of the navigation path, and the part of
+     * the last edge up to the destination.
+     */
+    private static List<Segment> trainRoute(Train train, GlobalStation destination) {
+        TravellingPoint leading = train.carriages.get(0).getLeadingPoint();
+        List<Segment> route = new ArrayList<>();
+        List<Couple<TrackNode>> path = train.navigation.currentPath;
+        if (path.isEmpty()) {
+            route.add(new Segment(leading.edge, destination.getLocationOn(leading.edge) - leading.position));
+            return route;
+        }
+
+        route.add(new Segment(leading.edge, leading.edge.getLength() - leading.position));
+        for (int i = 0; i < path.size(); i++) {
+            TrackEdge edge = edgeBetween(train.graph, path.get(i).getFirst(), path.get(i).getSecond());
+            if (edge == null) {
+                return null;
+            }
+            boolean last = i == path.size() - 1;
+            route.add(new Segment(edge, last ? destination.getLocationOn(edge) : edge.getLength()));
+        }
+        return route;
+    }
+
+    private static List<TrackEdge> stationEdges(TrackGraph graph, GlobalStation station) {
+        TrackNode first = graph.locateNode(station.edgeLocation.getFirst());
+        TrackNode second = graph.locateNode(station.edgeLocation.getSecond());
+        List<TrackEdge> edges = new ArrayList<>(2);
+        if (first != null && second != null) {
+            TrackEdge forward = edgeBetween(graph, first, second);
+            TrackEdge backward = edgeBetween(graph, second, first);
+            if (forward != null) {
+                edges.add(forward);
+            }
+            if (backward != null) {
+                edges.add(backward);
+            }
+        }
+        return edges;
+    }
+
+    private static boolean isOn(GlobalStation station, TrackEdge edge) {
+        Couple<TrackNodeLocation> location = station.edgeLocation;
+        return location.getFirst().equals(edge.node1.getLocation()) && location.getSecond().equals(edge.node2.getLocation())
+                || location.getFirst().equals(edge.node2.getLocation()) && location.getSecond().equals(edge.node1.getLocation());
+    }
+
+    private static TrackEdge edgeBetween(TrackGraph graph, TrackNode from, TrackNode to) {
+        Map<TrackNode, TrackEdge> connections = graph.getConnectionsFrom(from);
+        return connections != null ? connections.get(to) : null;
+    }
+
+    private static EdgeGeometry geometry(TrackEdge edge) {
+        EdgeGeometry geometry = memo.get(edge);
+        if (geometry != null && geometry.length() == edge.getLength()) {
+            return geometry;
+        }
+        double radius = 0;
+        double grade;
+        if (edge.isTurn()) {
+            CompiledServerConfig config = RailwayToolkitConfig.compiledServer();
+            if (solver.evaluator() != config.evaluator) {
+                solver = new MinimumRadius(config.evaluator);
+            }
+            CurveProfile profile = TrackCurves.profile(edge.getTurn(), points, solver, config.radiusTolerance);
+            radius = profile.minRadius();
+            grade = profile.maxGrade();
+        } else {
+            Vec3 start = edge.node1.getLocation().getLocation();
+            Vec3 end = edge.node2.getLocation().getLocation();
+            grade = CubicBezier.grade(start.x, start.y, start.z, end.x, end.y, end.z);
+        }
+        geometry = new EdgeGeometry(edge.getLength(), radius, grade);
+        memo.put(edge, geometry);
+        solvedEdges++;
+        return geometry;
+    }
+
+    private void report() {
+        double lateralAcceleration = RailwayToolkitConfig.SERVER.lateralAcceleration.get();
+        double gradeSpeedPenalty = RailwayToolkitConfig.SERVER.gradeSpeedPenalty.get();
+        double topSpeed = AllConfigs.server().trains.trainTopSpeed.getF();
+        double turnTopSpeed = AllConfigs.server().trains.trainTurningTopSpeed.getF();
+        double acceleration = AllConfigs.server().trains.trainAcceleration.getF();
+
+        int count = route.size();
+        double[] lengths = new double[count];
+        double[] limits = new double[count];
+        double[] topSpeeds = new double[count];
+        double distance = 0;
+        for (int i = 0; i < count; i++) {
+            EdgeGeometry geometry = geometries[i];
+            lengths[i] = Math.max(0, route.get(i).length());
+            limits[i] = SpeedProfile.curveLimit(geometry.radius(), lateralAcceleration, turnTopSpeed, topSpeed)
+                    * SpeedProfile.gradeFactor(geometry.grade(), gradeSpeedPenalty);
+            topSpeeds[i] = topSpeed;
+            distance += lengths[i];
+        }
+
+        double totalDistance = distance;
+        double time = profile.solve(lengths, limits, count, entrySpeed, acceleration);
+        double baseline = unrestricted.solve(lengths, topSpeeds, count, entrySpeed, acceleration);
+        int solved = solvedEdges - solvedBefore;
+
+        source.sendSuccess(() -> Component.literal(String.format("%s: %.0f blocks in %s, %s without curve and grade limits",
+                        title, totalDistance, formatTime(time), formatTime(baseline)))
+                .withStyle(ChatFormatting.GOLD)
+                .append(Component.literal(String.format("  (%d of %d edges evaluated)", solved, count))
+                        .withStyle(ChatFormatting.GRAY)), false);
+        sendProfile(source, lengths, limits, count);
+        sendBottlenecks(source, route, geometries, limits, topSpeed);
+    }
+
+    /**
+     * Merge runs of segments with the same limit into bands and list them in route order.
+     */
+    private static void sendProfile(CommandSourceStack source, double[] lengths, double[] limits, int count) {
+        int lines = 0;
+        int bands = 0;
+        double bandStart = 0;
+        double position = 0;
+        double bandPeak = 0;
+        double bandLimit = count > 0 ? limits[0] : 0;
+        for (int i = 0; i <= count; i++) {
+            boolean ends = i == count || Math.abs(limits[i] - bandLimit) > BAND_TOLERANCE;
+            if (ends && position > bandStart) {
+                bands++;
+                if (lines < PROFILE_LINES) {
+                    double from = bandStart;
+                    double to = position;
+                    double limit = bandLimit;
+                    double peak = bandPeak;
+                    source.sendSuccess(() -> Component.literal(String.format("  %.0f-%.0f: limit %.1f b/s, reaches %.1f b/s",
+                            from, to, limit, peak)).withStyle(ChatFormatting.GRAY), false);
+                    lines++;
+                }
+                bandStart = position;
+                bandPeak = 0;
+            }
+            if (i == count) {
+                break;
+            }
+            bandLimit = ends ? limits[i] : bandLimit;
+            bandPeak = Math.max(bandPeak, profile.peakSpeed(i));
+            position += lengths[i];
+        }
+        if (bands > lines) {
+            int hidden = bands - lines;
+            source.sendSuccess(() -> Component.literal(String.format("  (%d more bands)", hidden))
+                    .withStyle(ChatFormatting.GRAY), false);
+        }
+    }
+
+    /**
+     * List the limited segments that cost the most time against running at top speed.
+     */
+    private static void sendBottlenecks(CommandSourceStack source, List<Segment> route, EdgeGeometry[] geometries,
+                                        double[] limits, double topSpeed) {
+        List<Integer> limited = new ArrayList<>();
+        for (int i = 0; i < route.size(); i++) {
+            if (limits[i] < topSpeed && profile.time(i) - unrestricted.time(i) >= MIN_LOST_SECONDS) {
+                limited.add(i);
+            }
+        }
+        limited.sort((a, b) -> Double.compare(profile.time(b) - unrestricted.time(b),
+                profile.time(a) - unrestricted.time(a)));
+
+        for (int n = 0; n < Math.min(BOTTLENECKS, limited.size()); n++) {
+            int i = limited.get(n);
+            TrackEdge edge = route.get(i).edge();
+            EdgeGeometry geometry = geometries[i];
+            BlockPos pos = BlockPos.containing(edge.node1.getLocation().getLocation());
+            String cause = geometry.radius() > 0 ? String.format("R: %.1f", geometry.radius()) : "straight";
+            MutableComponent line = Component.literal(String.format("+%.1fs", profile.time(i) - unrestricted.time(i)))
+                    .withStyle(ChatFormatting.RED)
+                    .append(ServerCommands.teleportLink(String.format(" %s  %.1f%%  limit %.1f b/s  at %d %d %d",
+                                    cause, geometry.grade(), limits[i], pos.getX(), pos.getY(), pos.getZ()),
+                            edge.node1.getLocation().getDimension(), pos));
+            source.sendSuccess(() -> line, false);
+        }
+    }
+
+    private static String formatTime(double seconds) {
+        if (Double.isInfinite(seconds)) {
+            return "never";
+        }
+        long whole = Math.round(seconds);
+        return whole >= 60 ? String.format("%dm %02ds", whole / 60, whole % 60) : whole + "s";
+    }
+}
@@ -0,0 +1,177 @@
+package com.railwaytoolkit.server;
+
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.arguments.DoubleArgumentType;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import com.railwaytoolkit.RailwayToolkit;
+import com.railwaytoolkit.config.RailwayToolkitConfig;
+import com.railwaytoolkit.rating.CurveIndex;
+import com.railwaytoolkit.rating.RatingTable;
+import net.minecraft.ChatFormatting;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.ClickEvent;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.HoverEvent;
+import net.minecraft.network.chat.MutableComponent;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.RegisterCommandsEvent;
+import net.neoforged.neoforge.event.server.ServerStoppingEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+
+/**
+ * Server-side {@code /trackcheck} commands, and the ticking of the work they start.
+ * Kept apart from the client-only {@code /railwaytoolkit} commands.
+ */
+@EventBusSubscriber(modid = RailwayToolkit.MOD_ID)
+public final class ServerCommands {
+
+    public static final String ROOT = "trackcheck";
+    /** Entries listed by the index queries unless a count is given. */
+    private static final int DEFAULT_LISTED = 10;
+
+    private ServerCommands() {
+    }
+
+    @SubscribeEvent
+    public static void onRegisterCommands(RegisterCommandsEvent event) {
+        event.getDispatcher().register(Commands.literal(ROOT)
+                .requires(source -> source.hasPermission(Commands.LEVEL_GAMEMASTERS))
+                .then(Commands.literal("audit")
+                        .executes(context -> startAudit(context, 0))
+                        .then(Commands.literal("below")
+                                .then(Commands.argument("radius", DoubleArgumentType.doubleArg(1))
+                                        .executes(context -> startAudit(context,
+                                                DoubleArgumentType.getDouble(context, "radius")))))
+                        .then(Commands.literal("cancel")
+                                .executes(ServerCommands::cancelAudit)))
+                .then(Commands.literal("index")
+                        .executes(ServerCommands::indexSummary)
+                        .then(Commands.literal("below")
+                                .then(Commands.argument("radius", DoubleArgumentType.doubleArg(1))
+                                        .executes(context -> indexBelow(context,
+                                                DoubleArgumentType.getDouble(context, "radius")))))
+                        .then(Commands.literal("worst")
+                                .executes(context -> indexWorst(context, DEFAULT_LISTED))
+                                .then(Commands.argument("count", IntegerArgumentType.integer(1, 100))
+                                        .executes(context -> indexWorst(context,
+                                                IntegerArgumentType.getInteger(context, "count"))))))
+                .then(Commands.literal("route")
+                        .then(Commands.literal("stations")
+                                .then(Commands.argument("from", StringArgumentType.string())
+                                        .then(Commands.argument("to", StringArgumentType.string())
+                                                .executes(context -> RouteAnalysis.betweenStations(context.getSource(),
+                                                        StringArgumentType.getString(context, "from"),
+                                                        StringArgumentType.getString(context, "to"))))))
+                        .then(Commands.literal("train")
+                                .then(Commands.argument("name", StringArgumentType.greedyString())
+                                        .executes(context -> RouteAnalysis.forTrain(context.getSource(),
+                                                StringArgumentType.getString(context, "name")))))));
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(ServerTickEvent.Post event) {
+        NetworkAudit.tick();
+        RouteAnalysis.tick();
+    }
+
+    @SubscribeEvent
+    public static void onServerStopping(ServerStoppingEvent event) {
+        NetworkAudit.cancel();
+        RouteAnalysis.cancel();
+    }
+
+    private static int startAudit(CommandContext<CommandSourceStack> context, double belowRadius) {
+        if (!NetworkAudit.start(context.getSource(), belowRadius)) {
+            context.getSource().sendFailure(Component.literal("A curvature audit is already running"));
+            return 0;
+        }
+        context.getSource().sendSuccess(() -> Component.literal("Curvature audit started"), true);
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private static int cancelAudit(CommandContext<CommandSourceStack> context) {
+        if (!NetworkAudit.cancel()) {
+            context.getSource().sendFailure(Component.literal("No curvature audit is running"));
+            return 0;
+        }
+        context.getSource().sendSuccess(() -> Component.literal("Curvature audit cancelled"), true);
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private static int indexSummary(CommandContext<CommandSourceStack> context) {
+        ServerLevel level = context.getSource().getLevel();
+        CurveIndex index = CurvatureIndexData.get(level).index();
+        RatingTable ratings = RailwayToolkitConfig.compiledServer().ratings;
+        int[] counts = index.tierCounts();
+
+        MutableComponent summary = Component.literal(String.format("%d curves indexed in %s:",
+                index.size(), level.dimension().location())).withStyle(ChatFormatting.GOLD);
+        for (int tier = ratings.size() - 1; tier >= RatingTable.INVALID; tier--) {
+            if (counts[tier + 1] > 0) {
+                summary.append(Component.literal("  " + ratings.name(tier) + ": " + counts[tier + 1])
+                        .withColor(ratings.color(tier)));
+            }
+        }
+        context.getSource().sendSuccess(() -> summary, false);
+        return index.size();
+    }
+
+    private static int indexBelow(CommandContext<CommandSourceStack> context, double radius) {
+        CurveIndex index = CurvatureIndexData.get(context.getSource().getLevel()).index();
+        int count = index.countBelow(radius);
+        context.getSource().sendSuccess(() -> Component.literal(String.format("%d of %d indexed curves have R < %.1f",
+                count, index.size(), radius)).withStyle(ChatFormatting.GOLD), false);
+        listEntries(context.getSource(), index, Math.min(count, DEFAULT_LISTED));
+        return count;
+    }
+
+    private static int indexWorst(CommandContext<CommandSourceStack> context, int count) {
+        CurveIndex index = CurvatureIndexData.get(context.getSource().getLevel()).index();
+        int listed = Math.min(count, index.size());
+        if (listed == 0) {
+            context.getSource().sendFailure(Component.literal(
+                    "No curves indexed in this dimension; run /" + ROOT + " audit to build the index"));
+            return 0;
+        }
+        listEntries(context.getSource(), index, listed);
+        return listed;
+    }
+
+    /**
+     * List the first {@code count} entries of the index, which are the tightest curves.
+     */
+    private static void listEntries(CommandSourceStack source, CurveIndex index, int count) {
+        RatingTable ratings = RailwayToolkitConfig.compiledServer().ratings;
+        ResourceKey<Level> dimension = source.getLevel().dimension();
+        for (int i = 0; i < count; i++) {
+            BlockPos pos = BlockPos.of(index.position(i));
+            String location = pos.getX() + " " + pos.getY() + " " + pos.getZ();
+            int tier = index.tier(i);
+            MutableComponent line = Component.literal("[" + ratings.name(tier) + "]")
+                    .withColor(ratings.color(tier))
+                    .append(teleportLink(String.format(" R: %.1f  %.1f%%  %.1fm  at %s", index.radius(i),
+                            index.grade(i), index.length(i), location), dimension, pos));
+            source.sendSuccess(() -> line, false);
+        }
+    }
+
+    /**
+     * Grey text that suggests a command teleporting to {@code pos} in {@code dimension} when clicked.
+     */
+    static MutableComponent teleportLink(String text, ResourceKey<Level> dimension, BlockPos pos) {
+        String command = "/execute in " + dimension.location() + " run tp @s " + pos.getX() + " " + pos.getY()
+                + " " + pos.getZ();
+        return Component.literal(text).withStyle(style -> style
+                .withColor(ChatFormatting.GRAY)
+                .withClickEvent(new ClickEvent(ClickEvent.Action.SUGGEST_COMMAND, command))
+                .withHoverEvent(new HoverEvent(HoverEvent.Action.SHOW_TEXT, Component.literal("Click to teleport"))));
+    }
+}
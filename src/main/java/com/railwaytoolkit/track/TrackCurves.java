@@ -0,0 +1,60 @@
+package com.railwaytoolkit.track;
+
+import com.railwaytoolkit.geometry.CubicBezier;
+import com.railwaytoolkit.geometry.CurveProfile;
+import com.railwaytoolkit.geometry.MinimumRadius;
+import com.simibubi.create.content.trains.track.BezierConnection;
+import net.minecraft.world.phys.Vec3;
+
+/**
+ * Side-independent helpers between Create's {@link BezierConnection} and the curve kernel.
+ * Safe to use on a dedicated server.
+ */
+public final class TrackCurves {
+
+    private TrackCurves() {
+    }
+
+    /**
+     * Copy the control points of a connection into a kernel curve buffer.
+     */
+    public static void loadControlPoints(BezierConnection curve, double[] curves, int offset) {
+        Vec3 p0 = curve.starts.getFirst();
+        Vec3 p3 = curve.starts.getSecond();
+        Vec3 a0 = curve.axes.getFirst();
+        Vec3 a3 = curve.axes.getSecond();
+        CubicBezier.setTrackCurve(curves, offset,
+                p0.x, p0.y, p0.z, a0.x, a0.y, a0.z,
+                p3.x, p3.y, p3.z, a3.x, a3.y, a3.z,
+                curve.getHandleLength());
+    }
+
+    /**
+     * Create's exact design radius if the connection is a circular arc, otherwise 0,
+     * meaning the kernel has to solve for the minimum radius.
+     */
+    public static double designRadius(BezierConnection curve) {
+        double radius = curve.getRadius();
+        return radius > 0 ? radius : 0;
+    }
+
+    /**
+     * Profile of a connection, taking Create's design radius as the minimum radius of arcs and
+     * solving for it with {@code solver} otherwise. The control points are left in
+     * {@code scratch}, which must hold {@link CubicBezier#STRIDE} doubles.
+     */
+    public static CurveProfile profile(BezierConnection curve, double[] scratch, MinimumRadius solver,
+                                       double tolerance) {
+        loadControlPoints(curve, scratch, 0);
+        return CurveProfile.of(scratch, 0, CurveProfile.DEFAULT_SEGMENTS, designRadius(curve), solver, tolerance);
+    }
+
+    /**
+     * End-to-end grade of a connection, as a percentage.
+     */
+    public static double grade(BezierConnection curve) {
+        Vec3 start = curve.starts.getFirst();
+        Vec3 end = curve.starts.getSecond();
+        return CubicBezier.grade(start.x, start.y, start.z, end.x, end.y, end.z);
+    }
+}
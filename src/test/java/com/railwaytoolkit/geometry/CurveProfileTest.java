@@ -0,0 +1,52 @@
+package com.railwaytoolkit.geometry;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CurveProfileTest {
+
+    private static final double TOLERANCE = 1.0E-6;
+
+    @Test
+    void agreesWithTheRadiusSolver() {
+        double[] curve = new double[CubicBezier.STRIDE];
+        CubicBezier.setTrackCurve(curve, 0, 0, 0, 0, 1, 0, 0, 24, 0, 6, -1, 0, 0, 8);
+        MinimumRadius solver = new MinimumRadius();
+        double solved = solver.solve(curve, 0, TOLERANCE);
+        double t = solver.lastT();
+        CurveProfile profile = CurveProfile.of(curve, 0, CurveProfile.DEFAULT_SEGMENTS, 0, solver, TOLERANCE);
+        assertEquals(solved, profile.minRadius());
+        assertEquals(t, profile.minRadiusT());
+
+        for (double radius : new double[]{7, 20, 60}) {
+            double[] arc = MinimumRadiusTest.arc(radius, Math.PI / 2);
+            assertEquals(new MinimumRadius().solve(arc, 0, TOLERANCE), CurveProfile.of(arc, 0).minRadius(),
+                    radius * 0.001, "R " + radius);
+        }
+    }
+
+    @Test
+    void knownRadiusSkipsTheSearch() {
+        CurveProfile profile = CurveProfile.of(MinimumRadiusTest.arc(30, Math.PI / 2), 0,
+                CurveProfile.DEFAULT_SEGMENTS, 30, new MinimumRadius(), TOLERANCE);
+        assertEquals(30, profile.minRadius());
+    }
+
+    @Test
+    void withoutASolverOnlyTheGradeIsMeasured() {
+        double[] curve = new double[CubicBezier.STRIDE];
+        CubicBezier.setTrackCurve(curve, 0, 0, 0, 0, 1, 0, 0, 24, 4, 6, -1, 0, 0, 8);
+        CurveProfile profile = CurveProfile.of(curve, 0, CurveProfile.DEFAULT_SEGMENTS, 0, null, 0);
+        assertEquals(0, profile.minRadius());
+        assertEquals(CurveProfile.of(curve, 0).maxGrade(), profile.maxGrade());
+    }
+
+    @Test
+    void straightTrackHasNoRadiusButAGrade() {
+        double[] curve = {0, 0, 0, 10, 1, 0, 20, 2, 0, 30, 3, 0};
+        CurveProfile profile = CurveProfile.of(curve, 0);
+        assertEquals(0, profile.minRadius());
+        assertEquals(10, profile.maxGrade(), 1.0E-4);
+    }
+}
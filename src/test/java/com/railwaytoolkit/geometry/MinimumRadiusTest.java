@@ -0,0 +1,88 @@
+package com.railwaytoolkit.geometry;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MinimumRadiusTest {
+
+    private static final double TOLERANCE = 1.0E-6;
+
+    /**
+     * A turn of {@code angle} radians at radius {@code radius}, starting at the origin along +x
+     * and turning towards +z, with the handles Create gives a circular arc.
+     */
+    static double[] arc(double radius, double angle) {
+        double[] curve = new double[CubicBezier.STRIDE];
+        double handle = radius * 4 / 3.0 * Math.tan(angle / 4);
+        CubicBezier.setTrackCurve(curve, 0,
+                0, 0, 0, 1, 0, 0,
+                radius * Math.sin(angle), 0, radius * (1 - Math.cos(angle)), -Math.cos(angle), 0, -Math.sin(angle),
+                handle);
+        return curve;
+    }
+
+    @Test
+    void quarterArcsSolveToTheirRadius() {
+        // A cubic only approximates a circle; a quarter turn is within 1% of it
+        for (double radius : new double[]{7, 20, 60, 90}) {
+            double solved = new MinimumRadius().solve(arc(radius, Math.PI / 2), 0, TOLERANCE);
+            assertEquals(radius, solved, radius * 0.01, "R " + radius);
+        }
+    }
+
+    @Test
+    void eighthArcsSolveToTheirRadius() {
+        for (double radius : new double[]{7, 20, 60, 90}) {
+            double solved = new MinimumRadius().solve(arc(radius, Math.PI / 4), 0, TOLERANCE);
+            assertEquals(radius, solved, radius * 0.001, "R " + radius);
+        }
+    }
+
+    @Test
+    void straightTrackHasNoRadius() {
+        double[] curve = new double[CubicBezier.STRIDE];
+        CubicBezier.setTrackCurve(curve, 0, 0, 0, 0, 1, 0, 0, 30, 0, 0, -1, 0, 0, 10);
+        assertEquals(0, new MinimumRadius().solve(curve, 0, TOLERANCE));
+    }
+
+    @Test
+    void sCurveIsNoWiderThanAnySample() {
+        double[] curve = new double[CubicBezier.STRIDE];
+        CubicBezier.setTrackCurve(curve, 0, 0, 0, 0, 1, 0, 0, 24, 0, 6, -1, 0, 0, 8);
+        MinimumRadius solver = new MinimumRadius();
+        double solved = solver.solve(curve, 0, TOLERANCE);
+
+        double tightest = Double.MAX_VALUE;
+        for (int i = 0; i <= 10_000; i++) {
+            double radius = CubicBezier.radiusAt(curve, 0, i / 10_000.0);
+            if (radius > 0) {
+                tightest = Math.min(tightest, radius);
+            }
+        }
+        assertTrue(solved > 0);
+        assertTrue(solved <= tightest + 1.0E-6, solved + " wider than sampled " + tightest);
+        assertEquals(tightest, solved, 1.0E-3);
+        assertEquals(solved, CubicBezier.radiusAt(curve, 0, solver.lastT()), 1.0E-9);
+    }
+
+    @Test
+    void batchMatchesSingleSolves() {
+        int count = 100;
+        double[] curves = new double[count * CubicBezier.STRIDE];
+        for (int i = 0; i < count; i++) {
+            double[] curve = arc(7 + i, Math.PI / 4 + (i % 3) * Math.PI / 8);
+            System.arraycopy(curve, 0, curves, i * CubicBezier.STRIDE, CubicBezier.STRIDE);
+        }
+        double[] radii = new double[count];
+        double[] ts = new double[count];
+        new MinimumRadius().solveAll(curves, count, TOLERANCE, radii, ts);
+
+        MinimumRadius single = new MinimumRadius();
+        for (int i = 0; i < count; i++) {
+            assertEquals(single.solve(curves, i * CubicBezier.STRIDE, TOLERANCE), radii[i], 1.0E-9);
+            assertEquals(single.lastT(), ts[i], 1.0E-9);
+        }
+    }
+}
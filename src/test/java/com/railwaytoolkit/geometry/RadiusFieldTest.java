@@ -0,0 +1,34 @@
+package com.railwaytoolkit.geometry;
+
+import com.railwaytoolkit.rating.RatingTable;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RadiusFieldTest {
+
+    @Test
+    void contourInRowSlicesMatchesTheWholeContour() {
+        RatingTable table = RatingTable.of(List.of(
+                RatingTable.parseTier("Mainline;60;#55FF55"),
+                RatingTable.parseTier("Yard;20;#FFFF55")));
+        RadiusField field = RadiusField.compute(0.5, 0.5, 1, 0, -50, -50, 100, table, new AtomicBoolean(),
+                ForkJoinPool.commonPool());
+
+        assertTrue(field.contour((byte) 0).length > 0);
+        for (int tier = 0; tier < table.size(); tier++) {
+            long[] whole = field.contour((byte) tier);
+            LongStream sliced = LongStream.empty();
+            for (int row = 0; row < field.size(); row += 16) {
+                sliced = LongStream.concat(sliced, LongStream.of(field.contour((byte) tier, row, row + 16)));
+            }
+            assertArrayEquals(whole, sliced.toArray(), "tier " + tier);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.railwaytoolkit.nbt;
+
+import com.railwaytoolkit.geometry.ConnectionGeometry;
+import com.railwaytoolkit.geometry.CubicBezier;
+import com.railwaytoolkit.geometry.MinimumRadius;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reads {@code schematics/track_curves.nbt}, a gzip structure file laid out as Create saves a
+ * schematic: track block entities whose {@code Connections} hold the {@code Positions},
+ * {@code Starts}, {@code Axes} and {@code Normals} lists, {@code Primary}, {@code Girder} and
+ * {@code Material} that {@code BezierConnection.write} produces, next to a chest and plain blocks.
+ * It holds a quarter turn of radius 14.5 from (0, 0, 0) to (15, 0, 15) and a dark oak S-curve on
+ * girders from (0, 0, 20) to (24, 0, 26), each saved by both of its track blocks.
+ */
+class TrackNbtTest {
+
+    private static final String FIXTURE = "/schematics/track_curves.nbt";
+
+    private static List<TrackNbt.Connection> read(InputStream in, int[] blocks) throws IOException {
+        List<TrackNbt.Connection> connections = new ArrayList<>();
+        blocks[0] = TrackNbt.readStructure(in, connections::add);
+        return connections;
+    }
+
+    @Test
+    void readsBothCopiesOfEveryConnection() throws IOException {
+        int[] blocks = new int[1];
+        List<TrackNbt.Connection> connections;
+        try (InputStream in = TrackNbtTest.class.getResourceAsStream(FIXTURE)) {
+            connections = read(in, blocks);
+        }
+        assertEquals(7, blocks[0]);
+        assertEquals(4, connections.size());
+        assertEquals(2, connections.stream().filter(TrackNbt.Connection::primary).count());
+    }
+
+    @Test
+    void readsUncompressedFiles() throws IOException {
+        byte[] raw;
+        try (InputStream in = new GZIPInputStream(TrackNbtTest.class.getResourceAsStream(FIXTURE))) {
+            raw = in.readAllBytes();
+        }
+        assertEquals(4, read(new ByteArrayInputStream(raw), new int[1]).size());
+    }
+
+    @Test
+    void readsConnectionRelativeToItsBlock() throws IOException {
+        TrackNbt.Connection turn = primaryAt(0, 0, 0);
+        assertArrayEquals(new int[]{0, 0, 0, 15, 0, 15}, turn.positions());
+        double[] v = turn.vectors();
+        assertArrayEquals(new double[]{1, 0, 0.5, 15.5, 0, 15}, slice(v, 0, 6), 0);
+        assertArrayEquals(new double[]{1, 0, 0, 0, 0, -1}, slice(v, 6, 12), 0);
+        assertArrayEquals(new double[]{0, 1, 0, 0, 1, 0}, slice(v, 12, 18), 0);
+        assertFalse(turn.girder());
+        assertEquals("create:andesite", turn.material());
+
+        TrackNbt.Connection s = primaryAt(0, 0, 20);
+        assertArrayEquals(new int[]{0, 0, 0, 24, 0, 6}, s.positions());
+        assertTrue(s.girder());
+        assertEquals("create:dark_oak", s.material());
+    }
+
+    @Test
+    void secondaryCopyIsReversed() throws IOException {
+        TrackNbt.Connection copy = find(15, 0, 15, false);
+        assertArrayEquals(new int[]{0, 0, 0, -15, 0, -15}, copy.positions());
+        assertArrayEquals(new double[]{0.5, 0, 0, -14, 0, -14.5}, slice(copy.vectors(), 0, 6), 0);
+    }
+
+    @Test
+    void rebuildsTheSavedCurves() throws IOException {
+        TrackNbt.Connection turn = primaryAt(0, 0, 0);
+        assertEquals(14.5, ConnectionGeometry.designRadius(turn.vectors(), 0), 1.0E-9);
+
+        TrackNbt.Connection s = primaryAt(0, 0, 20);
+        assertEquals(0, ConnectionGeometry.designRadius(s.vectors(), 0));
+        double[] curve = new double[CubicBezier.STRIDE];
+        ConnectionGeometry.loadControlPoints(s.vectors(), 0, s.x(), s.y(), s.z(), curve, 0);
+        assertArrayEquals(new double[]{1, 0, 20.5}, slice(curve, 0, 3), 1.0E-12);
+        assertArrayEquals(new double[]{24, 0, 26.5}, slice(curve, 9, 12), 1.0E-12);
+        assertTrue(new MinimumRadius().solve(curve, 0, 1.0E-6) > 0);
+    }
+
+    private static TrackNbt.Connection primaryAt(int x, int y, int z) throws IOException {
+        return find(x, y, z, true);
+    }
+
+    private static TrackNbt.Connection find(int x, int y, int z, boolean primary) throws IOException {
+        try (InputStream in = TrackNbtTest.class.getResourceAsStream(FIXTURE)) {
+            return read(in, new int[1]).stream()
+                    .filter(c -> c.x() == x && c.y() == y && c.z() == z && c.primary() == primary)
+                    .findFirst()
+                    .orElseThrow();
+        }
+    }
+
+    private static double[] slice(double[] values, int from, int to) {
+        double[] slice = new double[to - from];
+        System.arraycopy(values, from, slice, 0, slice.length);
+        return slice;
+    }
+}
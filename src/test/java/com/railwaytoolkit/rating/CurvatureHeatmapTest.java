@@ -0,0 +1,85 @@
+package com.railwaytoolkit.rating;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CurvatureHeatmapTest {
+
+    private static final int SEGMENTS = 16;
+    private static final double EPSILON = 1.0E-4;
+
+    private static RatingTable table() {
+        return RatingTable.of(List.of(
+                RatingTable.parseTier("Mainline;60;#55FF55;3"),
+                RatingTable.parseTier("Yard;20;#FFFF55"),
+                RatingTable.parseTier("Tight;7;#FF5555")));
+    }
+
+    /**
+     * Quarter circle of radius {@code radius} from (0, y, 0) heading +x, turning towards +z and
+     * climbing {@code rise} blocks on the way.
+     */
+    private static double[] arc(double radius, double rise) {
+        double handle = radius * 4.0 / 3.0 * Math.tan(Math.PI / 8);
+        return new double[]{0, 0, 0, handle, rise / 3, 0, radius, rise * 2 / 3, radius - handle,
+                radius, rise, radius};
+    }
+
+    @Test
+    void colorsLevelArcsByRadius() {
+        RatingTable ratings = table();
+        CurvatureHeatmap yard = CurvatureHeatmap.build(arc(30, 0), 0, SEGMENTS, 0.5, 0.1, ratings);
+        CurvatureHeatmap mainline = CurvatureHeatmap.build(arc(90, 0), 0, SEGMENTS, 0.5, 0.1, ratings);
+        for (int i = 0; i < SEGMENTS; i++) {
+            assertEquals(30, yard.radius(i), 30 * 0.01);
+            assertEquals(1, yard.tier(i));
+            assertEquals(0xFFFF55, yard.color(i));
+            assertEquals(2, mainline.tier(i));
+            assertEquals(0, mainline.grade(i), EPSILON);
+        }
+    }
+
+    @Test
+    void steepSegmentsDropToATierThatAllowsTheGrade() {
+        // A 90 block arc is about 141 blocks long; rising 10 blocks is about 7%
+        CurvatureHeatmap heatmap = CurvatureHeatmap.build(arc(90, 10), 0, SEGMENTS, 0.5, 0.1, table());
+        for (int i = 0; i < SEGMENTS; i++) {
+            assertEquals(1, heatmap.tier(i));
+        }
+    }
+
+    @Test
+    void straightTrackTakesTheWidestTierUnlessSteep() {
+        double[] level = {0, 0, 0, 10, 0, 0, 20, 0, 0, 30, 0, 0};
+        double[] steep = {0, 0, 0, 10, 1, 0, 20, 2, 0, 30, 3, 0};
+        CurvatureHeatmap flat = CurvatureHeatmap.build(level, 0, SEGMENTS, 0.5, 0.1, table());
+        CurvatureHeatmap climbing = CurvatureHeatmap.build(steep, 0, SEGMENTS, 0.5, 0.1, table());
+        for (int i = 0; i < SEGMENTS; i++) {
+            assertEquals(0, flat.radius(i));
+            assertEquals(2, flat.tier(i));
+            assertEquals(10, climbing.grade(i), EPSILON);
+            assertEquals(1, climbing.tier(i));
+        }
+    }
+
+    @Test
+    void quadsFollowTheCurveRelativeToItsStart() {
+        double[] curve = {100, 64, 200, 110, 64, 200, 120, 64, 200, 130, 64, 200};
+        CurvatureHeatmap heatmap = CurvatureHeatmap.build(curve, 0, 3, 1, 0.25, table());
+        assertEquals(100, heatmap.originX());
+        assertEquals(3 * CurvatureHeatmap.QUAD_VERTICES * CurvatureHeatmap.VERTEX_STRIDE,
+                heatmap.vertices().length);
+
+        // Last quad: right and left at t = 2/3, then right and left at t = 1
+        float[] v = heatmap.vertices();
+        int last = 2 * CurvatureHeatmap.QUAD_VERTICES * CurvatureHeatmap.VERTEX_STRIDE;
+        assertEquals(20, v[last], EPSILON);
+        assertEquals(0.25, v[last + 1], EPSILON);
+        assertEquals(1, v[last + 2], EPSILON);
+        assertEquals(30, v[last + 6], EPSILON);
+        assertEquals(-1, v[last + 8], EPSILON);
+    }
+}
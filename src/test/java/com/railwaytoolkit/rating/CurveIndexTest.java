@@ -0,0 +1,123 @@
+package com.railwaytoolkit.rating;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CurveIndexTest {
+
+    private static CurveIndex filled(int count) {
+        CurveIndex index = new CurveIndex(2);
+        // Radii 1..count, inserted out of order
+        for (int i = 0; i < count; i++) {
+            int radius = (i * 7) % count + 1;
+            index.put(radius, radius * 10L, radius, 0, radius * 2);
+        }
+        return index;
+    }
+
+    private static void assertSorted(CurveIndex index) {
+        for (int i = 1; i < index.size(); i++) {
+            assertTrue(index.radius(i - 1) <= index.radius(i), "out of order at " + i);
+        }
+    }
+
+    @Test
+    void queriesInRadiusOrder() {
+        CurveIndex index = filled(100);
+        assertEquals(100, index.size());
+        assertSorted(index);
+        assertEquals(1, index.radius(0));
+        assertEquals(10, index.position(0));
+        assertEquals(2, index.length(0));
+        assertEquals(19, index.countBelow(20));
+        assertEquals(0, index.countBelow(1));
+        assertEquals(100, index.countBelow(1000));
+    }
+
+    @Test
+    void putReplacesByKey() {
+        CurveIndex index = filled(10);
+        index.put(3, 30, 50, 2, 6);
+        assertEquals(10, index.size());
+        assertSorted(index);
+        assertEquals(10, index.radius(8));
+        assertEquals(50, index.radius(9));
+        assertEquals(3, index.key(9));
+        assertEquals(2, index.countBelow(4));
+    }
+
+    @Test
+    void removeFillsTheSlot() {
+        CurveIndex index = filled(10);
+        assertTrue(index.remove(1));
+        assertFalse(index.remove(1));
+        assertFalse(index.contains(1));
+        assertTrue(index.contains(10));
+        assertEquals(9, index.size());
+        assertSorted(index);
+        assertEquals(2, index.radius(0));
+
+        // The entry moved into the freed slot is still found by its key
+        assertTrue(index.remove(10));
+        index.put(5, 55, 0.5f, 0, 1);
+        assertEquals(55, index.position(0));
+        assertEquals(8, index.size());
+    }
+
+    @Test
+    void retainCompactsAndKeepsKeys() {
+        CurveIndex index = filled(20);
+        assertEquals(10, index.retain(key -> key % 2 == 0));
+        assertEquals(10, index.size());
+        assertSorted(index);
+        assertEquals(2, index.radius(0));
+        for (long key = 1; key <= 20; key++) {
+            assertEquals(key % 2 == 0, index.contains(key));
+        }
+        assertTrue(index.remove(20));
+        assertEquals(9, index.size());
+    }
+
+    @Test
+    void roundTripsThroughArrays() {
+        CurveIndex index = filled(30);
+        index.remove(7);
+        CurveIndex copy = CurveIndex.of(index.keys(), index.positions(), index.radii(), index.grades(),
+                index.lengths());
+        assertEquals(29, copy.size());
+        assertSorted(copy);
+        for (int i = 0; i < copy.size(); i++) {
+            assertEquals(index.key(i), copy.key(i));
+        }
+        copy.put(7, 70, 7, 0, 14);
+        assertEquals(30, copy.size());
+    }
+
+    @Test
+    void ratesWithGrade() {
+        RatingTable table = RatingTable.of(List.of(
+                RatingTable.parseTier("Mainline;60;#55FF55;3"),
+                RatingTable.parseTier("Yard;20;#FFFF55")));
+        CurveIndex index = new CurveIndex();
+        index.put(1, 0, 90, 1, 10);
+        index.put(2, 0, 90, 5, 10);
+        index.put(3, 0, 10, 0, 10);
+        index.rerate(table);
+        int[] counts = index.tierCounts();
+        assertEquals(1, counts[0]);
+        assertEquals(1, counts[1]);
+        assertEquals(1, counts[2]);
+        assertEquals(RatingTable.INVALID, index.tier(0));
+    }
+
+    @Test
+    void connectionKeyIgnoresOrder() {
+        assertEquals(CurveIndex.connectionKey(5, 9), CurveIndex.connectionKey(9, 5));
+        assertTrue(CurveIndex.connectionKey(5, 9) != CurveIndex.connectionKey(5, 10));
+    }
+}
@@ -0,0 +1,58 @@
+package com.railwaytoolkit.rating;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RatingTableTest {
+
+    private static RatingTable table() {
+        return RatingTable.of(List.of(
+                RatingTable.parseTier("Mainline;60;#55FF55;3"),
+                RatingTable.parseTier("Yard;20;#FFFF55"),
+                RatingTable.parseTier("Tight;7;#FF5555")));
+    }
+
+    @Test
+    void parsesTiers() {
+        RatingTable.Tier tier = RatingTable.parseTier(" High Speed ; 120 ; #55FFFF ; 2 ");
+        assertEquals("High Speed", tier.name());
+        assertEquals(120, tier.minRadius());
+        assertEquals(0x55FFFF, tier.color());
+        assertEquals(2, tier.maxGrade());
+        assertEquals(Double.POSITIVE_INFINITY, RatingTable.parseTier("Yard;20;FFFF55").maxGrade());
+    }
+
+    @Test
+    void rejectsMalformedTiers() {
+        assertNull(RatingTable.parseTier("Yard;20"));
+        assertNull(RatingTable.parseTier("Yard;twenty;#FFFF55"));
+        assertNull(RatingTable.parseTier("Yard;0;#FFFF55"));
+        assertNull(RatingTable.parseTier(";20;#FFFF55"));
+        assertNull(RatingTable.parseTier("Yard;20;#FFFF55;-1"));
+        assertNull(RatingTable.parseTier("Yard;20;#FFFF55;1;2"));
+    }
+
+    @Test
+    void ratesByWidestTierMet() {
+        RatingTable table = table();
+        assertEquals(RatingTable.INVALID, table.rate(5));
+        assertEquals(RatingTable.INVALID, table.rate(0));
+        assertEquals(0, table.rate(7));
+        assertEquals(1, table.rate(20));
+        assertEquals(1, table.rate(59.9));
+        assertEquals(2, table.rate(60));
+        assertEquals("Mainline", table.name(2));
+    }
+
+    @Test
+    void gradeDropsToATierThatAllowsIt() {
+        RatingTable table = table();
+        assertEquals(2, table.rate(90, 3));
+        assertEquals(1, table.rate(90, -3.5));
+        assertEquals(1, table.rate(90, 10));
+    }
+}
@@ -0,0 +1,45 @@
+package com.railwaytoolkit.route;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SpeedProfileTest {
+
+    private static final double EPSILON = 1.0E-9;
+
+    @Test
+    void timesAnUnrestrictedRun() {
+        // 0 -> 10 b/s over 50 blocks, cruise 100 blocks, 10 -> 0 over 50 blocks
+        SpeedProfile profile = new SpeedProfile();
+        double time = profile.solve(new double[]{200}, new double[]{10}, 1, 0, 1);
+        assertEquals(10 + 10 + 10, time, EPSILON);
+        assertEquals(10, profile.peakSpeed(0), EPSILON);
+    }
+
+    @Test
+    void brakesForSlowerSegmentAhead() {
+        SpeedProfile profile = new SpeedProfile();
+        profile.solve(new double[]{200, 50}, new double[]{10, 2}, 2, 0, 1);
+        assertEquals(2, profile.entrySpeed(1), EPSILON);
+        assertEquals(0, profile.entrySpeed(2), EPSILON);
+    }
+
+    @Test
+    void entrySpeedIsLimitedByBrakingDistance() {
+        // Entering at 10 b/s with 2 blocks left to stop in, the train can only be doing 2 b/s
+        SpeedProfile profile = new SpeedProfile();
+        double time = profile.solve(new double[]{2}, new double[]{20}, 1, 10, 1);
+        assertEquals(2, profile.entrySpeed(0), EPSILON);
+        assertEquals(2, time, EPSILON);
+    }
+
+    @Test
+    void limitsCurvesAndGrades() {
+        assertEquals(Math.sqrt(3 * 12), SpeedProfile.curveLimit(12, 3, 18, 28), EPSILON);
+        assertEquals(18, SpeedProfile.curveLimit(1000, 3, 18, 28), EPSILON);
+        assertEquals(28, SpeedProfile.curveLimit(0, 3, 18, 28), EPSILON);
+        assertEquals(0.9, SpeedProfile.gradeFactor(-5, 2), EPSILON);
+        assertEquals(SpeedProfile.MIN_GRADE_FACTOR, SpeedProfile.gradeFactor(50, 2), EPSILON);
+    }
+}
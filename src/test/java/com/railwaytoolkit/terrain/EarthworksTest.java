@@ -0,0 +1,62 @@
+package com.railwaytoolkit.terrain;
+
+import com.railwaytoolkit.geometry.TrackFootprint;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EarthworksTest {
+
+    private static final int LEVEL = 64;
+    private static final int MAX_DEPTH = 16;
+    private static final int CLEARANCE = 3;
+
+    /**
+     * A straight, level run along z = 8 over columns x = 1..14, all inside one section column.
+     */
+    private static TrackFootprint straight() {
+        double[] curve = {1, LEVEL, 8.5, 5, LEVEL, 8.5, 10, LEVEL, 8.5, 14, LEVEL, 8.5};
+        return TrackFootprint.of(curve, 0, 0);
+    }
+
+    /**
+     * Ground three blocks below the track for x < 8 and none within reach beyond, with one
+     * block inside the clearance at x = 2.
+     */
+    private static SectionOccupancy terrain() {
+        SectionOccupancy occupancy = new SectionOccupancy();
+        long[] below = SectionOccupancy.newBitmap();
+        for (int x = 0; x < 8; x++) {
+            SectionOccupancy.set(below, SectionOccupancy.index(x, LEVEL - 4, 8));
+        }
+        occupancy.put(SectionOccupancy.sectionKey(0, LEVEL - 16, 0), below);
+        long[] above = SectionOccupancy.newBitmap();
+        SectionOccupancy.set(above, SectionOccupancy.index(2, LEVEL + 1, 8));
+        occupancy.put(SectionOccupancy.sectionKey(0, LEVEL, 0), above);
+        return occupancy;
+    }
+
+    @Test
+    void unsupportedColumnsAddNoFill() {
+        TrackFootprint footprint = straight();
+        assertEquals(14, footprint.count());
+
+        Earthworks earthworks = Earthworks.estimate(footprint, terrain(), CLEARANCE, MAX_DEPTH);
+        assertEquals(14, earthworks.columns());
+        assertEquals(0, earthworks.skipped());
+        assertEquals(7, earthworks.unsupported());
+        assertEquals(7 * 3, earthworks.fill());
+        assertEquals(1, earthworks.cut());
+    }
+
+    @Test
+    void skipsColumnsReachingUnknownSections() {
+        SectionOccupancy occupancy = new SectionOccupancy();
+        occupancy.putUniform(SectionOccupancy.sectionKey(0, LEVEL, 0), false);
+
+        Earthworks earthworks = Earthworks.estimate(straight(), occupancy, CLEARANCE, MAX_DEPTH);
+        assertEquals(0, earthworks.columns());
+        assertEquals(14, earthworks.skipped());
+        assertEquals(0, earthworks.fill());
+    }
+}
@@ -0,0 +1,118 @@
+package com.railwaytoolkit.geometry;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link CurvatureEvaluator} on the incubating Vector API, one SIMD lane per parameter or per curve.
+ *
+ * Uses the same arithmetic as {@link CubicBezier#curvature}, lane by lane; elements that do not
+ * fill a whole vector fall through to the scalar code. Only loaded through
+ * {@link CurvatureEvaluator#select}, since it cannot link without {@code jdk.incubator.vector}.
+ */
+final class VectorCurvatureEvaluator implements CurvatureEvaluator {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    // Offsets of consecutive curves in a flat buffer, for gathering one coordinate per lane
+    private final int[] laneOffsets = new int[SPECIES.length()];
+
+    VectorCurvatureEvaluator() {
+        for (int lane = 0; lane < laneOffsets.length; lane++) {
+            laneOffsets[lane] = lane * CubicBezier.STRIDE;
+        }
+    }
+
+    @Override
+    public void sample(double[] c, int o, double[] ts, int count, double[] out) {
+        // Per-axis differences of the control points are shared by every lane
+        double ax = c[o + 3] - c[o], bx = c[o + 6] - c[o + 3], cx = c[o + 9] - c[o + 6];
+        double ay = c[o + 4] - c[o + 1], by = c[o + 7] - c[o + 4], cy = c[o + 10] - c[o + 7];
+        double az = c[o + 5] - c[o + 2], bz = c[o + 8] - c[o + 5], cz = c[o + 11] - c[o + 8];
+        double ex = c[o + 6] - 2 * c[o + 3] + c[o], fx = c[o + 9] - 2 * c[o + 6] + c[o + 3];
+        double ey = c[o + 7] - 2 * c[o + 4] + c[o + 1], fy = c[o + 10] - 2 * c[o + 7] + c[o + 4];
+        double ez = c[o + 8] - 2 * c[o + 5] + c[o + 2], fz = c[o + 11] - 2 * c[o + 8] + c[o + 5];
+
+        int bound = SPECIES.loopBound(count);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector t = DoubleVector.fromArray(SPECIES, ts, i);
+            DoubleVector mt = t.neg().add(1);
+            DoubleVector k1 = mt.mul(mt).mul(3);
+            DoubleVector k2 = mt.mul(t).mul(6);
+            DoubleVector k3 = t.mul(t).mul(3);
+            DoubleVector s1 = mt.mul(6);
+            DoubleVector s2 = t.mul(6);
+
+            DoubleVector d1x = k1.mul(ax).add(k2.mul(bx)).add(k3.mul(cx));
+            DoubleVector d1y = k1.mul(ay).add(k2.mul(by)).add(k3.mul(cy));
+            DoubleVector d1z = k1.mul(az).add(k2.mul(bz)).add(k3.mul(cz));
+            DoubleVector d2x = s1.mul(ex).add(s2.mul(fx));
+            DoubleVector d2y = s1.mul(ey).add(s2.mul(fy));
+            DoubleVector d2z = s1.mul(ez).add(s2.mul(fz));
+
+            curvature(d1x, d1y, d1z, d2x, d2y, d2z).intoArray(out, i);
+        }
+        for (; i < count; i++) {
+            out[i] = CubicBezier.curvature(c, o, ts[i]);
+        }
+    }
+
+    @Override
+    public void sampleCurves(double[] c, int first, int count, double t, double[] out, int outOffset) {
+        double mt = 1 - t;
+        double k1 = 3 * mt * mt;
+        double k2 = 6 * mt * t;
+        double k3 = 3 * t * t;
+        double s1 = 6 * mt;
+        double s2 = 6 * t;
+
+        int bound = SPECIES.loopBound(count);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            int o = (first + i) * CubicBezier.STRIDE;
+            DoubleVector p0x = gather(c, o), p0y = gather(c, o + 1), p0z = gather(c, o + 2);
+            DoubleVector p1x = gather(c, o + 3), p1y = gather(c, o + 4), p1z = gather(c, o + 5);
+            DoubleVector p2x = gather(c, o + 6), p2y = gather(c, o + 7), p2z = gather(c, o + 8);
+            DoubleVector p3x = gather(c, o + 9), p3y = gather(c, o + 10), p3z = gather(c, o + 11);
+
+            DoubleVector d1x = p1x.sub(p0x).mul(k1).add(p2x.sub(p1x).mul(k2)).add(p3x.sub(p2x).mul(k3));
+            DoubleVector d1y = p1y.sub(p0y).mul(k1).add(p2y.sub(p1y).mul(k2)).add(p3y.sub(p2y).mul(k3));
+            DoubleVector d1z = p1z.sub(p0z).mul(k1).add(p2z.sub(p1z).mul(k2)).add(p3z.sub(p2z).mul(k3));
+            DoubleVector d2x = p2x.sub(p1x.mul(2)).add(p0x).mul(s1).add(p3x.sub(p2x.mul(2)).add(p1x).mul(s2));
+            DoubleVector d2y = p2y.sub(p1y.mul(2)).add(p0y).mul(s1).add(p3y.sub(p2y.mul(2)).add(p1y).mul(s2));
+            DoubleVector d2z = p2z.sub(p1z.mul(2)).add(p0z).mul(s1).add(p3z.sub(p2z.mul(2)).add(p1z).mul(s2));
+
+            curvature(d1x, d1y, d1z, d2x, d2y, d2z).intoArray(out, outOffset + i);
+        }
+        for (; i < count; i++) {
+            out[outOffset + i] = CubicBezier.curvature(c, (first + i) * CubicBezier.STRIDE, t);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "vector " + SPECIES.length() + "x" + SPECIES.elementSize();
+    }
+
+    private DoubleVector gather(double[] c, int offset) {
+        return DoubleVector.fromArray(SPECIES, c, offset, laneOffsets, 0);
+    }
+
+    /**
+     * |B' × B''| / |B'|³ per lane, 0 where the curve is degenerate.
+     */
+    private static DoubleVector curvature(DoubleVector d1x, DoubleVector d1y, DoubleVector d1z,
+                                          DoubleVector d2x, DoubleVector d2y, DoubleVector d2z) {
+        DoubleVector speed = d1x.mul(d1x).add(d1y.mul(d1y)).add(d1z.mul(d1z)).sqrt();
+        DoubleVector crossX = d1y.mul(d2z).sub(d1z.mul(d2y));
+        DoubleVector crossY = d1z.mul(d2x).sub(d1x.mul(d2z));
+        DoubleVector crossZ = d1x.mul(d2y).sub(d1y.mul(d2x));
+        DoubleVector cross = crossX.mul(crossX).add(crossY.mul(crossY)).add(crossZ.mul(crossZ)).sqrt();
+
+        VectorMask<Double> degenerate = speed.compare(VectorOperators.LT, CubicBezier.MIN_SPEED);
+        return cross.div(speed.mul(speed).mul(speed)).blend(0.0, degenerate);
+    }
+}